@@ -1,70 +1,282 @@
 package com.example;
 
+import com.example.driver.ChromeOptionsBuilder;
+import com.example.driver.ChromeOptionsBuilder.Profile;
+import com.example.driver.DriverFactory;
+import com.example.driver.DriverPool;
+import com.example.log.Log;
+import com.example.monitor.MetricsServer;
+import com.example.monitor.MonitorMetrics;
+import com.example.monitor.SyntheticMonitor;
+import com.example.network.TrafficReplay;
+import com.example.report.PerformanceBudgets;
+import com.example.report.RunReport;
+import com.example.report.StepRecord;
+import com.example.report.StepTimer;
+import com.example.scenario.Checkpoint;
+import com.example.scenario.DataSource;
+import com.example.scenario.RowScenario;
+import com.example.scenario.Scenario;
+import com.example.scenario.ScenarioReport;
+import com.example.scenario.ScenarioRunner;
+import com.example.wait.AdaptiveWait;
+import com.example.wait.PageConditions;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import io.github.bonigarcia.wdm.WebDriverManager;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class SeleniumDemo {
     public static void main(String[] args) {
-        // Setup ChromeDriver automatically
-        WebDriverManager.chromedriver().setup();
+        // Resolve ChromeDriver from the local cache, or with -Dselenium.grid=local|<url> run browsers on a grid
+        DriverFactory browsers = DriverFactory.configured();
+        Log.info("Browsers: {}", browsers);
 
-        // Configure Chrome options
-        ChromeOptions options = new ChromeOptions();
-        // Remove --headless to see the browser
-        options.addArguments("--headless");
-        options.addArguments("--start-maximized");
-        options.addArguments("--disable-blink-features=AutomationControlled");
+        // Configure Chrome options; -Dchrome.profile=FAST trades images and fonts for startup time
+        // Use .headless(false).maximized() to see the browser
+        ChromeOptions options = ChromeOptionsBuilder.profile(Profile.selected(Profile.STANDARD)).build();
 
-        // Create WebDriver instance
-        WebDriver driver = new ChromeDriver(options);
+        // -Ddemo.data=urls.csv smoke-tests every URL in a CSV/JSONL file over a pool of browsers
+        String data = System.getProperty("demo.data");
+        if (data != null) {
+            runData(browsers, options, Path.of(data));
+            return;
+        }
+
+        // -Ddemo.monitor=true keeps a browser warm and repeats the flow on a schedule, with metrics over HTTP
+        if (Boolean.getBoolean("demo.monitor")) {
+            runMonitor(browsers, options);
+            return;
+        }
+
+        // -Ddemo.scenarios=N runs the flow N times over a pool of browsers instead of once
+        int scenarios = Integer.getInteger("demo.scenarios", 0);
+        if (scenarios > 0) {
+            runScenarios(browsers, options, scenarios);
+            return;
+        }
+
+        // Create WebDriver instance, instrumented so each step's commands are timed
+        WebDriver browser = browsers.chrome(options);
+        StepTimer steps = new StepTimer("SeleniumDemo.main");
+        WebDriver driver = steps.instrument(browser);
 
         // Set up explicit wait
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        AdaptiveWait wait = new AdaptiveWait(driver, Duration.ofSeconds(10));
+        steps.track(wait);
+
+        // -Dtraffic.mode=record|replay records example.com and IANA once, then replays them offline
+        TrafficReplay traffic = null;
 
         try {
-            System.out.println("Navigating to example.com...");
-            driver.get("https://example.com");
+            traffic = TrafficReplay.configured(browser, "SeleniumDemo");
 
-            // Wait for page to load
-            wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
+            navigate(driver, steps, wait, true);
 
-            String title = driver.getTitle();
-            System.out.println("Page title: " + title);
+            steps.finish();
+            Log.info("✓ Selenium demo completed successfully!");
+            Log.info(wait.summary());
+
+        } catch (Exception e) {
+            steps.fail();
+            Log.error("Error occurred", e);
+        } finally {
+            closeTraffic(traffic);
+            browser.quit();
+            Log.info("Browser closed.");
+            writeReport(steps.records());
+        }
+    }
+
+    // example.com, then IANA (the site example.com used to link to), one step per page visit and read
+    private static void navigate(WebDriver driver, StepTimer steps, AdaptiveWait wait, boolean verbose) {
+        steps.start("navigate to example.com");
+        log(verbose, "Navigating to example.com...");
+        driver.get("https://example.com");
 
-            WebElement heading = wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("h1")));
-            System.out.println("Heading text: " + heading.getText());
+        // Wait for page to load, then hold the load to the page's performance budget
+        wait.until("example.com body", ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
+        PerformanceBudgets.configured().check(driver).ifPresent(result -> log(verbose, "Timing: " + result));
 
-            // Get page body text (example.com no longer has the "More information..." link)
-            WebElement body = driver.findElement(By.tagName("body"));
-            System.out.println("Page content: " + body.getText());
+        steps.start("read example.com");
+        String title = driver.getTitle();
+        log(verbose, "Page title: " + title);
 
-            // Navigate to IANA (the site example.com used to link to)
-            System.out.println("\nNavigating to IANA website...");
-            driver.get("https://www.iana.org/domains/reserved");
+        WebElement heading = wait.until("example.com heading",
+                ExpectedConditions.presenceOfElementLocated(By.tagName("h1")));
+        log(verbose, "Heading text: " + heading.getText());
 
-            // Wait for new page to load
-            wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("h1")));
-            Thread.sleep(2000);
+        // Get page body text (example.com no longer has the "More information..." link)
+        WebElement body = driver.findElement(By.tagName("body"));
+        log(verbose, "Page content: " + body.getText());
 
-            System.out.println("New page title: " + driver.getTitle());
-            System.out.println("Current URL: " + driver.getCurrentUrl());
+        steps.start("navigate to IANA");
+        log(verbose, "\nNavigating to IANA website...");
+        driver.get("https://www.iana.org/domains/reserved");
+
+        // Wait for new page to load and settle
+        wait.until("IANA heading", ExpectedConditions.presenceOfElementLocated(By.tagName("h1")));
+        wait.until("IANA page settled", PageConditions.pageSettled());
+        PerformanceBudgets.configured().check(driver).ifPresent(result -> log(verbose, "Timing: " + result));
+
+        steps.start("read IANA");
+        log(verbose, "New page title: " + driver.getTitle());
+        log(verbose, "Current URL: " + driver.getCurrentUrl());
+    }
+
+    // Each scenario is a virtual thread; -Ddemo.concurrency (default: cores) browsers are shared between them
+    private static void runScenarios(DriverFactory browsers, ChromeOptions options, int count) {
+        int concurrency = concurrency();
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        for (int i = 1; i <= count; i++) {
+            scenarios.put("SeleniumDemo.scenario-" + i, (driver, steps) -> {
+                AdaptiveWait wait = new AdaptiveWait(driver, Duration.ofSeconds(10));
+                steps.track(wait);
+                navigate(driver, steps, wait, false);
+            });
+        }
+
+        Log.info("Running {} scenarios on up to {} browsers...", count, concurrency);
+        try (DriverPool pool = new DriverPool(() -> browsers.chrome(options), concurrency)) {
+            ScenarioReport report = new ScenarioRunner(pool).run(scenarios);
+            report.failures().forEach(failure -> Log.error("{}", failure));
+            Log.info("{}", report);
+            Log.info("Driver pool: {}", pool.stats());
+            writeReport(report.steps());
+        }
+    }
 
-            System.out.println("\n✓ Selenium demo completed successfully!");
+    // Prometheus scrapes http://127.0.0.1:<-Dmonitor.port, default 9464>/metrics; percentiles and success
+    // ratios cover the last -Dmonitor.window runs (default 100). Ctrl-C stops after the running journey.
+    private static void runMonitor(DriverFactory browsers, ChromeOptions options) {
+        Map<String, Scenario> journeys = new LinkedHashMap<>();
+        journeys.put("example-iana", (driver, steps) -> {
+            AdaptiveWait wait = new AdaptiveWait(driver, Duration.ofSeconds(10));
+            steps.track(wait);
+            navigate(driver, steps, wait, false);
+        });
 
+        MonitorMetrics metrics = new MonitorMetrics(Integer.getInteger("monitor.window", 100));
+        SyntheticMonitor.Settings settings = SyntheticMonitor.Settings.fromSystemProperties();
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                Integer.getInteger("monitor.port", 9464));
+        Thread main = Thread.currentThread();
+        try (MetricsServer server = MetricsServer.start(address, metrics::prometheus);
+             SyntheticMonitor monitor = new SyntheticMonitor(() -> browsers.chrome(options), journeys, settings,
+                     metrics)) {
+            Thread stopper = new Thread(() -> {
+                monitor.stop();
+                try {
+                    main.join(Duration.ofSeconds(60));
+                } catch (InterruptedException e) {
+                    // Exiting anyway
+                }
+            });
+            Runtime.getRuntime().addShutdownHook(stopper);
+            Log.info("Monitoring {} every {}, metrics on http://{}:{}/metrics", journeys.keySet(),
+                    settings.interval(), address.getHostString(), server.port());
+            int iterations = monitor.run();
+            Log.info("Monitor stopped after {} iterations", iterations);
+            try {
+                Runtime.getRuntime().removeShutdownHook(stopper);
+            } catch (IllegalStateException e) {
+                // Already shutting down
+            }
+        }
+    }
+
+    // Rows need a url column and may have a title column the page title must contain. Progress goes to
+    // <file>.checkpoint after every -Ddemo.checkpoint.every rows (default 1) and when the JVM is stopped, so an
+    // interrupted run picks up where it stopped; a finished run removes it.
+    private static void runData(DriverFactory browsers, ChromeOptions options, Path file) {
+        int concurrency = concurrency();
+        Path progress = file.resolveSibling(file.getFileName() + ".checkpoint");
+        RowScenario smokeTest = (driver, steps, row) -> {
+            AdaptiveWait wait = new AdaptiveWait(driver, Duration.ofSeconds(10));
+            steps.track(wait);
+            steps.start("load page");
+            driver.get(row.get("url"));
+            wait.until("page ready", PageConditions.documentReady());
+
+            steps.start("check title");
+            String title = driver.getTitle();
+            String expected = row.get("title", "");
+            if (!title.contains(expected)) {
+                throw new IllegalStateException("Title '" + title + "' of " + row.get("url")
+                        + " does not contain '" + expected + "'");
+            }
+        };
+
+        try (DataSource source = DataSource.open(file);
+             Checkpoint checkpoint = Checkpoint.load(progress, Integer.getInteger("demo.checkpoint.every", 1));
+             DriverPool pool = new DriverPool(() -> browsers.chrome(options), concurrency)) {
+            // Ctrl-C and a plain kill exit without unwinding this block, so the hook saves what finished
+            Thread saver = new Thread(() -> {
+                checkpoint.save();
+                Log.info("Stopped, {}; run again to resume", checkpoint.toString());
+            });
+            Runtime.getRuntime().addShutdownHook(saver);
+            // The checkpoint moves on while the writer catches up, so it is logged as it is now
+            Log.info("Running {} on up to {} browsers, {}...", file, concurrency, checkpoint.toString());
+            ScenarioReport report = new ScenarioRunner(pool).run("SeleniumDemo.data", source.rows(), smokeTest,
+                    checkpoint);
+            try {
+                Runtime.getRuntime().removeShutdownHook(saver);
+            } catch (IllegalStateException e) {
+                // Shutting down mid-run; the hook keeps the progress
+                return;
+            }
+            report.failures().forEach(failure -> Log.error("{}", failure));
+            Log.info("{}", report);
+            Log.info("Driver pool: {}", pool.stats());
+            checkpoint.clear();
+            writeReport(report.steps());
+        } catch (IOException e) {
+            Log.error("Could not read {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static int concurrency() {
+        return Integer.getInteger("demo.concurrency", Runtime.getRuntime().availableProcessors());
+    }
+
+    private static void log(boolean verbose, String message) {
+        if (verbose) {
+            Log.info(message);
+        }
+    }
+
+    private static void closeTraffic(TrafficReplay traffic) {
+        if (traffic == null) {
+            return;
+        }
+        try {
+            traffic.close();
+            Log.info("Traffic {}: {}", traffic.mode().name().toLowerCase(Locale.ROOT), traffic);
         } catch (Exception e) {
-            System.err.println("Error occurred:");
-            e.printStackTrace();
-        } finally {
-            driver.quit();
-            System.out.println("Browser closed.");
+            Log.error("Could not close traffic archive: {}", e.getMessage());
+        }
+    }
+
+    private static void writeReport(List<StepRecord> steps) {
+        RunReport report = new RunReport();
+        report.add(steps);
+        try {
+            report.write().forEach((step, histogram) -> Log.info("  {}: {}", step, histogram));
+            Log.info("Step report written to {}", RunReport.defaultDirectory());
+        } catch (IOException e) {
+            Log.error("Could not write step report: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.example.artifact;
+
+import java.time.Instant;
+
+/**
+ * One piece of evidence captured from a browser: a screenshot or a page source snapshot.
+ *
+ * @param reason why it was taken, e.g. {@code failure} or {@code step}
+ */
+public record Artifact(Instant at, String test, String step, String reason, Kind kind, byte[] bytes) {
+
+    public enum Kind {
+        SCREENSHOT("png"), PAGE_SOURCE("html");
+
+        private final String extension;
+
+        Kind(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.artifact;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Takes a screenshot and a page source snapshot of a browser and hands them to an {@link ArtifactStore}.
+ *
+ * Only the two WebDriver calls happen on the caller's thread; hashing,
+ * compression and disk I/O are the store's. A browser that no longer answers
+ * yields whatever could still be taken.
+ */
+public class ArtifactCapture {
+
+    /**
+     * When tests capture: never, when they fail, or also at each step boundary.
+     */
+    public enum Mode {
+        OFF, FAILURE, STEPS;
+
+        public static Mode configured() {
+            String mode = System.getProperty("artifacts.capture", "failure");
+            return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final ArtifactStore store;
+
+    public ArtifactCapture(ArtifactStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Captures what the browser shows now; returns how many artifacts were queued.
+     */
+    public int capture(WebDriver driver, String test, String step, String reason) {
+        Instant at = Instant.now();
+        int queued = 0;
+        if (driver instanceof TakesScreenshot screenshots) {
+            try {
+                byte[] png = screenshots.getScreenshotAs(OutputType.BYTES);
+                queued += submit(new Artifact(at, test, step, reason, Artifact.Kind.SCREENSHOT, png));
+            } catch (WebDriverException e) {
+                // Crashed, or an alert is open; the page source may still come through
+            }
+        }
+        try {
+            String source = driver.getPageSource();
+            if (source != null) {
+                queued += submit(new Artifact(at, test, step, reason, Artifact.Kind.PAGE_SOURCE,
+                        source.getBytes(StandardCharsets.UTF_8)));
+            }
+        } catch (WebDriverException e) {
+            // Nothing left to capture
+        }
+        return queued;
+    }
+
+    private int submit(Artifact artifact) {
+        return store.submit(artifact) ? 1 : 0;
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.artifact;
+
+import com.example.log.Log;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes {@link Artifact}s to disk on a background thread, so capturing never waits for the disk.
+ *
+ * {@link #submit} only queues the artifact; it never blocks. The writer drains
+ * up to 32 artifacts at a time, stores each distinct content once, named by
+ * its SHA-256 and gzipped where that saves at least a tenth, and appends one
+ * line per artifact to {@code index.jsonl} in a single write per batch. An
+ * identical screenshot or page source taken again, e.g. by a retried test
+ * failing the same way, only adds an index line. Artifacts that would take the
+ * stored bytes plus those waiting in the queue over the byte budget, or that
+ * find the queue full, are dropped and counted instead.
+ */
+public class ArtifactStore implements AutoCloseable {
+
+    private static final int BATCH_SIZE = 32;
+    private static final String INDEX = "index.jsonl";
+    private static final Json JSON = new Json();
+
+    /**
+     * Counts since the store opened; {@code bytesStored} is what the blobs take on disk.
+     */
+    public record Stats(long submitted, long written, long duplicates, long dropped, long failed, long bytesStored) {
+
+        @Override
+        public String toString() {
+            return String.format("%d submitted, %d written, %d duplicates, %d dropped, %d failed, %.1f MB stored",
+                    submitted, written, duplicates, dropped, failed, bytesStored / 1048576.0);
+        }
+    }
+
+    private final Path directory;
+    private final long budgetBytes;
+    private final BlockingQueue<Artifact> queue;
+    private final Map<String, String> blobs = new HashMap<>();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public ArtifactStore(Path directory, long budgetBytes, int queueCapacity) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.budgetBytes = budgetBytes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = Thread.ofPlatform().daemon().name("artifact-writer").start(this::drain);
+    }
+
+    /**
+     * A store for this run under {@code -Dartifacts.dir} (default {@code target/artifacts}), holding at most
+     * {@code -Dartifacts.budget} bytes (default 200 MB).
+     */
+    public static ArtifactStore fromSystemProperties() throws IOException {
+        String runId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS"));
+        Path directory = Paths.get(System.getProperty("artifacts.dir", "target/artifacts")).resolve(runId);
+        return new ArtifactStore(directory, Long.getLong("artifacts.budget", 200L << 20), 64);
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Queues the artifact for writing; false if it was dropped for the budget, a full queue or a closed store.
+     */
+    public boolean submit(Artifact artifact) {
+        if (closed) {
+            return false;
+        }
+        long size = artifact.bytes().length;
+        if (storedBytes.get() + pendingBytes.addAndGet(size) > budgetBytes || !queue.offer(artifact)) {
+            pendingBytes.addAndGet(-size);
+            dropped.increment();
+            return false;
+        }
+        submitted.increment();
+        return true;
+    }
+
+    public Stats stats() {
+        return new Stats(submitted.sum(), written.sum(), duplicates.sum(), dropped.sum(), failed.sum(),
+                storedBytes.get());
+    }
+
+    /**
+     * Writes what is still queued and stops the writer.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        List<Artifact> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Artifact first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // Only close() stops the writer; it drains the queue first
+                continue;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Artifact> batch) {
+        StringBuilder index = new StringBuilder(256 * batch.size());
+        for (Artifact artifact : batch) {
+            try {
+                String hash = sha256(artifact.bytes());
+                String file = blobs.get(hash);
+                boolean duplicate = file != null;
+                if (duplicate) {
+                    duplicates.increment();
+                } else {
+                    file = store(hash, artifact);
+                    blobs.put(hash, file);
+                    written.increment();
+                }
+                index.append(indexLine(artifact, hash, file, duplicate)).append('\n');
+            } catch (IOException e) {
+                failed.increment();
+                Log.warn("Could not store {} of {}: {}", artifact.kind(), artifact.test(), e.getMessage());
+            } finally {
+                // Only once it counts as stored, so submit() never sees the budget with the artifact in neither
+                pendingBytes.addAndGet(-artifact.bytes().length);
+            }
+        }
+        try {
+            Files.writeString(directory.resolve(INDEX), index, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            Log.warn("Could not append to the artifact index: {}", e.getMessage());
+        }
+    }
+
+    // Screenshots are PNG already and barely shrink; page sources shrink to a fraction
+    private String store(String hash, Artifact artifact) throws IOException {
+        byte[] raw = artifact.bytes();
+        byte[] gzipped = gzip(raw);
+        boolean compress = gzipped.length < raw.length * 0.9;
+        byte[] content = compress ? gzipped : raw;
+        String file = hash + "." + artifact.kind().extension() + (compress ? ".gz" : "");
+        Path temp = Files.createTempFile(directory, hash, ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, directory.resolve(file), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        storedBytes.addAndGet(content.length);
+        return file;
+    }
+
+    private static String indexLine(Artifact artifact, String hash, String file, boolean duplicate) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("at", artifact.at().toString());
+        entry.put("test", artifact.test());
+        entry.put("step", artifact.step());
+        entry.put("reason", artifact.reason());
+        entry.put("kind", artifact.kind().name());
+        entry.put("sha256", hash);
+        entry.put("file", file);
+        entry.put("bytes", artifact.bytes().length);
+        entry.put("duplicate", duplicate);
+        StringBuilder line = new StringBuilder(256);
+        try (JsonOutput json = JSON.newOutput(line)) {
+            json.setPrettyPrint(false).write(entry);
+        }
+        return line.toString();
+    }
+
+    static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is part of every JDK", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
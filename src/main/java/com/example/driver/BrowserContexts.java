@@ -0,0 +1,258 @@
+package com.example.driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Runs several independent flows in one Chrome, each in its own tab or isolated browser context.
+ *
+ * A context is created through DevTools ({@code Target.createBrowserContext}),
+ * so it has its own cookies, storage and cache, like a fresh profile, without
+ * launching another browser. Each context is handed out as a {@link WebDriver}
+ * that takes the browser's lock and switches to its own window before every
+ * command, elements included, so flows on different threads can share the
+ * session safely. Commands still execute one at a time; what is shared is the
+ * browser process, its startup and its memory. A command that blocks, such as
+ * an asynchronous script, blocks every context, which is why {@link
+ * com.example.wait.AdaptiveWait} polls context drivers rather than waiting in
+ * the page.
+ *
+ * Don't call {@code quit()} or {@code close()} on a context driver; close the
+ * context through {@link #close(WebDriver)} or close this object.
+ */
+public class BrowserContexts implements AutoCloseable {
+
+    // Open context drivers of every instance, by identity as they equal the browser driver
+    private static final Set<WebDriver> CONTEXT_DRIVERS =
+            Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private final WebDriver driver;
+    private final HasCdp cdp;
+    private final String originalWindow;
+    private final ReentrantLock lock = new ReentrantLock();
+    // By context, because context drivers compare equal to the browser driver and to each other
+    private final Map<Context, WebDriver> contexts = new LinkedHashMap<>();
+    private String currentWindow;
+
+    private record Context(String name, String window, String browserContextId) {
+    }
+
+    public BrowserContexts(WebDriver driver) {
+        if (!(driver instanceof HasCdp hasCdp)) {
+            throw new IllegalArgumentException("Browser contexts need a Chromium driver with DevTools, got "
+                    + driver.getClass().getSimpleName());
+        }
+        this.driver = driver;
+        this.cdp = hasCdp;
+        this.originalWindow = driver.getWindowHandle();
+        this.currentWindow = originalWindow;
+    }
+
+    /**
+     * A new isolated context with one blank tab.
+     */
+    public WebDriver openContext(String name) {
+        lock.lock();
+        try {
+            Map<String, Object> created = cdp.executeCdpCommand("Target.createBrowserContext",
+                    Map.of("disposeOnDetach", true));
+            String browserContextId = (String) created.get("browserContextId");
+            Map<String, Object> target = cdp.executeCdpCommand("Target.createTarget",
+                    Map.of("url", "about:blank", "browserContextId", browserContextId));
+            return register(new Context(name, (String) target.get("targetId"), browserContextId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A new tab sharing cookies and storage with the default context.
+     */
+    public WebDriver openTab(String name) {
+        lock.lock();
+        try {
+            Map<String, Object> target = cdp.executeCdpCommand("Target.createTarget", Map.of("url", "about:blank"));
+            return register(new Context(name, (String) target.get("targetId"), null));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether flows that can share a browser should, per {@code -Dselenium.contexts} (default true).
+     */
+    public static boolean isEnabled(WebDriver driver) {
+        return driver instanceof HasCdp && Boolean.parseBoolean(System.getProperty("selenium.contexts", "true"));
+    }
+
+    /**
+     * Whether the driver is an open context driver, whose commands hold a lock shared with the browser's
+     * other contexts.
+     */
+    public static boolean isContextDriver(WebDriver driver) {
+        return CONTEXT_DRIVERS.contains(driver);
+    }
+
+    /**
+     * Runs each scenario in its own isolated context on its own virtual thread and waits for all of them.
+     * Returns the memory measured once all finished, before their contexts are closed; the first
+     * failure is rethrown instead.
+     */
+    public MemoryReport runIsolated(Map<String, Consumer<WebDriver>> scenarios) {
+        Map<String, WebDriver> opened = new LinkedHashMap<>();
+        scenarios.keySet().forEach(name -> opened.put(name, openContext(name)));
+        Map<String, Future<?>> futures = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            scenarios.forEach((name, scenario) ->
+                    futures.put(name, executor.submit(() -> scenario.accept(opened.get(name)))));
+        }
+        MemoryReport memory = memory();
+        opened.values().forEach(this::close);
+
+        // Assertion errors stay what they are, so a failed check isn't mistaken for a broken browser
+        Throwable failure = null;
+        for (Map.Entry<String, Future<?>> future : futures.entrySet()) {
+            try {
+                future.getValue().get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() instanceof RuntimeException || e.getCause() instanceof Error
+                        ? e.getCause() : new IllegalStateException("Scenario " + future.getKey() + " failed",
+                        e.getCause());
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException("Interrupted while waiting for scenarios", e);
+            }
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+        return memory;
+    }
+
+    public void close(WebDriver contextDriver) {
+        lock.lock();
+        try {
+            Context context = contexts.entrySet().stream()
+                    .filter(entry -> entry.getValue() == contextDriver)
+                    .map(Map.Entry::getKey)
+                    .findFirst()
+                    .orElse(null);
+            if (context == null) {
+                return;
+            }
+            contexts.remove(context);
+            CONTEXT_DRIVERS.remove(contextDriver);
+            try {
+                cdp.executeCdpCommand("Target.closeTarget", Map.of("targetId", context.window()));
+                if (context.browserContextId() != null) {
+                    cdp.executeCdpCommand("Target.disposeBrowserContext",
+                            Map.of("browserContextId", context.browserContextId()));
+                }
+            } catch (WebDriverException e) {
+                // Already gone with the window
+            }
+            if (context.window().equals(currentWindow)) {
+                driver.switchTo().window(originalWindow);
+                currentWindow = originalWindow;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Browser process memory against the JavaScript heap of each open context.
+     */
+    public MemoryReport memory() {
+        List<Long> pids = ProcessMemory.browserProcesses(driver);
+        Map<String, Long> heaps = new LinkedHashMap<>();
+        List<Map.Entry<Context, WebDriver>> open;
+        lock.lock();
+        try {
+            open = List.copyOf(contexts.entrySet());
+        } finally {
+            lock.unlock();
+        }
+        for (Map.Entry<Context, WebDriver> entry : open) {
+            Object used = ((JavascriptExecutor) entry.getValue())
+                    .executeScript("return performance.memory ? performance.memory.usedJSHeapSize : 0;");
+            heaps.put(entry.getKey().name(), used instanceof Number number ? number.longValue() : 0L);
+        }
+        return new MemoryReport(ProcessMemory.rssBytes(pids), pids.size(), heaps);
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            List.copyOf(contexts.values()).forEach(this::close);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private WebDriver register(Context context) {
+        WebDriver contextDriver = new EventFiringDecorator<>(new SwitchingListener(context.window())).decorate(driver);
+        contexts.put(context, contextDriver);
+        CONTEXT_DRIVERS.add(contextDriver);
+        return contextDriver;
+    }
+
+    /**
+     * Holds the browser lock for the duration of each call and makes the context's window current first.
+     */
+    private final class SwitchingListener implements WebDriverListener {
+
+        private final String window;
+
+        SwitchingListener(String window) {
+            this.window = window;
+        }
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            lock.lock();
+            if (!window.equals(currentWindow)) {
+                driver.switchTo().window(window);
+                currentWindow = window;
+            }
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            lock.unlock();
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.driver;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Builds {@link ChromeOptions} from a named {@link Profile} plus typed tweaks, with flags deduplicated.
+ *
+ * A flag given twice keeps its last value ({@code --headless} then
+ * {@code --headless=new} is one flag), except list-valued flags such as
+ * {@code --disable-blink-features}, whose values are merged. Malformed flags are
+ * rejected when added; contradictory ones, like {@code --start-maximized} with
+ * {@code --window-size} or headless mode, when building.
+ *
+ * {@code -Dchrome.profile=<name>} overrides the profile passed to
+ * {@link Profile#selected(Profile)}, so the suite can be run under each profile
+ * to find the fastest one that still passes; {@code DriverStartupBenchmark}
+ * measures their startup and first page load.
+ */
+public class ChromeOptionsBuilder {
+
+    private static final Pattern FLAG = Pattern.compile("--[a-z0-9][a-z0-9-]*(=.*)?");
+    private static final Set<String> LIST_FLAGS = Set.of("--disable-blink-features", "--enable-blink-features",
+            "--disable-features", "--enable-features");
+
+    public enum Profile {
+        /** Headless at a fixed desktop size, nothing blocked. */
+        STANDARD,
+        /** STANDARD plus the flags needed in containers and CI (no sandbox, no /dev/shm, no GPU). */
+        COMPATIBLE,
+        /**
+         * COMPATIBLE without images, web fonts or autoplaying media, without extensions,
+         * background networking or component updates, and with the eager page load strategy.
+         */
+        FAST;
+
+        /**
+         * The profile named by {@code -Dchrome.profile}, or {@code fallback}.
+         */
+        public static Profile selected(Profile fallback) {
+            String name = System.getProperty("chrome.profile");
+            return name == null || name.isBlank() ? fallback : valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final Profile profile;
+    private final Map<String, String> arguments = new LinkedHashMap<>();
+    private final Map<String, Object> prefs = new LinkedHashMap<>();
+    private PageLoadStrategy pageLoadStrategy = PageLoadStrategy.NORMAL;
+
+    private ChromeOptionsBuilder(Profile profile) {
+        this.profile = profile;
+    }
+
+    public static ChromeOptionsBuilder profile(Profile profile) {
+        ChromeOptionsBuilder builder = new ChromeOptionsBuilder(profile);
+        builder.headless(true)
+                .windowSize(1920, 1080)
+                .argument("--disable-blink-features=AutomationControlled");
+        if (profile == Profile.COMPATIBLE || profile == Profile.FAST) {
+            builder.argument("--no-sandbox")
+                    .argument("--disable-dev-shm-usage")
+                    .argument("--disable-gpu");
+        }
+        if (profile == Profile.FAST) {
+            builder.blockImages()
+                    .blockWebFonts()
+                    .blockAutoplayMedia()
+                    .argument("--disable-extensions")
+                    .argument("--disable-background-networking")
+                    .argument("--disable-component-update")
+                    .argument("--disable-default-apps")
+                    .argument("--no-first-run")
+                    .pageLoadStrategy(PageLoadStrategy.EAGER);
+        }
+        return builder;
+    }
+
+    public Profile profile() {
+        return profile;
+    }
+
+    public ChromeOptionsBuilder headless(boolean headless) {
+        if (headless) {
+            return argument("--headless=new");
+        }
+        arguments.remove("--headless");
+        return this;
+    }
+
+    public ChromeOptionsBuilder windowSize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Window size must be positive, was: " + width + "x" + height);
+        }
+        return argument("--window-size=" + width + "," + height);
+    }
+
+    /**
+     * Maximised instead of a fixed size; only meaningful with a visible window.
+     */
+    public ChromeOptionsBuilder maximized() {
+        arguments.remove("--window-size");
+        return argument("--start-maximized");
+    }
+
+    public ChromeOptionsBuilder userAgent(String userAgent) {
+        return argument("--user-agent=" + userAgent);
+    }
+
+    public ChromeOptionsBuilder blockImages() {
+        prefs.put("profile.managed_default_content_settings.images", 2);
+        return this;
+    }
+
+    public ChromeOptionsBuilder blockWebFonts() {
+        return argument("--disable-remote-fonts");
+    }
+
+    // There is no switch to block media outright; without autoplay, video and audio are not fetched on load
+    public ChromeOptionsBuilder blockAutoplayMedia() {
+        return argument("--autoplay-policy=user-gesture-required")
+                .argument("--mute-audio");
+    }
+
+    public ChromeOptionsBuilder pageLoadStrategy(PageLoadStrategy strategy) {
+        this.pageLoadStrategy = strategy;
+        return this;
+    }
+
+    /**
+     * Adds a {@code --flag} or {@code --flag=value}, replacing an earlier value of the same flag.
+     */
+    public ChromeOptionsBuilder argument(String flag) {
+        if (!FLAG.matcher(flag).matches()) {
+            throw new IllegalArgumentException("Not a Chrome switch: " + flag);
+        }
+        int separator = flag.indexOf('=');
+        String name = separator < 0 ? flag : flag.substring(0, separator);
+        String value = separator < 0 ? null : flag.substring(separator + 1);
+        if (LIST_FLAGS.contains(name) && value != null && arguments.get(name) != null) {
+            Set<String> values = new LinkedHashSet<>(Arrays.asList(arguments.get(name).split(",")));
+            values.addAll(Arrays.asList(value.split(",")));
+            value = String.join(",", values);
+        }
+        arguments.put(name, value);
+        return this;
+    }
+
+    /**
+     * The deduplicated command line switches, in the order they were first added.
+     */
+    public List<String> arguments() {
+        List<String> flags = new ArrayList<>();
+        arguments.forEach((name, value) -> flags.add(value == null ? name : name + "=" + value));
+        return flags;
+    }
+
+    public ChromeOptions build() {
+        validate();
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments(arguments());
+        if (!prefs.isEmpty()) {
+            options.setExperimentalOption("prefs", new LinkedHashMap<>(prefs));
+        }
+        options.setPageLoadStrategy(pageLoadStrategy);
+        return options;
+    }
+
+    private void validate() {
+        if (arguments.containsKey("--start-maximized")) {
+            if (arguments.containsKey("--window-size")) {
+                throw new IllegalStateException("--start-maximized and --window-size contradict each other");
+            }
+            if (arguments.containsKey("--headless")) {
+                throw new IllegalStateException("--start-maximized has no effect in headless mode, use --window-size");
+            }
+        }
+        String headless = arguments.get("--headless");
+        if (headless != null && !headless.equals("new") && !headless.equals("old")) {
+            throw new IllegalStateException("Unknown headless mode: " + headless);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.util.Locale;
+
+/**
+ * Starts Chrome sessions, either as a local {@link ChromeDriver} or as a {@link RemoteWebDriver} on a Selenium Grid.
+ *
+ * {@code -Dselenium.grid} picks where: unset or {@code off} starts chromedriver
+ * from this JVM, {@code local} starts a {@link GridServer} on this machine and
+ * sends sessions there, and a URL uses the grid already running there.
+ * Remote sessions are augmented, so {@code HasCdp} and {@code HasDevTools}
+ * keep working for request blocking, traffic replay and browser contexts.
+ */
+public final class DriverFactory {
+
+    private final URL grid;
+    private final String description;
+
+    private DriverFactory(URL grid, String description) {
+        this.grid = grid;
+        this.description = description;
+    }
+
+    public static DriverFactory local() {
+        return new DriverFactory(null, "local ChromeDriver, " + DriverResolver.setupChrome());
+    }
+
+    public static DriverFactory grid(URL grid) {
+        return new DriverFactory(grid, "Selenium Grid at " + grid);
+    }
+
+    /**
+     * The factory {@code -Dselenium.grid} asks for; resolves chromedriver or starts the grid as needed.
+     */
+    public static DriverFactory configured() {
+        String grid = System.getProperty("selenium.grid", "off").trim();
+        return switch (grid.toLowerCase(Locale.ROOT)) {
+            case "", "off" -> local();
+            case "local" -> {
+                GridServer server = GridServer.shared();
+                yield new DriverFactory(server.url(), server.toString());
+            }
+            default -> {
+                try {
+                    yield grid(URI.create(grid).toURL());
+                } catch (MalformedURLException | IllegalArgumentException e) {
+                    throw new IllegalArgumentException("selenium.grid must be off, local or a URL, was: " + grid, e);
+                }
+            }
+        };
+    }
+
+    public boolean isRemote() {
+        return grid != null;
+    }
+
+    public WebDriver chrome(ChromeOptions options) {
+        if (grid == null) {
+            return new ChromeDriver(options);
+        }
+        // The builder runs the Augmenter, which adds HasCdp and HasDevTools from the session's capabilities
+        return RemoteWebDriver.builder()
+                .oneOf(options)
+                .address(grid)
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of warm browser sessions.
+ *
+ * Sessions are handed out by {@link #acquire()}, reset to a blank state on
+ * {@link #release(WebDriver)} and quit when they are evicted, crashed or the
+ * pool is closed. Idle sessions are reused most-recently-released first.
+ */
+public class DriverPool implements AutoCloseable {
+
+    private static final String CLEAR_STORAGE =
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    private final Supplier<WebDriver> factory;
+    private final int maxSize;
+    private final Semaphore permits;
+    private final Deque<WebDriver> idle = new ConcurrentLinkedDeque<>();
+    private final Set<WebDriver> leased = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder launchNanos = new LongAdder();
+
+    private volatile boolean closed;
+
+    public DriverPool(Supplier<WebDriver> factory, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1, was: " + maxSize);
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    public WebDriver acquire() {
+        return acquire(Duration.ofMinutes(2));
+    }
+
+    public WebDriver acquire(Duration timeout) {
+        if (closed) {
+            throw new IllegalStateException("Driver pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new TimeoutException("No pooled driver became available within " + timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting for a pooled driver", e);
+        }
+
+        try {
+            WebDriver driver;
+            while ((driver = idle.pollFirst()) != null) {
+                if (isAlive(driver)) {
+                    hits.increment();
+                    leased.add(driver);
+                    return driver;
+                }
+                quit(driver);
+            }
+
+            misses.increment();
+            long start = System.nanoTime();
+            driver = factory.get();
+            launchNanos.add(System.nanoTime() - start);
+            leased.add(driver);
+            return driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a session to the pool. Sessions that cannot be reset are evicted.
+     */
+    public void release(WebDriver driver) {
+        if (!leased.remove(driver)) {
+            return;
+        }
+        try {
+            if (!closed && reset(driver)) {
+                idle.offerFirst(driver);
+            } else {
+                quit(driver);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Quits a leased session instead of returning it, e.g. after a browser crash.
+     */
+    public void evict(WebDriver driver) {
+        if (!leased.remove(driver)) {
+            return;
+        }
+        try {
+            quit(driver);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public PoolStats stats() {
+        return new PoolStats(hits.sum(), misses.sum(), evictions.sum(),
+                idle.size(), leased.size(), Duration.ofNanos(launchNanos.sum()));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        WebDriver driver;
+        while ((driver = idle.pollFirst()) != null) {
+            try {
+                driver.quit();
+            } catch (WebDriverException e) {
+                // Already gone
+            }
+        }
+    }
+
+    /**
+     * Page-level failures leave the session usable; anything else from the driver means it is suspect
+     * and should be evicted rather than released.
+     */
+    public static boolean isBrowserFailure(Throwable failure) {
+        return failure instanceof WebDriverException
+                && !(failure instanceof NotFoundException)
+                && !(failure instanceof TimeoutException)
+                && !(failure instanceof StaleElementReferenceException);
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    // Clears the storage of every window, parks the session in a fresh tab on about:blank and closes the old
+    // windows, then clears cookies and, with DevTools, the storage of every origin the windows visited. Session
+    // storage belongs to a tab and survives Storage.clearDataForOrigin, so only closing the tab drops all of it.
+    private static boolean reset(WebDriver driver) {
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            if (handles.isEmpty()) {
+                return false;
+            }
+            HasCdp cdp = driver instanceof HasCdp hasCdp ? hasCdp : null;
+            Set<String> origins = new LinkedHashSet<>();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                clearStorage(driver, cdp, origins);
+            }
+            driver.switchTo().newWindow(WindowType.TAB);
+            String fresh = driver.getWindowHandle();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+            driver.switchTo().window(fresh);
+
+            if (cdp != null) {
+                for (String origin : origins) {
+                    cdp.executeCdpCommand("Storage.clearDataForOrigin",
+                            Map.of("origin", origin, "storageTypes", "all"));
+                }
+                cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            } else {
+                driver.manage().deleteAllCookies();
+            }
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    // DevTools commands go to the window switched to, so each window's history is read while it is current.
+    // The script reaches only the current origin, but without DevTools that is all there is.
+    private static void clearStorage(WebDriver driver, HasCdp cdp, Set<String> origins) {
+        if (cdp != null) {
+            origins.addAll(visitedOrigins(cdp));
+        }
+        ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE);
+    }
+
+    /**
+     * The http(s) origins in the current window's navigation history.
+     */
+    static Set<String> visitedOrigins(HasCdp cdp) {
+        Set<String> origins = new LinkedHashSet<>();
+        Map<String, Object> history = cdp.executeCdpCommand("Page.getNavigationHistory", Map.of());
+        Object entries = history == null ? null : history.get("entries");
+        if (!(entries instanceof List<?> list)) {
+            return origins;
+        }
+        for (Object entry : list) {
+            if (entry instanceof Map<?, ?> map && map.get("url") instanceof String url) {
+                try {
+                    URI uri = URI.create(url);
+                    if (("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) && uri.getHost() != null) {
+                        origins.add(uri.getScheme() + "://" + uri.getHost()
+                                + (uri.getPort() == -1 ? "" : ":" + uri.getPort()));
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Not a URL we could have stored anything for
+                }
+            }
+        }
+        return origins;
+    }
+
+    private void quit(WebDriver driver) {
+        evictions.increment();
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            // Session already dead
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.driver;
+
+import com.example.log.Log;
+import com.example.report.LatencyHistogram;
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the chromedriver binary once per machine instead of once per test class.
+ *
+ * The first resolution runs WebDriverManager and stores the binary path and
+ * version in {@code ~/.cache/selenium-tests/drivers} ({@code -Ddriver.cache.dir});
+ * later JVMs read that file and never touch the network while the entry is
+ * younger than {@code -Ddriver.cache.ttl} (ISO-8601, default {@code PT24H}).
+ * Concurrent JVMs serialise on a file lock, so only the first one resolves. If a
+ * refresh fails, e.g. on an offline agent, the stale entry is used as long as
+ * the binary still exists. Within a JVM the result is memoised. The entry also
+ * records the major version of the installed Chrome, asked again at most every
+ * {@code -Ddriver.browser.check} (default {@code PT1H}) since asking starts
+ * Chrome; once Chrome updates to another major version the entry is refreshed
+ * regardless of its age, as the cached chromedriver would refuse to start a
+ * session. A timestamp in the entry that can't be parsed counts as expired.
+ *
+ * Every resolution time is appended to {@code timings.csv} next to the cache,
+ * see {@link #timings()} for cold and warm percentiles.
+ */
+public class DriverResolver {
+
+    public static final String CHROME_DRIVER_PROPERTY = "webdriver.chrome.driver";
+
+    private static final String TIMINGS = "timings.csv";
+    private static final Pattern MAJOR_VERSION = Pattern.compile("(\\d+)\\.\\d+");
+    private static volatile DriverResolver chrome;
+
+    private final String name;
+    private final Path cacheDir;
+    private final Duration ttl;
+    private final Supplier<Resolved> resolver;
+    private final Supplier<String> browserVersion;
+    private final Duration browserCheck;
+    private Resolution resolution;
+
+    /**
+     * Binary path and version as reported by the underlying resolver.
+     */
+    public record Resolved(Path driver, String version) {
+    }
+
+    public enum Source {
+        /** Read from the on-disk cache, no network access. */
+        CACHE,
+        /** Freshly resolved, possibly downloaded. */
+        RESOLVED
+    }
+
+    public record Resolution(Path driver, String version, Source source, Duration elapsed) {
+
+        @Override
+        public String toString() {
+            return String.format("%s %s (%s in %dms)", driver.getFileName(), version,
+                    source.name().toLowerCase(Locale.ROOT), elapsed.toMillis());
+        }
+    }
+
+    public DriverResolver(String name, Path cacheDir, Duration ttl, Supplier<Resolved> resolver) {
+        this(name, cacheDir, ttl, resolver, () -> null, ttl);
+    }
+
+    /**
+     * {@code browserVersion} gives the major version of the installed browser, or null when it can't be told;
+     * it is asked when the entry is resolved and when its last check is older than {@code browserCheck}.
+     */
+    public DriverResolver(String name, Path cacheDir, Duration ttl, Supplier<Resolved> resolver,
+                          Supplier<String> browserVersion, Duration browserCheck) {
+        this.name = name;
+        this.cacheDir = cacheDir;
+        this.ttl = ttl;
+        this.resolver = resolver;
+        this.browserVersion = browserVersion;
+        this.browserCheck = browserCheck;
+    }
+
+    /**
+     * The shared chromedriver resolver, configured from system properties.
+     */
+    public static DriverResolver chrome() {
+        if (chrome == null) {
+            synchronized (DriverResolver.class) {
+                if (chrome == null) {
+                    chrome = new DriverResolver("chromedriver", defaultCacheDir(),
+                            Duration.parse(System.getProperty("driver.cache.ttl", "PT24H")),
+                            DriverResolver::webDriverManager, DriverResolver::chromeMajorVersion,
+                            Duration.parse(System.getProperty("driver.browser.check", "PT1H")));
+                }
+            }
+        }
+        return chrome;
+    }
+
+    /**
+     * Resolves the shared chromedriver and points {@value #CHROME_DRIVER_PROPERTY} at it.
+     */
+    public static Resolution setupChrome() {
+        Resolution resolution = chrome().resolve();
+        System.setProperty(CHROME_DRIVER_PROPERTY, resolution.driver().toString());
+        return resolution;
+    }
+
+    public static Path defaultCacheDir() {
+        return Paths.get(System.getProperty("driver.cache.dir",
+                Paths.get(System.getProperty("user.home"), ".cache", "selenium-tests", "drivers").toString()));
+    }
+
+    public synchronized Resolution resolve() {
+        if (resolution != null) {
+            return resolution;
+        }
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(cacheDir);
+            try (FileChannel channel = FileChannel.open(cacheDir.resolve(name + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // Released when the channel closes
+                channel.lock();
+                Properties cached = readCache();
+                boolean fresh = isUsable(cached) && !isExpired(cached);
+                boolean probed = false;
+                String browser = null;
+                if (fresh && isOlderThan(cached, "browserCheckedAt", browserCheck)) {
+                    browser = browserVersion.get();
+                    probed = true;
+                    fresh = !isForOtherBrowser(cached, browser);
+                    if (fresh) {
+                        markBrowserChecked(cached, browser);
+                    }
+                }
+                Source source;
+                Resolved resolved;
+                if (fresh) {
+                    source = Source.CACHE;
+                    resolved = fromCache(cached);
+                } else {
+                    try {
+                        if (!probed) {
+                            browser = browserVersion.get();
+                        }
+                        resolved = resolver.get();
+                        writeCache(resolved, browser);
+                        source = Source.RESOLVED;
+                    } catch (RuntimeException e) {
+                        if (!isUsable(cached)) {
+                            throw e;
+                        }
+                        Log.warn("Could not refresh {}, using cached entry: {}", name, e.getMessage());
+                        source = Source.CACHE;
+                        resolved = fromCache(cached);
+                    }
+                }
+                resolution = new Resolution(resolved.driver(), resolved.version(), source,
+                        Duration.ofNanos(System.nanoTime() - start));
+                appendTiming(resolution);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Driver cache unavailable in " + cacheDir, e);
+        }
+        return resolution;
+    }
+
+    /**
+     * Resolution times recorded on this machine, by source: cold (resolved) vs warm (cache).
+     */
+    public Map<Source, LatencyHistogram> timings() {
+        Map<Source, LatencyHistogram> timings = new EnumMap<>(Source.class);
+        Path file = cacheDir.resolve(TIMINGS);
+        if (!Files.exists(file)) {
+            return timings;
+        }
+        try (BufferedReader in = Files.newBufferedReader(file)) {
+            String line = in.readLine();
+            while ((line = in.readLine()) != null) {
+                String[] cells = line.split(",");
+                if (cells.length < 4 || !cells[1].equals(name)) {
+                    continue;
+                }
+                timings.computeIfAbsent(Source.valueOf(cells[2]), k -> new LatencyHistogram())
+                        .add(Duration.ofNanos((long) (Double.parseDouble(cells[3]) * 1_000_000)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return timings;
+    }
+
+    private static Resolved webDriverManager() {
+        WebDriverManager manager = WebDriverManager.chromedriver();
+        manager.setup();
+        return new Resolved(Paths.get(manager.getDownloadedDriverPath()), manager.getDownloadedDriverVersion());
+    }
+
+    private Properties readCache() throws IOException {
+        Properties properties = new Properties();
+        Path file = cacheDir.resolve(name + ".properties");
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+        }
+        return properties;
+    }
+
+    private void writeCache(Resolved resolved, String browser) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("path", resolved.driver().toAbsolutePath().toString());
+        properties.setProperty("version", String.valueOf(resolved.version()));
+        properties.setProperty("resolvedAt", Instant.now().toString());
+        markBrowserChecked(properties, browser);
+    }
+
+    private void markBrowserChecked(Properties properties, String browser) throws IOException {
+        if (browser != null) {
+            properties.setProperty("browserVersion", browser);
+        }
+        properties.setProperty("browserCheckedAt", Instant.now().toString());
+        Path temp = Files.createTempFile(cacheDir, name, ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, name + " resolution cache");
+        }
+        Files.move(temp, cacheDir.resolve(name + ".properties"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static boolean isUsable(Properties cached) {
+        String path = cached.getProperty("path");
+        return path != null && Files.isRegularFile(Paths.get(path));
+    }
+
+    private boolean isExpired(Properties cached) {
+        return isOlderThan(cached, "resolvedAt", ttl);
+    }
+
+    // Missing or hand-edited timestamps count as old, so a damaged entry is refreshed rather than failing every run
+    private static boolean isOlderThan(Properties cached, String key, Duration age) {
+        try {
+            String at = cached.getProperty(key);
+            return at == null || Instant.parse(at).plus(age).isBefore(Instant.now());
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+
+    // Entries written before the browser version was recorded, or when it couldn't be told, count as a match
+    private static boolean isForOtherBrowser(Properties cached, String browser) {
+        String cachedBrowser = cached.getProperty("browserVersion");
+        return browser != null && cachedBrowser != null && !cachedBrowser.equals(browser);
+    }
+
+    /**
+     * The major version of the installed Chrome, from {@code chrome --version}; null where there is no
+     * Chrome to ask or it doesn't answer within five seconds.
+     */
+    static String chromeMajorVersion() {
+        try {
+            Optional<Path> chrome = WebDriverManager.chromedriver().getBrowserPath();
+            if (chrome.isEmpty()) {
+                return null;
+            }
+            Process process = new ProcessBuilder(chrome.get().toString(), "--version").redirectErrorStream(true)
+                    .start();
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return null;
+            }
+            return majorVersion(new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    // "Google Chrome 126.0.6478.126" -> "126"
+    static String majorVersion(String versionOutput) {
+        Matcher matcher = MAJOR_VERSION.matcher(versionOutput);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static Resolved fromCache(Properties cached) {
+        return new Resolved(Paths.get(cached.getProperty("path")), cached.getProperty("version"));
+    }
+
+    // Called while holding the cache lock, so rows from concurrent JVMs don't interleave
+    private void appendTiming(Resolution resolution) throws IOException {
+        try (FileChannel channel = FileChannel.open(cacheDir.resolve(TIMINGS), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            String row = String.format(Locale.ROOT, "%s,%s,%s,%.3f%n", Instant.now(), name,
+                    resolution.source(), resolution.elapsed().toNanos() / 1_000_000.0);
+            String content = channel.size() == 0 ? "at,driver,source,millis\n" + row : row;
+            channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+}
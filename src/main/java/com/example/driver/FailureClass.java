@@ -0,0 +1,105 @@
+package com.example.driver;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Why a browser test failed, as far as the exception tells.
+ *
+ * Transient classes are worth another attempt on a clean browser: the page was
+ * slow, re-rendered under the test, the network dropped a request or the
+ * browser died. A missing element or a failed assertion is not; retrying a
+ * changed layout only hides it.
+ */
+public enum FailureClass {
+
+    TIMEOUT(true),
+    STALE_ELEMENT(true),
+    NO_SUCH_ELEMENT(false),
+    NAVIGATION(true),
+    BROWSER_CRASH(true),
+    ASSERTION(false),
+    OTHER(false);
+
+    // Substrings chromedriver reports when a page load fails at the network level
+    private static final String[] NAVIGATION_ERRORS = {"net::err_", "err_connection", "err_name_not_resolved",
+            "err_internet_disconnected", "err_timed_out"};
+
+    // ... and when the browser or its renderer is gone
+    private static final String[] CRASH_ERRORS = {"chrome not reachable", "tab crashed", "page crash",
+            "disconnected: not connected to devtools", "target window already closed", "session deleted"};
+
+    private final boolean transientFailure;
+
+    FailureClass(boolean transientFailure) {
+        this.transientFailure = transientFailure;
+    }
+
+    public boolean isTransient() {
+        return transientFailure;
+    }
+
+    /**
+     * Classifies {@code failure} by the first exception in its cause chain that says more than {@link #OTHER}.
+     */
+    public static FailureClass of(Throwable failure) {
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable cause = failure; cause != null && seen.add(cause); cause = cause.getCause()) {
+            FailureClass type = classify(cause);
+            if (type != OTHER) {
+                return type;
+            }
+        }
+        return OTHER;
+    }
+
+    private static FailureClass classify(Throwable failure) {
+        if (failure instanceof AssertionError) {
+            return ASSERTION;
+        }
+        if (failure instanceof TimeoutException || failure instanceof ScriptTimeoutException) {
+            return TIMEOUT;
+        }
+        if (failure instanceof StaleElementReferenceException) {
+            return STALE_ELEMENT;
+        }
+        if (failure instanceof NotFoundException) {
+            return NO_SUCH_ELEMENT;
+        }
+        if (failure instanceof NoSuchSessionException || failure instanceof SessionNotCreatedException
+                || failure instanceof UnreachableBrowserException) {
+            return BROWSER_CRASH;
+        }
+        if (failure instanceof WebDriverException) {
+            // Only the raw message: getMessage() appends build and driver info that could match by accident
+            String message = String.valueOf(((WebDriverException) failure).getRawMessage()).toLowerCase(Locale.ROOT);
+            if (containsAny(message, NAVIGATION_ERRORS)) {
+                return NAVIGATION;
+            }
+            if (containsAny(message, CRASH_ERRORS)) {
+                return BROWSER_CRASH;
+            }
+        }
+        return OTHER;
+    }
+
+    private static boolean containsAny(String message, String[] needles) {
+        for (String needle : needles) {
+            if (message.contains(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.driver;
+
+import com.example.log.Log;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Selenium Grid standalone server running as a child process on this machine.
+ *
+ * The server is started from a {@code selenium-server} jar with one node that
+ * runs up to {@code maxSessions} browsers at once, using the chromedriver that
+ * {@link DriverResolver} resolved. {@link #start} returns once the grid reports
+ * itself ready. The process output goes to a log file, and the process is
+ * stopped by {@link #close()}.
+ *
+ * {@link #shared()} is configured from system properties:
+ * <ul>
+ *   <li>{@code -Dselenium.grid.jar}: the server jar, by default
+ *       {@code ~/.cache/selenium-tests/grid/selenium-server.jar}</li>
+ *   <li>{@code -Dselenium.grid.sessions}: node concurrency, by default the number of cores</li>
+ *   <li>{@code -Dselenium.grid.port}: a free port by default</li>
+ *   <li>{@code -Dselenium.grid.log}: the log file, by default {@code target/selenium-grid.log}</li>
+ * </ul>
+ * It is started once per JVM and stopped on JVM shutdown.
+ */
+public class GridServer implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private static volatile GridServer shared;
+
+    private final Process process;
+    private final URL url;
+    private final int maxSessions;
+    private final Path log;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+    private GridServer(Process process, URL url, int maxSessions, Path log) {
+        this.process = process;
+        this.url = url;
+        this.maxSessions = maxSessions;
+        this.log = log;
+    }
+
+    public static GridServer start(Path jar, int port, int maxSessions, Path chromedriver, Path log)
+            throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IOException("No Selenium server jar at " + jar + "; download selenium-server-<version>.jar "
+                    + "from the Selenium releases and point -Dselenium.grid.jar at it");
+        }
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Grid sessions must be at least 1, was: " + maxSessions);
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (chromedriver != null) {
+            command.add("-D" + DriverResolver.CHROME_DRIVER_PROPERTY + "=" + chromedriver);
+        }
+        command.addAll(List.of("-jar", jar.toString(), "standalone",
+                "--port", String.valueOf(port),
+                "--max-sessions", String.valueOf(maxSessions),
+                // Without this the node caps sessions at the number of cores
+                "--override-max-sessions", "true",
+                // Pooled sessions sit idle between tests; the pool decides when they are done
+                "--session-timeout", "3600"));
+
+        Path logFile = log.toAbsolutePath();
+        Files.createDirectories(logFile.getParent());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        URL url = URI.create("http://localhost:" + port).toURL();
+        GridServer server = new GridServer(process, url, maxSessions, logFile);
+        try {
+            server.awaitReady(STARTUP_TIMEOUT);
+        } catch (IOException | RuntimeException e) {
+            server.close();
+            throw e;
+        }
+        return server;
+    }
+
+    /**
+     * The grid for this JVM, started on first use from system properties.
+     */
+    public static GridServer shared() {
+        GridServer server = shared;
+        if (server == null) {
+            synchronized (GridServer.class) {
+                server = shared;
+                if (server == null) {
+                    server = fromSystemProperties();
+                    Runtime.getRuntime().addShutdownHook(new Thread(server::close, "selenium-grid-shutdown"));
+                    shared = server;
+                }
+            }
+        }
+        return server;
+    }
+
+    private static GridServer fromSystemProperties() {
+        Path jar = Paths.get(System.getProperty("selenium.grid.jar",
+                Paths.get(System.getProperty("user.home"), ".cache", "selenium-tests", "grid", "selenium-server.jar")
+                        .toString()));
+        int sessions = Integer.getInteger("selenium.grid.sessions", Runtime.getRuntime().availableProcessors());
+        Path log = Paths.get(System.getProperty("selenium.grid.log", "target/selenium-grid.log"));
+        try {
+            int port = Integer.getInteger("selenium.grid.port", freePort());
+            long start = System.nanoTime();
+            GridServer server = start(jar, port, sessions, DriverResolver.setupChrome().driver(), log);
+            Log.info("Selenium Grid started at {} with {} sessions in {}ms", server.url(), sessions,
+                    (System.nanoTime() - start) / 1_000_000);
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start Selenium Grid", e);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    public URL url() {
+        return url;
+    }
+
+    public int maxSessions() {
+        return maxSessions;
+    }
+
+    /**
+     * Whether the grid answers {@code /status} with {@code ready: true}.
+     */
+    public boolean isReady() {
+        try {
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url + "/status"))
+                    .timeout(Duration.ofSeconds(2)).GET().build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return false;
+            }
+            Map<String, Object> status = new Json().toType(response.body(), Json.MAP_TYPE);
+            return status.get("value") instanceof Map<?, ?> value && Boolean.TRUE.equals(value.get("ready"));
+        } catch (IOException | RuntimeException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void awaitReady(Duration timeout) throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!isReady()) {
+            if (!process.isAlive()) {
+                throw new IOException("Selenium Grid exited with " + process.exitValue() + ", see " + log);
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IOException("Selenium Grid not ready after " + timeout.toSeconds() + "s, see " + log);
+            }
+            try {
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for Selenium Grid", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!process.isAlive()) {
+            return;
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Selenium Grid standalone at " + url + " (" + maxSessions + " sessions)";
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.driver;
+
+import java.util.Map;
+
+/**
+ * Resident memory of one browser's processes next to the JavaScript heap of each context in it.
+ */
+public record MemoryReport(long processRssBytes, int processes, Map<String, Long> jsHeapBytesByContext) {
+
+    /**
+     * Process memory divided over the open contexts, i.e. what each flow costs when they share a browser.
+     */
+    public long rssBytesPerContext() {
+        return jsHeapBytesByContext.isEmpty() ? processRssBytes : processRssBytes / jsHeapBytesByContext.size();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format("browser RSS %d MB over %d processes, %d MB per context",
+                processRssBytes >> 20, processes, rssBytesPerContext() >> 20));
+        jsHeapBytesByContext.forEach((context, heap) ->
+                report.append(String.format("%n  %s: JS heap %.1f MB", context, heap / 1048576.0)));
+        return report.toString();
+    }
+}
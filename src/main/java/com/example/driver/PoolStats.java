@@ -0,0 +1,27 @@
+package com.example.driver;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of a {@link DriverPool}'s counters.
+ */
+public record PoolStats(long hits, long misses, long evictions, int idle, int leased, Duration launchTime) {
+
+    public Duration averageLaunchTime() {
+        return misses == 0 ? Duration.ZERO : launchTime.dividedBy(misses);
+    }
+
+    // Every hit is a browser launch that did not happen
+    public Duration estimatedSavings() {
+        return averageLaunchTime().multipliedBy(hits);
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits
+                + ", misses=" + misses
+                + ", evictions=" + evictions
+                + ", avg launch=" + averageLaunchTime().toMillis() + "ms"
+                + ", est. launch time saved=" + estimatedSavings().toMillis() + "ms";
+    }
+}
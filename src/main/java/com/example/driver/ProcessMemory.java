@@ -0,0 +1,81 @@
+package com.example.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Resident memory of processes, read from {@code /proc/<pid>/status}; empty where there is no procfs.
+ */
+public final class ProcessMemory {
+
+    private static final Path PROC = Paths.get("/proc");
+
+    private ProcessMemory() {
+    }
+
+    public static OptionalLong rssBytes(long pid) {
+        Path status = PROC.resolve(Long.toString(pid)).resolve("status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    String kilobytes = line.substring("VmRSS:".length()).replace("kB", "").trim();
+                    return OptionalLong.of(Long.parseLong(kilobytes) * 1024);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Gone, not readable, or not Linux
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Summed RSS of the processes that could be read.
+     */
+    public static long rssBytes(Collection<Long> pids) {
+        return pids.stream().mapToLong(pid -> rssBytes(pid).orElse(0)).sum();
+    }
+
+    /**
+     * Chrome processes started from this JVM (through chromedriver), for when DevTools can't list them.
+     */
+    public static List<Long> chromeDescendants() {
+        return ProcessHandle.current().descendants()
+                .filter(process -> process.info().command()
+                        .map(command -> command.contains("chrome") && !command.contains("chromedriver"))
+                        .orElse(false))
+                .map(ProcessHandle::pid)
+                .toList();
+    }
+
+    /**
+     * The processes of the browser behind {@code driver}. Renderer, GPU and utility processes belong to it
+     * too; DevTools knows their ids, and where it can't say, every Chrome started from this JVM counts.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Long> browserProcesses(WebDriver driver) {
+        if (driver instanceof HasCdp cdp) {
+            try {
+                Map<String, Object> info = cdp.executeCdpCommand("SystemInfo.getProcessInfo", Map.of());
+                List<Long> pids = new ArrayList<>();
+                for (Map<String, Object> process : (List<Map<String, Object>>) info.get("processInfo")) {
+                    pids.add(((Number) process.get("id")).longValue());
+                }
+                return pids;
+            } catch (WebDriverException | ClassCastException | NullPointerException e) {
+                // Fall back to the process tree
+            }
+        }
+        return chromeDescendants();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.driver;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What one browser session cost at one moment, booked to the test and step that was running.
+ *
+ * Page figures come from DevTools {@code Performance.getMetrics} for the current
+ * window; process figures cover every Chrome process of the session and, kept
+ * apart, the chromedriver that started it. CPU times are cumulative since the
+ * processes started.
+ */
+public record ResourceSample(Instant at, String test, String step,
+                             long jsHeapBytes, long domNodes, long layouts, Duration scriptTime,
+                             int processes, long browserRssBytes, Duration browserCpu,
+                             long driverRssBytes, Duration driverCpu) {
+
+    public long rssBytes() {
+        return browserRssBytes + driverRssBytes;
+    }
+
+    public Duration cpu() {
+        return browserCpu.plus(driverCpu);
+    }
+
+    public String key() {
+        return test + " / " + step;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("at", at.toString());
+        map.put("test", test);
+        map.put("step", step);
+        map.put("jsHeapBytes", jsHeapBytes);
+        map.put("domNodes", domNodes);
+        map.put("layouts", layouts);
+        map.put("scriptMs", scriptTime.toNanos() / 1_000_000.0);
+        map.put("processes", processes);
+        map.put("browserRssBytes", browserRssBytes);
+        map.put("browserCpuMs", browserCpu.toNanos() / 1_000_000.0);
+        map.put("driverRssBytes", driverRssBytes);
+        map.put("driverCpuMs", driverCpu.toNanos() / 1_000_000.0);
+        return map;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.driver;
+
+import com.example.log.Log;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls what one Chrome session costs while a test drives it, as {@link ResourceSample}s.
+ *
+ * Every interval it reads DevTools {@code Performance.getMetrics} (JS heap, DOM
+ * nodes, layouts, script time) and {@code SystemInfo.getProcessInfo} (the
+ * session's Chrome processes and their CPU time), adds the RSS of those processes
+ * from {@link ProcessMemory}, and does the same for the chromedriver that
+ * launched them. Where DevTools won't list the processes, the Chrome processes
+ * started from this JVM are read from the process table instead. Samples are
+ * booked to the test and the step last passed to {@link #step(String)}. Polling
+ * happens on a shared background pool; chromedriver runs one command at a time,
+ * so a sample due during a long command waits for it rather than interrupting it.
+ *
+ * Off unless {@code -Dtelemetry.interval} is set, e.g. {@code PT1S}.
+ */
+public class ResourceSampler implements AutoCloseable {
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(
+            Runtime.getRuntime().availableProcessors(), task -> {
+                Thread thread = new Thread(task, "resource-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final HasCdp cdp;
+    private final String test;
+    private final List<ResourceSample> samples = new ArrayList<>();
+    private final ScheduledFuture<?> task;
+    private volatile String step;
+    private boolean closed;
+    private boolean processInfoRefused;
+    private int failures;
+
+    public ResourceSampler(WebDriver driver, String test, String step, Duration interval) {
+        if (!(driver instanceof HasCdp hasCdp)) {
+            throw new IllegalArgumentException("Resource sampling needs a Chromium driver with DevTools, got "
+                    + driver.getClass().getSimpleName());
+        }
+        this.cdp = hasCdp;
+        this.test = test;
+        this.step = step;
+        cdp.executeCdpCommand("Performance.enable", Map.of());
+        this.task = SCHEDULER.scheduleWithFixedDelay(this::sample, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The sampling interval {@code -Dtelemetry.interval} asks for; empty when sampling is off.
+     */
+    public static Optional<Duration> configuredInterval() {
+        String interval = System.getProperty("telemetry.interval", "off").trim();
+        if (interval.isEmpty() || interval.toLowerCase(Locale.ROOT).equals("off")) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.parse(interval));
+    }
+
+    public static boolean isSupported(WebDriver driver) {
+        return driver instanceof HasCdp;
+    }
+
+    /**
+     * Books the following samples to {@code step}; safe to call from the test's thread.
+     */
+    public void step(String step) {
+        this.step = step;
+    }
+
+    public synchronized List<ResourceSample> samples() {
+        return List.copyOf(samples);
+    }
+
+    /**
+     * Stops polling after one last sample, so short steps at the end of a test are covered too.
+     */
+    @Override
+    public void close() {
+        task.cancel(false);
+        sample();
+        synchronized (this) {
+            closed = true;
+            try {
+                cdp.executeCdpCommand("Performance.disable", Map.of());
+            } catch (WebDriverException e) {
+                // The browser is gone; nothing left to switch off
+            }
+        }
+    }
+
+    private synchronized void sample() {
+        if (closed) {
+            return;
+        }
+        try {
+            Map<String, Object> metrics = cdp.executeCdpCommand("Performance.getMetrics", Map.of());
+            samples.add(parse(Instant.now(), test, step, metrics, processInfo()));
+        } catch (WebDriverException | ClassCastException e) {
+            // Usually the page navigating or the session closing; one note per test is enough
+            if (failures++ == 0) {
+                Log.debug("Resource sample of {} failed: {}", test, e.getMessage());
+            }
+        }
+    }
+
+    // Chrome usually refuses SystemInfo.getProcessInfo on a page target, and then keeps refusing it
+    private Map<String, Object> processInfo() {
+        if (!processInfoRefused) {
+            try {
+                return cdp.executeCdpCommand("SystemInfo.getProcessInfo", Map.of());
+            } catch (WebDriverException e) {
+                processInfoRefused = true;
+            }
+        }
+        return processTree(ProcessMemory.chromeDescendants());
+    }
+
+    /**
+     * The given processes in the shape of {@code SystemInfo.getProcessInfo}, read from the process table.
+     */
+    static Map<String, Object> processTree(List<Long> pids) {
+        List<Map<String, Object>> processes = new ArrayList<>();
+        for (long pid : pids) {
+            Optional<ProcessHandle> process = ProcessHandle.of(pid);
+            boolean browser = process.flatMap(ProcessHandle::parent).flatMap(parent -> parent.info().command())
+                    .map(command -> command.contains("chromedriver"))
+                    .orElse(false);
+            double cpuSeconds = process.flatMap(handle -> handle.info().totalCpuDuration())
+                    .map(cpu -> cpu.toNanos() / 1e9)
+                    .orElse(0.0);
+            processes.add(Map.of("id", pid, "type", browser ? "browser" : "other", "cpuTime", cpuSeconds));
+        }
+        return Map.of("processInfo", processes);
+    }
+
+    @SuppressWarnings("unchecked")
+    static ResourceSample parse(Instant at, String test, String step, Map<String, Object> metrics,
+                                Map<String, Object> processInfo) {
+        Map<String, Double> values = new HashMap<>();
+        for (Map<String, Object> metric : (List<Map<String, Object>>) metrics.getOrDefault("metrics", List.of())) {
+            values.put((String) metric.get("name"), ((Number) metric.get("value")).doubleValue());
+        }
+        List<Long> pids = new ArrayList<>();
+        long browserPid = -1;
+        double cpuSeconds = 0;
+        for (Map<String, Object> process
+                : (List<Map<String, Object>>) processInfo.getOrDefault("processInfo", List.of())) {
+            long pid = ((Number) process.get("id")).longValue();
+            pids.add(pid);
+            cpuSeconds += ((Number) process.getOrDefault("cpuTime", 0)).doubleValue();
+            if ("browser".equals(process.get("type"))) {
+                browserPid = pid;
+            }
+        }
+        Optional<ProcessHandle> driver = chromedriver(browserPid);
+        return new ResourceSample(at, test, step,
+                values.getOrDefault("JSHeapUsedSize", 0.0).longValue(),
+                values.getOrDefault("Nodes", 0.0).longValue(),
+                values.getOrDefault("LayoutCount", 0.0).longValue(),
+                seconds(values.getOrDefault("ScriptDuration", 0.0)),
+                pids.size(), ProcessMemory.rssBytes(pids), seconds(cpuSeconds),
+                driver.map(process -> ProcessMemory.rssBytes(process.pid()).orElse(0)).orElse(0L),
+                driver.flatMap(process -> process.info().totalCpuDuration()).orElse(Duration.ZERO));
+    }
+
+    // chromedriver starts Chrome itself, so it is the browser process's parent when both run on this machine
+    private static Optional<ProcessHandle> chromedriver(long browserPid) {
+        if (browserPid < 0) {
+            return Optional.empty();
+        }
+        return ProcessHandle.of(browserPid)
+                .flatMap(ProcessHandle::parent)
+                .filter(parent -> parent.info().command().map(command -> command.contains("chromedriver"))
+                        .orElse(false));
+    }
+
+    private static Duration seconds(double seconds) {
+        return Duration.ofNanos((long) (seconds * 1_000_000_000L));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.extract;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Extracts fields from every element matching a selector in a single {@code executeScript} call.
+ *
+ * Looping over {@code findElements} and calling {@code getAttribute}/{@code findElement}
+ * per item costs several WebDriver round-trips per element, and each missing child
+ * throws. Here the browser walks the matches and returns one row per element.
+ */
+public final class DomBatch {
+
+    private static final String SCRIPT = """
+            var items = document.querySelectorAll(arguments[0]);
+            var fields = arguments[1];
+            function locate(root, field) {
+              if (!field.selector) { return root; }
+              if (field.xpath) {
+                return document.evaluate(field.selector, root, null,
+                    XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+              }
+              return root.querySelector(field.selector);
+            }
+            var rows = [];
+            for (var i = 0; i < items.length; i++) {
+              var row = { element: items[i], values: {} };
+              for (var j = 0; j < fields.length; j++) {
+                var field = fields[j];
+                var node = locate(items[i], field);
+                var value = null;
+                if (field.kind === 'exists') {
+                  value = node !== null;
+                } else if (node !== null && field.kind === 'text') {
+                  value = (node.innerText || node.textContent || '').trim();
+                } else if (node !== null && field.kind === 'attribute') {
+                  value = node.getAttribute(field.attribute);
+                } else if (node !== null && field.kind === 'property') {
+                  value = node[field.attribute];
+                }
+                row.values[field.name] = value;
+              }
+              rows.push(row);
+            }
+            return rows;
+            """;
+
+    private DomBatch() {
+    }
+
+    /**
+     * How a field's value is read from the node it locates.
+     */
+    public enum Kind {
+        TEXT, ATTRIBUTE, PROPERTY, EXISTS;
+
+        // The name the extraction script switches on
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * What to read from each matched element. A null selector means the element itself.
+     */
+    public record Field(String name, Kind kind, String selector, boolean xpath, String attribute) {
+
+        public static Field text(String name, String cssSelector) {
+            return new Field(name, Kind.TEXT, cssSelector, false, null);
+        }
+
+        public static Field attribute(String name, String cssSelector, String attribute) {
+            return new Field(name, Kind.ATTRIBUTE, cssSelector, false, attribute);
+        }
+
+        // DOM property rather than attribute, e.g. "href" resolved to an absolute URL
+        public static Field property(String name, String cssSelector, String property) {
+            return new Field(name, Kind.PROPERTY, cssSelector, false, property);
+        }
+
+        public static Field exists(String name, String cssSelector) {
+            return new Field(name, Kind.EXISTS, cssSelector, false, null);
+        }
+
+        public static Field existsXPath(String name, String xpath) {
+            return new Field(name, Kind.EXISTS, xpath, true, null);
+        }
+
+        Map<String, Object> toScriptArgument() {
+            Map<String, Object> argument = new HashMap<>();
+            argument.put("name", name);
+            argument.put("kind", kind.key());
+            argument.put("selector", selector);
+            argument.put("xpath", xpath);
+            argument.put("attribute", attribute);
+            return argument;
+        }
+    }
+
+    /**
+     * One matched element, in document order, with the values read from it.
+     */
+    public record Row(int index, WebElement element, Map<String, Object> values) {
+
+        public String string(String field) {
+            Object value = values.get(field);
+            return value == null ? "" : value.toString();
+        }
+
+        public boolean flag(String field) {
+            return Boolean.TRUE.equals(values.get(field));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<Row> extract(WebDriver driver, String itemSelector, List<Field> fields) {
+        List<Map<String, Object>> arguments = fields.stream().map(Field::toScriptArgument).toList();
+        Object result = ((JavascriptExecutor) driver).executeScript(SCRIPT, itemSelector, arguments);
+
+        List<Row> rows = new ArrayList<>();
+        if (result instanceof List<?> list) {
+            for (Object item : list) {
+                Map<String, Object> row = (Map<String, Object>) item;
+                Map<String, Object> values = (Map<String, Object>) row.get("values");
+                rows.add(new Row(rows.size(), (WebElement) row.get("element"),
+                        values == null ? Map.of() : values));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.extract;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * One Amazon search result card, read in bulk with {@link DomBatch}.
+ *
+ * @param position  index among all result cards on the page, sponsored ones included
+ * @param asin      the card's {@code data-asin}, empty for widgets that are not products
+ * @param titleLink absolute URL of the product link, empty if the card has none
+ * @param price     text of {@code .a-price-whole}, empty if the card has no price
+ * @param element   the card itself, for scrolling and clicking
+ */
+public record SearchResult(int position, String asin, boolean sponsored, String title, String titleLink,
+                           String price, WebElement element) {
+
+    public static final String RESULT_SELECTOR = "[data-component-type='s-search-result']";
+
+    private static final List<DomBatch.Field> FIELDS = List.of(
+            DomBatch.Field.attribute("asin", null, "data-asin"),
+            DomBatch.Field.existsXPath("sponsored", ".//span[contains(text(), 'Sponsored')]"),
+            DomBatch.Field.text("title", "h2"),
+            DomBatch.Field.property("titleLink", "h2 a, a.a-link-normal.s-no-outline", "href"),
+            DomBatch.Field.text("price", ".a-price-whole")
+    );
+
+    public boolean isProduct() {
+        return !asin.isEmpty() && !sponsored;
+    }
+
+    public static List<SearchResult> extractAll(WebDriver driver) {
+        return DomBatch.extract(driver, RESULT_SELECTOR, FIELDS).stream()
+                .map(row -> new SearchResult(row.index(), row.string("asin"), row.flag("sponsored"),
+                        row.string("title"), row.string("titleLink"), row.string("price"), row.element()))
+                .toList();
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.locate;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An element with several candidate locators, tried in order, that learns which one works.
+ *
+ * All candidates are probed by a single script call instead of one
+ * {@code findElement} (and possibly one timeout) per failed candidate. The
+ * winning candidate is remembered per page type and tried first next time;
+ * win counts per candidate are kept for reporting. {@code By.id},
+ * {@code By.name} and {@code By.className} reach the script as CSS selectors;
+ * locators it cannot evaluate, i.e. {@code By}s that are not
+ * {@link By.Remotable} such as {@code ByChained}, fall back to sequential
+ * {@code findElements}.
+ */
+public class FallbackLocator {
+
+    private static final String PROBE = """
+            var root = arguments[0] || document;
+            var candidates = arguments[1];
+            var needText = arguments[2];
+            function text(el) {
+              return (el.innerText || '').trim() || (el.textContent || '').trim();
+            }
+            function matches(candidate) {
+              var css = candidate.using === 'css selector' ? candidate.value
+                  : candidate.using === 'tag name' ? candidate.value
+                  : candidate.using === 'id' ? '[id="' + CSS.escape(candidate.value) + '"]'
+                  : candidate.using === 'name' ? '[name="' + CSS.escape(candidate.value) + '"]'
+                  : null;
+              if (css !== null) {
+                return Array.prototype.slice.call(root.querySelectorAll(css));
+              }
+              if (candidate.using === 'xpath') {
+                var snapshot = document.evaluate(candidate.value, root, null,
+                    XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+                var nodes = [];
+                for (var i = 0; i < snapshot.snapshotLength; i++) { nodes.push(snapshot.snapshotItem(i)); }
+                return nodes;
+              }
+              var partial = candidate.using === 'partial link text';
+              return Array.prototype.slice.call(root.querySelectorAll('a')).filter(function (a) {
+                var linkText = (a.innerText || '').trim();
+                return partial ? linkText.indexOf(candidate.value) >= 0 : linkText === candidate.value;
+              });
+            }
+            for (var c = 0; c < candidates.length; c++) {
+              var nodes = matches(candidates[c]);
+              for (var n = 0; n < nodes.length; n++) {
+                if (!needText || text(nodes[n])) {
+                  return [candidates[c].index, nodes[n], text(nodes[n])];
+                }
+              }
+            }
+            return null;
+            """;
+
+    private static final List<String> SCRIPTABLE =
+            List.of("css selector", "tag name", "id", "name", "xpath", "link text", "partial link text");
+
+    private final String name;
+    private final List<By> candidates;
+    private final boolean requireText;
+    private final boolean scriptable;
+    private final Map<String, Integer> winners = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLongArray> wins = new ConcurrentHashMap<>();
+    private final LongAdder misses = new LongAdder();
+
+    private FallbackLocator(String name, List<By> candidates, boolean requireText) {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("At least one candidate locator is required for " + name);
+        }
+        this.name = name;
+        this.candidates = List.copyOf(candidates);
+        this.requireText = requireText;
+        this.scriptable = candidates.stream().allMatch(FallbackLocator::isScriptable);
+    }
+
+    public static FallbackLocator of(String name, By... candidates) {
+        return new FallbackLocator(name, List.of(candidates), false);
+    }
+
+    /**
+     * Same candidates, but a match only counts if the element has non-empty text.
+     */
+    public FallbackLocator requiringText() {
+        return new FallbackLocator(name, candidates, true);
+    }
+
+    /**
+     * Element found, which candidate found it and its trimmed text (innerText, else textContent).
+     */
+    public record Match(WebElement element, int candidate, By by, String text) {
+    }
+
+    public Optional<Match> find(WebDriver driver, String pageType) {
+        return find(driver, null, pageType);
+    }
+
+    /**
+     * Searches below {@code root}, or the whole page when it is null.
+     */
+    public Optional<Match> find(WebDriver driver, WebElement root, String pageType) {
+        List<Integer> order = order(pageType);
+        Optional<Match> match = scriptable
+                ? probe(driver, root, order)
+                : sequential(root == null ? driver : root, order);
+
+        if (match.isPresent()) {
+            int winner = match.get().candidate();
+            winners.put(pageType, winner);
+            wins.computeIfAbsent(pageType, k -> new AtomicLongArray(candidates.size())).incrementAndGet(winner);
+        } else {
+            misses.increment();
+        }
+        return match;
+    }
+
+    /**
+     * Condition for waiting until any candidate matches.
+     */
+    public ExpectedCondition<Match> present(String pageType) {
+        return new ExpectedCondition<>() {
+            @Override
+            public Match apply(WebDriver driver) {
+                return find(driver, pageType).orElse(null);
+            }
+
+            @Override
+            public String toString() {
+                return name + " to be present";
+            }
+        };
+    }
+
+    /**
+     * Wins per candidate index, by page type.
+     */
+    public Map<String, long[]> winCounts() {
+        Map<String, long[]> counts = new LinkedHashMap<>();
+        wins.forEach((pageType, array) -> {
+            long[] copy = new long[array.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = array.get(i);
+            }
+            counts.put(pageType, copy);
+        });
+        return counts;
+    }
+
+    public String stats() {
+        StringBuilder stats = new StringBuilder(name).append(": misses=").append(misses.sum());
+        winCounts().forEach((pageType, counts) -> {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            stats.append("\n  ").append(pageType).append(':');
+            for (int i = 0; i < counts.length; i++) {
+                stats.append(String.format(" [%d] %s %d/%d", i, candidates.get(i), counts[i], total));
+            }
+        });
+        return stats.toString();
+    }
+
+    // Last winner for this page type first, then the declared order
+    private List<Integer> order(String pageType) {
+        List<Integer> order = new ArrayList<>();
+        Integer winner = winners.get(pageType);
+        if (winner != null) {
+            order.add(winner);
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            if (winner == null || i != winner) {
+                order.add(i);
+            }
+        }
+        return order;
+    }
+
+    private Optional<Match> probe(WebDriver driver, WebElement root, List<Integer> order) {
+        List<Map<String, Object>> arguments = new ArrayList<>();
+        for (int index : order) {
+            By.Remotable.Parameters parameters = ((By.Remotable) candidates.get(index)).getRemoteParameters();
+            Map<String, Object> candidate = new HashMap<>();
+            candidate.put("index", index);
+            candidate.put("using", parameters.using());
+            candidate.put("value", parameters.value());
+            arguments.add(candidate);
+        }
+        Object result = ((JavascriptExecutor) driver).executeScript(PROBE, root, arguments, requireText);
+        if (!(result instanceof List<?> list)) {
+            return Optional.empty();
+        }
+        int index = ((Number) list.get(0)).intValue();
+        return Optional.of(new Match((WebElement) list.get(1), index, candidates.get(index), (String) list.get(2)));
+    }
+
+    private Optional<Match> sequential(SearchContext context, List<Integer> order) {
+        for (int index : order) {
+            for (WebElement element : context.findElements(candidates.get(index))) {
+                String text = element.getText().trim();
+                if (!requireText || !text.isEmpty()) {
+                    return Optional.of(new Match(element, index, candidates.get(index), text));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isScriptable(By by) {
+        return by instanceof By.Remotable remotable
+                && SCRIPTABLE.contains(remotable.getRemoteParameters().using());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.log;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Human-readable lines, one {@code print} per batch so parallel tests never interleave mid-line.
+ * Warnings and errors go to the error stream.
+ */
+public class ConsoleSink implements EventSink {
+
+    private static final String SEPARATOR = "=".repeat(70);
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private final StringBuilder outBuffer = new StringBuilder(8192);
+    private final StringBuilder errBuffer = new StringBuilder(1024);
+
+    public ConsoleSink(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public void write(List<Event> batch) {
+        for (Event event : batch) {
+            append(event.level().ordinal() >= Level.WARN.ordinal() ? errBuffer : outBuffer, event);
+        }
+        flush(outBuffer, out);
+        flush(errBuffer, err);
+    }
+
+    private static void append(StringBuilder line, Event event) {
+        if (event.section()) {
+            line.append('\n').append(SEPARATOR).append('\n').append(event.message()).append('\n')
+                    .append(SEPARATOR).append('\n');
+            return;
+        }
+        TIME.formatTo(event.time(), line);
+        line.append(' ').append(event.level().name());
+        for (int pad = event.level().name().length(); pad < 5; pad++) {
+            line.append(' ');
+        }
+        line.append(" [").append(event.thread()).append(']');
+        if (!event.test().isEmpty()) {
+            line.append(' ').append(event.test());
+            if (!event.step().isEmpty()) {
+                line.append(" / ").append(event.step());
+            }
+        }
+        line.append(" - ").append(event.message()).append('\n');
+        if (event.error() != null) {
+            StringWriter trace = new StringWriter();
+            event.error().printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+    }
+
+    private static void flush(StringBuilder buffer, PrintStream stream) {
+        if (!buffer.isEmpty()) {
+            stream.print(buffer);
+            stream.flush();
+            buffer.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.log;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One logged event with the test, step and thread it was logged from.
+ * {@code test} and {@code step} are empty outside a {@link LogContext}.
+ */
+public record Event(long sequence, Instant time, Level level, String test, String step, long threadId,
+                    String thread, String message, Throwable error, boolean section) {
+
+    public Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("seq", sequence);
+        json.put("time", time.toString());
+        json.put("level", level.name());
+        json.put("test", test);
+        json.put("step", step);
+        json.put("threadId", threadId);
+        json.put("thread", thread);
+        json.put("message", message);
+        if (error != null) {
+            json.put("error", error.toString());
+        }
+        if (section) {
+            json.put("section", true);
+        }
+        return json;
+    }
+}
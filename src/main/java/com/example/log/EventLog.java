@@ -0,0 +1,287 @@
+package com.example.log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Asynchronous event log: callers drop events into a ring buffer, one writer thread formats and writes them.
+ *
+ * The ring holds preallocated slots, so logging an event only claims a
+ * sequence number and fills in fields; no lock is taken and nothing is
+ * formatted on the caller's thread. {@code {}} placeholders in the message are
+ * filled in by the writer. When the writer falls a full ring behind, callers
+ * wait for it rather than dropping events. The writer drains up to 256 events
+ * at a time and hands each batch to every {@link EventSink} in one call, then
+ * keeps the last {@code historySize} events in memory for {@link #query(Predicate)}.
+ *
+ * {@link #global()} is configured from system properties: {@code -Dlog.level}
+ * (default INFO), {@code -Dlog.console} (default true) and {@code -Dlog.file}
+ * (a JSONL file, off by default). It is flushed and closed on JVM shutdown.
+ */
+public class EventLog implements AutoCloseable {
+
+    private static final int BATCH_SIZE = 256;
+
+    private static volatile EventLog global;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final Level threshold;
+    private final List<EventSink> sinks;
+    private final int historySize;
+    private final ArrayDeque<Event> history;
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder stalls = new LongAdder();
+    private final Thread writer;
+
+    // Next sequence the writer will read, and everything below written reaches the sinks
+    private volatile long consumed;
+    private volatile long written;
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    public EventLog(int capacity, int historySize, Level threshold, List<EventSink> sinks) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, was: " + capacity);
+        }
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.threshold = threshold;
+        this.sinks = List.copyOf(sinks);
+        this.historySize = historySize;
+        this.history = new ArrayDeque<>(Math.min(historySize, 1024));
+        this.writer = Thread.ofPlatform().daemon().name("event-log-writer").start(this::drain);
+    }
+
+    public static EventLog global() {
+        EventLog log = global;
+        if (log == null) {
+            synchronized (EventLog.class) {
+                log = global;
+                if (log == null) {
+                    log = fromSystemProperties();
+                    Runtime.getRuntime().addShutdownHook(new Thread(log::close, "event-log-shutdown"));
+                    global = log;
+                }
+            }
+        }
+        return log;
+    }
+
+    private static EventLog fromSystemProperties() {
+        Level level = Level.valueOf(System.getProperty("log.level", "INFO").toUpperCase(Locale.ROOT));
+        List<EventSink> sinks = new ArrayList<>();
+        if (Boolean.parseBoolean(System.getProperty("log.console", "true"))) {
+            sinks.add(new ConsoleSink(System.out, System.err));
+        }
+        String file = System.getProperty("log.file");
+        if (file != null) {
+            try {
+                sinks.add(new JsonLinesSink(Path.of(file)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open log file " + file, e);
+            }
+        }
+        return new EventLog(8192, 10_000, level, sinks);
+    }
+
+    public boolean isEnabled(Level level) {
+        return threshold.includes(level);
+    }
+
+    public void log(Level level, String message, Object[] args, Throwable error) {
+        publish(level, false, message, args, error);
+    }
+
+    /**
+     * A heading that separates phases of a test, e.g. its steps.
+     */
+    public void section(String title) {
+        publish(Level.INFO, true, title, null, null);
+    }
+
+    private void publish(Level level, boolean section, String message, Object[] args, Throwable error) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        if (closed) {
+            // Late events, e.g. from other shutdown hooks, bypass the ring
+            System.err.println(message);
+            return;
+        }
+        long sequence = claimed.getAndIncrement();
+        while (sequence - slots.length >= consumed) {
+            stalls.increment();
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(50_000);
+        }
+        Thread thread = Thread.currentThread();
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.time = System.currentTimeMillis();
+        slot.level = level;
+        slot.section = section;
+        slot.test = LogContext.test();
+        slot.step = LogContext.step();
+        slot.threadId = thread.threadId();
+        slot.thread = thread.getName();
+        slot.message = message;
+        slot.args = args;
+        slot.error = error;
+        slot.published = sequence;
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Waits until every event logged so far has reached the sinks.
+     */
+    public void flush() {
+        long target = claimed.get();
+        while (written < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    /**
+     * Events still in the in-memory history that match, oldest first.
+     */
+    public List<Event> query(Predicate<? super Event> filter) {
+        flush();
+        synchronized (history) {
+            return history.stream().filter(filter).toList();
+        }
+    }
+
+    public List<Event> events() {
+        return query(event -> true);
+    }
+
+    /**
+     * How often a caller had to wait because the writer was a full ring behind.
+     */
+    public long stalls() {
+        return stalls.sum();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (EventSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                System.err.println("Could not close log sink: " + e.getMessage());
+            }
+        }
+    }
+
+    private void drain() {
+        List<Event> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed || consumed < claimed.get()) {
+            long next = consumed;
+            while (batch.size() < BATCH_SIZE) {
+                Slot slot = slots[(int) (next & mask)];
+                if (slot.published != next) {
+                    break;
+                }
+                batch.add(slot.take(next));
+                next++;
+            }
+            if (batch.isEmpty()) {
+                idle = true;
+                if (consumed == claimed.get() && !closed) {
+                    LockSupport.parkNanos(10_000_000);
+                }
+                idle = false;
+                continue;
+            }
+            // Slots are copied out, so callers may reuse them while the batch is written
+            consumed = next;
+            write(batch);
+            written = next;
+            batch.clear();
+        }
+    }
+
+    private void write(List<Event> batch) {
+        for (EventSink sink : sinks) {
+            try {
+                sink.write(batch);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Log sink " + sink.getClass().getSimpleName() + " failed: " + e.getMessage());
+            }
+        }
+        synchronized (history) {
+            for (Event event : batch) {
+                if (history.size() == historySize) {
+                    history.pollFirst();
+                }
+                history.addLast(event);
+            }
+        }
+    }
+
+    static String format(String message, Object[] args) {
+        if (args == null || args.length == 0) {
+            return message;
+        }
+        StringBuilder formatted = new StringBuilder(message.length() + 16 * args.length);
+        int from = 0;
+        int arg = 0;
+        int at;
+        while (arg < args.length && (at = message.indexOf("{}", from)) >= 0) {
+            formatted.append(message, from, at).append(args[arg++]);
+            from = at + 2;
+        }
+        return formatted.append(message, from, message.length()).toString();
+    }
+
+    private static final class Slot {
+        volatile long published = -1;
+        long time;
+        Level level;
+        boolean section;
+        String test;
+        String step;
+        long threadId;
+        String thread;
+        String message;
+        Object[] args;
+        Throwable error;
+
+        Event take(long sequence) {
+            Event event = new Event(sequence, Instant.ofEpochMilli(time), level, test, step, threadId, thread,
+                    format(message, args), error, section);
+            // Drop references so a parked slot does not keep arguments alive
+            args = null;
+            error = null;
+            message = null;
+            return event;
+        }
+    }
+}
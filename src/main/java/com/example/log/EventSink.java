@@ -0,0 +1,16 @@
+package com.example.log;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where the {@link EventLog} writer thread sends each batch of events.
+ */
+public interface EventSink extends AutoCloseable {
+
+    void write(List<Event> batch) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.log;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends one JSON object per event to a file, for querying a run after the fact.
+ */
+public class JsonLinesSink implements EventSink {
+
+    private static final Json JSON = new Json();
+
+    private final BufferedWriter out;
+    private final StringBuilder line = new StringBuilder(256);
+
+    public JsonLinesSink(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void write(List<Event> batch) throws IOException {
+        for (Event event : batch) {
+            line.setLength(0);
+            try (JsonOutput json = JSON.newOutput(line)) {
+                json.setPrettyPrint(false).write(event.toJson());
+            }
+            out.append(line).append('\n');
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.log;
+
+public enum Level {
+    DEBUG, INFO, WARN, ERROR;
+
+    public boolean includes(Level other) {
+        return other.ordinal() >= ordinal();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.log;
+
+/**
+ * Static entry points to the {@link EventLog#global() global event log}.
+ *
+ * Messages may use {@code {}} placeholders, filled in on the writer thread:
+ * {@code Log.info("Found {} products", products.size())}.
+ */
+public final class Log {
+
+    private Log() {
+    }
+
+    public static void debug(String message, Object... args) {
+        EventLog log = EventLog.global();
+        if (log.isEnabled(Level.DEBUG)) {
+            log.log(Level.DEBUG, message, args, null);
+        }
+    }
+
+    public static void info(String message) {
+        EventLog.global().log(Level.INFO, message, null, null);
+    }
+
+    public static void info(String message, Object... args) {
+        EventLog.global().log(Level.INFO, message, args, null);
+    }
+
+    public static void warn(String message) {
+        EventLog.global().log(Level.WARN, message, null, null);
+    }
+
+    public static void warn(String message, Object... args) {
+        EventLog.global().log(Level.WARN, message, args, null);
+    }
+
+    public static void error(String message, Throwable error) {
+        EventLog.global().log(Level.ERROR, message, null, error);
+    }
+
+    public static void error(String message, Object... args) {
+        EventLog.global().log(Level.ERROR, message, args, null);
+    }
+
+    /**
+     * A heading between phases of a test, rendered between separator lines on the console.
+     */
+    public static void section(String title) {
+        EventLog.global().section(title);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.log;
+
+/**
+ * The test and step the current thread is working on, stamped on every event it logs.
+ *
+ * {@link com.example.report.StepTimer} sets both as it is created and moves
+ * between steps, so code driving a timed test needs no extra calls.
+ */
+public final class LogContext {
+
+    private static final ThreadLocal<String[]> CURRENT = ThreadLocal.withInitial(() -> new String[]{"", ""});
+
+    private LogContext() {
+    }
+
+    public static void test(String test) {
+        String[] context = CURRENT.get();
+        context[0] = test;
+        context[1] = "";
+    }
+
+    public static void step(String step) {
+        CURRENT.get()[1] = step;
+    }
+
+    public static String test() {
+        return CURRENT.get()[0];
+    }
+
+    public static String step() {
+        return CURRENT.get()[1];
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
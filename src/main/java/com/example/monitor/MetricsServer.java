@@ -0,0 +1,74 @@
+package com.example.monitor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Serves metrics on {@code /metrics} in the Prometheus text format, from the JDK's built-in HTTP server.
+ *
+ * Each scrape renders the page afresh; anything else is a 404.
+ */
+public class MetricsServer implements AutoCloseable {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private MetricsServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static MetricsServer start(InetSocketAddress address, Supplier<String> metrics) {
+        try {
+            HttpServer server = HttpServer.create(address, 0);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            server.setExecutor(executor);
+            server.createContext("/", exchange -> {
+                try (exchange) {
+                    if (exchange.getRequestURI().getPath().equals("/metrics")) {
+                        send(exchange, 200, CONTENT_TYPE, metrics.get());
+                    } else {
+                        send(exchange, 404, "text/plain; charset=utf-8", "Metrics are on /metrics\n");
+                    }
+                }
+            });
+            server.start();
+            return new MetricsServer(server, executor);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start metrics server on " + address, e);
+        }
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        boolean head = exchange.getRequestMethod().equals("HEAD");
+        exchange.sendResponseHeaders(status, head ? -1 : bytes.length);
+        if (!head) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
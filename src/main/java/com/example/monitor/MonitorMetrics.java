@@ -0,0 +1,209 @@
+package com.example.monitor;
+
+import com.example.report.LatencyHistogram;
+import com.example.report.StepRecord;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rolling latency and success of synthetic journeys, rendered in the Prometheus text format.
+ *
+ * Percentiles and success ratios cover the last {@code window} runs of each
+ * journey, so a slow morning fades out of them; run counts and summed
+ * durations count since start, as Prometheus expects of counters. Journeys
+ * and steps show up once they have run. Thread-safe.
+ */
+public class MonitorMetrics {
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private final int window;
+    private final Map<String, Journey> journeys = new ConcurrentSkipListMap<>();
+    private final Map<String, Map<String, Step>> steps = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> recycles = new ConcurrentSkipListMap<>();
+    private final AtomicLong browserRssBytes = new AtomicLong(-1);
+
+    public MonitorMetrics(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must hold at least one run, was: " + window);
+        }
+        this.window = window;
+    }
+
+    public void record(String journey, boolean passed, Duration duration, List<StepRecord> stepRecords) {
+        journeys.computeIfAbsent(journey, name -> new Journey(window)).add(passed, duration);
+        Map<String, Step> byStep = steps.computeIfAbsent(journey, name -> new ConcurrentSkipListMap<>());
+        for (StepRecord step : stepRecords) {
+            byStep.computeIfAbsent(step.step(), name -> new Step(window)).add(step.duration());
+        }
+    }
+
+    public void recycled(String reason) {
+        recycles.computeIfAbsent(reason, name -> new LongAdder()).increment();
+    }
+
+    public void browserRss(long bytes) {
+        browserRssBytes.set(bytes);
+    }
+
+    /**
+     * Share of the journey's recent runs that passed, or NaN before its first run.
+     */
+    public double successRatio(String journey) {
+        Journey runs = journeys.get(journey);
+        return runs == null ? Double.NaN : runs.successRatio();
+    }
+
+    public LatencyHistogram latency(String journey) {
+        Journey runs = journeys.get(journey);
+        return runs == null ? new LatencyHistogram(window) : runs.latency;
+    }
+
+    public long recycles(String reason) {
+        LongAdder count = recycles.get(reason);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Text exposition format 0.0.4, as served on {@code /metrics}.
+     */
+    public String prometheus() {
+        StringBuilder out = new StringBuilder(1024);
+        header(out, "synthetic_journey_duration_seconds", "summary",
+                "Journey duration over the last " + window + " runs");
+        journeys.forEach((name, journey) -> {
+            String label = label("journey", name);
+            for (double quantile : QUANTILES) {
+                sample(out, "synthetic_journey_duration_seconds", label + "," + label("quantile", number(quantile)),
+                        seconds(journey.latency.percentile(quantile * 100)));
+            }
+            sample(out, "synthetic_journey_duration_seconds_count", label, number(journey.runs()));
+            sample(out, "synthetic_journey_duration_seconds_sum", label, number(journey.nanos.sum() / 1e9));
+        });
+
+        header(out, "synthetic_journey_runs_total", "counter", "Journey runs since start, by result");
+        journeys.forEach((name, journey) -> {
+            sample(out, "synthetic_journey_runs_total", label("journey", name) + "," + label("result", "success"),
+                    number(journey.passed.sum()));
+            sample(out, "synthetic_journey_runs_total", label("journey", name) + "," + label("result", "failure"),
+                    number(journey.failed.sum()));
+        });
+
+        header(out, "synthetic_journey_success_ratio", "gauge",
+                "Share of the last " + window + " runs that passed");
+        journeys.forEach((name, journey) -> sample(out, "synthetic_journey_success_ratio", label("journey", name),
+                number(journey.successRatio())));
+
+        header(out, "synthetic_step_duration_seconds", "summary", "Step duration over the last " + window + " runs");
+        steps.forEach((journey, byStep) -> byStep.forEach((name, step) -> {
+            String label = label("journey", journey) + "," + label("step", name);
+            for (double quantile : QUANTILES) {
+                sample(out, "synthetic_step_duration_seconds", label + "," + label("quantile", number(quantile)),
+                        seconds(step.latency.percentile(quantile * 100)));
+            }
+            sample(out, "synthetic_step_duration_seconds_count", label, number(step.runs.sum()));
+            sample(out, "synthetic_step_duration_seconds_sum", label, number(step.nanos.sum() / 1e9));
+        }));
+
+        header(out, "synthetic_browser_recycles_total", "counter", "Browsers replaced, by reason");
+        recycles.forEach((reason, count) -> sample(out, "synthetic_browser_recycles_total",
+                label("reason", reason), number(count.sum())));
+
+        long rss = browserRssBytes.get();
+        if (rss >= 0) {
+            header(out, "synthetic_browser_rss_bytes", "gauge", "Resident memory of the warm browser");
+            sample(out, "synthetic_browser_rss_bytes", "", number(rss));
+        }
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, String value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    static String label(String name, String value) {
+        return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    private static String seconds(Duration duration) {
+        return number(duration.toNanos() / 1e9);
+    }
+
+    private static String number(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        // Double.toString ignores the locale, and Prometheus parses its exponent form too
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? String.valueOf((long) value)
+                : String.valueOf(value);
+    }
+
+    private static final class Journey {
+
+        private final LatencyHistogram latency;
+        private final boolean[] outcomes;
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private int size;
+        private int next;
+        private int recentPassed;
+
+        private Journey(int window) {
+            this.latency = new LatencyHistogram(window);
+            this.outcomes = new boolean[window];
+        }
+
+        private synchronized void add(boolean success, Duration duration) {
+            latency.add(duration);
+            nanos.add(duration.toNanos());
+            (success ? passed : failed).increment();
+            if (size == outcomes.length && outcomes[next]) {
+                recentPassed--;
+            }
+            outcomes[next] = success;
+            recentPassed += success ? 1 : 0;
+            next = (next + 1) % outcomes.length;
+            size = Math.min(size + 1, outcomes.length);
+        }
+
+        private synchronized double successRatio() {
+            return size == 0 ? Double.NaN : (double) recentPassed / size;
+        }
+
+        private long runs() {
+            return passed.sum() + failed.sum();
+        }
+    }
+
+    private static final class Step {
+
+        private final LatencyHistogram latency;
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private Step(int window) {
+            this.latency = new LatencyHistogram(window);
+        }
+
+        private void add(Duration duration) {
+            latency.add(duration);
+            runs.increment();
+            nanos.add(duration.toNanos());
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.monitor;
+
+import com.example.driver.DriverPool;
+import com.example.driver.ProcessMemory;
+import com.example.log.Log;
+import com.example.report.StepTimer;
+import com.example.scenario.Scenario;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Runs journeys over and over on one warm browser, as a synthetic monitor of the sites they visit.
+ *
+ * Every iteration runs each journey once, in order, then sleeps until the
+ * next one is due: {@code interval} after this one started, give or take
+ * {@code jitter} of it, so several monitors don't hit a site in step. The
+ * browser comes from a {@link DriverPool} of one and is reset between
+ * iterations. It is replaced after {@code recycleAfter} iterations, once its
+ * memory grows past {@code memoryGrowth} times what it used after its first
+ * iteration, or when a journey fails in a way that leaves it suspect. Results
+ * go to {@link MonitorMetrics}; failures are logged, never thrown.
+ */
+public class SyntheticMonitor implements AutoCloseable {
+
+    public static final String RECYCLE_ITERATIONS = "iterations";
+    public static final String RECYCLE_MEMORY = "memory";
+    public static final String RECYCLE_FAILURE = "failure";
+
+    /**
+     * How often to run, and when to replace the browser; {@code iterations} 0 runs until stopped.
+     */
+    public record Settings(Duration interval, double jitter, int recycleAfter, double memoryGrowth, int iterations) {
+
+        public Settings {
+            if (interval.isNegative() || jitter < 0 || jitter > 1 || recycleAfter < 1 || memoryGrowth <= 1
+                    || iterations < 0) {
+                throw new IllegalArgumentException("Invalid monitor settings: " + interval + ", jitter " + jitter
+                        + ", recycle after " + recycleAfter + " or x" + memoryGrowth + ", " + iterations
+                        + " iterations");
+            }
+        }
+
+        /**
+         * {@code -Dmonitor.interval} (default PT60S), {@code -Dmonitor.jitter} (0.2), {@code -Dmonitor.recycle.after}
+         * (50 iterations), {@code -Dmonitor.recycle.growth} (1.5) and {@code -Dmonitor.iterations} (0, forever).
+         */
+        public static Settings fromSystemProperties() {
+            return new Settings(Duration.parse(System.getProperty("monitor.interval", "PT60S")),
+                    Double.parseDouble(System.getProperty("monitor.jitter", "0.2")),
+                    Integer.getInteger("monitor.recycle.after", 50),
+                    Double.parseDouble(System.getProperty("monitor.recycle.growth", "1.5")),
+                    Integer.getInteger("monitor.iterations", 0));
+        }
+    }
+
+    private final DriverPool pool;
+    private final Map<String, Scenario> journeys;
+    private final Settings settings;
+    private final MonitorMetrics metrics;
+    private final ToLongFunction<WebDriver> memory;
+
+    // The browser the pool holds, how many iterations it has served and what it used after the first
+    private WebDriver browser;
+    private int uses;
+    private long baselineRss;
+
+    private volatile boolean stopped;
+
+    public SyntheticMonitor(Supplier<WebDriver> browsers, Map<String, Scenario> journeys, Settings settings,
+                            MonitorMetrics metrics) {
+        this(browsers, journeys, settings, metrics,
+                driver -> ProcessMemory.rssBytes(ProcessMemory.browserProcesses(driver)));
+    }
+
+    SyntheticMonitor(Supplier<WebDriver> browsers, Map<String, Scenario> journeys, Settings settings,
+                     MonitorMetrics metrics, ToLongFunction<WebDriver> memory) {
+        if (journeys.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to monitor");
+        }
+        this.pool = new DriverPool(browsers, 1);
+        this.journeys = new LinkedHashMap<>(journeys);
+        this.settings = settings;
+        this.metrics = metrics;
+        this.memory = memory;
+    }
+
+    /**
+     * Runs iterations until {@link #stop()} or the configured number of iterations; returns how many ran.
+     */
+    public int run() {
+        int iterations = 0;
+        try {
+            while (!stopped && (settings.iterations() == 0 || iterations < settings.iterations())) {
+                long started = System.nanoTime();
+                iterate();
+                iterations++;
+                if (settings.iterations() != 0 && iterations >= settings.iterations()) {
+                    break;
+                }
+                Duration pause = nextDelay(Duration.ofNanos(System.nanoTime() - started));
+                Log.debug("Next iteration in {}ms", pause.toMillis());
+                pause(pause);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return iterations;
+    }
+
+    /**
+     * Ends {@link #run()} after the journey that is running, or at once while it waits for the next iteration.
+     */
+    public void stop() {
+        stopped = true;
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    // Interrupting instead would abort the WebDriver call in flight and fail the journey for nothing
+    private synchronized void pause(Duration pause) throws InterruptedException {
+        long deadline = System.nanoTime() + pause.toNanos();
+        long left;
+        while (!stopped && (left = deadline - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+    }
+
+    /**
+     * Time from the end of an iteration that took {@code elapsed} to the start of the next.
+     */
+    Duration nextDelay(Duration elapsed) {
+        long interval = settings.interval().toNanos();
+        long spread = (long) (interval * settings.jitter());
+        long jitter = spread == 0 ? 0 : ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+        return Duration.ofNanos(Math.max(0, interval + jitter - elapsed.toNanos()));
+    }
+
+    private void iterate() {
+        WebDriver driver = null;
+        for (Map.Entry<String, Scenario> journey : journeys.entrySet()) {
+            if (stopped) {
+                break;
+            }
+            try {
+                if (driver == null) {
+                    driver = lease();
+                }
+            } catch (RuntimeException e) {
+                // No browser to run on; counts against every journey until one starts again
+                Log.error("Could not start a browser for {}: {}", journey.getKey(), e.getMessage());
+                metrics.record(journey.getKey(), false, Duration.ZERO, List.of());
+                continue;
+            }
+            if (!runJourney(journey.getKey(), journey.getValue(), driver)) {
+                recycle(driver, RECYCLE_FAILURE);
+                driver = null;
+            }
+        }
+        if (driver == null) {
+            return;
+        }
+        uses++;
+        long rss = memory.applyAsLong(driver);
+        if (rss > 0) {
+            metrics.browserRss(rss);
+            if (baselineRss == 0) {
+                baselineRss = rss;
+            }
+        }
+        if (uses >= settings.recycleAfter()) {
+            recycle(driver, RECYCLE_ITERATIONS);
+        } else if (baselineRss > 0 && rss > baselineRss * settings.memoryGrowth()) {
+            Log.info("Browser grew from {} to {} MB", baselineRss >> 20, rss >> 20);
+            recycle(driver, RECYCLE_MEMORY);
+        } else {
+            pool.release(driver);
+        }
+    }
+
+    private WebDriver lease() {
+        WebDriver driver = pool.acquire();
+        if (driver != browser) {
+            browser = driver;
+            uses = 0;
+            baselineRss = 0;
+        }
+        return driver;
+    }
+
+    // False when the browser can't be trusted with the next journey
+    private boolean runJourney(String name, Scenario journey, WebDriver driver) {
+        StepTimer steps = new StepTimer(name);
+        long started = System.nanoTime();
+        Throwable failure = null;
+        try {
+            journey.run(steps.instrument(driver), steps);
+            steps.finish();
+        } catch (Exception | AssertionError e) {
+            failure = e;
+            steps.fail();
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - started);
+        metrics.record(name, failure == null, duration, steps.records());
+        if (failure == null) {
+            Log.info("{} passed in {}ms", name, duration.toMillis());
+        } else if (!stopped) {
+            Log.warn("{} failed after {}ms: {}", name, duration.toMillis(), failure.toString());
+        }
+        return !DriverPool.isBrowserFailure(failure);
+    }
+
+    private void recycle(WebDriver driver, String reason) {
+        Log.info("Recycling the browser after {} iterations ({})", uses, reason);
+        metrics.recycled(reason);
+        pool.evict(driver);
+        browser = null;
+    }
+
+    @Override
+    public void close() {
+        stop();
+        pool.close();
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.network;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A URL pattern and optional resource type, as understood by DevTools {@code Fetch.RequestPattern}.
+ *
+ * The URL pattern uses the DevTools wildcards: {@code *} for any run of
+ * characters, {@code ?} for one, and backslash as escape. A null type matches
+ * every resource type.
+ */
+public record BlockRule(String urlPattern, ResourceType type) {
+
+    private static final Map<String, Pattern> COMPILED = new ConcurrentHashMap<>();
+
+    public BlockRule {
+        if (urlPattern == null || urlPattern.isEmpty()) {
+            throw new IllegalArgumentException("URL pattern must not be empty, use \"*\" to match everything");
+        }
+    }
+
+    public static BlockRule url(String urlPattern) {
+        return new BlockRule(urlPattern, null);
+    }
+
+    public static BlockRule type(ResourceType type) {
+        return new BlockRule("*", type);
+    }
+
+    public boolean matches(String url, ResourceType resourceType) {
+        return (type == null || type == resourceType)
+                && COMPILED.computeIfAbsent(urlPattern, BlockRule::toRegex).matcher(url).matches();
+    }
+
+    Map<String, Object> toRequestPattern() {
+        Map<String, Object> pattern = new HashMap<>();
+        pattern.put("urlPattern", urlPattern);
+        if (type != null) {
+            pattern.put("resourceType", type.cdpName());
+        }
+        pattern.put("requestStage", "Request");
+        return pattern;
+    }
+
+    static Pattern toRegex(String wildcard) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < wildcard.length(); i++) {
+            char c = wildcard.charAt(i);
+            if (c == '\\' && i + 1 < wildcard.length()) {
+                regex.append(Pattern.quote(String.valueOf(wildcard.charAt(++i))));
+            } else if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    @Override
+    public String toString() {
+        return type == null ? urlPattern : urlPattern + " [" + type + "]";
+    }
+}
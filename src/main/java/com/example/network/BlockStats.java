@@ -0,0 +1,16 @@
+package com.example.network;
+
+import java.util.Map;
+
+/**
+ * Requests failed by a {@link RequestBlocker}, by resource type, and the estimated bytes that were not downloaded.
+ */
+public record BlockStats(long blocked, long passedThrough, long estimatedBytesSaved,
+                         Map<ResourceType, Long> blockedByType) {
+
+    @Override
+    public String toString() {
+        return String.format("blocked=%d allowed-by-rule=%d saved~%dKB %s",
+                blocked, passedThrough, estimatedBytesSaved / 1024, blockedByType);
+    }
+}
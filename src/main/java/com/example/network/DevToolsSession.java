@@ -0,0 +1,128 @@
+package com.example.network;
+
+import com.example.log.Log;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Shares one browser's DevTools connection between several interceptors.
+ *
+ * {@code Fetch.enable} replaces the previous patterns and {@link DevTools#clearListeners()}
+ * drops everybody's listeners, so interceptors register here instead: the
+ * session merges their patterns into one {@code Fetch.enable}, offers each
+ * paused request to the handlers by priority until one resolves it (the rest
+ * are continued), and re-adds the remaining listeners when one owner leaves.
+ */
+final class DevToolsSession {
+
+    private static final Map<DevTools, DevToolsSession> SESSIONS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Event<Map<String, Object>> REQUEST_PAUSED = event("Fetch.requestPaused");
+
+    /**
+     * Decides a paused request; returns false to leave it to the next handler.
+     */
+    interface PauseHandler {
+        boolean handle(DevTools devTools, Map<String, Object> paused);
+    }
+
+    private record Registration(int priority, List<Map<String, Object>> patterns, PauseHandler handler,
+                                Map<String, Consumer<Map<String, Object>>> listeners, boolean network) {
+    }
+
+    private final DevTools devTools;
+    private final Map<Object, Registration> owners = new LinkedHashMap<>();
+    private volatile List<Registration> byPriority = List.of();
+
+    private DevToolsSession(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    static DevToolsSession of(DevTools devTools) {
+        devTools.createSessionIfThereIsNotOne();
+        return SESSIONS.computeIfAbsent(devTools, DevToolsSession::new);
+    }
+
+    /**
+     * Registers or replaces an owner's Fetch patterns, pause handler and event listeners.
+     * {@code network} asks for the {@code Network} domain to be enabled.
+     */
+    synchronized void register(Object owner, int priority, List<Map<String, Object>> patterns, PauseHandler handler,
+                               Map<String, Consumer<Map<String, Object>>> listeners, boolean network) {
+        owners.put(owner, new Registration(priority, List.copyOf(patterns), handler, Map.copyOf(listeners), network));
+        apply();
+    }
+
+    synchronized void unregister(Object owner) {
+        if (owners.remove(owner) != null) {
+            try {
+                apply();
+            } catch (WebDriverException e) {
+                // The browser is gone; nothing left to switch off
+            }
+        }
+    }
+
+    private void apply() {
+        List<Registration> registrations = new ArrayList<>(owners.values());
+        registrations.sort(Comparator.comparingInt(Registration::priority));
+        byPriority = List.copyOf(registrations);
+
+        devTools.clearListeners();
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        boolean network = false;
+        for (Registration registration : registrations) {
+            patterns.addAll(registration.patterns());
+            network |= registration.network();
+            registration.listeners().forEach((method, listener) -> devTools.addListener(event(method), listener));
+        }
+        if (patterns.isEmpty()) {
+            devTools.send(new Command<>("Fetch.disable", Map.of()));
+        } else {
+            devTools.addListener(REQUEST_PAUSED, this::onRequestPaused);
+            devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+        }
+        devTools.send(new Command<>(network ? "Network.enable" : "Network.disable", Map.of()));
+    }
+
+    // A paused request nobody resolves would hang the page, so every path ends in a decision
+    private void onRequestPaused(Map<String, Object> paused) {
+        for (Registration registration : byPriority) {
+            try {
+                if (registration.handler() != null && registration.handler().handle(devTools, paused)) {
+                    return;
+                }
+            } catch (WebDriverException e) {
+                Log.warn("DevTools interceptor failed on {}: {}", url(paused), e.getMessage());
+            }
+        }
+        try {
+            devTools.send(new Command<>("Fetch.continueRequest", Map.of("requestId", paused.get("requestId"))));
+        } catch (WebDriverException e) {
+            // The page navigated away, or interception was switched off meanwhile
+        }
+    }
+
+    static boolean isResponseStage(Map<String, Object> paused) {
+        return paused.containsKey("responseStatusCode") || paused.containsKey("responseErrorReason");
+    }
+
+    static String url(Map<String, Object> paused) {
+        return paused.get("request") instanceof Map<?, ?> request ? String.valueOf(request.get("url")) : "";
+    }
+
+    static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.network;
+
+import com.example.log.Log;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fails requests matching deny rules before they leave the browser, via DevTools {@code Fetch}.
+ *
+ * Only requests matching a deny rule are paused by the browser, so allowed
+ * traffic pays nothing; a paused request is let through if an allow rule
+ * matches it, and failed with {@code BlockedByClient} otherwise. Blocking runs
+ * before other interceptors sharing the {@link DevToolsSession}. Uses the raw
+ * protocol rather than a versioned {@code selenium-devtools-vNNN} module, so it
+ * keeps working when Chrome moves ahead of the bundled CDP versions.
+ *
+ * Bytes saved are an estimate: blocked requests times the average size of
+ * completed requests of the same type in the session, or
+ * {@link ResourceType#typicalBytes()} before any has completed. Drivers without
+ * DevTools (e.g. a plain remote session) are left alone with a warning.
+ */
+public class RequestBlocker implements AutoCloseable {
+
+    /** Images, media and web fonts, which tests rarely assert on. */
+    public static final List<BlockRule> HEAVY_RESOURCES = List.of(
+            BlockRule.type(ResourceType.IMAGE), BlockRule.type(ResourceType.MEDIA), BlockRule.type(ResourceType.FONT));
+
+    /** Ad and analytics hosts seen on the Google and Amazon pages under test. */
+    public static final List<BlockRule> TRACKERS = List.of(
+            BlockRule.url("*doubleclick.net/*"),
+            BlockRule.url("*google-analytics.com/*"),
+            BlockRule.url("*googletagmanager.com/*"),
+            BlockRule.url("*googlesyndication.com/*"),
+            BlockRule.url("*googleadservices.com/*"),
+            BlockRule.url("*amazon-adsystem.com/*"),
+            BlockRule.url("*fls-eu.amazon.*"),
+            BlockRule.url("*unagi.amazon.*"));
+
+    // Blocking is decided before anything else looks at a request
+    private static final int PRIORITY = 0;
+
+    private final WebDriver driver;
+    private final List<BlockRule> deny = new CopyOnWriteArrayList<>();
+    private final List<BlockRule> allow = new CopyOnWriteArrayList<>();
+    private final Map<ResourceType, LongAdder> blocked = new ConcurrentHashMap<>();
+    private final LongAdder passedThrough = new LongAdder();
+    private final Map<String, ResourceType> responses = new ConcurrentHashMap<>();
+    private final Map<ResourceType, long[]> completed = new EnumMap<>(ResourceType.class);
+    private DevToolsSession session;
+
+    public RequestBlocker(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public RequestBlocker deny(String urlPattern) {
+        return deny(List.of(BlockRule.url(urlPattern)));
+    }
+
+    public RequestBlocker deny(ResourceType type) {
+        return deny(List.of(BlockRule.type(type)));
+    }
+
+    public RequestBlocker deny(Collection<BlockRule> rules) {
+        deny.addAll(rules);
+        return refresh();
+    }
+
+    /**
+     * Exempts matching URLs from every deny rule.
+     */
+    public RequestBlocker allow(String urlPattern) {
+        allow.add(BlockRule.url(urlPattern));
+        return this;
+    }
+
+    /**
+     * Starts intercepting; rules added later take effect immediately.
+     */
+    public synchronized RequestBlocker start() {
+        if (session != null) {
+            return this;
+        }
+        if (!(driver instanceof HasDevTools hasDevTools)) {
+            Log.warn("RequestBlocker: {} has no DevTools connection, requests are not blocked",
+                    driver.getClass().getSimpleName());
+            return this;
+        }
+        session = DevToolsSession.of(hasDevTools.getDevTools());
+        return refresh();
+    }
+
+    public boolean isActive() {
+        return session != null;
+    }
+
+    public BlockStats stats() {
+        Map<ResourceType, Long> byType = new EnumMap<>(ResourceType.class);
+        long bytes = 0;
+        for (Map.Entry<ResourceType, LongAdder> entry : blocked.entrySet()) {
+            long count = entry.getValue().sum();
+            byType.put(entry.getKey(), count);
+            bytes += count * averageBytes(entry.getKey());
+        }
+        long total = byType.values().stream().mapToLong(Long::longValue).sum();
+        return new BlockStats(total, passedThrough.sum(), bytes, byType);
+    }
+
+    /**
+     * Stops intercepting so the browser can be reused by a test with other rules.
+     */
+    @Override
+    public synchronized void close() {
+        if (session != null) {
+            session.unregister(this);
+            session = null;
+        }
+    }
+
+    private synchronized RequestBlocker refresh() {
+        if (session == null) {
+            return this;
+        }
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (BlockRule rule : deny) {
+            patterns.add(rule.toRequestPattern());
+        }
+        session.register(this, PRIORITY, patterns, this::onRequestPaused,
+                Map.of("Network.responseReceived", this::onResponseReceived,
+                        "Network.loadingFinished", this::onLoadingFinished),
+                true);
+        return this;
+    }
+
+    // Other interceptors' patterns are merged in, so the deny rules are checked here again
+    private boolean onRequestPaused(DevTools devTools, Map<String, Object> paused) {
+        if (DevToolsSession.isResponseStage(paused)) {
+            return false;
+        }
+        String url = DevToolsSession.url(paused);
+        ResourceType type = ResourceType.of((String) paused.get("resourceType"));
+        if (deny.stream().noneMatch(rule -> rule.matches(url, type))) {
+            return false;
+        }
+        if (allow.stream().anyMatch(rule -> rule.matches(url, type))) {
+            passedThrough.increment();
+            return false;
+        }
+        devTools.send(new Command<>("Fetch.failRequest",
+                Map.of("requestId", paused.get("requestId"), "errorReason", "BlockedByClient")));
+        blocked.computeIfAbsent(type, k -> new LongAdder()).increment();
+        return true;
+    }
+
+    private void onResponseReceived(Map<String, Object> params) {
+        responses.put((String) params.get("requestId"), ResourceType.of((String) params.get("type")));
+    }
+
+    private void onLoadingFinished(Map<String, Object> params) {
+        ResourceType type = responses.remove((String) params.get("requestId"));
+        if (type != null && params.get("encodedDataLength") instanceof Number length) {
+            synchronized (completed) {
+                long[] sumAndCount = completed.computeIfAbsent(type, k -> new long[2]);
+                sumAndCount[0] += length.longValue();
+                sumAndCount[1]++;
+            }
+        }
+    }
+
+    private long averageBytes(ResourceType type) {
+        synchronized (completed) {
+            long[] sumAndCount = completed.get(type);
+            return sumAndCount == null || sumAndCount[1] == 0 ? type.typicalBytes() : sumAndCount[0] / sumAndCount[1];
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.network;
+
+import java.util.Locale;
+
+/**
+ * DevTools {@code Network.ResourceType}, with a rough typical transfer size for estimating savings.
+ *
+ * The sizes are ballpark medians of what a commercial page serves per request
+ * of that type; they are only used when no request of the type has completed
+ * in the session yet.
+ */
+public enum ResourceType {
+    DOCUMENT("Document", 30_000),
+    STYLESHEET("Stylesheet", 20_000),
+    IMAGE("Image", 35_000),
+    MEDIA("Media", 300_000),
+    FONT("Font", 30_000),
+    SCRIPT("Script", 25_000),
+    TEXT_TRACK("TextTrack", 5_000),
+    XHR("XHR", 5_000),
+    FETCH("Fetch", 5_000),
+    PREFETCH("Prefetch", 10_000),
+    EVENT_SOURCE("EventSource", 1_000),
+    WEB_SOCKET("WebSocket", 1_000),
+    MANIFEST("Manifest", 2_000),
+    SIGNED_EXCHANGE("SignedExchange", 20_000),
+    PING("Ping", 500),
+    CSP_VIOLATION_REPORT("CSPViolationReport", 500),
+    PREFLIGHT("Preflight", 500),
+    OTHER("Other", 5_000);
+
+    private final String cdpName;
+    private final long typicalBytes;
+
+    ResourceType(String cdpName, long typicalBytes) {
+        this.cdpName = cdpName;
+        this.typicalBytes = typicalBytes;
+    }
+
+    public String cdpName() {
+        return cdpName;
+    }
+
+    public long typicalBytes() {
+        return typicalBytes;
+    }
+
+    public static ResourceType of(String cdpName) {
+        if (cdpName != null) {
+            for (ResourceType type : values()) {
+                if (type.cdpName.equals(cdpName)) {
+                    return type;
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Recorded HTTP responses on disk, looked up by request key through a memory-mapped index.
+ *
+ * An archive is two files: {@code <name>.data} holds the records back to back
+ * (key, status, headers, body), and {@code <name>.idx} holds one fixed-width
+ * entry per record (64-bit key hash, offset, length) sorted by hash. Both are
+ * mapped read-only, so a lookup is a binary search over the index plus one
+ * slice of the data file, without parsing the rest of the archive. The full key
+ * is stored in each record and compared, so hash collisions are harmless.
+ *
+ * A {@link Writer} records into temp files and moves both into place only on
+ * close, so a recording that crashes or is killed leaves the previous archive
+ * as it was rather than an old index over new data.
+ */
+public final class TrafficArchive implements AutoCloseable {
+
+    private static final int MAGIC = 0x54524658; // "TRFX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int ENTRY_BYTES = 20;
+
+    public record RecordedResponse(int status, List<Map.Entry<String, String>> headers, byte[] body) {
+    }
+
+    private final FileChannel dataChannel;
+    private final MappedByteBuffer index;
+    private final MappedByteBuffer data;
+    private final int size;
+
+    private TrafficArchive(FileChannel dataChannel, MappedByteBuffer index, MappedByteBuffer data, int size) {
+        this.dataChannel = dataChannel;
+        this.index = index;
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * Request key: method, URL and a digest of the body, so large POST bodies don't bloat the archive.
+     */
+    public static String key(String method, String url, String body) {
+        String key = method.toUpperCase(Locale.ROOT) + " " + url;
+        if (body == null || body.isEmpty()) {
+            return key;
+        }
+        return key + " #" + HexFormat.of().formatHex(sha256(body)).substring(0, 16);
+    }
+
+    public static boolean exists(Path directory, String name) {
+        return Files.exists(directory.resolve(name + ".idx")) && Files.exists(directory.resolve(name + ".data"));
+    }
+
+    public static TrafficArchive open(Path directory, String name) throws IOException {
+        MappedByteBuffer index;
+        try (FileChannel channel = FileChannel.open(directory.resolve(name + ".idx"), StandardOpenOption.READ)) {
+            index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (index.getInt(0) != MAGIC || index.getInt(4) != VERSION) {
+            throw new IOException("Not a traffic archive index: " + directory.resolve(name + ".idx"));
+        }
+        FileChannel dataChannel = FileChannel.open(directory.resolve(name + ".data"), StandardOpenOption.READ);
+        MappedByteBuffer data = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, dataChannel.size());
+        return new TrafficArchive(dataChannel, index, data, index.getInt(8));
+    }
+
+    public static Writer create(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        return new Writer(directory, name);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Optional<RecordedResponse> lookup(String key) {
+        long hash = hash(key);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midHash = index.getLong(HEADER_BYTES + mid * ENTRY_BYTES);
+            if (midHash < hash) {
+                low = mid + 1;
+            } else if (midHash > hash) {
+                high = mid - 1;
+            } else {
+                // Walk back to the first entry with this hash, then check each candidate's full key
+                int first = mid;
+                while (first > 0 && index.getLong(HEADER_BYTES + (first - 1) * ENTRY_BYTES) == hash) {
+                    first--;
+                }
+                for (int i = first; i < size && index.getLong(HEADER_BYTES + i * ENTRY_BYTES) == hash; i++) {
+                    Optional<RecordedResponse> response = read(i, key);
+                    if (response.isPresent()) {
+                        return response;
+                    }
+                }
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void close() throws IOException {
+        dataChannel.close();
+    }
+
+    private Optional<RecordedResponse> read(int entry, String key) {
+        int position = HEADER_BYTES + entry * ENTRY_BYTES;
+        long offset = index.getLong(position + 8);
+        int length = index.getInt(position + 16);
+        ByteBuffer record = data.slice((int) offset, length);
+        if (!readString(record).equals(key)) {
+            return Optional.empty();
+        }
+        int status = record.getInt();
+        int headerCount = record.getInt();
+        List<Map.Entry<String, String>> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(Map.entry(readString(record), readString(record)));
+        }
+        byte[] body = new byte[record.getInt()];
+        record.get(body);
+        return Optional.of(new RecordedResponse(status, headers, body));
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static long hash(String key) {
+        return ByteBuffer.wrap(sha256(key)).getLong();
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every JRE", e);
+        }
+    }
+
+    /**
+     * Appends records to a new archive; the index is written, sorted, on {@link #close()}.
+     * The first response recorded for a key wins. Thread-safe.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final Path directory;
+        private final String name;
+        private final Path dataTemp;
+        private final FileChannel channel;
+        private final Map<String, long[]> entries = new LinkedHashMap<>();
+
+        private Writer(Path directory, String name) throws IOException {
+            this.directory = directory;
+            this.name = name;
+            this.dataTemp = Files.createTempFile(directory, name + ".data", ".tmp");
+            this.channel = FileChannel.open(dataTemp, StandardOpenOption.WRITE);
+        }
+
+        public synchronized boolean append(String key, RecordedResponse response) {
+            if (entries.containsKey(key)) {
+                return false;
+            }
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(response.body().length + 256);
+                DataOutputStream out = new DataOutputStream(bytes);
+                writeString(out, key);
+                out.writeInt(response.status());
+                out.writeInt(response.headers().size());
+                for (Map.Entry<String, String> header : response.headers()) {
+                    writeString(out, header.getKey());
+                    writeString(out, header.getValue());
+                }
+                out.writeInt(response.body().length);
+                out.write(response.body());
+
+                long offset = channel.position();
+                ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                entries.put(key, new long[]{hash(key), offset, bytes.size()});
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not record " + key, e);
+            }
+        }
+
+        public synchronized int size() {
+            return entries.size();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            channel.close();
+            List<long[]> sorted = new ArrayList<>(entries.values());
+            sorted.sort((a, b) -> Long.compare(a[0], b[0]));
+            ByteBuffer index = ByteBuffer.allocate(HEADER_BYTES + sorted.size() * ENTRY_BYTES);
+            index.putInt(MAGIC).putInt(VERSION).putInt(sorted.size());
+            for (long[] entry : sorted) {
+                index.putLong(entry[0]).putLong(entry[1]).putInt((int) entry[2]);
+            }
+            index.flip();
+            Path indexTemp = Files.createTempFile(directory, name + ".idx", ".tmp");
+            try (FileChannel out = FileChannel.open(indexTemp, StandardOpenOption.WRITE)) {
+                while (index.hasRemaining()) {
+                    out.write(index);
+                }
+            }
+            // Without an index the archive reads as missing, never as the old index over the new data
+            Files.deleteIfExists(directory.resolve(name + ".idx"));
+            Files.move(dataTemp, directory.resolve(name + ".data"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            Files.move(indexTemp, directory.resolve(name + ".idx"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.network;
+
+import com.example.log.Log;
+import com.example.network.TrafficArchive.RecordedResponse;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records a browser's responses into a {@link TrafficArchive}, or serves them back from one.
+ *
+ * Recording pauses every response via DevTools {@code Fetch}, copies status,
+ * headers and the decoded body into the archive and lets it through. Replaying
+ * pauses every request and fulfils it from the archive, keyed by method, URL
+ * and body, so the page never touches the network. In strict mode (the
+ * default) a request missing from the archive fails like an offline browser
+ * instead of reaching the live site, which keeps replayed runs deterministic.
+ *
+ * {@code -Dtraffic.mode=record|replay} switches it on for the pooled test
+ * browsers and SeleniumDemo; archives live in {@code traffic/}
+ * ({@code -Dtraffic.dir}), one per test class. Request blocking still applies
+ * first, so blocked requests are neither recorded nor replayed.
+ */
+public class TrafficReplay implements AutoCloseable {
+
+    public enum Mode {
+        OFF, RECORD, REPLAY;
+
+        public static Mode configured() {
+            String mode = System.getProperty("traffic.mode", "off");
+            return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Where the handlers send their DevTools commands; a {@link DevTools} in use, a recorder in tests.
+     */
+    interface Commands {
+        <X> X send(Command<X> command);
+    }
+
+    private static final int PRIORITY = 10;
+    // The recorded body is already decoded, so these would describe the wrong bytes on replay
+    private static final Set<String> DROPPED_HEADERS =
+            Set.of("content-encoding", "content-length", "transfer-encoding");
+
+    private final WebDriver driver;
+    private final TrafficArchive.Writer writer;
+    private final TrafficArchive archive;
+    private final boolean strict;
+    private final AutoCloseable owned;
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+    private DevToolsSession session;
+
+    private TrafficReplay(WebDriver driver, TrafficArchive.Writer writer, TrafficArchive archive, boolean strict,
+                          AutoCloseable owned) {
+        this.driver = driver;
+        this.writer = writer;
+        this.archive = archive;
+        this.strict = strict;
+        this.owned = owned;
+    }
+
+    public static TrafficReplay record(WebDriver driver, TrafficArchive.Writer writer) {
+        return new TrafficReplay(driver, writer, null, false, null).start();
+    }
+
+    public static TrafficReplay replay(WebDriver driver, TrafficArchive archive, boolean strict) {
+        return new TrafficReplay(driver, null, archive, strict, null).start();
+    }
+
+    /**
+     * Records to or replays the archive {@code name} as {@code -Dtraffic.mode} says; null when off.
+     * The archive is closed with the returned instance.
+     */
+    public static TrafficReplay configured(WebDriver driver, String name) throws IOException {
+        return switch (Mode.configured()) {
+            case OFF -> null;
+            case RECORD -> {
+                TrafficArchive.Writer writer = TrafficArchive.create(defaultDirectory(), name);
+                yield new TrafficReplay(driver, writer, null, false, writer).start();
+            }
+            case REPLAY -> {
+                TrafficArchive archive = TrafficArchive.open(defaultDirectory(), name);
+                yield new TrafficReplay(driver, null, archive, isStrict(), archive).start();
+            }
+        };
+    }
+
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("traffic.dir", "traffic"));
+    }
+
+    public static boolean isStrict() {
+        return Boolean.parseBoolean(System.getProperty("traffic.replay.strict", "true"));
+    }
+
+    public Mode mode() {
+        return writer != null ? Mode.RECORD : Mode.REPLAY;
+    }
+
+    private synchronized TrafficReplay start() {
+        if (!(driver instanceof HasDevTools hasDevTools)) {
+            Log.warn("TrafficReplay: {} has no DevTools connection, traffic is not {}",
+                    driver.getClass().getSimpleName(), writer != null ? "recorded" : "replayed");
+            return this;
+        }
+        session = DevToolsSession.of(hasDevTools.getDevTools());
+        String stage = writer != null ? "Response" : "Request";
+        session.register(this, PRIORITY, List.of(Map.of("urlPattern", "*", "requestStage", stage)),
+                writer != null ? (devTools, paused) -> onResponse(devTools::send, paused)
+                        : (devTools, paused) -> onRequest(devTools::send, paused), Map.of(), false);
+        return this;
+    }
+
+    @Override
+    public synchronized void close() throws Exception {
+        if (session != null) {
+            session.unregister(this);
+            session = null;
+        }
+        if (owned != null) {
+            owned.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return writer != null
+                ? String.format("recorded=%d", recorded.sum())
+                : String.format("replayed=%d missed=%d", replayed.sum(), missed.sum());
+    }
+
+    boolean onResponse(Commands devTools, Map<String, Object> paused) {
+        if (!paused.containsKey("responseStatusCode")) {
+            return false;
+        }
+        int status = ((Number) paused.get("responseStatusCode")).intValue();
+        List<Map.Entry<String, String>> headers = new ArrayList<>();
+        if (paused.get("responseHeaders") instanceof List<?> list) {
+            for (Object header : list) {
+                if (header instanceof Map<?, ?> map
+                        && !DROPPED_HEADERS.contains(String.valueOf(map.get("name")).toLowerCase(Locale.ROOT))) {
+                    headers.add(Map.entry(String.valueOf(map.get("name")), String.valueOf(map.get("value"))));
+                }
+            }
+        }
+        byte[] body = new byte[0];
+        // Redirects have no body to fetch
+        if (status < 300 || status >= 400) {
+            try {
+                Map<String, Object> content = devTools.send(new Command<Map<String, Object>>(
+                        "Fetch.getResponseBody", Map.of("requestId", paused.get("requestId")), Json.MAP_TYPE));
+                String text = String.valueOf(content.get("body"));
+                body = Boolean.TRUE.equals(content.get("base64Encoded"))
+                        ? Base64.getDecoder().decode(text)
+                        : text.getBytes(StandardCharsets.UTF_8);
+            } catch (WebDriverException e) {
+                // E.g. a 204 or an aborted response: record it without a body
+            }
+        }
+        if (writer.append(key(paused), new RecordedResponse(status, headers, body))) {
+            recorded.increment();
+        }
+        return false;
+    }
+
+    boolean onRequest(Commands devTools, Map<String, Object> paused) {
+        if (DevToolsSession.isResponseStage(paused)) {
+            return false;
+        }
+        RecordedResponse response = archive.lookup(key(paused)).orElse(null);
+        if (response == null) {
+            missed.increment();
+            if (!strict) {
+                return false;
+            }
+            devTools.send(new Command<>("Fetch.failRequest",
+                    Map.of("requestId", paused.get("requestId"), "errorReason", "InternetDisconnected")));
+            return true;
+        }
+        List<Map<String, String>> headers = new ArrayList<>();
+        for (Map.Entry<String, String> header : response.headers()) {
+            headers.add(Map.of("name", header.getKey(), "value", header.getValue()));
+        }
+        devTools.send(new Command<>("Fetch.fulfillRequest", Map.of(
+                "requestId", paused.get("requestId"),
+                "responseCode", response.status(),
+                "responseHeaders", headers,
+                "body", Base64.getEncoder().encodeToString(response.body()))));
+        replayed.increment();
+        return true;
+    }
+
+    private static String key(Map<String, Object> paused) {
+        Map<?, ?> request = paused.get("request") instanceof Map<?, ?> map ? map : Map.of();
+        Object body = request.get("postData");
+        return TrafficArchive.key(String.valueOf(request.get("method")), String.valueOf(request.get("url")),
+                body == null ? null : body.toString());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+
+/**
+ * The amazon.in home page, used for its search bar and category dropdown.
+ */
+public class AmazonHomePage extends Page {
+
+    public static final String URL = "https://www.amazon.in/";
+
+    private final LazyElement categoryDropdown = element("category dropdown", By.id("searchDropdownBox"));
+    private final LazyElement searchBox = element("search box", By.id("twotabsearchtextbox"));
+    private final LazyElement searchButton = element("search button", By.id("nav-search-submit-button"));
+
+    public AmazonHomePage(WebDriver driver) {
+        super(driver);
+    }
+
+    public AmazonHomePage open(String url) {
+        load(url);
+        return this;
+    }
+
+    public Select categories() {
+        return new Select(await(categoryDropdown));
+    }
+
+    public WebElement searchBox() {
+        return searchBox.get();
+    }
+
+    public AmazonSearchPage search(String query) {
+        WebElement box = searchBox.get();
+        box.clear();
+        box.sendKeys(query);
+        searchButton.get().click();
+        return new AmazonSearchPage(driver).awaitResults();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.pages;
+
+import com.example.locate.FallbackLocator;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.Optional;
+
+/**
+ * An Amazon product page; gift cards have a picker instead of a plain price.
+ */
+public class AmazonProductPage extends Page {
+
+    public static final String PAGE_TYPE = "amazon/product";
+
+    // a-price-whole, then a-offscreen, then the gift card picker button, in one probe
+    public static final FallbackLocator PRICE = FallbackLocator.of("Price",
+            By.cssSelector(".a-price-whole"),
+            By.cssSelector(".a-price .a-offscreen"),
+            By.cssSelector("button.gc-mini-picker-button")).requiringText();
+
+    private static final By PRODUCT_TITLE = By.id("productTitle");
+
+    private final LazyElement title = element("product title", PRODUCT_TITLE);
+
+    public AmazonProductPage(WebDriver driver) {
+        super(driver);
+    }
+
+    public AmazonProductPage open(String url) {
+        load(url);
+        return this;
+    }
+
+    /**
+     * Waits until the product title or a price is on the page.
+     */
+    public AmazonProductPage awaitLoaded() {
+        navigated();
+        waiting().until(ExpectedConditions.or(
+                ExpectedConditions.presenceOfElementLocated(PRODUCT_TITLE),
+                ExpectedConditions.presenceOfElementLocated(By.cssSelector(".a-price-whole"))));
+        return this;
+    }
+
+    /**
+     * The product title, or empty if the page has none (some gift card pages do not).
+     */
+    public Optional<String> productTitle() {
+        return title.isPresent() ? Optional.of(title.get().getText().trim()) : Optional.empty();
+    }
+
+    public Optional<FallbackLocator.Match> price() {
+        return PRICE.find(driver, PAGE_TYPE);
+    }
+}
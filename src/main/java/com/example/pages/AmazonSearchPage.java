@@ -0,0 +1,59 @@
+package com.example.pages;
+
+import com.example.extract.SearchResult;
+import com.example.locate.FallbackLocator;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Amazon search results, with the occasion filters on the side.
+ */
+public class AmazonSearchPage extends Page {
+
+    // Page types the locators remember their winning candidate for
+    public static final String PAGE_TYPE = "amazon/search";
+    public static final String RESULT_TYPE = "amazon/search-result";
+
+    public static final FallbackLocator CONGRATULATIONS_FILTER = FallbackLocator.of("Congratulations filter",
+            By.xpath("//span[text()='Congratulations']/ancestor::a[contains(@class, 'a-link-normal')]"),
+            By.xpath("//div[@id='s-refinements']//span[contains(text(), 'Congratulations')]/.."),
+            By.xpath("//*[contains(text(), 'Congratulations') and (self::a or self::span[parent::a])]"));
+
+    public static final FallbackLocator PRODUCT_LINK = FallbackLocator.of("Product link",
+            By.cssSelector("h2 a.a-link-normal"),
+            By.cssSelector("a.a-link-normal.s-no-outline"));
+
+    private final LazyElement resultsSlot = element("results", By.cssSelector(".s-main-slot"));
+
+    public AmazonSearchPage(WebDriver driver) {
+        super(driver);
+    }
+
+    public AmazonSearchPage awaitResults() {
+        navigated();
+        await(resultsSlot);
+        return this;
+    }
+
+    public Optional<WebElement> congratulationsFilter() {
+        return CONGRATULATIONS_FILTER.find(driver, PAGE_TYPE).map(FallbackLocator.Match::element);
+    }
+
+    /**
+     * Every result card, read in one script call once at least one is on the page.
+     */
+    public List<SearchResult> results() {
+        waiting().until(ExpectedConditions.presenceOfAllElementsLocatedBy(
+                By.cssSelector(SearchResult.RESULT_SELECTOR)));
+        return SearchResult.extractAll(driver);
+    }
+
+    public Optional<WebElement> productLink(SearchResult result) {
+        return PRODUCT_LINK.find(driver, result.element(), RESULT_TYPE).map(FallbackLocator.Match::element);
+    }
+}
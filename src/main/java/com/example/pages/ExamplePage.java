@@ -0,0 +1,38 @@
+package com.example.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * https://example.com: a heading and a paragraph of text.
+ */
+public class ExamplePage extends Page {
+
+    public static final String URL = "https://example.com";
+
+    private final LazyElement body = element("body", By.tagName("body"));
+    private final LazyElement heading = element("heading", By.tagName("h1"));
+
+    public ExamplePage(WebDriver driver) {
+        super(driver);
+    }
+
+    public ExamplePage open(String url) {
+        load(url);
+        await(body);
+        return this;
+    }
+
+    public WebElement heading() {
+        return await(heading);
+    }
+
+    public WebElement body() {
+        return body.get();
+    }
+
+    public String bodyText() {
+        return body.get().getText();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.util.List;
+
+/**
+ * The Google search page: the search box, its suggestions and the links around it.
+ */
+public class GoogleHomePage extends Page {
+
+    public static final String URL = "https://www.google.com";
+
+    private static final By SUGGESTIONS = By.cssSelector("ul[role='listbox'] li");
+
+    private final LazyElement searchBox = element("search box", By.name("q"));
+    private final LazyElement imagesLink = element("Images link", By.linkText("Images"));
+
+    public GoogleHomePage(WebDriver driver) {
+        super(driver);
+    }
+
+    public GoogleHomePage open(String url) {
+        load(url);
+        return this;
+    }
+
+    public WebElement searchBox() {
+        return await(searchBox);
+    }
+
+    public List<WebElement> luckyButtons() {
+        return driver.findElements(By.name("btnI"));
+    }
+
+    public By suggestions() {
+        return SUGGESTIONS;
+    }
+
+    public WebElement imagesLink() {
+        return waiting().until(ExpectedConditions.elementToBeClickable(imagesLink.by()));
+    }
+
+    public GoogleResultsPage search(String term) {
+        WebElement box = searchBox();
+        box.sendKeys(term);
+        box.submit();
+        return new GoogleResultsPage(driver);
+    }
+
+    public GoogleResultsPage searchWithEnter(String term) {
+        WebElement box = searchBox();
+        box.sendKeys(term);
+        box.sendKeys(Keys.RETURN);
+        return new GoogleResultsPage(driver);
+    }
+}
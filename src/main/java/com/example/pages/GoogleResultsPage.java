@@ -0,0 +1,22 @@
+package com.example.pages;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+/**
+ * The results of a Google search, reached from {@link GoogleHomePage}.
+ */
+public class GoogleResultsPage extends Page {
+
+    public GoogleResultsPage(WebDriver driver) {
+        super(driver);
+    }
+
+    /**
+     * Waits for the results title, which Google builds from the query (spaces as {@code +} for Enter searches).
+     */
+    public GoogleResultsPage awaitTitle(String text) {
+        waiting().until(ExpectedConditions.titleContains(text));
+        return this;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * IANA's reserved domains page, where example.com used to link to.
+ */
+public class IanaPage extends Page {
+
+    public static final String URL = "https://www.iana.org/domains/reserved";
+
+    private final LazyElement heading = element("heading", By.tagName("h1"));
+
+    public IanaPage(WebDriver driver) {
+        super(driver);
+    }
+
+    public IanaPage open(String url) {
+        load(url);
+        await(heading);
+        return this;
+    }
+
+    public WebElement heading() {
+        return await(heading);
+    }
+}
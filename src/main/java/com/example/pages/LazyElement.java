@@ -0,0 +1,117 @@
+package com.example.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * An element handle that is looked up on first use and reused until the page changes under it.
+ *
+ * {@link #get()} returns a stand-in {@link WebElement}: the first call on it
+ * runs {@code findElement}, later calls go straight to the cached element. If
+ * the element went stale (the page navigated or re-rendered it), the call is
+ * retried once on a fresh lookup, so callers never see the stale reference. A
+ * stale element is rejected before the browser acts on it, so retrying clicks
+ * and typing is safe. {@link #invalidate()} drops the cache up front, e.g. when
+ * the owning page knows it just navigated. Meant for a single thread.
+ */
+public final class LazyElement {
+
+    private final SearchContext root;
+    private final String name;
+    private final By by;
+    private final WebElement handle;
+    private WebElement cached;
+    private int lookups;
+
+    public LazyElement(SearchContext root, String name, By by) {
+        this.root = root;
+        this.name = name;
+        this.by = by;
+        this.handle = (WebElement) Proxy.newProxyInstance(LazyElement.class.getClassLoader(),
+                new Class<?>[]{WebElement.class, WrapsElement.class}, (proxy, method, args) -> invoke(method, args));
+    }
+
+    public WebElement get() {
+        return handle;
+    }
+
+    /**
+     * The element if it is on the page now, without throwing; for use in waits.
+     */
+    public WebElement find() {
+        if (cached == null) {
+            lookups++;
+            List<WebElement> found = root.findElements(by);
+            if (found.isEmpty()) {
+                return null;
+            }
+            cached = found.get(0);
+        }
+        return handle;
+    }
+
+    public boolean isPresent() {
+        return find() != null;
+    }
+
+    public void invalidate() {
+        cached = null;
+    }
+
+    /**
+     * How many times the element was looked up in the browser.
+     */
+    public int lookups() {
+        return lookups;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public By by() {
+        return by;
+    }
+
+    private WebElement resolve() {
+        if (cached == null) {
+            lookups++;
+            cached = root.findElement(by);
+        }
+        return cached;
+    }
+
+    private Object invoke(Method method, Object[] args) throws Throwable {
+        return switch (method.getName()) {
+            case "getWrappedElement" -> resolve();
+            case "toString" -> name + " (" + by + ")";
+            case "hashCode" -> System.identityHashCode(handle);
+            case "equals" -> handle == args[0];
+            default -> delegate(method, args);
+        };
+    }
+
+    private Object delegate(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(resolve(), args);
+        } catch (InvocationTargetException e) {
+            if (!(e.getCause() instanceof StaleElementReferenceException)) {
+                throw e.getCause();
+            }
+        }
+        invalidate();
+        try {
+            return method.invoke(resolve(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.pages;
+
+import com.example.report.PerformanceBudgets;
+import com.example.wait.AdaptiveWait;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base of the page objects: owns the page's {@link LazyElement}s and forgets them whenever it navigates.
+ *
+ * Subclasses declare their elements once as fields via {@link #element} and
+ * expose what the page offers as methods, so tests no longer repeat locators
+ * or look up an element they already found.
+ */
+public abstract class Page {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(25);
+
+    protected final WebDriver driver;
+    private final Duration timeout;
+    private final List<LazyElement> elements = new ArrayList<>();
+
+    protected Page(WebDriver driver) {
+        this(driver, DEFAULT_TIMEOUT);
+    }
+
+    protected Page(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    public WebDriver driver() {
+        return driver;
+    }
+
+    public String title() {
+        return driver.getTitle();
+    }
+
+    public String currentUrl() {
+        return driver.getCurrentUrl();
+    }
+
+    /**
+     * Drops every cached element, for when the page navigated in a way it could not see.
+     */
+    public void navigated() {
+        elements.forEach(LazyElement::invalidate);
+    }
+
+    /**
+     * How many element lookups the page has sent to the browser.
+     */
+    public int lookups() {
+        return elements.stream().mapToInt(LazyElement::lookups).sum();
+    }
+
+    protected LazyElement element(String name, By by) {
+        LazyElement element = new LazyElement(driver, name, by);
+        elements.add(element);
+        return element;
+    }
+
+    /**
+     * Navigates and checks the page against its {@link PerformanceBudgets}, if it has one.
+     */
+    protected void load(String url) {
+        driver.get(url);
+        navigated();
+        PerformanceBudgets.configured().check(driver);
+    }
+
+    /**
+     * Waits until the element is on the page; the element found by the wait is the one cached.
+     */
+    protected WebElement await(LazyElement element) {
+        return waiting().withMessage(() -> element + " not found")
+                .until(ignored -> element.find());
+    }
+
+    /**
+     * A wait with the page's timeout that checks again when the page changes, see {@link AdaptiveWait}.
+     */
+    protected WebDriverWait waiting() {
+        return new AdaptiveWait(driver, timeout).webDriverWait();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.report;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * Coarse grouping of WebDriver commands for step reports.
+ */
+public enum CommandCategory {
+    NAVIGATION,
+    FIND,
+    INTERACTION,
+    SCRIPT,
+    READ,
+    OTHER;
+
+    private static final Set<String> NAVIGATION_METHODS = Set.of("get", "to", "back", "forward", "refresh");
+    private static final Set<String> FIND_METHODS = Set.of("findElement", "findElements", "getShadowRoot");
+    private static final Set<String> INTERACTION_METHODS = Set.of("click", "sendKeys", "submit", "clear", "perform");
+    private static final Set<String> SCRIPT_METHODS = Set.of("executeScript", "executeAsyncScript");
+
+    // Accessors that only hand out another decorated object and never reach the driver
+    private static final Set<String> LOCAL_METHODS = Set.of("manage", "navigate", "switchTo", "timeouts", "window",
+            "logs", "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals");
+
+    public static boolean isRemote(Method method) {
+        return !LOCAL_METHODS.contains(method.getName());
+    }
+
+    public static CommandCategory of(Method method) {
+        String name = method.getName();
+        if (NAVIGATION_METHODS.contains(name)) {
+            return NAVIGATION;
+        } else if (FIND_METHODS.contains(name)) {
+            return FIND;
+        } else if (INTERACTION_METHODS.contains(name)) {
+            return INTERACTION;
+        } else if (SCRIPT_METHODS.contains(name)) {
+            return SCRIPT;
+        } else if (name.startsWith("get") || name.startsWith("is")) {
+            return READ;
+        }
+        return OTHER;
+    }
+}
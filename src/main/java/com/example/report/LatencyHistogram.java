@@ -0,0 +1,106 @@
+package com.example.report;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latency samples with nearest-rank percentiles and power-of-two millisecond buckets.
+ *
+ * An unbounded histogram keeps every sample; a bounded one keeps only the most
+ * recent {@code window} samples, for rolling percentiles. Thread-safe.
+ */
+public class LatencyHistogram {
+
+    private long[] micros;
+    private final int window;
+    private int size;
+    private int next;
+
+    public LatencyHistogram() {
+        this.micros = new long[64];
+        this.window = Integer.MAX_VALUE;
+    }
+
+    public LatencyHistogram(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must hold at least one sample, was: " + window);
+        }
+        this.micros = new long[Math.min(window, 64)];
+        this.window = window;
+    }
+
+    public synchronized void add(Duration latency) {
+        long value = Math.max(0, latency.toNanos() / 1_000);
+        if (size < window) {
+            if (size == micros.length) {
+                micros = Arrays.copyOf(micros, (int) Math.min((long) micros.length * 2, window));
+            }
+            micros[size++] = value;
+        } else {
+            micros[next] = value;
+            next = (next + 1) % window;
+        }
+    }
+
+    public synchronized int count() {
+        return size;
+    }
+
+    /**
+     * Nearest-rank percentile, {@code percentile} in (0, 100]. Zero when empty.
+     */
+    public synchronized Duration percentile(double percentile) {
+        if (size == 0) {
+            return Duration.ZERO;
+        }
+        long[] sorted = Arrays.copyOf(micros, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * size);
+        return Duration.ofNanos(sorted[Math.max(0, Math.min(size, rank) - 1)] * 1_000);
+    }
+
+    public Duration p50() {
+        return percentile(50);
+    }
+
+    public Duration p95() {
+        return percentile(95);
+    }
+
+    public Duration p99() {
+        return percentile(99);
+    }
+
+    public synchronized Duration max() {
+        long max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, micros[i]);
+        }
+        return Duration.ofNanos(max * 1_000);
+    }
+
+    /**
+     * Sample counts keyed by inclusive upper bound in milliseconds: 1, 2, 4, 8, ...
+     */
+    public synchronized Map<Long, Long> buckets() {
+        Map<Long, Long> buckets = new LinkedHashMap<>();
+        long[] sorted = Arrays.copyOf(micros, size);
+        Arrays.sort(sorted);
+        long bound = 1;
+        for (long sample : sorted) {
+            while (sample > bound * 1_000) {
+                bound *= 2;
+            }
+            buckets.merge(bound, 1L, Long::sum);
+        }
+        return buckets;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d p50=%dms p95=%dms p99=%dms max=%dms",
+                count(), p50().toMillis(), p95().toMillis(), p99().toMillis(), max().toMillis());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.report;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * How the last navigation of a page went, from its Navigation Timing and Resource Timing entries.
+ *
+ * Times count from the start of the navigation. {@code load} is null until the
+ * load event has finished. The largest resource is the one with the most bytes
+ * over the wire, or in the body where the transfer size is hidden or cached.
+ */
+public record NavigationTiming(String url, Duration ttfb, Duration domContentLoaded, Duration load,
+                               String largestResource, long largestResourceBytes, int resources) {
+
+    private static final String SCRIPT = """
+            var nav = performance.getEntriesByType('navigation')[0];
+            if (!nav) { return null; }
+            var entries = performance.getEntriesByType('resource');
+            var largest = null, bytes = 0;
+            for (var i = 0; i < entries.length; i++) {
+              var size = Math.max(entries[i].transferSize || 0, entries[i].encodedBodySize || 0);
+              if (size > bytes) { bytes = size; largest = entries[i].name; }
+            }
+            return {
+              url: nav.name,
+              ttfb: nav.responseStart - nav.startTime,
+              domContentLoaded: nav.domContentLoadedEventEnd - nav.startTime,
+              load: nav.loadEventEnd > 0 ? nav.loadEventEnd - nav.startTime : -1,
+              largest: largest,
+              largestBytes: bytes,
+              resources: entries.length
+            };
+            """;
+
+    /**
+     * The timing of the page the driver is on, or null where there is none (no JavaScript, no navigation entry).
+     */
+    public static NavigationTiming read(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor js)) {
+            return null;
+        }
+        return js.executeScript(SCRIPT) instanceof Map<?, ?> entry ? of(entry) : null;
+    }
+
+    static NavigationTiming of(Map<?, ?> entry) {
+        double load = number(entry.get("load"));
+        return new NavigationTiming(String.valueOf(entry.get("url")), millis(number(entry.get("ttfb"))),
+                millis(number(entry.get("domContentLoaded"))), load < 0 ? null : millis(load),
+                entry.get("largest") == null ? null : String.valueOf(entry.get("largest")),
+                (long) number(entry.get("largestBytes")), (int) number(entry.get("resources")));
+    }
+
+    public boolean loaded() {
+        return load != null;
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number number ? number.doubleValue() : 0;
+    }
+
+    private static Duration millis(double millis) {
+        return Duration.ofNanos((long) (millis * 1_000_000));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TTFB %dms, DOMContentLoaded %dms, load %s, largest resource %d KB of %d",
+                ttfb.toMillis(), domContentLoaded.toMillis(), load == null ? "pending" : load.toMillis() + "ms",
+                largestResourceBytes >> 10, resources);
+    }
+}
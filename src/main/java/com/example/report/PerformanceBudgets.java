@@ -0,0 +1,294 @@
+package com.example.report;
+
+import com.example.log.Log;
+import com.example.log.LogContext;
+import com.example.wait.AdaptiveWait;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Per-page limits on navigation timings, checked after a page loads.
+ *
+ * Budgets are properties {@code <page>.<metric> = <limit>}: the page is a host,
+ * optionally followed by a path prefix, and the longest match for a URL wins.
+ * {@code ttfb}, {@code domContentLoaded} and {@code load} are milliseconds from
+ * the start of the navigation, {@code largestResource} is bytes. Pages without
+ * a budget are not measured. Pages served by the local fixture server match by
+ * the live host in their path.
+ *
+ * Every check is appended to {@code history.csv} under {@code target/performance-budgets}
+ * ({@code -Dbudget.dir}). {@code -Dbudget.mode} decides what a breach does:
+ * {@code warn} (default) logs it, {@code fail} throws an {@link AssertionError},
+ * {@code off} skips checking. {@link #configured()} reads {@code -Dbudget.file},
+ * or {@code performance-budgets.properties} from the classpath.
+ */
+public class PerformanceBudgets {
+
+    public static final String RESOURCE = "performance-budgets.properties";
+
+    private static final Duration LOAD_TIMEOUT = Duration.ofSeconds(10);
+    private static final List<String> COLUMNS = List.of("at", "test", "page", "url", "ttfbMs", "domContentLoadedMs",
+            "loadMs", "largestResource", "largestResourceBytes", "resources", "passed", "violations");
+
+    private static volatile PerformanceBudgets configured;
+
+    public enum Mode {
+        OFF, WARN, FAIL;
+
+        public static Mode configured() {
+            String mode = System.getProperty("budget.mode", "warn");
+            return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public enum Metric {
+        TTFB("ttfb"), DOM_CONTENT_LOADED("domContentLoaded"), LOAD("load"), LARGEST_RESOURCE("largestResource");
+
+        private final String key;
+
+        Metric(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        /**
+         * Milliseconds, or bytes for {@link #LARGEST_RESOURCE}; -1 when the page has not got that far.
+         */
+        public long of(NavigationTiming timing) {
+            return switch (this) {
+                case TTFB -> timing.ttfb().toMillis();
+                case DOM_CONTENT_LOADED -> timing.domContentLoaded().toMillis();
+                case LOAD -> timing.loaded() ? timing.load().toMillis() : -1;
+                case LARGEST_RESOURCE -> timing.largestResourceBytes();
+            };
+        }
+
+        static Metric byKey(String key) {
+            for (Metric metric : values()) {
+                if (metric.key.equals(key)) {
+                    return metric;
+                }
+            }
+            throw new IllegalArgumentException("Unknown budget metric '" + key + "', expected one of "
+                    + Arrays.stream(values()).map(Metric::key).toList());
+        }
+    }
+
+    /**
+     * One page checked against its budget; {@code violations} is empty when it stayed within.
+     */
+    public record Result(Instant at, String test, String page, NavigationTiming timing, List<String> violations) {
+
+        public boolean passed() {
+            return violations.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return page + ": " + timing + (passed() ? "" : ", over budget: " + String.join(", ", violations));
+        }
+    }
+
+    private final Map<String, Map<Metric, Long>> budgets;
+    private final Mode mode;
+    private final Path history;
+
+    public PerformanceBudgets(Map<String, Map<Metric, Long>> budgets, Mode mode, Path history) {
+        this.budgets = Map.copyOf(budgets);
+        this.mode = mode;
+        this.history = history;
+    }
+
+    public static PerformanceBudgets configured() {
+        PerformanceBudgets current = configured;
+        if (current == null) {
+            synchronized (PerformanceBudgets.class) {
+                current = configured;
+                if (current == null) {
+                    current = new PerformanceBudgets(parse(loadProperties()), Mode.configured(),
+                            Paths.get(System.getProperty("budget.dir", "target/performance-budgets"))
+                                    .resolve("history.csv"));
+                    configured = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Properties loadProperties() {
+        Properties properties = new Properties();
+        String file = System.getProperty("budget.file");
+        try (InputStream in = file != null ? Files.newInputStream(Paths.get(file))
+                : PerformanceBudgets.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read performance budgets " + file, e);
+        }
+        return properties;
+    }
+
+    public static Map<String, Map<Metric, Long>> parse(Properties properties) {
+        Map<String, Map<Metric, Long>> budgets = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            int dot = key.lastIndexOf('.');
+            if (dot <= 0) {
+                throw new IllegalArgumentException("Budget keys are <page>.<metric>, was: " + key);
+            }
+            budgets.computeIfAbsent(key.substring(0, dot), page -> new EnumMap<>(Metric.class))
+                    .put(Metric.byKey(key.substring(dot + 1)), Long.parseLong(properties.getProperty(key).trim()));
+        }
+        return budgets;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * The budgeted page a URL falls under: the longest page that is its host and path, or a prefix of them
+     * ending at a {@code /}.
+     */
+    public Optional<String> pageOf(String url) {
+        if (url == null || budgets.isEmpty()) {
+            return Optional.empty();
+        }
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (uri.getHost() == null) {
+            return Optional.empty();
+        }
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        boolean loopback = uri.getHost().equals("127.0.0.1") || uri.getHost().equals("localhost");
+        // The fixture server serves https://host/path at http://127.0.0.1:port/host/path
+        String location = loopback && path.length() > 1 ? path.substring(1) : uri.getHost() + path;
+        return budgets.keySet().stream()
+                .filter(page -> location.equals(page) || location.startsWith(page.endsWith("/") ? page : page + "/"))
+                .max((a, b) -> Integer.compare(a.length(), b.length()));
+    }
+
+    /**
+     * Measures the page the driver is on if it has a budget, waiting up to ten seconds for its load event when
+     * the budget has a load limit, records the result and warns or fails as configured. Empty when there was
+     * nothing to check.
+     */
+    public Optional<Result> check(WebDriver driver) {
+        if (mode == Mode.OFF || budgets.isEmpty() || !(driver instanceof JavascriptExecutor)) {
+            return Optional.empty();
+        }
+        Optional<String> page = pageOf(driver.getCurrentUrl());
+        if (page.isEmpty()) {
+            return Optional.empty();
+        }
+        // Without a load limit a slow third-party load event is not worth waiting for; driver.get() has already
+        // waited for the document
+        NavigationTiming timing = null;
+        if (budgets.get(page.get()).containsKey(Metric.LOAD)) {
+            timing = new AdaptiveWait(driver, LOAD_TIMEOUT).optionally("load event", browser -> {
+                NavigationTiming current = NavigationTiming.read(browser);
+                return current != null && current.loaded() ? current : null;
+            });
+        }
+        if (timing == null) {
+            timing = NavigationTiming.read(driver);
+            if (timing == null) {
+                return Optional.empty();
+            }
+        }
+        Result result = evaluate(LogContext.test(), page.get(), timing);
+        record(result);
+        if (!result.passed()) {
+            if (mode == Mode.FAIL) {
+                throw new AssertionError("Performance budget exceeded on " + result);
+            }
+            Log.warn("Performance budget exceeded on {}", result);
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * The result of checking {@code timing} against the budget of {@code page}; a load that never finished
+     * is over any load budget.
+     */
+    public Result evaluate(String test, String page, NavigationTiming timing) {
+        List<String> violations = new ArrayList<>();
+        budgets.getOrDefault(page, Map.of()).forEach((metric, limit) -> {
+            long value = metric.of(timing);
+            if (value < 0) {
+                violations.add(metric.key() + " not reached (budget " + format(metric, limit) + ")");
+            } else if (value > limit) {
+                violations.add(metric.key() + " " + format(metric, value) + " > " + format(metric, limit));
+            }
+        });
+        return new Result(Instant.now(), test, page, timing, List.copyOf(violations));
+    }
+
+    private static String format(Metric metric, long value) {
+        return metric == Metric.LARGEST_RESOURCE ? value + " bytes" : value + "ms";
+    }
+
+    // Forked JVMs append at once too, so writes are serialised with a file lock as well
+    private synchronized void record(Result result) {
+        NavigationTiming timing = result.timing();
+        List<String> cells = new ArrayList<>(List.of(result.at().toString(), result.test(), result.page(),
+                timing.url()));
+        for (Metric metric : Metric.values()) {
+            if (metric == Metric.LARGEST_RESOURCE) {
+                cells.add(timing.largestResource() == null ? "" : timing.largestResource());
+            }
+            cells.add(String.valueOf(metric.of(timing)));
+        }
+        cells.add(String.valueOf(timing.resources()));
+        cells.add(String.valueOf(result.passed()));
+        cells.add(String.join("; ", result.violations()));
+        String row = cells.stream().map(RunReport::escape).collect(Collectors.joining(",")) + "\n";
+        try {
+            Files.createDirectories(history.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(history, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                // Released when the channel closes
+                channel.lock();
+                String content = channel.size() == 0 ? String.join(",", COLUMNS) + "\n" + row : row;
+                channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            Log.warn("Could not record budget result: {}", e.getMessage());
+        }
+    }
+
+    public Path history() {
+        return history;
+    }
+}
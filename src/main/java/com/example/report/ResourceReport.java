@@ -0,0 +1,132 @@
+package com.example.report;
+
+import com.example.driver.ResourceSample;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the {@link ResourceSample}s of one run, writes them as JSON lines and sums them up per test step.
+ *
+ * Files go to {@code target/resource-reports} unless {@code -Dresource.report.dir}
+ * says otherwise. The peak RSS of a single session, against the machine's
+ * memory, tells how many sessions a node can run side by side.
+ */
+public class ResourceReport {
+
+    private static final Json JSON = new Json();
+
+    private final String runId;
+    private final Path directory;
+    private final Collection<ResourceSample> samples = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Peaks of one test step over its samples; {@code cpuCores} is the CPU time used per second of wall time.
+     */
+    public record StepUsage(int samples, long peakRssBytes, long peakJsHeapBytes, long peakDomNodes, double cpuCores) {
+
+        @Override
+        public String toString() {
+            return String.format("%d samples, peak RSS %d MB, peak JS heap %.1f MB, %d DOM nodes, %.2f CPU cores",
+                    samples, peakRssBytes >> 20, peakJsHeapBytes / 1048576.0, peakDomNodes, cpuCores);
+        }
+    }
+
+    public ResourceReport() {
+        this(defaultDirectory());
+    }
+
+    public ResourceReport(Path directory) {
+        this.directory = directory;
+        this.runId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS"));
+    }
+
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("resource.report.dir", "target/resource-reports"));
+    }
+
+    public void add(Collection<ResourceSample> more) {
+        samples.addAll(more);
+    }
+
+    public String runId() {
+        return runId;
+    }
+
+    public boolean isEmpty() {
+        return samples.isEmpty();
+    }
+
+    /**
+     * Writes this run's samples and returns the usage of each test step, keyed by {@link ResourceSample#key()}.
+     */
+    public Map<String, StepUsage> write() throws IOException {
+        Files.createDirectories(directory);
+        List<ResourceSample> sorted = new ArrayList<>(samples);
+        sorted.sort(Comparator.comparing(ResourceSample::at));
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve("resources-" + runId + ".jsonl"))) {
+            StringBuilder line = new StringBuilder(256);
+            for (ResourceSample sample : sorted) {
+                line.setLength(0);
+                try (JsonOutput json = JSON.newOutput(line)) {
+                    json.setPrettyPrint(false).write(sample.toMap());
+                }
+                out.append(line).append('\n');
+            }
+        }
+        return usage(sorted);
+    }
+
+    static Map<String, StepUsage> usage(Collection<ResourceSample> samples) {
+        Map<String, List<ResourceSample>> bySteps = samples.stream()
+                .sorted(Comparator.comparing(ResourceSample::at))
+                .collect(Collectors.groupingBy(ResourceSample::key, TreeMap::new, Collectors.toList()));
+        Map<String, StepUsage> usage = new TreeMap<>();
+        bySteps.forEach((key, steps) -> {
+            ResourceSample first = steps.get(0);
+            ResourceSample last = steps.get(steps.size() - 1);
+            long wallNanos = Duration.between(first.at(), last.at()).toNanos();
+            double cores = wallNanos > 0 ? (double) last.cpu().minus(first.cpu()).toNanos() / wallNanos : 0;
+            usage.put(key, new StepUsage(steps.size(),
+                    steps.stream().mapToLong(ResourceSample::rssBytes).max().orElse(0),
+                    steps.stream().mapToLong(ResourceSample::jsHeapBytes).max().orElse(0),
+                    steps.stream().mapToLong(ResourceSample::domNodes).max().orElse(0),
+                    Math.max(0, cores)));
+        });
+        return usage;
+    }
+
+    public long peakSessionRssBytes() {
+        return samples.stream().mapToLong(ResourceSample::rssBytes).max().orElse(0);
+    }
+
+    /**
+     * Sessions at the peak RSS seen that fit in {@code memoryBytes}; 0 when nothing was sampled.
+     */
+    public long sessionsFitting(long memoryBytes) {
+        long peak = peakSessionRssBytes();
+        return peak == 0 ? 0 : memoryBytes / peak;
+    }
+
+    public static long physicalMemoryBytes() {
+        return ManagementFactory.getPlatformMXBean(com.sun.management.OperatingSystemMXBean.class)
+                .getTotalMemorySize();
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.report;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects {@link StepRecord}s of one run and writes them as JSON and CSV.
+ *
+ * Every run is also appended to {@code history.csv}, and {@code latency-histogram.json}
+ * is rebuilt from the whole history with p50/p95/p99 per test step. Files go to
+ * {@code target/step-reports} unless {@code -Dstep.report.dir} says otherwise.
+ */
+public class RunReport {
+
+    private static final String HISTORY = "history.csv";
+    private static final List<String> COLUMNS = List.of("run", "test", "step", "passed", "startedAt", "durationMs",
+            "commands", "navigationMs", "findMs", "interactionMs", "scriptMs", "readMs", "otherMs", "waitMs");
+
+    private final String runId;
+    private final Path directory;
+    private final Collection<StepRecord> records = new ConcurrentLinkedQueue<>();
+
+    public RunReport() {
+        this(defaultDirectory());
+    }
+
+    public RunReport(Path directory) {
+        this.directory = directory;
+        this.runId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS"));
+    }
+
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("step.report.dir", "target/step-reports"));
+    }
+
+    public void add(Collection<StepRecord> steps) {
+        records.addAll(steps);
+    }
+
+    public String runId() {
+        return runId;
+    }
+
+    /**
+     * Writes this run's files, appends it to the history and returns the
+     * per-step latency histograms over all recorded runs.
+     */
+    public Map<String, LatencyHistogram> write() throws IOException {
+        Files.createDirectories(directory);
+        List<StepRecord> steps = new ArrayList<>(records);
+
+        List<Map<String, Object>> json = new ArrayList<>();
+        StringBuilder csv = new StringBuilder(String.join(",", COLUMNS)).append('\n');
+        StringBuilder history = new StringBuilder();
+        for (StepRecord step : steps) {
+            json.add(toMap(step));
+            String row = toCsvRow(step);
+            csv.append(row).append('\n');
+            history.append(row).append('\n');
+        }
+        Files.writeString(directory.resolve("run-" + runId + ".json"), new Json().toJson(json));
+        Files.writeString(directory.resolve("run-" + runId + ".csv"), csv);
+        appendHistory(history.toString());
+
+        Map<String, LatencyHistogram> histograms = histograms(directory.resolve(HISTORY));
+        Map<String, Object> summary = new LinkedHashMap<>();
+        histograms.forEach((key, histogram) -> {
+            Map<String, Object> buckets = new LinkedHashMap<>();
+            histogram.buckets().forEach((bound, count) -> buckets.put("<=" + bound, count));
+            summary.put(key, Map.of(
+                    "count", histogram.count(),
+                    "p50Ms", histogram.p50().toMillis(),
+                    "p95Ms", histogram.p95().toMillis(),
+                    "p99Ms", histogram.p99().toMillis(),
+                    "bucketsMs", buckets));
+        });
+        try (Writer out = Files.newBufferedWriter(directory.resolve("latency-histogram.json"))) {
+            out.write(new Json().toJson(summary));
+        }
+        return histograms;
+    }
+
+    // Several forked JVMs may finish at once, so appends are serialised with a file lock
+    private void appendHistory(String rows) throws IOException {
+        Path file = directory.resolve(HISTORY);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            // Released when the channel closes
+            channel.lock();
+            String content = channel.size() == 0 ? String.join(",", COLUMNS) + "\n" + rows : rows;
+            channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    static Map<String, LatencyHistogram> histograms(Path history) throws IOException {
+        Map<String, LatencyHistogram> histograms = new TreeMap<>();
+        if (!Files.exists(history)) {
+            return histograms;
+        }
+        try (BufferedReader in = Files.newBufferedReader(history)) {
+            String line = in.readLine();
+            while ((line = in.readLine()) != null) {
+                List<String> cells = parseCsvRow(line);
+                if (cells.size() < COLUMNS.size()) {
+                    continue;
+                }
+                double millis = Double.parseDouble(cells.get(5));
+                histograms.computeIfAbsent(cells.get(1) + " / " + cells.get(2), k -> new LatencyHistogram())
+                        .add(Duration.ofNanos((long) (millis * 1_000_000)));
+            }
+        }
+        return histograms;
+    }
+
+    private Map<String, Object> toMap(StepRecord step) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("run", runId);
+        map.put("test", step.test());
+        map.put("step", step.step());
+        map.put("passed", step.passed());
+        map.put("startedAt", step.startedAt().toString());
+        map.put("durationMs", step.millis());
+        map.put("commands", step.commands());
+        Map<String, Object> commandMs = new LinkedHashMap<>();
+        step.commandTime().forEach((category, time) ->
+                commandMs.put(category.name().toLowerCase(Locale.ROOT), time.toNanos() / 1_000_000.0));
+        map.put("commandMs", commandMs);
+        map.put("waitMs", step.waitTime().toNanos() / 1_000_000.0);
+        return map;
+    }
+
+    private String toCsvRow(StepRecord step) {
+        List<String> cells = new ArrayList<>(List.of(runId, step.test(), step.step(), String.valueOf(step.passed()),
+                step.startedAt().toString(), format(step.millis()), String.valueOf(step.commands())));
+        for (CommandCategory category : CommandCategory.values()) {
+            cells.add(format(step.commandTime().get(category).toNanos() / 1_000_000.0));
+        }
+        cells.add(format(step.waitTime().toNanos() / 1_000_000.0));
+        return String.join(",", cells.stream().map(RunReport::escape).toList());
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.3f", millis);
+    }
+
+    static String escape(String cell) {
+        if (cell.contains(",") || cell.contains("\"") || cell.contains("\n")) {
+            return "\"" + cell.replace("\"", "\"\"") + "\"";
+        }
+        return cell;
+    }
+
+    static List<String> parseCsvRow(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.report;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Timing of one named step of one test.
+ *
+ * @param commandTime time spent inside WebDriver commands, by category
+ * @param waitTime    time spent in {@code AdaptiveWait}s, which overlaps the commands they poll with
+ */
+public record StepRecord(String test, String step, boolean passed, Instant startedAt, Duration duration,
+                         long commands, Map<CommandCategory, Duration> commandTime, Duration waitTime) {
+
+    public double millis() {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    public String key() {
+        return test + " / " + step;
+    }
+}
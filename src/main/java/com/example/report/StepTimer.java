@@ -0,0 +1,173 @@
+package com.example.report;
+
+import com.example.log.LogContext;
+import com.example.wait.AdaptiveWait;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Splits one test or run into named steps and records wall time and WebDriver commands per step.
+ *
+ * Drive the browser through {@link #instrument(WebDriver)} so commands are counted,
+ * and call {@link #start(String)} at each step boundary; starting a step ends the
+ * previous one. Until the first explicit step, time is booked to an implicit
+ * step named {@code test}. Meant for a single thread, whose {@link LogContext}
+ * it keeps pointed at the test and its current step.
+ */
+public class StepTimer {
+
+    public static final String IMPLICIT_STEP = "test";
+
+    private final String test;
+    private final List<StepRecord> records = new ArrayList<>();
+    private final CommandListener listener = new CommandListener();
+    private final List<Consumer<String>> stepListeners = new ArrayList<>();
+
+    private String currentStep;
+    private Instant startedAt;
+    private long startNanos;
+    private long[] startCounts;
+    private long[] startTimes;
+    private long startWaitNanos;
+    private boolean explicitStepSeen;
+
+    public StepTimer(String test) {
+        this.test = test;
+        LogContext.test(test);
+        open(IMPLICIT_STEP);
+    }
+
+    public WebDriver instrument(WebDriver driver) {
+        return new EventFiringDecorator<>(listener).decorate(driver);
+    }
+
+    /**
+     * Books the time of the wait's polls to the step that was running.
+     */
+    public void track(AdaptiveWait waits) {
+        waits.onWait(record -> listener.waitNanos += record.elapsed().toNanos());
+    }
+
+    /**
+     * Tells {@code listener} the name of each explicit step as it starts.
+     */
+    public void onStep(Consumer<String> listener) {
+        stepListeners.add(listener);
+    }
+
+    public void start(String step) {
+        boolean droppable = !explicitStepSeen && IMPLICIT_STEP.equals(currentStep)
+                && listener.total() == sum(startCounts);
+        if (droppable) {
+            currentStep = null;
+        }
+        close(true);
+        explicitStepSeen = true;
+        LogContext.step(step);
+        open(step);
+        stepListeners.forEach(listener -> listener.accept(step));
+    }
+
+    public void finish() {
+        close(true);
+    }
+
+    /**
+     * Ends the running step as failed, e.g. when the test threw out of it.
+     */
+    public void fail() {
+        close(false);
+    }
+
+    public List<StepRecord> records() {
+        return List.copyOf(records);
+    }
+
+    public String test() {
+        return test;
+    }
+
+    private void open(String step) {
+        currentStep = step;
+        startedAt = Instant.now();
+        startNanos = System.nanoTime();
+        startCounts = listener.counts.clone();
+        startTimes = listener.nanos.clone();
+        startWaitNanos = listener.waitNanos;
+    }
+
+    private void close(boolean passed) {
+        if (currentStep == null) {
+            return;
+        }
+        Map<CommandCategory, Duration> commandTime = new EnumMap<>(CommandCategory.class);
+        long commands = 0;
+        for (CommandCategory category : CommandCategory.values()) {
+            int i = category.ordinal();
+            commandTime.put(category, Duration.ofNanos(listener.nanos[i] - startTimes[i]));
+            commands += listener.counts[i] - startCounts[i];
+        }
+        records.add(new StepRecord(test, currentStep, passed, startedAt,
+                Duration.ofNanos(System.nanoTime() - startNanos), commands, commandTime,
+                Duration.ofNanos(listener.waitNanos - startWaitNanos)));
+        currentStep = null;
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static final class CommandListener implements WebDriverListener {
+
+        private final long[] counts = new long[CommandCategory.values().length];
+        private final long[] nanos = new long[CommandCategory.values().length];
+        private final Deque<Long> started = new ArrayDeque<>();
+        private long waitNanos;
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            started.push(System.nanoTime());
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            record(method);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            record(method);
+        }
+
+        private void record(Method method) {
+            Long start = started.poll();
+            if (start == null || !CommandCategory.isRemote(method)) {
+                return;
+            }
+            int i = CommandCategory.of(method).ordinal();
+            counts[i]++;
+            nanos[i] += System.nanoTime() - start;
+        }
+
+        long total() {
+            return sum(counts);
+        }
+    }
+}
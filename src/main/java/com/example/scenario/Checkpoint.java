@@ -0,0 +1,132 @@
+package com.example.scenario;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Remembers which rows of a data-driven run are done, so an interrupted run resumes where it stopped.
+ *
+ * Rows finish out of order when they run in parallel, so progress is a low
+ * watermark (every row up to it is done) plus the few rows already done above
+ * it. Both are written to a properties file every {@code saveEvery}
+ * completions and on close, through a temp file and an atomic move so a crash
+ * never leaves a torn checkpoint behind; a checkpoint without progress has no file.
+ */
+public final class Checkpoint implements AutoCloseable {
+
+    private final Path file;
+    private final int saveEvery;
+    private final TreeSet<Long> ahead = new TreeSet<>();
+    private long watermark;
+    private int unsaved;
+
+    private Checkpoint(Path file, int saveEvery) {
+        this.file = file;
+        this.saveEvery = saveEvery;
+    }
+
+    public static Checkpoint load(Path file) throws IOException {
+        return load(file, 100);
+    }
+
+    public static Checkpoint load(Path file, int saveEvery) throws IOException {
+        if (saveEvery < 1) {
+            throw new IllegalArgumentException("saveEvery must be at least 1, was: " + saveEvery);
+        }
+        Checkpoint checkpoint = new Checkpoint(file, saveEvery);
+        if (Files.exists(file)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+            checkpoint.watermark = Long.parseLong(properties.getProperty("watermark", "0"));
+            Arrays.stream(properties.getProperty("ahead", "").split(","))
+                    .filter(row -> !row.isBlank())
+                    .map(Long::valueOf)
+                    .forEach(checkpoint.ahead::add);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * A checkpoint that is never written, for runs that do not need to resume.
+     */
+    public static Checkpoint none() {
+        return new Checkpoint(null, Integer.MAX_VALUE);
+    }
+
+    public synchronized long watermark() {
+        return watermark;
+    }
+
+    public synchronized boolean isDone(long row) {
+        return row <= watermark || ahead.contains(row);
+    }
+
+    public synchronized void complete(long row) {
+        if (isDone(row)) {
+            return;
+        }
+        ahead.add(row);
+        while (!ahead.isEmpty() && ahead.first() == watermark + 1) {
+            watermark = ahead.pollFirst();
+        }
+        if (++unsaved >= saveEvery) {
+            save();
+        }
+    }
+
+    public synchronized void save() {
+        if (file == null) {
+            return;
+        }
+        try {
+            if (watermark == 0 && ahead.isEmpty()) {
+                Files.deleteIfExists(file);
+                unsaved = 0;
+                return;
+            }
+            Properties properties = new Properties();
+            properties.setProperty("watermark", String.valueOf(watermark));
+            properties.setProperty("ahead", ahead.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "data-driven run progress");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            unsaved = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Forgets all progress, e.g. once a run got through every row, so the next run starts over.
+     */
+    public synchronized void clear() {
+        watermark = 0;
+        ahead.clear();
+        save();
+    }
+
+    @Override
+    public void close() {
+        save();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "done through row " + watermark + (ahead.isEmpty() ? "" : " and " + ahead.size() + " rows past it");
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.scenario;
+
+import java.util.Map;
+
+/**
+ * One record of a {@link DataSource}, numbered from 1 in file order (the CSV header is not counted).
+ */
+public record DataRow(long number, Map<String, String> values) {
+
+    public DataRow {
+        values = Map.copyOf(values);
+    }
+
+    public String get(String column) {
+        String value = values.get(column);
+        if (value == null) {
+            throw new IllegalArgumentException("No column '" + column + "' in row " + number
+                    + ", columns: " + values.keySet());
+        }
+        return value;
+    }
+
+    public String get(String column, String fallback) {
+        return values.getOrDefault(column, fallback);
+    }
+
+    public int getInt(String column) {
+        try {
+            return Integer.parseInt(get(column).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Column '" + column + "' of row " + number + " is not a number: "
+                    + values.get(column), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "#" + number + " " + values;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.scenario;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams scenario rows from a CSV or JSONL file without reading it into memory.
+ *
+ * The format follows the extension: {@code .csv} files have a header record
+ * naming the columns and may quote fields ({@code ""} escapes a quote, quoted
+ * fields may span lines); {@code .jsonl} / {@code .ndjson} files hold one JSON
+ * object per line. Blank lines are skipped. Records are parsed one at a time
+ * as the stream pulls them, so memory stays flat however large the file is.
+ */
+public final class DataSource implements AutoCloseable {
+
+    public enum Format {
+        CSV, JSONL;
+
+        public static Format of(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                return JSONL;
+            }
+            throw new IllegalArgumentException("Unknown data file format, expected .csv or .jsonl: " + path);
+        }
+    }
+
+    private static final Json JSON = new Json();
+
+    private final Path path;
+    private final Format format;
+    private final BufferedReader reader;
+    private List<String> header;
+    private long number;
+    private boolean streamed;
+
+    private DataSource(Path path, Format format, BufferedReader reader) {
+        this.path = path;
+        this.format = format;
+        this.reader = reader;
+    }
+
+    public static DataSource open(Path path) throws IOException {
+        Format format = Format.of(path);
+        return new DataSource(path, format, Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * The rows in file order. Closing the stream closes the file; a source can be streamed once.
+     */
+    public synchronized Stream<DataRow> rows() {
+        if (streamed) {
+            throw new IllegalStateException("Rows of " + path + " have already been streamed");
+        }
+        streamed = true;
+        Spliterator<DataRow> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super DataRow> action) {
+                DataRow row = next();
+                if (row == null) {
+                    return false;
+                }
+                action.accept(row);
+                return true;
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private DataRow next() {
+        try {
+            return format == Format.CSV ? nextCsv() : nextJson();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+    }
+
+    private DataRow nextJson() throws IOException {
+        String line = nextLine();
+        if (line == null) {
+            return null;
+        }
+        number++;
+        Map<String, Object> object;
+        try {
+            object = JSON.toType(line, Json.MAP_TYPE);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Row " + number + " of " + path + " is not a JSON object: " + line, e);
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        object.forEach((key, value) -> values.put(key, value == null ? "" : String.valueOf(value)));
+        return new DataRow(number, values);
+    }
+
+    private DataRow nextCsv() throws IOException {
+        if (header == null) {
+            List<String> names = readRecord();
+            if (names == null) {
+                return null;
+            }
+            // Spreadsheet exports often start with a byte order mark
+            names.set(0, names.get(0).replace("\uFEFF", ""));
+            header = names.stream().map(String::trim).toList();
+        }
+        List<String> fields = readRecord();
+        if (fields == null) {
+            return null;
+        }
+        number++;
+        if (fields.size() != header.size()) {
+            throw new IllegalStateException("Row " + number + " of " + path + " has " + fields.size()
+                    + " fields, the header has " + header.size());
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            values.put(header.get(i), fields.get(i));
+        }
+        return new DataRow(number, values);
+    }
+
+    private List<String> readRecord() throws IOException {
+        String line = nextLine();
+        if (line == null) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                throw new IllegalStateException("Unterminated quoted field in row " + (number + 1) + " of " + path);
+            }
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private String nextLine() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isBlank());
+        return line;
+    }
+}
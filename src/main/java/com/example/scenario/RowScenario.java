@@ -0,0 +1,13 @@
+package com.example.scenario;
+
+import com.example.report.StepTimer;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * A {@link Scenario} parameterised by one row of a {@link DataSource}.
+ */
+@FunctionalInterface
+public interface RowScenario {
+
+    void run(WebDriver driver, StepTimer steps, DataRow row) throws Exception;
+}
@@ -0,0 +1,17 @@
+package com.example.scenario;
+
+import com.example.report.StepTimer;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * One independent browser flow, run by a {@link ScenarioRunner} on a pooled driver.
+ */
+@FunctionalInterface
+public interface Scenario {
+
+    /**
+     * Drives {@code driver}, which is already instrumented by {@code steps}, through the flow.
+     * Throwing marks the scenario as failed.
+     */
+    void run(WebDriver driver, StepTimer steps) throws Exception;
+}
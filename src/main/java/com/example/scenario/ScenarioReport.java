@@ -0,0 +1,49 @@
+package com.example.scenario;
+
+import com.example.report.LatencyHistogram;
+import com.example.report.StepRecord;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * All results of one {@link ScenarioRunner#run} call, with throughput and latency over them.
+ */
+public record ScenarioReport(List<ScenarioResult> results, Duration wallTime, int concurrency) {
+
+    public ScenarioReport {
+        results = List.copyOf(results);
+    }
+
+    public long passed() {
+        return results.stream().filter(ScenarioResult::passed).count();
+    }
+
+    public long failed() {
+        return results.size() - passed();
+    }
+
+    public List<ScenarioResult> failures() {
+        return results.stream().filter(result -> !result.passed()).toList();
+    }
+
+    public List<StepRecord> steps() {
+        return results.stream().flatMap(result -> result.steps().stream()).toList();
+    }
+
+    public LatencyHistogram latency() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        results.forEach(result -> histogram.add(result.elapsed()));
+        return histogram;
+    }
+
+    public double scenariosPerSecond() {
+        return wallTime.isZero() ? 0 : results.size() / (wallTime.toNanos() / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d scenarios (%d passed, %d failed) in %dms at concurrency %d: %.2f/s, %s",
+                results.size(), passed(), failed(), wallTime.toMillis(), concurrency, scenariosPerSecond(), latency());
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.scenario;
+
+import com.example.report.StepRecord;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of one scenario: how long it queued for a browser, how long it ran, its steps and its failure if any.
+ */
+public record ScenarioResult(String name, boolean passed, Duration queued, Duration elapsed,
+                             List<StepRecord> steps, Throwable failure) {
+
+    @Override
+    public String toString() {
+        return String.format("%s %s in %dms (queued %dms)%s", passed ? "✓" : "✗", name, elapsed.toMillis(),
+                queued.toMillis(), failure == null ? "" : ": " + failure);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.scenario;
+
+import com.example.driver.DriverPool;
+import com.example.report.StepTimer;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Fans scenarios out over a {@link DriverPool}, one virtual thread per scenario.
+ *
+ * Every scenario gets its own virtual thread right away, so hundreds of them
+ * cost no platform threads while they block on WebDriver calls; a fair
+ * semaphore sized to the pool decides which ones hold a browser at any time,
+ * in submission order. Each scenario runs on a driver instrumented by its own
+ * {@link StepTimer}. Failures are captured in the results rather than thrown,
+ * and a browser that failed is evicted instead of returned to the pool.
+ */
+public class ScenarioRunner {
+
+    private final DriverPool pool;
+    private final int concurrency;
+
+    public ScenarioRunner(DriverPool pool) {
+        this(pool, pool.maxSize());
+    }
+
+    public ScenarioRunner(DriverPool pool, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1, was: " + concurrency);
+        }
+        this.pool = pool;
+        this.concurrency = Math.min(concurrency, pool.maxSize());
+    }
+
+    public int concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Runs all scenarios and waits for them; results come back in the map's iteration order.
+     */
+    public ScenarioReport run(Map<String, Scenario> scenarios) {
+        Semaphore slots = new Semaphore(concurrency, true);
+        long start = System.nanoTime();
+        List<Future<ScenarioResult>> futures = new ArrayList<>(scenarios.size());
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("scenario-", 0).factory())) {
+            scenarios.forEach((name, scenario) -> futures.add(executor.submit(() -> runOne(name, scenario, slots))));
+        }
+
+        List<ScenarioResult> results = new ArrayList<>(futures.size());
+        for (Future<ScenarioResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // runOne captures every failure itself
+                throw new IllegalStateException("Scenario runner failed", e.getCause());
+            }
+        }
+        return new ScenarioReport(results, Duration.ofNanos(System.nanoTime() - start), concurrency);
+    }
+
+    /**
+     * Runs {@code scenario} once per row, skipping rows the checkpoint already has, and marks each passed row done.
+     *
+     * Unlike {@link #run(Map)} rows are pulled from the stream only as browsers
+     * free up, so a file of any size is never more than {@link #concurrency()}
+     * rows ahead of the browsers. Results come back in completion order and are
+     * named {@code name#row}. The stream is closed when the run ends.
+     */
+    public ScenarioReport run(String name, Stream<DataRow> rows, RowScenario scenario, Checkpoint checkpoint) {
+        Semaphore slots = new Semaphore(concurrency);
+        Queue<ScenarioResult> results = new ConcurrentLinkedQueue<>();
+        long start = System.nanoTime();
+        try (rows; ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("scenario-", 0).factory())) {
+            Iterator<DataRow> pending = rows.filter(row -> !checkpoint.isDone(row.number())).iterator();
+            while (pending.hasNext()) {
+                DataRow row = pending.next();
+                long waiting = System.nanoTime();
+                try {
+                    slots.acquire();
+                } catch (InterruptedException e) {
+                    // Stop pulling rows; the ones already running finish and are checkpointed
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                Duration queued = Duration.ofNanos(System.nanoTime() - waiting);
+                executor.submit(() -> {
+                    try {
+                        ScenarioResult result = runLeased(name + "#" + row.number(),
+                                (driver, steps) -> scenario.run(driver, steps, row), queued);
+                        results.add(result);
+                        // Failed and interrupted rows run again on resume, so they reach that run's report
+                        if (result.passed()) {
+                            checkpoint.complete(row.number());
+                        }
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+        return new ScenarioReport(List.copyOf(results), Duration.ofNanos(System.nanoTime() - start), concurrency);
+    }
+
+    private ScenarioResult runOne(String name, Scenario scenario, Semaphore slots) {
+        long submitted = System.nanoTime();
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ScenarioResult(name, false, Duration.ofNanos(System.nanoTime() - submitted), Duration.ZERO,
+                    List.of(), e);
+        }
+        try {
+            return runLeased(name, scenario, Duration.ofNanos(System.nanoTime() - submitted));
+        } finally {
+            slots.release();
+        }
+    }
+
+    private ScenarioResult runLeased(String name, Scenario scenario, Duration queued) {
+        StepTimer steps = new StepTimer(name);
+        long started = System.nanoTime();
+        WebDriver browser = null;
+        Throwable failure = null;
+        try {
+            browser = pool.acquire();
+            scenario.run(steps.instrument(browser), steps);
+            steps.finish();
+        } catch (Exception | AssertionError e) {
+            failure = e;
+            steps.fail();
+        } finally {
+            if (browser != null) {
+                if (DriverPool.isBrowserFailure(failure)) {
+                    pool.evict(browser);
+                } else {
+                    pool.release(browser);
+                }
+            }
+        }
+        return new ScenarioResult(name, failure == null, queued, Duration.ofNanos(System.nanoTime() - started),
+                steps.records(), failure);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.wait;
+
+import com.example.driver.BrowserContexts;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * {@link WebDriverWait} front-end with back-off polling and a record of every wait.
+ *
+ * Replaces fixed {@code Thread.sleep} pauses: each call names what it waits for,
+ * returns as soon as the condition holds and logs the time it really took.
+ *
+ * In {@link Mode#PUSH}, the default, the wait does not sleep between checks
+ * but lets a {@link MutationSleeper} in the page wake it when the page changes,
+ * so a condition is seen right after it comes true and a page that sits still
+ * costs no round-trips until {@code maxQuiet} has passed. {@link Mode#POLL} sleeps
+ * with back-off instead; pick it with {@code -Dwait.mode=poll}. Drivers that
+ * cannot run JavaScript are always polled, and so are {@link BrowserContexts}
+ * context drivers: a push check holds the shared browser for up to
+ * {@code maxQuiet}, stalling every other context meanwhile.
+ */
+public class AdaptiveWait {
+
+    public enum Mode {
+        POLL, PUSH;
+
+        public static Mode configured() {
+            String mode = System.getProperty("wait.mode", "push");
+            return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final Duration DEFAULT_INITIAL_POLL = Duration.ofMillis(50);
+    private static final Duration DEFAULT_MAX_POLL = Duration.ofMillis(500);
+    private static final double DEFAULT_BACKOFF = 1.5;
+    // Time-based conditions such as networkIdle need a check now and then even when nothing changes
+    private static final Duration DEFAULT_MAX_QUIET = Duration.ofSeconds(1);
+
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final Duration initialPoll;
+    private final Duration maxPoll;
+    private final double backoff;
+    private final Mode mode;
+    private final Duration maxQuiet;
+    private final List<WaitRecord> records;
+    private final List<Consumer<WaitRecord>> listeners;
+
+    public AdaptiveWait(WebDriver driver, Duration timeout) {
+        this(driver, timeout, DEFAULT_INITIAL_POLL, DEFAULT_MAX_POLL, DEFAULT_BACKOFF, Mode.configured(),
+                DEFAULT_MAX_QUIET, new CopyOnWriteArrayList<>(), new CopyOnWriteArrayList<>());
+    }
+
+    private AdaptiveWait(WebDriver driver, Duration timeout, Duration initialPoll, Duration maxPoll,
+                         double backoff, Mode mode, Duration maxQuiet, List<WaitRecord> records,
+                         List<Consumer<WaitRecord>> listeners) {
+        this.driver = driver;
+        this.timeout = timeout;
+        this.initialPoll = initialPoll;
+        this.maxPoll = maxPoll;
+        this.backoff = backoff;
+        this.mode = mode;
+        this.maxQuiet = maxQuiet;
+        this.records = records;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Same polling settings and shared record, different timeout.
+     */
+    public AdaptiveWait withTimeout(Duration timeout) {
+        return new AdaptiveWait(driver, timeout, initialPoll, maxPoll, backoff, mode, maxQuiet, records, listeners);
+    }
+
+    /**
+     * Same timeout and shared record, different back-off curve; in push mode it bounds how often a busy page
+     * is re-checked.
+     */
+    public AdaptiveWait withPolling(Duration initialPoll, Duration maxPoll, double backoff) {
+        return new AdaptiveWait(driver, timeout, initialPoll, maxPoll, backoff, mode, maxQuiet, records, listeners);
+    }
+
+    /**
+     * Same settings and shared record, checking on page changes or on a timer.
+     */
+    public AdaptiveWait withMode(Mode mode) {
+        return new AdaptiveWait(driver, timeout, initialPoll, maxPoll, backoff, mode, maxQuiet, records, listeners);
+    }
+
+    /**
+     * In push mode, how long a page without changes goes unchecked.
+     */
+    public AdaptiveWait withMaxQuiet(Duration maxQuiet) {
+        return new AdaptiveWait(driver, timeout, initialPoll, maxPoll, backoff, mode, maxQuiet, records, listeners);
+    }
+
+    /**
+     * Notified after every wait, including those of copies made with {@code with...}.
+     */
+    public void onWait(Consumer<WaitRecord> listener) {
+        listeners.add(listener);
+    }
+
+    public <T> T until(String name, ExpectedCondition<T> condition) {
+        CountingSleeper sleeper = sleeper();
+        WebDriverWait wait = webDriverWait(sleeper);
+
+        long start = System.nanoTime();
+        boolean satisfied = false;
+        try {
+            T result = wait.until(condition);
+            satisfied = true;
+            return result;
+        } finally {
+            WaitRecord record = new WaitRecord(name, Duration.ofNanos(System.nanoTime() - start),
+                    sleeper.sleeps() + 1, satisfied);
+            records.add(record);
+            listeners.forEach(listener -> listener.accept(record));
+        }
+    }
+
+    /**
+     * Like {@link #until(String, ExpectedCondition)} but returns null instead of
+     * throwing when the condition never holds, for things that may legitimately be absent.
+     */
+    public <T> T optionally(String name, ExpectedCondition<T> condition) {
+        try {
+            return until(name, condition);
+        } catch (TimeoutException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A plain {@link WebDriverWait} with this wait's timeout and sleeping, for code that needs that type.
+     * Its waits are not recorded.
+     */
+    public WebDriverWait webDriverWait() {
+        return webDriverWait(sleeper());
+    }
+
+    private WebDriverWait webDriverWait(CountingSleeper sleeper) {
+        WebDriverWait wait = new WebDriverWait(driver, timeout, initialPoll, Clock.systemDefaultZone(), sleeper);
+        wait.ignoring(NotFoundException.class);
+        wait.ignoring(StaleElementReferenceException.class);
+        return wait;
+    }
+
+    private CountingSleeper sleeper() {
+        if (mode == Mode.PUSH && driver instanceof JavascriptExecutor js && !BrowserContexts.isContextDriver(driver)) {
+            return new MutationSleeper(js, initialPoll, maxPoll, backoff, maxQuiet);
+        }
+        return new BackoffSleeper(initialPoll, maxPoll, backoff);
+    }
+
+    public List<WaitRecord> records() {
+        return List.copyOf(records);
+    }
+
+    public Duration totalWaitTime() {
+        return records.stream().map(WaitRecord::elapsed).reduce(Duration.ZERO, Duration::plus);
+    }
+
+    public String summary() {
+        return records.stream().map(record -> "  " + record).collect(Collectors.joining("\n",
+                "Waits (" + records.size() + ", " + totalWaitTime().toMillis() + "ms total):\n", ""));
+    }
+}
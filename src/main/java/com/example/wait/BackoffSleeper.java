@@ -0,0 +1,41 @@
+package com.example.wait;
+
+import java.time.Duration;
+
+/**
+ * Sleeper whose interval grows geometrically between polls.
+ *
+ * The first polls come quickly so fast pages are detected early; slow pages
+ * are polled less often so the waits do not flood the driver with requests.
+ * The interval handed in by {@code FluentWait} is ignored. Instances are
+ * stateful, so use one per wait.
+ */
+public class BackoffSleeper implements CountingSleeper {
+
+    private final long maxNanos;
+    private final double factor;
+    private long nextNanos;
+    private int sleeps;
+
+    public BackoffSleeper(Duration initial, Duration max, double factor) {
+        if (factor < 1.0) {
+            throw new IllegalArgumentException("Back-off factor must be >= 1, was: " + factor);
+        }
+        this.nextNanos = initial.toNanos();
+        this.maxNanos = max.toNanos();
+        this.factor = factor;
+    }
+
+    @Override
+    public void sleep(Duration ignored) throws InterruptedException {
+        long nanos = Math.min(nextNanos, maxNanos);
+        Thread.sleep(Duration.ofNanos(nanos));
+        nextNanos = (long) Math.min(nanos * factor, maxNanos);
+        sleeps++;
+    }
+
+    @Override
+    public int sleeps() {
+        return sleeps;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.wait;
+
+import org.openqa.selenium.support.ui.Sleeper;
+
+/**
+ * A {@link Sleeper} that knows how often it was asked to sleep, i.e. how many times a wait re-checked.
+ */
+interface CountingSleeper extends Sleeper {
+
+    int sleeps();
+}
@@ -0,0 +1,106 @@
+package com.example.wait;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+
+/**
+ * Sleeper that returns as soon as the page changes instead of after a fixed interval.
+ *
+ * The first sleep on a document installs a {@code MutationObserver} and
+ * listeners for changes the DOM does not show (ready state, load, scroll,
+ * resize, finished animations, new resource timings), which count changes in
+ * the page. Each sleep is one asynchronous script that answers at the next
+ * change, or straight away if something changed while the condition was being
+ * checked, and otherwise after {@code maxQuiet}. Answers never come sooner than
+ * a minimum gap, which grows like {@link BackoffSleeper}'s interval, so a page
+ * that never stops changing is re-checked no more often than a polling wait
+ * would. A navigation unloads the script, which wakes the wait too. Instances
+ * are stateful, so use one per wait.
+ */
+public class MutationSleeper implements CountingSleeper {
+
+    static final String WATCH = """
+            var seen = arguments[0], gap = arguments[1], quiet = arguments[2];
+            var done = arguments[arguments.length - 1];
+            var watch = window.__adaptiveWait;
+            if (!watch) {
+              watch = window.__adaptiveWait = { changes: 0, wake: null };
+              var changed = function () {
+                watch.changes++;
+                if (watch.wake) { watch.wake(); }
+              };
+              new MutationObserver(changed).observe(document,
+                  { childList: true, subtree: true, attributes: true, characterData: true });
+              ['readystatechange', 'scroll', 'animationend', 'transitionend'].forEach(function (type) {
+                document.addEventListener(type, changed, true);
+              });
+              ['load', 'resize', 'hashchange', 'popstate'].forEach(function (type) {
+                window.addEventListener(type, changed);
+              });
+              try {
+                new PerformanceObserver(changed).observe({ type: 'resource' });
+              } catch (e) {
+                // No resource observer; the quiet timeout still re-checks
+              }
+            }
+            var start = Date.now();
+            function finish() {
+              clearTimeout(timer);
+              watch.wake = null;
+              done(watch.changes);
+            }
+            var timer = setTimeout(finish, quiet);
+            watch.wake = function () {
+              watch.wake = null;
+              clearTimeout(timer);
+              timer = setTimeout(finish, Math.max(0, gap - (Date.now() - start)));
+            };
+            if (seen >= 0 && watch.changes !== seen) { watch.wake(); }
+            """;
+
+    private final JavascriptExecutor js;
+    private final long maxGapNanos;
+    private final double factor;
+    private final long maxQuietMillis;
+    private long gapNanos;
+    private long seen = -1;
+    private int sleeps;
+
+    public MutationSleeper(JavascriptExecutor js, Duration initialGap, Duration maxGap, double factor,
+                           Duration maxQuiet) {
+        if (factor < 1.0) {
+            throw new IllegalArgumentException("Back-off factor must be >= 1, was: " + factor);
+        }
+        this.js = js;
+        this.gapNanos = initialGap.toNanos();
+        this.maxGapNanos = maxGap.toNanos();
+        this.factor = factor;
+        this.maxQuietMillis = maxQuiet.toMillis();
+    }
+
+    @Override
+    public void sleep(Duration ignored) throws InterruptedException {
+        long start = System.nanoTime();
+        long gap = Math.min(gapNanos, maxGapNanos);
+        try {
+            Object changes = js.executeAsyncScript(WATCH, seen, gap / 1_000_000, maxQuietMillis);
+            seen = changes instanceof Number number ? number.longValue() : -1;
+        } catch (WebDriverException e) {
+            // The page navigated away under the script, or the script timeout is below maxQuiet
+            seen = -1;
+            long left = gap - (System.nanoTime() - start);
+            if (left > 0) {
+                Thread.sleep(Duration.ofNanos(left));
+            }
+        }
+        gapNanos = (long) Math.min(gap * factor, maxGapNanos);
+        sleeps++;
+    }
+
+    @Override
+    public int sleeps() {
+        return sleeps;
+    }
+}
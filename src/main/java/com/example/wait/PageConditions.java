@@ -0,0 +1,150 @@
+package com.example.wait;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Page-level conditions for {@link AdaptiveWait}, complementing {@link ExpectedConditions}.
+ */
+public final class PageConditions {
+
+    // Resource buffer defaults to 250 entries; a full buffer would look like an idle network
+    private static final String RESOURCE_COUNT =
+            "performance.setResourceTimingBufferSize(100000);"
+                    + "return performance.getEntriesByType('resource').length;";
+
+    // Infinite animations (spinners, carousels) never finish, so only finite running ones count
+    private static final String RUNNING_ANIMATIONS =
+            "if (!document.getAnimations) { return 0; }"
+                    + "return document.getAnimations().filter(function (a) {"
+                    + "  return a.playState === 'running'"
+                    + "      && a.effect && a.effect.getComputedTiming().iterations !== Infinity;"
+                    + "}).length;";
+
+    private PageConditions() {
+    }
+
+    public static ExpectedCondition<Boolean> documentReady() {
+        return new ExpectedCondition<>() {
+            @Override
+            public Boolean apply(WebDriver driver) {
+                return "complete".equals(js(driver).executeScript("return document.readyState;"));
+            }
+
+            @Override
+            public String toString() {
+                return "document.readyState to be complete";
+            }
+        };
+    }
+
+    /**
+     * No new resource has started loading for {@code quiet}. The condition is
+     * stateful, so create a fresh one for each wait.
+     */
+    public static ExpectedCondition<Boolean> networkIdle(Duration quiet) {
+        return new ExpectedCondition<>() {
+            private long lastCount = -1;
+            private long stableSince;
+
+            @Override
+            public Boolean apply(WebDriver driver) {
+                long count = ((Number) js(driver).executeScript(RESOURCE_COUNT)).longValue();
+                long now = System.nanoTime();
+                if (count != lastCount) {
+                    lastCount = count;
+                    stableSince = now;
+                    return false;
+                }
+                return now - stableSince >= quiet.toNanos();
+            }
+
+            @Override
+            public String toString() {
+                return "network to be idle for " + quiet.toMillis() + "ms";
+            }
+        };
+    }
+
+    public static ExpectedCondition<Boolean> noPendingAnimations() {
+        return new ExpectedCondition<>() {
+            @Override
+            public Boolean apply(WebDriver driver) {
+                return ((Number) js(driver).executeScript(RUNNING_ANIMATIONS)).intValue() == 0;
+            }
+
+            @Override
+            public String toString() {
+                return "no running animations";
+            }
+        };
+    }
+
+    /**
+     * Element is displayed and its position and size did not change between two
+     * consecutive polls, e.g. after scrolling or a layout shift. Stateful.
+     */
+    public static ExpectedCondition<WebElement> elementStable(By locator) {
+        return new ExpectedCondition<>() {
+            private Rectangle last;
+
+            @Override
+            public WebElement apply(WebDriver driver) {
+                WebElement element = driver.findElement(locator);
+                if (!element.isDisplayed()) {
+                    return null;
+                }
+                Rectangle rect = element.getRect();
+                boolean stable = Objects.equals(rect, last);
+                last = rect;
+                return stable ? element : null;
+            }
+
+            @Override
+            public String toString() {
+                return "element to stop moving: " + locator;
+            }
+        };
+    }
+
+    /**
+     * Same as {@link #elementStable(By)} for an element already in hand.
+     */
+    public static ExpectedCondition<WebElement> elementStable(WebElement element) {
+        return new ExpectedCondition<>() {
+            private Rectangle last;
+
+            @Override
+            public WebElement apply(WebDriver driver) {
+                Rectangle rect = element.getRect();
+                boolean stable = Objects.equals(rect, last);
+                last = rect;
+                return stable ? element : null;
+            }
+
+            @Override
+            public String toString() {
+                return "element to stop moving: " + element;
+            }
+        };
+    }
+
+    /**
+     * Document loaded, network quiet for 500 ms and no finite animations running.
+     */
+    public static ExpectedCondition<Boolean> pageSettled() {
+        return ExpectedConditions.and(documentReady(), networkIdle(Duration.ofMillis(500)), noPendingAnimations());
+    }
+
+    private static JavascriptExecutor js(WebDriver driver) {
+        return (JavascriptExecutor) driver;
+    }
+}
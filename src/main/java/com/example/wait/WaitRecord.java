@@ -0,0 +1,14 @@
+package com.example.wait;
+
+import java.time.Duration;
+
+/**
+ * How long one named wait actually took and whether its condition was met.
+ */
+public record WaitRecord(String name, Duration elapsed, int polls, boolean satisfied) {
+
+    @Override
+    public String toString() {
+        return name + ": " + elapsed.toMillis() + "ms, " + polls + " poll(s)" + (satisfied ? "" : " [TIMED OUT]");
+    }
+}
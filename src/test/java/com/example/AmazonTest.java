@@ -1,346 +1,264 @@
 package com.example;
 
+import com.example.extract.SearchResult;
+import com.example.driver.ChromeOptionsBuilder;
+import com.example.driver.ChromeOptionsBuilder.Profile;
+import com.example.fixture.Sites;
+import com.example.network.RequestBlocker;
+import com.example.pages.AmazonHomePage;
+import com.example.pages.AmazonProductPage;
+import com.example.pages.AmazonSearchPage;
+import com.example.log.Log;
+import com.example.report.StepTimer;
+import com.example.support.PooledDriverExtension;
+import com.example.support.RetryingTest;
+import com.example.support.TestData;
+import com.example.wait.AdaptiveWait;
+import com.example.wait.PageConditions;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.provider.Arguments;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
-import io.github.bonigarcia.wdm.WebDriverManager;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class AmazonTest {
 
-    private static WebDriver driver;
-    private static WebDriverWait wait;
+    @RegisterExtension
+    static final PooledDriverExtension browser = new PooledDriverExtension(AmazonTest::chromeOptions);
 
-    @BeforeAll
-    public static void setupClass() {
-        WebDriverManager.chromedriver().setup();
+    @RegisterExtension
+    static final Sites sites = new Sites();
+
+    private WebDriver driver;
+    private AdaptiveWait waits;
+    private StepTimer steps;
+
+    static ChromeOptions chromeOptions() {
+        // Pass headless(false) to see the browser
+        return ChromeOptionsBuilder.profile(Profile.selected(Profile.COMPATIBLE))
+                .build();
     }
 
     @BeforeEach
-    public void setupTest() {
-        ChromeOptions options = new ChromeOptions();
-        // Comment out headless to see the browser
-        options.addArguments("--headless");
-        options.addArguments("--start-maximized");
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        options.addArguments("--headless=new");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--window-size=1920,1080");
-        options.addArguments("--disable-blink-features=AutomationControlled");
-
-        driver = new ChromeDriver(options);
-        wait = new WebDriverWait(driver, Duration.ofSeconds(25));
+    public void setupTest(WebDriver pooledDriver, StepTimer stepTimer, RequestBlocker blocker) {
+        driver = pooledDriver;
+        // Product images, fonts and ad/analytics beacons are never asserted on
+        blocker.deny(RequestBlocker.HEAVY_RESOURCES)
+                .deny(RequestBlocker.TRACKERS)
+                .start();
+        waits = new AdaptiveWait(driver, Duration.ofSeconds(25));
+        steps = stepTimer;
+        steps.track(waits);
     }
 
-    @AfterEach
-    public void teardown() {
-        if (driver != null) {
-            driver.quit();
-        }
+    // One run of the flow per row of data/amazon-searches.csv, or of the file -Damazon.data points at
+    static Stream<Arguments> searches() {
+        return TestData.open("amazon.data", "amazon-searches.csv").rows()
+                .map(row -> Arguments.of(row.get("query"), row.get("category"), row.getInt("product_index")));
     }
 
-    @Test
-    @Order(11)
-    @DisplayName("Test Amazon Gift Card - Complete Navigation Flow")
-    public void testAmazonSite() {
-        try {
-            // ========== STEP 1: Navigate to Amazon Homepage ==========
-            System.out.println("\n" + "=".repeat(70));
-            System.out.println("STEP 1: Navigating to Amazon.in Homepage");
-            System.out.println("=".repeat(70));
-
-            driver.get("https://www.amazon.in/");
-            Thread.sleep(3000); // Allow network + JS load before waiting
-            //wait.until(ExpectedConditions.presenceOfElementLocated(By.id("nav-logo-sprites")));
-            System.out.println("✓ Amazon homepage loaded");
-            Thread.sleep(2000);
-
-            // ========== STEP 2: Select Gift Cards from Search Dropdown ==========
-            System.out.println("\n" + "=".repeat(70));
-            System.out.println("STEP 2: Selecting 'Gift Cards' Category from Dropdown");
-            System.out.println("=".repeat(70));
-
-            WebElement dropdown = wait.until(
-                    ExpectedConditions.presenceOfElementLocated(By.id("searchDropdownBox"))
-            );
-            Select select = new Select(dropdown);
-
-            String initialSelection = select.getFirstSelectedOption().getText();
-            System.out.println("Initial category: " + initialSelection);
-
-            select.selectByVisibleText("Gift Cards");
-            String afterSelection = select.getFirstSelectedOption().getText();
-
-            assertNotEquals(initialSelection, afterSelection, "Selection should have changed");
-            assertEquals("Gift Cards", afterSelection, "Should be Gift Cards");
-            System.out.println("✓ Category changed to: " + afterSelection);
-            Thread.sleep(1500);
-
-            // ========== STEP 3: Search for "gift card voucher" ==========
-            System.out.println("\n" + "=".repeat(70));
-            System.out.println("STEP 3: Searching for 'gift card voucher'");
-            System.out.println("=".repeat(70));
-
-            WebElement searchBox = driver.findElement(By.id("twotabsearchtextbox"));
-            searchBox.clear();
-            searchBox.sendKeys("gift card voucher");
-            System.out.println("✓ Entered search term: gift card voucher");
-            Thread.sleep(1000);
-
-            WebElement searchButton = driver.findElement(By.id("nav-search-submit-button"));
-            searchButton.click();
-            System.out.println("✓ Search submitted");
-
-            wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".s-main-slot")));
-            System.out.println("✓ Search results loaded");
-            Thread.sleep(2000);
-
-            // ========== STEP 4: Apply "Congratulations" Filter ==========
-            System.out.println("\n" + "=".repeat(70));
-            System.out.println("STEP 4: Applying 'Congratulations' Occasion Filter");
-            System.out.println("=".repeat(70));
-
-            boolean filterApplied = false;
-
-            try {
-                ((JavascriptExecutor) driver).executeScript("window.scrollBy(0, 300)");
-                Thread.sleep(1000);
+    @RetryingTest(maxAttempts = 2, arguments = "searches",
+            name = "Test Amazon {1} - Complete Navigation Flow for ''{0}'', product {2}")
+    public void testAmazonSite(String query, String category, int productIndex) {
+        // ========== STEP 1: Navigate to Amazon Homepage ==========
+        Log.section("STEP 1: Navigating to Amazon.in Homepage");
+        steps.start("STEP 1: Navigate to Amazon Homepage");
 
-                WebElement congratsFilter = null;
+        AmazonHomePage home = new AmazonHomePage(driver).open(sites.url(AmazonHomePage.URL));
+        waits.until("Amazon homepage ready", PageConditions.documentReady());
+        Log.info("✓ Amazon homepage loaded");
 
-                try {
-                    congratsFilter = driver.findElement(
-                            By.xpath("//span[text()='Congratulations']/ancestor::a[contains(@class, 'a-link-normal')]")
-                    );
-                } catch (Exception e1) {
-                    try {
-                        congratsFilter = driver.findElement(
-                                By.xpath("//div[@id='s-refinements']//span[contains(text(), 'Congratulations')]/..")
-                        );
-                    } catch (Exception e2) {
-                        congratsFilter = driver.findElement(
-                                By.xpath("//*[contains(text(), 'Congratulations') and (self::a or self::span[parent::a])]")
-                        );
-                    }
-                }
+        // ========== STEP 2: Select the Category from Search Dropdown ==========
+        Log.section("STEP 2: Selecting '" + category + "' Category from Dropdown");
+        steps.start("STEP 2: Select Category from Search Dropdown");
 
-                if (congratsFilter != null) {
-                    ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", congratsFilter);
-                    Thread.sleep(500);
+        Select select = home.categories();
 
-                    try {
-                        congratsFilter.click();
-                    } catch (Exception e) {
-                        ((JavascriptExecutor) driver).executeScript("arguments[0].click();", congratsFilter);
-                    }
+        String initialSelection = select.getFirstSelectedOption().getText();
+        Log.info("Initial category: {}", initialSelection);
 
-                    System.out.println("✓ Clicked 'Congratulations' filter");
-                    Thread.sleep(2000);
+        select.selectByVisibleText(category);
+        String afterSelection = select.getFirstSelectedOption().getText();
 
-                    wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".s-main-slot")));
-                    filterApplied = true;
-                }
+        assertNotEquals(initialSelection, afterSelection, "Selection should have changed");
+        assertEquals(category, afterSelection, "Should be " + category);
+        Log.info("✓ Category changed to: {}", afterSelection);
 
-            } catch (Exception e) {
-                System.out.println("⚠️ Congratulations filter not found, continuing...");
-            }
+        // ========== STEP 3: Search for the Query ==========
+        Log.section("STEP 3: Searching for '" + query + "'");
+        steps.start("STEP 3: Search for Query");
 
-            if (filterApplied) {
-                System.out.println("✓ Filter applied successfully");
-            }
-            Thread.sleep(1500);
+        AmazonSearchPage search = home.search(query);
+        Log.info("✓ Searched for: {}", query);
+        waits.until("search results ready", PageConditions.documentReady());
+        Log.info("✓ Search results loaded");
 
-            // ========== STEP 5: Find and Click SECOND Gift Card (Index 1) ==========
-            System.out.println("\n" + "=".repeat(70));
-            System.out.println("STEP 5: Locating SECOND Gift Card (Index 1) in Results");
-            System.out.println("=".repeat(70));
+        // ========== STEP 4: Apply "Congratulations" Filter ==========
+        Log.section("STEP 4: Applying 'Congratulations' Occasion Filter");
+        steps.start("STEP 4: Apply 'Congratulations' Filter");
 
-            ((JavascriptExecutor) driver).executeScript("window.scrollTo(0, 400)");
-            Thread.sleep(1500);
+        boolean filterApplied = false;
 
-            wait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(
-                    By.cssSelector("[data-component-type='s-search-result']")
-            ));
-
-            java.util.List<WebElement> allProducts = driver.findElements(
-                    By.cssSelector("[data-component-type='s-search-result']")
-            );
+        try {
+            ((JavascriptExecutor) driver).executeScript("window.scrollBy(0, 300)");
 
-            java.util.List<WebElement> products = new java.util.ArrayList<>();
-            System.out.println("\nFiltering products:");
+            WebElement congratsFilter = search.congratulationsFilter().orElse(null);
 
-            for (int i = 0; i < allProducts.size(); i++) {
-                WebElement product = allProducts.get(i);
-                String asin = product.getAttribute("data-asin");
+            if (congratsFilter != null) {
+                ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", congratsFilter);
+                waits.until("filter scrolled into view", PageConditions.elementStable(congratsFilter));
 
-                boolean isSponsored = false;
                 try {
-                    product.findElement(By.xpath(".//span[contains(text(), 'Sponsored')]"));
-                    isSponsored = true;
+                    congratsFilter.click();
                 } catch (Exception e) {
-                    // Not sponsored
+                    ((JavascriptExecutor) driver).executeScript("arguments[0].click();", congratsFilter);
                 }
 
-                if (asin != null && !asin.isEmpty() && !isSponsored) {
-                    products.add(product);
-                    System.out.println("  Product " + (products.size() - 1) + ": ASIN=" + asin);
-                } else if (isSponsored) {
-                    System.out.println("  Skipping sponsored at position " + i);
-                }
-            }
+                Log.info("✓ Clicked 'Congratulations' filter");
 
-            if (products.size() < 2) {
-                fail("Need at least 2 products, found: " + products.size());
+                // The refinement link reloads the results, so the old link going stale marks the navigation
+                waits.until("filtered results navigation", ExpectedConditions.stalenessOf(congratsFilter));
+                search.awaitResults();
+                filterApplied = true;
+            } else {
+                Log.warn("Congratulations filter not found, continuing...");
             }
 
-            System.out.println("\nFound " + products.size() + " valid products");
+        } catch (Exception e) {
+            Log.warn("Congratulations filter could not be applied, continuing...");
+        }
 
-            int productIndex = 1;
-            WebElement targetProduct = products.get(productIndex);
+        if (filterApplied) {
+            Log.info("✓ Filter applied successfully");
+        }
 
-            System.out.println("\n✓ Selecting product at index " + productIndex);
+        // ========== STEP 5: Find and Click the Product at the Row's Index ==========
+        Log.section("STEP 5: Locating Product at Index " + productIndex + " in Results");
+        steps.start("STEP 5: Find and Click Product at Index");
 
-            ((JavascriptExecutor) driver).executeScript(
-                    "arguments[0].scrollIntoView({block: 'center'});", targetProduct
-            );
-            Thread.sleep(1500);
+        ((JavascriptExecutor) driver).executeScript("window.scrollTo(0, 400)");
 
-            String targetAsin = targetProduct.getAttribute("data-asin");
-            System.out.println("Target ASIN: " + targetAsin);
+        // One script call reads every card instead of 2+ round-trips per product
+        List<SearchResult> allProducts = search.results();
 
-            WebElement productLink = null;
+        List<SearchResult> products = new ArrayList<>();
+        Log.info("Filtering products:");
 
-            try {
-                productLink = targetProduct.findElement(By.cssSelector("h2 a.a-link-normal"));
-            } catch (Exception e1) {
-                try {
-                    productLink = targetProduct.findElement(By.cssSelector("a.a-link-normal.s-no-outline"));
-                } catch (Exception e2) {
-                    System.out.println("Direct navigation to ASIN: " + targetAsin);
-                    driver.get("https://www.amazon.in/dp/" + targetAsin);
-                    Thread.sleep(3000);
-                }
+        for (SearchResult product : allProducts) {
+            if (product.isProduct()) {
+                products.add(product);
+                Log.info("  Product {}: ASIN={}", products.size() - 1, product.asin());
+            } else if (product.sponsored()) {
+                Log.info("  Skipping sponsored at position {}", product.position());
             }
+        }
 
-            if (productLink != null) {
-                try {
-                    productLink.click();
-                } catch (Exception e) {
-                    ((JavascriptExecutor) driver).executeScript("arguments[0].click();", productLink);
-                }
-                Thread.sleep(3000);
-            }
+        if (products.size() <= productIndex) {
+            fail("Need at least " + (productIndex + 1) + " products, found: " + products.size());
+        }
 
-            System.out.println("✓ Clicked product at index " + productIndex);
+        Log.info("Found {} valid products", products.size());
 
-            // ========== STEP 6: Wait for Page Load ==========
-            System.out.println("\n" + "=".repeat(70));
-            System.out.println("STEP 6: Waiting for Page to Load");
-            System.out.println("=".repeat(70));
+        SearchResult target = products.get(productIndex);
+        WebElement targetProduct = target.element();
 
-            wait.until(ExpectedConditions.or(
-                    ExpectedConditions.presenceOfElementLocated(By.id("productTitle")),
-                    ExpectedConditions.presenceOfElementLocated(By.cssSelector(".a-price-whole"))
-            ));
+        Log.info("✓ Selecting product at index {}", productIndex);
 
-            Thread.sleep(2000);
+        ((JavascriptExecutor) driver).executeScript(
+                "arguments[0].scrollIntoView({block: 'center'});", targetProduct
+        );
+        waits.until("target product scrolled into view", PageConditions.elementStable(targetProduct));
 
-            String currentUrl = driver.getCurrentUrl();
-            System.out.println("Current URL: " + currentUrl);
-            System.out.println("✓ Page loaded");
+        String targetAsin = target.asin();
+        Log.info("Target ASIN: {}", targetAsin);
 
-            // ========== STEP 7: Extract Title ==========
-            System.out.println("\n" + "=".repeat(70));
-            System.out.println("STEP 7: Extracting Product Title");
-            System.out.println("=".repeat(70));
+        WebElement productLink = search.productLink(target).orElse(null);
+        AmazonProductPage product = new AmazonProductPage(driver);
 
-            String pageTitle = "";
+        if (productLink == null) {
+            Log.info("Direct navigation to ASIN: {}", targetAsin);
+            product.open(sites.url("https://www.amazon.in/dp/" + targetAsin));
+        }
+
+        if (productLink != null) {
             try {
-                WebElement titleElement = driver.findElement(By.id("productTitle"));
-                pageTitle = titleElement.getText().trim();
-                System.out.println("Title: " + pageTitle);
+                productLink.click();
             } catch (Exception e) {
-                System.out.println("⚠️ Could not extract title");
+                ((JavascriptExecutor) driver).executeScript("arguments[0].click();", productLink);
             }
+            // Results also carry .a-price-whole, so wait until they are gone before checking the product page
+            waits.until("product page navigation", ExpectedConditions.stalenessOf(targetProduct));
+        }
 
-            // ========== STEP 8: Extract Price ==========
-            System.out.println("\n" + "=".repeat(70));
-            System.out.println("STEP 8: Extracting Price");
-            System.out.println("=".repeat(70));
+        Log.info("✓ Clicked product at index {}", productIndex);
 
-            String productPrice = "";
+        // ========== STEP 6: Wait for Page Load ==========
+        Log.section("STEP 6: Waiting for Page to Load");
+        steps.start("STEP 6: Wait for Page Load");
 
-            // Just get the text directly from a-price-whole
-            try {
-                WebElement priceElement = driver.findElement(By.cssSelector(".a-price-whole"));
-                productPrice = priceElement.getText();
-                System.out.println("✓ Price extracted: " + productPrice);
-            } catch (Exception e) {
-                System.out.println("Method 1 failed: " + e.getMessage());
-            }
+        product.awaitLoaded();
+        waits.until("product page ready", PageConditions.documentReady());
 
-            // If that didn't work, try a-offscreen
-            if (productPrice.isEmpty()) {
-                try {
-                    WebElement priceElement = driver.findElement(By.cssSelector(".a-price .a-offscreen"));
-                    productPrice = priceElement.getText();
-                    System.out.println("✓ Price from offscreen: " + productPrice);
-                } catch (Exception e) {
-                    System.out.println("Method 2 failed: " + e.getMessage());
-                }
-            }
+        String currentUrl = product.currentUrl();
+        Log.info("Current URL: {}", currentUrl);
+        Log.info("✓ Page loaded");
 
-            // If still empty, try gift card button
-            if (productPrice.isEmpty()) {
-                try {
-                    WebElement buttonElement = driver.findElement(By.cssSelector("button.gc-mini-picker-button"));
-                    productPrice = buttonElement.getText();
-                    System.out.println("✓ Price from button: " + productPrice);
-                } catch (Exception e) {
-                    System.out.println("Method 3 failed: " + e.getMessage());
-                }
-            }
+        // ========== STEP 7: Extract Title ==========
+        Log.section("STEP 7: Extracting Product Title");
+        steps.start("STEP 7: Extract Title");
 
-            // ========== STEP 9: Validate ==========
-            System.out.println("\n" + "=".repeat(70));
-            System.out.println("STEP 9: Validation");
-            System.out.println("=".repeat(70));
-
-            assertFalse(productPrice.isEmpty(), "Price should not be empty");
-            System.out.println("\n✅ FINAL PRICE: " + productPrice);
-
-            // ========== SUMMARY ==========
-            System.out.println("\n" + "=".repeat(70));
-            System.out.println("TEST SUMMARY");
-            System.out.println("=".repeat(70));
-            System.out.println("✓ Step 1: Amazon homepage");
-            System.out.println("✓ Step 2: Selected Gift Cards");
-            System.out.println("✓ Step 3: Searched gift card voucher");
-            System.out.println("✓ Step 4: " + (filterApplied ? "Applied filter" : "Skipped filter"));
-            System.out.println("✓ Step 5: Clicked product at index 1 (ASIN: " + targetAsin + ")");
-            System.out.println("✓ Step 6: Page loaded");
-            System.out.println("✓ Step 7: Title: " + (pageTitle.isEmpty() ? "N/A" : pageTitle));
-            System.out.println("✓ Step 8: Price: " + productPrice);
-            System.out.println("=".repeat(70));
-            System.out.println("\n✅ TEST PASSED\n");
-
-            Thread.sleep(2000);
+        String pageTitle = product.productTitle().orElse("");
+        if (pageTitle.isEmpty()) {
+            Log.warn("Could not extract title");
+        } else {
+            Log.info("Title: {}", pageTitle);
+        }
 
-        } catch (Exception e) {
-            System.err.println("\n❌ TEST FAILED: " + e.getMessage());
-            e.printStackTrace();
-            fail("Test failed: " + e.getMessage());
+        // ========== STEP 8: Extract Price ==========
+        Log.section("STEP 8: Extracting Price");
+        steps.start("STEP 8: Extract Price");
+
+        // a-price-whole, then a-offscreen, then the gift card picker button, in one probe
+        String productPrice = product.price()
+                .map(match -> {
+                    Log.info("✓ Price extracted via {}: {}", match.by(), match.text());
+                    return match.text();
+                })
+                .orElse("");
+        if (productPrice.isEmpty()) {
+            Log.warn("No price candidate matched");
         }
+
+        // ========== STEP 9: Validate ==========
+        Log.section("STEP 9: Validation");
+        steps.start("STEP 9: Validate");
+
+        assertFalse(productPrice.isEmpty(), "Price should not be empty");
+        Log.info("✅ FINAL PRICE: {}", productPrice);
+
+        // ========== SUMMARY ==========
+        Log.section("TEST SUMMARY");
+        Log.info("✓ Step 1: Amazon homepage");
+        Log.info("✓ Step 2: Selected {}", category);
+        Log.info("✓ Step 3: Searched {}", query);
+        Log.info("✓ Step 4: {}", filterApplied ? "Applied filter" : "Skipped filter");
+        Log.info("✓ Step 5: Clicked product at index {} (ASIN: {})", productIndex, targetAsin);
+        Log.info("✓ Step 6: Page loaded");
+        Log.info("✓ Step 7: Title: {}", pageTitle.isEmpty() ? "N/A" : pageTitle);
+        Log.info("✓ Step 8: Price: {}", productPrice);
+        Log.info(waits.summary());
+        Log.info(AmazonSearchPage.CONGRATULATIONS_FILTER.stats());
+        Log.info(AmazonSearchPage.PRODUCT_LINK.stats());
+        Log.info(AmazonProductPage.PRICE.stats());
+        Log.info("✅ TEST PASSED");
     }
 }
\ No newline at end of file
@@ -1,206 +1,198 @@
 package com.example;
 
+import com.example.driver.BrowserContexts;
+import com.example.driver.ChromeOptionsBuilder;
+import com.example.driver.ChromeOptionsBuilder.Profile;
+import com.example.fixture.Sites;
+import com.example.log.Log;
+import com.example.network.RequestBlocker;
+import com.example.pages.GoogleHomePage;
+import com.example.pages.GoogleResultsPage;
+import com.example.scenario.DataRow;
+import com.example.support.PooledDriverExtension;
+import com.example.support.RetryingTest;
+import com.example.support.TestData;
+import com.example.wait.AdaptiveWait;
+import com.example.wait.PageConditions;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.openqa.selenium.*;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
-import io.github.bonigarcia.wdm.WebDriverManager;
 
 import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class GoogleTest {
 
-    private static WebDriver driver;
-    private static WebDriverWait wait;
+    @RegisterExtension
+    static final PooledDriverExtension browser = new PooledDriverExtension(GoogleTest::chromeOptions);
 
-    @BeforeAll
-    public static void setupClass() {
-        WebDriverManager.chromedriver().setup();
-    }
+    @RegisterExtension
+    static final Sites sites = new Sites();
 
-    @BeforeEach
-    public void setupTest() {
-        ChromeOptions options = new ChromeOptions();
-        // Comment out headless to see the browser
-        options.addArguments("--headless");
-        options.addArguments("--start-maximized");
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        options.addArguments("--headless=new");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--window-size=1920,1080");
-        options.addArguments("--disable-blink-features=AutomationControlled");
-
-        driver = new ChromeDriver(options);
-        wait = new WebDriverWait(driver, Duration.ofSeconds(25));
+    // Contexts open at once while working through the search terms
+    private static final int CONTEXTS_PER_BATCH = 4;
+
+    private WebDriver driver;
+    private AdaptiveWait waits;
+
+    public static ChromeOptions chromeOptions() {
+        // Pass headless(false) to see the browser
+        return ChromeOptionsBuilder.profile(Profile.selected(Profile.COMPATIBLE))
+                .build();
     }
 
-    @AfterEach
-    public void teardown() {
-        if (driver != null) {
-            driver.quit();
-        }
+    @BeforeEach
+    public void setupTest(WebDriver pooledDriver, RequestBlocker blocker) {
+        driver = pooledDriver;
+        // No test asserts on images, fonts or ads; skipping them shortens every page load
+        blocker.deny(RequestBlocker.HEAVY_RESOURCES)
+                .deny(RequestBlocker.TRACKERS)
+                .start();
+        waits = new AdaptiveWait(driver, Duration.ofSeconds(25));
     }
 
-    @Test
-    @Order(1)
+    @RetryingTest
     @DisplayName("Test Google homepage loads")
-    public void testGoogleHomepageLoads() throws InterruptedException {
-        driver.get("https://www.google.com");
-        Thread.sleep(3000); // Allow network + JS load before waiting
+    public void testGoogleHomepageLoads() {
+        GoogleHomePage home = new GoogleHomePage(driver).open(sites.url(GoogleHomePage.URL));
+        waits.until("Google homepage ready", PageConditions.documentReady());
+        waits.until("Google title", ExpectedConditions.titleContains("Google"));
 
-        String title = driver.getTitle();
+        String title = home.title();
         assertTrue(title.contains("Google"), "Page title should contain 'Google'");
-        System.out.println("✓ Google homepage loaded successfully!");
+        Log.info("✓ Google homepage loaded successfully!");
     }
 
-    @Test
-    @Order(2)
+    @RetryingTest
     @DisplayName("Test Google search box is present")
     public void testSearchBoxPresent() {
-        driver.get("https://www.google.com");
+        GoogleHomePage home = new GoogleHomePage(driver).open(sites.url(GoogleHomePage.URL));
 
         // Wait for search box to be present
-        WebElement searchBox = wait.until(ExpectedConditions.presenceOfElementLocated(
-                By.name("q")
-        ));
+        WebElement searchBox = home.searchBox();
 
         assertNotNull(searchBox, "Search box should be present");
         assertTrue(searchBox.isDisplayed(), "Search box should be visible");
-        System.out.println("✓ Search box found and visible!");
+        Log.info("✓ Search box found and visible!");
     }
 
 
-    @Test
-    @Order(5)
+    @RetryingTest
     @DisplayName("Test Google 'I'm Feeling Lucky' button exists")
     public void testImFeelingLuckyButton() {
-        driver.get("https://www.google.com");
+        GoogleHomePage home = new GoogleHomePage(driver).open(sites.url(GoogleHomePage.URL));
 
         // Wait for the page to load
-        wait.until(ExpectedConditions.presenceOfElementLocated(By.name("q")));
+        home.searchBox();
 
         // Find "I'm Feeling Lucky" button (it may be hidden initially)
-        List<WebElement> buttons = driver.findElements(By.name("btnI"));
+        List<WebElement> buttons = home.luckyButtons();
 
         assertTrue(buttons.size() > 0, "I'm Feeling Lucky button should exist");
-        System.out.println("✓ I'm Feeling Lucky button found!");
+        Log.info("✓ I'm Feeling Lucky button found!");
     }
 
-    @Test
-    @Order(6)
+    @RetryingTest
     @DisplayName("Test Google search with suggestions")
-    public void testSearchSuggestions() throws InterruptedException {
-        driver.get("https://www.google.com");
-
-        WebElement searchBox = wait.until(ExpectedConditions.presenceOfElementLocated(
-                By.name("q")
-        ));
+    public void testSearchSuggestions() {
+        GoogleHomePage home = new GoogleHomePage(driver).open(sites.url(GoogleHomePage.URL));
 
         // Type slowly to trigger suggestions
-        searchBox.sendKeys("java");
-        Thread.sleep(1000); // Wait for suggestions to appear
-
-        // Check if suggestions dropdown appears
-        List<WebElement> suggestions = driver.findElements(
-                By.cssSelector("ul[role='listbox'] li")
-        );
-
-        if (suggestions.size() > 0) {
-            System.out.println("✓ Search suggestions appeared!");
-            System.out.println("  Found " + suggestions.size() + " suggestions");
-        } else {
-            System.out.println("⚠ No suggestions found (may be blocked or delayed)");
-        }
+        home.searchBox().sendKeys("java");
+
+        // Suggestions may never appear (blocked or delayed), so give them a short bounded wait
+        By suggestionItems = home.suggestions();
+        waits.withTimeout(Duration.ofSeconds(3)).optionally("Google suggestions",
+                ExpectedConditions.numberOfElementsToBeMoreThan(suggestionItems, 0));
+        List<WebElement> suggestions = driver.findElements(suggestionItems);
+
+        // Google withholds suggestions from some clients; report that as skipped rather than passed
+        Assumptions.assumeTrue(suggestions.size() > 0, "No suggestions found (may be blocked or delayed)");
+        Log.info("✓ Search suggestions appeared!");
+        Log.info("  Found {} suggestions", suggestions.size());
     }
 
-    @Test
-    @Order(7)
+    @RetryingTest
     @DisplayName("Test Google Images link")
     public void testGoogleImagesLink() {
-        driver.get("https://www.google.com");
+        GoogleHomePage home = new GoogleHomePage(driver).open(sites.url(GoogleHomePage.URL));
 
         // Find and click Images link
-        try {
-            WebElement imagesLink = wait.until(ExpectedConditions.elementToBeClickable(
-                    By.linkText("Images")
-            ));
-            imagesLink.click();
-
-            // Wait for Images page to load
-            wait.until(ExpectedConditions.urlContains("images"));
-
-            String currentUrl = driver.getCurrentUrl();
-            assertTrue(currentUrl.contains("images"),
-                    "Should navigate to Google Images");
-            System.out.println("✓ Google Images link works!");
-
-        } catch (Exception e) {
-            System.out.println("⚠ Images link test skipped (element might not be visible)");
-        }
+        home.imagesLink().click();
+
+        // Wait for Images page to load
+        waits.until("Google Images page", ExpectedConditions.urlContains("images"));
+
+        String currentUrl = home.currentUrl();
+        assertTrue(currentUrl.contains("images"),
+                "Should navigate to Google Images");
+        Log.info("✓ Google Images link works!");
     }
 
-    @Test
-    @Order(8)
+    @RetryingTest
     @DisplayName("Test multiple searches")
     public void testMultipleSearches() {
-        String[] searchTerms = {"Java", "Python", "JavaScript"};
-
-        for (String term : searchTerms) {
-            driver.get("https://www.google.com");
-
-            WebElement searchBox = wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.name("q")
-            ));
-            searchBox.sendKeys(term);
-            searchBox.submit();
+        // Terms stream from data/search-terms.csv, or from the file -Dsearch.data points at
+        try (Stream<DataRow> rows = TestData.open("search.data", "search-terms.csv").rows()) {
+            Iterator<DataRow> terms = rows.iterator();
+
+            // The searches are independent, so each batch runs side by side in isolated contexts of one browser
+            if (BrowserContexts.isEnabled(driver)) {
+                try (BrowserContexts contexts = new BrowserContexts(driver)) {
+                    while (terms.hasNext()) {
+                        Map<String, Consumer<WebDriver>> searches = new LinkedHashMap<>();
+                        while (terms.hasNext() && searches.size() < CONTEXTS_PER_BATCH) {
+                            String term = terms.next().get("term");
+                            searches.put(term, context -> search(context, term));
+                        }
+                        Log.info("{}", contexts.runIsolated(searches));
+                    }
+                }
+            } else {
+                terms.forEachRemaining(row -> search(driver, row.get("term")));
+            }
+        }
+    }
 
-            wait.until(ExpectedConditions.titleContains(term));
+    private void search(WebDriver browser, String term) {
+        GoogleResultsPage results = new GoogleHomePage(browser).open(sites.url(GoogleHomePage.URL))
+                .search(term)
+                .awaitTitle(term);
 
-            String title = driver.getTitle();
-            assertTrue(title.contains(term),
-                    "Title should contain search term: " + term);
-            System.out.println("✓ Search for '" + term + "' successful!");
-        }
+        String title = results.title();
+        assertTrue(title.contains(term),
+                "Title should contain search term: " + term);
+        Log.info("✓ Search for '{}' successful!", term);
     }
 
-    @Test
-    @Order(9)
+    @RetryingTest
     @DisplayName("Test search with Enter key")
     public void testSearchWithEnterKey() {
-        driver.get("https://www.google.com");
-
-        WebElement searchBox = wait.until(ExpectedConditions.presenceOfElementLocated(
-                By.name("q")
-        ));
-        searchBox.sendKeys("Selenium automation");
-        searchBox.sendKeys(Keys.RETURN);
+        GoogleResultsPage results = new GoogleHomePage(driver).open(sites.url(GoogleHomePage.URL))
+                .searchWithEnter("Selenium automation")
+                .awaitTitle("Selenium+automation");
 
-        wait.until(ExpectedConditions.titleContains("Selenium+automation"));
-
-        String currentUrl = driver.getCurrentUrl();
+        String currentUrl = results.currentUrl();
         assertTrue(currentUrl.contains("search"),
                 "Should be on search results page");
-        System.out.println("✓ Search with Enter key works!");
+        Log.info("✓ Search with Enter key works!");
     }
 
-    @Test
-    @Order(10)
+    @RetryingTest
     @DisplayName("Test Google search box clears")
     public void testSearchBoxClears() {
-        driver.get("https://www.google.com");
-
-        WebElement searchBox = wait.until(ExpectedConditions.presenceOfElementLocated(
-                By.name("q")
-        ));
+        GoogleHomePage home = new GoogleHomePage(driver).open(sites.url(GoogleHomePage.URL));
+        WebElement searchBox = home.searchBox();
 
         // Enter text
         searchBox.sendKeys("test query");
@@ -211,7 +203,8 @@ public class GoogleTest {
         searchBox.clear();
         assertEquals("", searchBox.getAttribute("value"),
                 "Search box should be empty after clear");
+        assertEquals(1, home.lookups(), "The search box should be looked up once");
 
-        System.out.println("✓ Search box clear functionality works!");
+        Log.info("✓ Search box clear functionality works!");
     }
 }
\ No newline at end of file
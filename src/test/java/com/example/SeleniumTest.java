@@ -1,14 +1,17 @@
 package com.example;
 
+import com.example.driver.ChromeOptionsBuilder;
+import com.example.driver.ChromeOptionsBuilder.Profile;
+import com.example.fixture.Sites;
+import com.example.log.Log;
+import com.example.pages.ExamplePage;
+import com.example.pages.IanaPage;
+import com.example.support.PooledDriverExtension;
 import org.junit.jupiter.api.*;
-import org.openqa.selenium.By;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.WebDriverWait;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import io.github.bonigarcia.wdm.WebDriverManager;
 
 import java.time.Duration;
 
@@ -16,116 +19,101 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class SeleniumTest {
 
-    private static WebDriver driver;
-    private static WebDriverWait wait;
+    @RegisterExtension
+    static final PooledDriverExtension browser = new PooledDriverExtension(SeleniumTest::chromeOptions);
 
-    @BeforeAll
-    public static void setupClass() {
-        // Setup ChromeDriver once for all tests
-        WebDriverManager.chromedriver().setup();
+    @RegisterExtension
+    static final Sites sites = new Sites();
+
+    private WebDriver driver;
+
+    public static ChromeOptions chromeOptions() {
+        // Pass headless(false) to see the browser during tests
+        return ChromeOptionsBuilder.profile(Profile.selected(Profile.STANDARD))
+                .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
+                .build();
     }
 
     @BeforeEach
-    public void setupTest() {
-        ChromeOptions options = new ChromeOptions();
-        // Comment out headless to see the browser during tests
-        options.addArguments("--headless");
-        options.addArguments("--window-size=1920,1080");
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-
-        driver = new ChromeDriver(options);
+    public void setupTest(WebDriver pooledDriver) {
+        // The pool resets sessions between tests, including the implicit wait
+        driver = pooledDriver;
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-    }
-
-    @AfterEach
-    public void teardown() {
-        if (driver != null) {
-            driver.quit();
-        }
     }
 
     @Test
     @DisplayName("Test Example.com page title")
     public void testPageTitle() {
-        driver.get("https://example.com");
-        wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
+        ExamplePage page = new ExamplePage(driver).open(sites.url(ExamplePage.URL));
 
-        String title = driver.getTitle();
+        String title = page.title();
         assertEquals("Example Domain", title, "Page title should be 'Example Domain'");
-        System.out.println("✓ Page title test passed!");
+        Log.info("✓ Page title test passed!");
     }
 
     @Test
     @DisplayName("Test heading text on Example.com")
     public void testHeadingText() {
-        driver.get("https://example.com");
-        WebElement heading = wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("h1")));
+        ExamplePage page = new ExamplePage(driver).open(sites.url(ExamplePage.URL));
 
-        assertEquals("Example Domain", heading.getText(), "Heading should contain 'Example Domain'");
-        System.out.println("✓ Heading text test passed!");
+        assertEquals("Example Domain", page.heading().getText(), "Heading should contain 'Example Domain'");
+        Log.info("✓ Heading text test passed!");
     }
 
     @Test
     @DisplayName("Test page body text content")
     public void testPageTextContent() {
-        driver.get("https://example.com");
-        WebElement body = wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
+        ExamplePage page = new ExamplePage(driver).open(sites.url(ExamplePage.URL));
 
-        String bodyText = body.getText();
+        String bodyText = page.bodyText();
         assertTrue(bodyText.contains("This domain is for use in documentation"),
                 "Page should contain expected text about documentation");
-        System.out.println("✓ Page text content test passed!");
+        Log.info("✓ Page text content test passed!");
     }
 
     @Test
     @DisplayName("Test navigation to IANA website")
     public void testNavigation() {
         // First visit example.com
-        driver.get("https://example.com");
-        wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
+        ExamplePage example = new ExamplePage(driver).open(sites.url(ExamplePage.URL));
 
-        String firstUrl = driver.getCurrentUrl();
+        String firstUrl = example.currentUrl();
         assertTrue(firstUrl.contains("example.com"), "Should be on example.com");
 
         // Navigate to IANA (related to example.com)
-        driver.get("https://www.iana.org/domains/reserved");
-        wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("h1")));
+        IanaPage iana = new IanaPage(driver).open(sites.url(IanaPage.URL));
 
-        String currentUrl = driver.getCurrentUrl();
+        String currentUrl = iana.currentUrl();
         assertTrue(currentUrl.contains("iana.org"),
                 "URL should contain iana.org, but was: " + currentUrl);
-        System.out.println("✓ Navigation test passed! Current URL: " + currentUrl);
+        Log.info("✓ Navigation test passed! Current URL: {}", currentUrl);
     }
 
     @Test
     @DisplayName("Test page has content")
     public void testPageHasContent() {
-        driver.get("https://example.com");
-        WebElement body = wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
+        ExamplePage page = new ExamplePage(driver).open(sites.url(ExamplePage.URL));
 
-        assertNotNull(body, "Page should have body content");
-        String bodyText = body.getText();
+        assertNotNull(page.body(), "Page should have body content");
+        String bodyText = page.bodyText();
         assertTrue(bodyText.length() > 0, "Body should have text");
         assertTrue(bodyText.contains("Example Domain"), "Body should contain heading text");
-        System.out.println("✓ Page content test passed!");
+        Log.info("✓ Page content test passed!");
     }
 
     @Test
     @DisplayName("Test page structure")
     public void testPageStructure() {
-        driver.get("https://example.com");
-        wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
+        ExamplePage page = new ExamplePage(driver).open(sites.url(ExamplePage.URL));
 
         // Verify h1 exists
-        WebElement heading = driver.findElement(By.tagName("h1"));
+        WebElement heading = page.heading();
         assertNotNull(heading, "Page should have h1 element");
 
-        // Verify body exists and is visible
-        WebElement body = driver.findElement(By.tagName("body"));
-        assertTrue(body.isDisplayed(), "Body should be displayed");
+        // Verify body exists and is visible; the body the page waited for is reused, not looked up again
+        assertTrue(page.body().isDisplayed(), "Body should be displayed");
+        assertEquals(2, page.lookups(), "Each element should be looked up once");
 
-        System.out.println("✓ Page structure test passed!");
+        Log.info("✓ Page structure test passed!");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package com.example.artifact;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArtifactStoreTest {
+
+    private static final byte[] PAGE = "<html><body>No results for gift card voucher</body></html>".repeat(50)
+            .getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Identical content is stored once, compressed, and indexed every time")
+    public void testDeduplicate() throws IOException {
+        ArtifactStore store = new ArtifactStore(directory, 1 << 20, 16);
+        assertTrue(store.submit(artifact("AmazonTest.testSearch", Artifact.Kind.PAGE_SOURCE, PAGE)));
+        assertTrue(store.submit(artifact("AmazonTest.testSearch", Artifact.Kind.PAGE_SOURCE, PAGE)));
+        store.close();
+
+        ArtifactStore.Stats stats = store.stats();
+        assertEquals(2, stats.submitted());
+        assertEquals(1, stats.written());
+        assertEquals(1, stats.duplicates());
+        Path blob = directory.resolve(ArtifactStore.sha256(PAGE) + ".html.gz");
+        assertTrue(stats.bytesStored() < PAGE.length / 4, "Repetitive HTML should compress well");
+        try (GZIPInputStream in = new GZIPInputStream(Files.newInputStream(blob))) {
+            assertArrayEquals(PAGE, in.readAllBytes());
+        }
+        List<String> index = Files.readAllLines(directory.resolve("index.jsonl"));
+        assertEquals(2, index.size());
+        assertTrue(index.get(1).contains("\"duplicate\": true"), index.get(1));
+    }
+
+    @Test
+    @DisplayName("Content that doesn't shrink is stored as is")
+    public void testIncompressible() throws IOException {
+        byte[] noise = new byte[4096];
+        new Random(7).nextBytes(noise);
+        ArtifactStore store = new ArtifactStore(directory, 1 << 20, 16);
+        store.submit(artifact("GoogleTest.testImages", Artifact.Kind.SCREENSHOT, noise));
+        store.close();
+
+        assertArrayEquals(noise, Files.readAllBytes(directory.resolve(ArtifactStore.sha256(noise) + ".png")));
+    }
+
+    @Test
+    @DisplayName("Artifacts past the byte budget are dropped without blocking")
+    public void testBudget() throws IOException {
+        ArtifactStore store = new ArtifactStore(directory, 6000, 16);
+        // Random bytes don't compress, so the first stays 4000 bytes even if it is written before the second comes
+        byte[] first = new byte[4000];
+        byte[] second = new byte[4000];
+        new Random(1).nextBytes(first);
+        new Random(2).nextBytes(second);
+
+        assertTrue(store.submit(artifact("t", Artifact.Kind.SCREENSHOT, first)));
+        assertFalse(store.submit(artifact("t", Artifact.Kind.SCREENSHOT, second)));
+        store.close();
+
+        assertEquals(1, store.stats().dropped());
+        assertFalse(store.submit(artifact("t", Artifact.Kind.SCREENSHOT, first)), "Closed stores take nothing");
+    }
+
+    @Test
+    @DisplayName("A capture queues a screenshot and the page source, or what a failing browser still gives")
+    public void testCapture() throws IOException {
+        ArtifactStore store = new ArtifactStore(directory, 1 << 20, 16);
+        ArtifactCapture capture = new ArtifactCapture(store);
+
+        assertEquals(2, capture.capture(driver(false), "GoogleTest.testSearch", "search", "failure"));
+        assertEquals(1, capture.capture(driver(true), "GoogleTest.testSearch", "search", "failure"));
+        store.close();
+
+        assertEquals(2, store.stats().written(), "The second page source is a duplicate");
+    }
+
+    private static Artifact artifact(String test, Artifact.Kind kind, byte[] bytes) {
+        return new Artifact(Instant.now(), test, "test", "failure", kind, bytes);
+    }
+
+    private WebDriver driver(boolean screenshotFails) {
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, TakesScreenshot.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getScreenshotAs" -> {
+                        if (screenshotFails) {
+                            throw new WebDriverException("unexpected alert open");
+                        }
+                        yield ((OutputType<?>) args[0]).convertFromPngBytes(new byte[]{(byte) 0x89, 'P', 'N', 'G'});
+                    }
+                    case "getPageSource" -> new String(PAGE, StandardCharsets.UTF_8);
+                    default -> null;
+                });
+    }
+}
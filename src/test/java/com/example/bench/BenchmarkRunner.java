@@ -0,0 +1,90 @@
+package com.example.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Runs the JMH benchmarks and keeps every result file so runs can be compared.
+ *
+ * Results go to {@code benchmarks/results/jmh-<timestamp>.json} (override with
+ * {@code -Djmh.results.dir}); after each run the scores are printed next to the
+ * previous run's. Started by {@code mvn -Pbenchmark test-compile exec:exec},
+ * optionally with {@code -Djmh.include=<regex>}.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*Benchmark";
+        Path resultsDir = Paths.get(System.getProperty("jmh.results.dir", "benchmarks/results"));
+        Files.createDirectories(resultsDir);
+
+        Optional<Path> previous = latestResult(resultsDir);
+        Path result = resultsDir.resolve("jmh-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+
+        System.out.println("Results saved to " + result);
+        if (previous.isPresent()) {
+            compare(previous.get(), result);
+        }
+    }
+
+    private static Optional<Path> latestResult(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().matches("jmh-.*\\.json"))
+                    .max(Path::compareTo);
+        }
+    }
+
+    static void compare(Path before, Path after) throws IOException {
+        Map<String, Double> old = scores(before);
+        System.out.println("\nCompared with " + before.getFileName() + ":");
+        scores(after).forEach((benchmark, score) -> {
+            Double previous = old.get(benchmark);
+            if (previous == null || previous == 0) {
+                System.out.printf("  %-70s %12.3f   (new)%n", benchmark, score);
+            } else {
+                System.out.printf("  %-70s %12.3f   was %12.3f   %+7.1f%%%n",
+                        benchmark, score, previous, (score - previous) / previous * 100);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> scores(Path file) throws IOException {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        List<Map<String, Object>> runs = new Json().toType(Files.readString(file), Json.LIST_OF_MAPS_TYPE);
+        for (Map<String, Object> run : runs) {
+            String name = (String) run.get("benchmark");
+            Object params = run.get("params");
+            if (params instanceof Map<?, ?> map && !map.isEmpty()) {
+                name += " " + map;
+            }
+            Map<String, Object> metric = (Map<String, Object>) run.get("primaryMetric");
+            scores.put(name + " (" + metric.get("scoreUnit") + ")", ((Number) metric.get("score")).doubleValue());
+        }
+        return scores;
+    }
+}
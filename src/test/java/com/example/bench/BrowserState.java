@@ -0,0 +1,42 @@
+package com.example.bench;
+
+import com.example.GoogleTest;
+import com.example.driver.DriverResolver;
+import com.example.fixture.FixtureServer;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+
+/**
+ * One headless Chrome parked on the fixture search results page, shared by a benchmark's iterations.
+ */
+@State(Scope.Benchmark)
+public class BrowserState {
+
+    public static final String RESULTS_PAGE = "/www.amazon.in/s?k=gift+card+voucher";
+
+    public FixtureServer server;
+    public WebDriver driver;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DriverResolver.setupChrome();
+        server = FixtureServer.start();
+        driver = new ChromeDriver(GoogleTest.chromeOptions());
+        driver.get(server.baseUrl() + RESULTS_PAGE);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bench;
+
+import com.example.driver.ChromeOptionsBuilder;
+import com.example.driver.DriverResolver;
+import com.example.fixture.FixtureServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold browser launch, and launch plus first page load, for each {@link ChromeOptionsBuilder.Profile}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DriverStartupBenchmark {
+
+    @Param({"STANDARD", "COMPATIBLE", "FAST"})
+    public ChromeOptionsBuilder.Profile profile;
+
+    private ChromeOptions chromeOptions;
+    private FixtureServer server;
+    private WebDriver driver;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DriverResolver.setupChrome();
+        chromeOptions = ChromeOptionsBuilder.profile(profile).build();
+        server = FixtureServer.start();
+    }
+
+    @Benchmark
+    public WebDriver startDriver() {
+        driver = new ChromeDriver(chromeOptions);
+        return driver;
+    }
+
+    @Benchmark
+    public String startAndLoadFirstPage() {
+        driver = new ChromeDriver(chromeOptions);
+        driver.get(server.baseUrl() + BrowserState.RESULTS_PAGE);
+        return driver.getTitle();
+    }
+
+    @TearDown(Level.Invocation)
+    public void quit() {
+        if (driver != null) {
+            driver.quit();
+            driver = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        if (server != null) {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.bench;
+
+import com.example.extract.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading every result card element by element versus one batched script.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    private static final By RESULTS = By.cssSelector(SearchResult.RESULT_SELECTOR);
+
+    @Benchmark
+    public void perElementGetText(BrowserState browser, Blackhole blackhole) {
+        for (WebElement price : browser.driver.findElements(By.cssSelector(".a-price-whole"))) {
+            blackhole.consume(price.getText());
+        }
+    }
+
+    @Benchmark
+    public void perElementGetAttribute(BrowserState browser, Blackhole blackhole) {
+        for (WebElement result : browser.driver.findElements(RESULTS)) {
+            blackhole.consume(result.getAttribute("data-asin"));
+        }
+    }
+
+    // What AmazonTest did before batching: attribute plus a child lookup per card
+    @Benchmark
+    public void perElementAsinAndSponsored(BrowserState browser, Blackhole blackhole) {
+        for (WebElement result : browser.driver.findElements(RESULTS)) {
+            blackhole.consume(result.getAttribute("data-asin"));
+            blackhole.consume(result.findElements(By.xpath(".//span[contains(text(), 'Sponsored')]")).isEmpty());
+        }
+    }
+
+    @Benchmark
+    public List<SearchResult> batchedScript(BrowserState browser) {
+        return SearchResult.extractAll(browser.driver);
+    }
+}
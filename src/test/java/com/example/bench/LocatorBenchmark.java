@@ -0,0 +1,46 @@
+package com.example.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same kind of lookups AmazonTest performs, by id, CSS selector and XPath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocatorBenchmark {
+
+    @Benchmark
+    public WebElement byId(BrowserState browser) {
+        return browser.driver.findElement(By.id("twotabsearchtextbox"));
+    }
+
+    @Benchmark
+    public WebElement byCssSelector(BrowserState browser) {
+        return browser.driver.findElement(By.cssSelector(".s-main-slot"));
+    }
+
+    @Benchmark
+    public WebElement byXPath(BrowserState browser) {
+        return browser.driver.findElement(
+                By.xpath("//span[text()='Congratulations']/ancestor::a[contains(@class, 'a-link-normal')]"));
+    }
+
+    @Benchmark
+    public WebElement byXPathTextSearch(BrowserState browser) {
+        return browser.driver.findElement(
+                By.xpath("//*[contains(text(), 'Congratulations') and (self::a or self::span[parent::a])]"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.bench;
+
+import com.example.wait.AdaptiveWait;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of each wait style when the element is already present, i.e. the common fast path,
+ * and how soon polling and push waits see an element that turns up a little later.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaitBenchmark {
+
+    private static final By MAIN_SLOT = By.cssSelector(".s-main-slot");
+    private static final By LATE = By.id("bench-late");
+    private static final String ADD_LATE = "document.getElementById('bench-late') && "
+            + "document.getElementById('bench-late').remove();"
+            + "setTimeout(function () {"
+            + "  var late = document.createElement('div'); late.id = 'bench-late'; document.body.appendChild(late);"
+            + "}, arguments[0]);";
+    private static final long LATE_MILLIS = 120;
+
+    /**
+     * Separate browser with a 10 s implicit wait, so the other benchmarks keep the default of zero.
+     */
+    @State(Scope.Benchmark)
+    public static class ImplicitWaitBrowser extends BrowserState {
+
+        @Setup(Level.Trial)
+        public void enableImplicitWait() {
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        }
+    }
+
+    @Benchmark
+    public WebElement noWait(BrowserState browser) {
+        return browser.driver.findElement(MAIN_SLOT);
+    }
+
+    @Benchmark
+    public WebElement implicitWait(ImplicitWaitBrowser browser) {
+        return browser.driver.findElement(MAIN_SLOT);
+    }
+
+    @Benchmark
+    public WebElement explicitWebDriverWait(BrowserState browser) {
+        return new WebDriverWait(browser.driver, Duration.ofSeconds(10))
+                .until(ExpectedConditions.presenceOfElementLocated(MAIN_SLOT));
+    }
+
+    @Benchmark
+    public WebElement adaptiveWait(BrowserState browser) {
+        return new AdaptiveWait(browser.driver, Duration.ofSeconds(10))
+                .until("main slot", ExpectedConditions.presenceOfElementLocated(MAIN_SLOT));
+    }
+
+    @Benchmark
+    public WebElement lateElementPolled(BrowserState browser) {
+        return lateElement(browser, AdaptiveWait.Mode.POLL);
+    }
+
+    @Benchmark
+    public WebElement lateElementPushed(BrowserState browser) {
+        return lateElement(browser, AdaptiveWait.Mode.PUSH);
+    }
+
+    private static WebElement lateElement(BrowserState browser, AdaptiveWait.Mode mode) {
+        ((JavascriptExecutor) browser.driver).executeScript(ADD_LATE, LATE_MILLIS);
+        return new AdaptiveWait(browser.driver, Duration.ofSeconds(10)).withMode(mode)
+                .until("late element", ExpectedConditions.presenceOfElementLocated(LATE));
+    }
+}
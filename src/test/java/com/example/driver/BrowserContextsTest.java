@@ -0,0 +1,105 @@
+package com.example.driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriver.TargetLocator;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BrowserContextsTest {
+
+    private final AtomicInteger targets = new AtomicInteger();
+    private final List<Object> closed = new ArrayList<>();
+
+    @Test
+    @DisplayName("A failed assertion in one context comes back as itself, not as a browser failure")
+    public void testAssertionFailure() {
+        Map<String, Consumer<WebDriver>> scenarios = new LinkedHashMap<>();
+        scenarios.put("passes", WebDriver::getTitle);
+        scenarios.put("fails", driver -> fail("Title was " + driver.getTitle()));
+
+        try (BrowserContexts contexts = new BrowserContexts(browser())) {
+            AssertionError failure = assertThrows(AssertionError.class, () -> contexts.runIsolated(scenarios));
+
+            assertEquals("Title was Fake", failure.getMessage());
+            assertFalse(DriverPool.isBrowserFailure(failure), "The browser stays in the pool");
+        }
+    }
+
+    @Test
+    @DisplayName("Runtime failures are rethrown unchanged, later ones suppressed by the first")
+    public void testRuntimeFailures() {
+        Map<String, Consumer<WebDriver>> scenarios = new LinkedHashMap<>();
+        scenarios.put("missing", driver -> {
+            throw new NoSuchElementException("#results");
+        });
+        scenarios.put("fails", driver -> fail("second"));
+
+        try (BrowserContexts contexts = new BrowserContexts(browser())) {
+            NoSuchElementException failure = assertThrows(NoSuchElementException.class,
+                    () -> contexts.runIsolated(scenarios));
+
+            assertEquals(1, failure.getSuppressed().length);
+            assertInstanceOf(AssertionError.class, failure.getSuppressed()[0]);
+        }
+    }
+
+    @Test
+    @DisplayName("Each context driver closes its own tab, though all of them equal the browser driver")
+    public void testCloseOwnContext() {
+        try (BrowserContexts contexts = new BrowserContexts(browser())) {
+            WebDriver first = contexts.openContext("first");
+            WebDriver second = contexts.openContext("second");
+            assertEquals(first, second, "Decorated drivers delegate equals to the browser driver");
+
+            contexts.close(first);
+            assertEquals(List.of("tab-2"), closed);
+            assertEquals(List.of("second"), List.copyOf(contexts.memory().jsHeapBytesByContext().keySet()));
+
+            contexts.close(first);
+            assertEquals(List.of("tab-2"), closed, "Closing twice does nothing");
+        }
+        assertEquals(List.of("tab-2", "tab-4"), closed);
+    }
+
+    // A Chromium driver whose DevTools creates contexts and tabs but has no process info to give
+    private WebDriver browser() {
+        TargetLocator switchTo = (TargetLocator) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{TargetLocator.class}, (proxy, method, args) -> null);
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class, HasCdp.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getWindowHandle" -> "original";
+                    case "getTitle" -> "Fake";
+                    case "switchTo" -> switchTo;
+                    case "executeScript" -> 0L;
+                    case "executeCdpCommand" -> switch ((String) args[0]) {
+                        case "Target.createBrowserContext" -> Map.of("browserContextId", "context-"
+                                + targets.incrementAndGet());
+                        case "Target.createTarget" -> Map.of("targetId", "tab-" + targets.incrementAndGet());
+                        case "SystemInfo.getProcessInfo" -> throw new WebDriverException("Not available");
+                        case "Target.closeTarget" -> {
+                            closed.add(((Map<?, ?>) args[1]).get("targetId"));
+                            yield Map.of();
+                        }
+                        default -> Map.of();
+                    };
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+}
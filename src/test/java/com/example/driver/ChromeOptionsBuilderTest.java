@@ -0,0 +1,57 @@
+package com.example.driver;
+
+import com.example.driver.ChromeOptionsBuilder.Profile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChromeOptionsBuilderTest {
+
+    @Test
+    @DisplayName("Repeated flags are deduplicated, list flags merged")
+    public void testDeduplication() {
+        List<String> arguments = ChromeOptionsBuilder.profile(Profile.STANDARD)
+                .argument("--headless")
+                .argument("--headless=new")
+                .argument("--disable-blink-features=AutomationControlled")
+                .argument("--disable-blink-features=AutomationControlled,Notifications")
+                .arguments();
+
+        assertEquals(1, arguments.stream().filter(flag -> flag.startsWith("--headless")).count());
+        assertTrue(arguments.contains("--headless=new"));
+        assertTrue(arguments.contains("--disable-blink-features=AutomationControlled,Notifications"));
+    }
+
+    @Test
+    @DisplayName("Malformed and contradictory flags are rejected")
+    public void testValidation() {
+        ChromeOptionsBuilder builder = ChromeOptionsBuilder.profile(Profile.STANDARD);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.argument("headless"));
+        assertThrows(IllegalArgumentException.class, () -> builder.windowSize(0, 1080));
+        assertThrows(IllegalStateException.class, () -> builder.maximized().build(),
+                "Maximised makes no sense headless");
+        assertDoesNotThrow(() -> builder.headless(false).build());
+    }
+
+    @Test
+    @DisplayName("Fast profile blocks heavy resources and loads eagerly")
+    @SuppressWarnings("unchecked")
+    public void testFastProfile() {
+        ChromeOptions options = ChromeOptionsBuilder.profile(Profile.FAST).build();
+        Map<String, Object> chrome = (Map<String, Object>) options.asMap().get(ChromeOptions.CAPABILITY);
+        List<String> arguments = (List<String>) chrome.get("args");
+        Map<String, Object> prefs = (Map<String, Object>) chrome.get("prefs");
+
+        assertEquals(PageLoadStrategy.EAGER.toString(), String.valueOf(options.getCapability("pageLoadStrategy")));
+        assertTrue(arguments.containsAll(List.of("--disable-extensions", "--disable-background-networking",
+                "--disable-component-update", "--disable-remote-fonts", "--no-sandbox")));
+        assertEquals(2, prefs.get("profile.managed_default_content_settings.images"));
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriver.TargetLocator;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DriverPoolTest {
+
+    private final AtomicInteger launches = new AtomicInteger();
+
+    @Test
+    @DisplayName("Released sessions are reused")
+    public void testReuse() {
+        try (DriverPool pool = new DriverPool(this::launch, 2)) {
+            WebDriver first = pool.acquire();
+            pool.release(first);
+            WebDriver second = pool.acquire();
+
+            assertSame(first, second, "Warm session should be handed out again");
+            assertEquals(1, launches.get());
+            assertEquals(1, pool.stats().hits());
+            assertEquals(1, pool.stats().misses());
+        }
+    }
+
+    @Test
+    @DisplayName("Crashed sessions are evicted on acquire")
+    public void testCrashedSessionEvicted() {
+        try (DriverPool pool = new DriverPool(this::launch, 1)) {
+            WebDriver first = pool.acquire();
+            pool.release(first);
+            crash(first);
+
+            WebDriver second = pool.acquire();
+
+            assertNotSame(first, second, "Dead session must not be reused");
+            assertEquals(1, pool.stats().evictions());
+            assertEquals(2, pool.stats().misses());
+        }
+    }
+
+    @Test
+    @DisplayName("Pool blocks when every session is leased")
+    public void testBounded() {
+        try (DriverPool pool = new DriverPool(this::launch, 1)) {
+            WebDriver leased = pool.acquire();
+
+            assertThrows(org.openqa.selenium.TimeoutException.class,
+                    () -> pool.acquire(Duration.ofMillis(50)));
+
+            pool.evict(leased);
+            assertNotNull(pool.acquire(Duration.ofMillis(50)));
+        }
+    }
+
+    @Test
+    @DisplayName("Release clears the storage of every origin the windows visited and parks in a fresh tab")
+    public void testResetClearsVisitedOrigins() {
+        List<String> commands = new ArrayList<>();
+        Map<String, List<String>> histories = new HashMap<>(Map.of(
+                "main", List.of("about:blank", "https://shop.example:8443/cart", "https://login.example/"),
+                "popup", List.of("https://pay.example/checkout?id=1", "data:text/html,done")));
+        // Session storage per tab, by origin; the script only reaches the origin the tab is on
+        Map<String, Map<String, String>> sessionStorage = new LinkedHashMap<>();
+        sessionStorage.put("main", new HashMap<>(Map.of("https://shop.example:8443", "cart=3",
+                "https://login.example", "token=abc")));
+        sessionStorage.put("popup", new HashMap<>(Map.of("https://pay.example", "order=1")));
+        String[] current = {"main"};
+        TargetLocator switchTo = (TargetLocator) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{TargetLocator.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("newWindow")) {
+                        current[0] = "tab-" + sessionStorage.size();
+                        sessionStorage.put(current[0], new HashMap<>());
+                        histories.put(current[0], List.of("about:blank"));
+                    } else {
+                        current[0] = (String) args[0];
+                    }
+                    return null;
+                });
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class, HasCdp.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getWindowHandles" -> new LinkedHashSet<>(sessionStorage.keySet());
+                    case "getWindowHandle" -> current[0];
+                    case "switchTo" -> switchTo;
+                    case "close" -> {
+                        commands.add("close " + current[0]);
+                        sessionStorage.remove(current[0]);
+                        yield null;
+                    }
+                    case "executeScript" -> {
+                        List<String> history = histories.get(current[0]);
+                        URI page = URI.create(history.get(history.size() - 1));
+                        sessionStorage.get(current[0]).remove(page.getScheme() + "://" + page.getRawAuthority());
+                        yield null;
+                    }
+                    case "executeCdpCommand" -> {
+                        commands.add(args[0] + " " + ((Map<?, ?>) args[1]).get("origin"));
+                        yield args[0].equals("Page.getNavigationHistory")
+                                ? Map.of("entries", histories.get(current[0]).stream()
+                                        .map(url -> Map.of("url", url)).toList())
+                                : Map.of();
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> stub(method.getReturnType());
+                });
+
+        try (DriverPool pool = new DriverPool(() -> driver, 1)) {
+            pool.release(pool.acquire());
+
+            assertEquals(1, pool.stats().idle(), "Reset succeeded");
+            assertEquals(Map.of("tab-2", Map.of()), sessionStorage,
+                    "Only a fresh tab is left, without the shop's session storage the script could not reach");
+            assertEquals("tab-2", current[0]);
+        }
+        assertEquals(List.of("Page.getNavigationHistory null", "Page.getNavigationHistory null",
+                "close main", "close popup",
+                "Storage.clearDataForOrigin https://shop.example:8443",
+                "Storage.clearDataForOrigin https://login.example",
+                "Storage.clearDataForOrigin https://pay.example",
+                "Network.clearBrowserCookies null"), commands);
+    }
+
+    private WebDriver launch() {
+        launches.incrementAndGet();
+        AtomicBoolean crashed = new AtomicBoolean();
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class, Crashable.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "crash" -> {
+                        crashed.set(true);
+                        yield null;
+                    }
+                    case "getWindowHandles" -> {
+                        if (crashed.get()) {
+                            throw new WebDriverException("chrome not reachable");
+                        }
+                        yield Set.of("main");
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> stub(method.getReturnType());
+                });
+    }
+
+    // Any nested WebDriver interface (manage(), timeouts(), switchTo()) is answered by another stub
+    private static Object stub(Class<?> type) {
+        if (!type.isInterface()) {
+            return null;
+        }
+        return Proxy.newProxyInstance(DriverPoolTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> stub(method.getReturnType()));
+    }
+
+    private static void crash(WebDriver driver) {
+        ((Crashable) driver).crash();
+    }
+
+    interface Crashable {
+        void crash();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.driver;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DriverResolverTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private Path binary;
+    private final AtomicInteger resolutions = new AtomicInteger();
+
+    @BeforeEach
+    public void setupBinary() throws IOException {
+        binary = Files.createFile(cacheDir.resolve("chromedriver-bin"));
+    }
+
+    @Test
+    @DisplayName("A warm cache is used by later resolvers without resolving again")
+    public void testWarmCache() {
+        DriverResolver.Resolution cold = resolver(Duration.ofHours(1), this::resolve).resolve();
+        DriverResolver.Resolution warm = resolver(Duration.ofHours(1), this::offline).resolve();
+
+        assertEquals(DriverResolver.Source.RESOLVED, cold.source());
+        assertEquals(DriverResolver.Source.CACHE, warm.source());
+        assertEquals(binary.toAbsolutePath(), warm.driver());
+        assertEquals("120.0", warm.version());
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    @DisplayName("An expired entry is refreshed, or reused when refreshing fails")
+    public void testExpiredEntry() {
+        resolver(Duration.ZERO, this::resolve).resolve();
+
+        assertEquals(DriverResolver.Source.RESOLVED, resolver(Duration.ZERO, this::resolve).resolve().source());
+        assertEquals(DriverResolver.Source.CACHE, resolver(Duration.ZERO, this::offline).resolve().source());
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test
+    @DisplayName("A missing binary invalidates the cache")
+    public void testMissingBinary() throws IOException {
+        resolver(Duration.ofHours(1), this::resolve).resolve();
+        Files.delete(binary);
+
+        assertThrows(IllegalStateException.class, () -> resolver(Duration.ofHours(1), this::offline).resolve());
+    }
+
+    @Test
+    @DisplayName("Cold and warm resolution times are recorded")
+    public void testTimings() {
+        resolver(Duration.ofHours(1), this::resolve).resolve();
+        resolver(Duration.ofHours(1), this::resolve).resolve();
+        DriverResolver resolver = resolver(Duration.ofHours(1), this::resolve);
+        resolver.resolve();
+        resolver.resolve();
+
+        assertEquals(1, resolver.timings().get(DriverResolver.Source.RESOLVED).count());
+        assertEquals(2, resolver.timings().get(DriverResolver.Source.CACHE).count(),
+                "Memoised lookups within one resolver are not new resolutions");
+    }
+
+    @Test
+    @DisplayName("A browser update to another major version refreshes a fresh entry")
+    public void testBrowserUpdate() {
+        browserResolver(this::resolve, () -> "120", Duration.ZERO).resolve();
+
+        DriverResolver.Resolution same = browserResolver(this::offline, () -> "120", Duration.ZERO).resolve();
+        DriverResolver.Resolution unknown = browserResolver(this::offline, () -> null, Duration.ZERO).resolve();
+        DriverResolver.Resolution updated = browserResolver(this::resolve, () -> "121", Duration.ZERO).resolve();
+
+        assertEquals(DriverResolver.Source.CACHE, same.source());
+        assertEquals(DriverResolver.Source.CACHE, unknown.source(), "An undetectable browser keeps the entry");
+        assertEquals(DriverResolver.Source.RESOLVED, updated.source());
+        assertEquals(2, resolutions.get());
+        assertEquals("126", DriverResolver.majorVersion("Google Chrome 126.0.6478.126 \n"));
+        assertEquals("125", DriverResolver.majorVersion("Chromium 125.0.6422.60 built on Debian"));
+        assertNull(DriverResolver.majorVersion(""));
+    }
+
+    @Test
+    @DisplayName("Warm hits don't ask the browser its version until the last check is old")
+    public void testBrowserCheckInterval() {
+        AtomicInteger probes = new AtomicInteger();
+        Supplier<String> browser = () -> {
+            probes.incrementAndGet();
+            return "120";
+        };
+
+        browserResolver(this::resolve, browser, Duration.ofHours(1)).resolve();
+        browserResolver(this::offline, browser, Duration.ofHours(1)).resolve();
+        assertEquals(1, probes.get(), "Only the cold resolution asks");
+
+        browserResolver(this::offline, browser, Duration.ZERO).resolve();
+        DriverResolver.Resolution warm = browserResolver(this::offline, browser, Duration.ofHours(1)).resolve();
+        assertEquals(2, probes.get(), "A due check asks once and is recorded");
+        assertEquals(DriverResolver.Source.CACHE, warm.source());
+    }
+
+    @Test
+    @DisplayName("An entry with an unreadable timestamp counts as expired instead of failing")
+    public void testCorruptTimestamp() throws IOException {
+        resolver(Duration.ofHours(1), this::resolve).resolve();
+        Path entry = cacheDir.resolve("chromedriver.properties");
+        Files.writeString(entry, Files.readString(entry).replaceAll("resolvedAt=.*", "resolvedAt=yesterday"));
+
+        assertEquals(DriverResolver.Source.CACHE, resolver(Duration.ofHours(1), this::offline).resolve().source(),
+                "Offline, the entry is still used");
+        assertEquals(DriverResolver.Source.RESOLVED, resolver(Duration.ofHours(1), this::resolve).resolve().source());
+        assertEquals(2, resolutions.get());
+    }
+
+    private DriverResolver resolver(Duration ttl, Supplier<DriverResolver.Resolved> source) {
+        return new DriverResolver("chromedriver", cacheDir, ttl, source);
+    }
+
+    private DriverResolver browserResolver(Supplier<DriverResolver.Resolved> source, Supplier<String> browser,
+                                           Duration browserCheck) {
+        return new DriverResolver("chromedriver", cacheDir, Duration.ofHours(1), source, browser, browserCheck);
+    }
+
+    private DriverResolver.Resolved resolve() {
+        resolutions.incrementAndGet();
+        return new DriverResolver.Resolved(binary, "120.0");
+    }
+
+    private DriverResolver.Resolved offline() {
+        throw new IllegalStateException("No network");
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.opentest4j.AssertionFailedError;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FailureClassTest {
+
+    @Test
+    @DisplayName("Selenium exceptions map to their failure class")
+    public void testSeleniumExceptions() {
+        assertEquals(FailureClass.TIMEOUT, FailureClass.of(new TimeoutException("waited 25s")));
+        assertEquals(FailureClass.STALE_ELEMENT, FailureClass.of(new StaleElementReferenceException("gone")));
+        assertEquals(FailureClass.NO_SUCH_ELEMENT, FailureClass.of(new NoSuchElementException("#missing")));
+        assertEquals(FailureClass.BROWSER_CRASH, FailureClass.of(new NoSuchSessionException("invalid session id")));
+        assertEquals(FailureClass.ASSERTION, FailureClass.of(new AssertionFailedError("expected price")));
+        assertEquals(FailureClass.OTHER, FailureClass.of(new IllegalStateException("bug")));
+    }
+
+    @Test
+    @DisplayName("Generic driver errors are classified by their message")
+    public void testDriverMessages() {
+        assertEquals(FailureClass.NAVIGATION,
+                FailureClass.of(new WebDriverException("unknown error: net::ERR_CONNECTION_RESET")));
+        assertEquals(FailureClass.BROWSER_CRASH,
+                FailureClass.of(new WebDriverException("unknown error: session deleted because of page crash")));
+        assertEquals(FailureClass.OTHER, FailureClass.of(new WebDriverException("element click intercepted")));
+    }
+
+    @Test
+    @DisplayName("The cause chain is searched for the first specific class")
+    public void testCauseChain() {
+        Throwable wrapped = new RuntimeException("step failed", new UncheckedIOException(
+                new IOException("read", new TimeoutException("slow"))));
+        assertEquals(FailureClass.TIMEOUT, FailureClass.of(wrapped));
+
+        // A wait that timed out looking for an element is a timeout, not a missing element
+        assertEquals(FailureClass.TIMEOUT,
+                FailureClass.of(new TimeoutException("waited", new NoSuchElementException("#late"))));
+    }
+
+    @Test
+    @DisplayName("Only timeouts, stale elements, navigation errors and crashes are transient")
+    public void testTransient() {
+        assertTrue(FailureClass.TIMEOUT.isTransient());
+        assertTrue(FailureClass.STALE_ELEMENT.isTransient());
+        assertTrue(FailureClass.NAVIGATION.isTransient());
+        assertTrue(FailureClass.BROWSER_CRASH.isTransient());
+        assertFalse(FailureClass.NO_SUCH_ELEMENT.isTransient());
+        assertFalse(FailureClass.ASSERTION.isTransient());
+        assertFalse(FailureClass.OTHER.isTransient());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.driver;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GridServerTest {
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    public void restore() {
+        System.clearProperty("selenium.grid");
+    }
+
+    @Test
+    @DisplayName("The grid process is started with the node settings and stopped on close")
+    public void testStartAndStop() throws IOException {
+        Path log = dir.resolve("grid.log");
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        GridServer server = GridServer.start(fakeServerJar(), port, 3, Path.of("/opt/chromedriver"), log);
+
+        assertTrue(server.isReady());
+        assertEquals(3, server.maxSessions());
+        server.close();
+        assertFalse(server.isReady(), "The grid should be gone after close");
+
+        String output = Files.readString(log);
+        assertTrue(output.contains("standalone --port"), output);
+        assertTrue(output.contains("--max-sessions 3 --override-max-sessions true"), output);
+        assertTrue(output.contains("webdriver.chrome.driver=/opt/chromedriver"), output);
+    }
+
+    @Test
+    @DisplayName("A missing server jar fails with a hint instead of a process error")
+    public void testMissingJar() {
+        IOException error = assertThrows(IOException.class,
+                () -> GridServer.start(dir.resolve("missing.jar"), 4444, 1, null, dir.resolve("grid.log")));
+        assertTrue(error.getMessage().contains("-Dselenium.grid.jar"), error.getMessage());
+    }
+
+    @Test
+    @DisplayName("A grid URL selects remote sessions, anything else that is no URL is rejected")
+    public void testConfiguredGrid() {
+        System.setProperty("selenium.grid", "http://grid.example:4444");
+        DriverFactory factory = DriverFactory.configured();
+        assertTrue(factory.isRemote());
+        assertEquals("Selenium Grid at http://grid.example:4444", factory.toString());
+
+        System.setProperty("selenium.grid", "remote");
+        assertThrows(IllegalArgumentException.class, DriverFactory::configured);
+    }
+
+    // A jar whose only class answers /status like a ready grid, so the real start-up path runs without Chrome
+    private Path fakeServerJar() throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, FakeGrid.class.getName());
+        Path jar = dir.resolve("selenium-server.jar");
+        String entry = FakeGrid.class.getName().replace('.', '/') + ".class";
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest);
+             InputStream in = FakeGrid.class.getResourceAsStream("/" + entry)) {
+            out.putNextEntry(new JarEntry(entry));
+            in.transferTo(out);
+            out.closeEntry();
+        }
+        return jar;
+    }
+
+    public static class FakeGrid {
+
+        public static void main(String[] args) throws IOException {
+            System.out.println(String.join(" ", args));
+            System.out.println("webdriver.chrome.driver=" + System.getProperty("webdriver.chrome.driver"));
+            List<String> options = Arrays.asList(args);
+            int port = Integer.parseInt(options.get(options.indexOf("--port") + 1));
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+            server.createContext("/status", exchange -> {
+                byte[] body = "{\"value\": {\"ready\": true, \"message\": \"Selenium Grid ready.\"}}"
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProcessMemoryTest {
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    @DisplayName("RSS of a live process is read from procfs")
+    public void testOwnRss() {
+        long pid = ProcessHandle.current().pid();
+
+        assertTrue(ProcessMemory.rssBytes(pid).orElse(0) > 1 << 20, "A JVM uses more than a megabyte");
+        assertEquals(ProcessMemory.rssBytes(pid).orElse(0) > 0, ProcessMemory.rssBytes(List.of(pid)) > 0);
+        assertTrue(ProcessMemory.rssBytes(Long.MAX_VALUE).isEmpty(), "No such process");
+    }
+
+    @Test
+    @DisplayName("Process memory is amortised over the open contexts")
+    public void testPerContext() {
+        Map<String, Long> heaps = new LinkedHashMap<>();
+        heaps.put("Java", 4L << 20);
+        heaps.put("Python", 5L << 20);
+        MemoryReport report = new MemoryReport(600L << 20, 6, heaps);
+
+        assertEquals(300L << 20, report.rssBytesPerContext());
+        assertTrue(report.toString().contains("300 MB per context"));
+        assertEquals(600L << 20, new MemoryReport(600L << 20, 6, Map.of()).rssBytesPerContext());
+    }
+}
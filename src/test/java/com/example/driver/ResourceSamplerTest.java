@@ -0,0 +1,122 @@
+package com.example.driver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceSamplerTest {
+
+    @AfterEach
+    public void restore() {
+        System.clearProperty("telemetry.interval");
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    @DisplayName("DevTools metrics and process info become one sample with the processes' RSS")
+    public void testParse() {
+        long pid = ProcessHandle.current().pid();
+        Map<String, Object> metrics = Map.of("metrics", List.of(
+                Map.of("name", "JSHeapUsedSize", "value", 12_582_912),
+                Map.of("name", "Nodes", "value", 1_543),
+                Map.of("name", "LayoutCount", "value", 17),
+                Map.of("name", "ScriptDuration", "value", 0.25),
+                Map.of("name", "Documents", "value", 3)));
+        Map<String, Object> processes = Map.of("processInfo", List.of(
+                Map.of("type", "browser", "id", pid, "cpuTime", 1.5),
+                Map.of("type", "renderer", "id", Long.MAX_VALUE, "cpuTime", 0.5)));
+
+        ResourceSample sample = ResourceSampler.parse(Instant.EPOCH, "GoogleTest.testSearch", "search",
+                metrics, processes);
+
+        assertEquals("GoogleTest.testSearch / search", sample.key());
+        assertEquals(12_582_912, sample.jsHeapBytes());
+        assertEquals(1_543, sample.domNodes());
+        assertEquals(17, sample.layouts());
+        assertEquals(Duration.ofMillis(250), sample.scriptTime());
+        assertEquals(2, sample.processes());
+        assertEquals(Duration.ofSeconds(2), sample.browserCpu());
+        assertTrue(sample.browserRssBytes() > 1 << 20, "The live process counts, the missing one is skipped");
+        assertEquals(0, sample.driverRssBytes(), "The test JVM was not started by chromedriver");
+        assertEquals(sample.browserRssBytes(), sample.rssBytes());
+    }
+
+    @Test
+    @DisplayName("Missing metrics read as zero")
+    public void testEmpty() {
+        ResourceSample sample = ResourceSampler.parse(Instant.EPOCH, "t", "test", Map.of(), Map.of());
+
+        assertEquals(0, sample.jsHeapBytes());
+        assertEquals(0, sample.processes());
+        assertEquals(Duration.ZERO, sample.cpu());
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    @DisplayName("When DevTools refuses to list processes, metrics are still sampled and processes come from the OS")
+    public void testProcessInfoRefused() throws IOException, InterruptedException {
+        AtomicInteger processInfoCalls = new AtomicInteger();
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, HasCdp.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "executeCdpCommand" -> switch ((String) args[0]) {
+                        case "Performance.getMetrics" -> Map.of("metrics",
+                                List.of(Map.of("name", "JSHeapUsedSize", "value", 4_096)));
+                        case "SystemInfo.getProcessInfo" -> {
+                            processInfoCalls.incrementAndGet();
+                            throw new WebDriverException("'SystemInfo.getProcessInfo' wasn't found");
+                        }
+                        default -> Map.of();
+                    };
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+
+        ResourceSampler sampler = new ResourceSampler(driver, "t", "test", Duration.ofMillis(10));
+        Thread.sleep(100);
+        sampler.close();
+
+        List<ResourceSample> samples = sampler.samples();
+        assertTrue(samples.size() > 1, "Got " + samples.size() + " samples");
+        assertTrue(samples.stream().allMatch(sample -> sample.jsHeapBytes() == 4_096));
+        assertEquals(1, processInfoCalls.get(), "A refusal is not asked again");
+
+        Process child = new ProcessBuilder("sleep", "5").start();
+        try {
+            Map<String, Object> tree = ResourceSampler.processTree(List.of(child.pid()));
+            ResourceSample sample = ResourceSampler.parse(Instant.EPOCH, "t", "test", Map.of(), tree);
+            assertEquals(1, sample.processes());
+            assertEquals(List.of("other"), ((List<?>) tree.get("processInfo")).stream()
+                    .map(process -> ((Map<?, ?>) process).get("type")).toList(), "Not started by chromedriver");
+        } finally {
+            child.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Sampling is off unless an interval is configured")
+    public void testConfiguredInterval() {
+        assertEquals(Optional.empty(), ResourceSampler.configuredInterval());
+        System.setProperty("telemetry.interval", "PT0.5S");
+        assertEquals(Optional.of(Duration.ofMillis(500)), ResourceSampler.configuredInterval());
+        System.setProperty("telemetry.interval", "off");
+        assertEquals(Optional.empty(), ResourceSampler.configuredInterval());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.extract;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DomBatchTest {
+
+    private final List<Object[]> calls = new ArrayList<>();
+
+    @Test
+    @DisplayName("Fields reach the script with the kind it switches on, in one call")
+    public void testScriptArguments() {
+        WebDriver driver = driver(List.of());
+
+        DomBatch.extract(driver, SearchResult.RESULT_SELECTOR, List.of(
+                DomBatch.Field.text("title", "h2"),
+                DomBatch.Field.attribute("asin", null, "data-asin"),
+                DomBatch.Field.property("link", "a", "href"),
+                DomBatch.Field.existsXPath("sponsored", ".//span")));
+
+        assertEquals(1, calls.size());
+        assertEquals(SearchResult.RESULT_SELECTOR, calls.get(0)[0]);
+        List<?> fields = (List<?>) calls.get(0)[1];
+        assertEquals(List.of("text", "attribute", "property", "exists"),
+                fields.stream().map(field -> ((Map<?, ?>) field).get("kind")).toList());
+        assertEquals(Boolean.TRUE, ((Map<?, ?>) fields.get(3)).get("xpath"));
+        assertNull(((Map<?, ?>) fields.get(1)).get("selector"), "A null selector reads the element itself");
+    }
+
+    @Test
+    @DisplayName("Rows keep document order; missing children read as empty, not as errors")
+    public void testRows() {
+        WebElement sponsored = element();
+        WebElement product = element();
+        Map<String, Object> missing = new HashMap<>();
+        missing.put("asin", "B0GIFTCRD1");
+        missing.put("sponsored", false);
+        missing.put("title", "Amazon Pay eGift Card");
+        missing.put("titleLink", "http://127.0.0.1/www.amazon.in/dp/B0GIFTCRD1");
+        missing.put("price", null);
+        WebDriver driver = driver(List.of(
+                Map.of("element", sponsored, "values", Map.of("asin", "B0SPONSOR1", "sponsored", true,
+                        "title", "Promoted Gift Box", "titleLink", "", "price", "999")),
+                Map.of("element", product, "values", missing)));
+
+        List<SearchResult> results = SearchResult.extractAll(driver);
+
+        assertEquals(2, results.size());
+        assertEquals(0, results.get(0).position());
+        assertTrue(results.get(0).sponsored());
+        assertFalse(results.get(0).isProduct());
+        assertSame(product, results.get(1).element());
+        assertEquals(1, results.get(1).position());
+        assertEquals("", results.get(1).price());
+        assertTrue(results.get(1).isProduct());
+    }
+
+    private WebDriver driver(Object result) {
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("executeScript")) {
+                        return null;
+                    }
+                    calls.add((Object[]) args[1]);
+                    return result;
+                });
+    }
+
+    private WebElement element() {
+        return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebElement.class},
+                (proxy, method, args) -> method.getName().equals("equals") ? proxy == args[0] : null);
+    }
+}
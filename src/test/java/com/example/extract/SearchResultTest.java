@@ -0,0 +1,65 @@
+package com.example.extract;
+
+import com.example.driver.ChromeOptionsBuilder;
+import com.example.driver.ChromeOptionsBuilder.Profile;
+import com.example.fixture.FixtureServer;
+import com.example.support.PooledDriverExtension;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The extraction script run by a real browser against the recorded Amazon results page.
+ */
+public class SearchResultTest {
+
+    @RegisterExtension
+    static final PooledDriverExtension browser = new PooledDriverExtension(
+            () -> ChromeOptionsBuilder.profile(Profile.selected(Profile.COMPATIBLE)).build());
+
+    private static FixtureServer server;
+
+    @BeforeAll
+    public static void setupClass() {
+        server = FixtureServer.start();
+    }
+
+    @AfterAll
+    public static void teardownClass() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Every result card is read in one round trip, sponsored and non-product cards included")
+    public void testExtractAll(WebDriver driver) {
+        driver.get(server.baseUrl() + "/www.amazon.in/s?k=gift+card");
+
+        List<SearchResult> results = SearchResult.extractAll(driver);
+
+        assertEquals(List.of("B0SPONSOR1", "B0GIFTCRD1", "B0GIFTCRD2", "B0GIFTCRD3", ""),
+                results.stream().map(SearchResult::asin).toList());
+        assertEquals(List.of(true, false, false, false, false),
+                results.stream().map(SearchResult::sponsored).toList());
+        assertEquals(List.of(false, true, true, true, false),
+                results.stream().map(SearchResult::isProduct).toList());
+
+        SearchResult first = results.get(1);
+        assertEquals(1, first.position());
+        assertEquals("Amazon Pay eGift Card - Congratulations", first.title());
+        assertEquals(server.baseUrl() + "/www.amazon.in/dp/B0GIFTCRD1", first.titleLink(), "href resolves");
+        assertEquals("500", first.price());
+        assertEquals("B0GIFTCRD1", first.element().getAttribute("data-asin"));
+
+        SearchResult widget = results.get(4);
+        assertEquals("", widget.title());
+        assertEquals("", widget.titleLink());
+        assertEquals("", widget.price());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.fixture;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded HTTP server for the recorded page snapshots under {@code src/test/resources/fixtures}.
+ *
+ * The first path segment is the live host name, so {@code https://www.iana.org/domains/reserved}
+ * is served from {@code /www.iana.org/domains/reserved}. Pages are templates: {@code {{name}}}
+ * is replaced with the HTML-escaped query parameter, {@code {{name.raw}}} with its undecoded
+ * value and {@code {{asin}}} with the last path segment of an Amazon product URL.
+ */
+public class FixtureServer implements AutoCloseable {
+
+    private static final String ROOT = "fixtures";
+    private static final String AMAZON_PRODUCT = "/www.amazon.in/dp/";
+    private static final Pattern UNSET_VARIABLE = Pattern.compile("\\{\\{[\\w.]+}}");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private FixtureServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static FixtureServer start() {
+        return start(0);
+    }
+
+    public static FixtureServer start(int port) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            server.setExecutor(executor);
+            server.createContext("/", FixtureServer::handle);
+            server.start();
+            return new FixtureServer(server, executor);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start fixture server", e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        Map<String, String> variables = queryVariables(exchange.getRequestURI().getRawQuery());
+
+        String resource;
+        if (path.startsWith(AMAZON_PRODUCT) && path.length() > AMAZON_PRODUCT.length()) {
+            variables.put("asin", escape(path.substring(AMAZON_PRODUCT.length())));
+            resource = "www.amazon.in/dp.html";
+        } else if (path.endsWith("/")) {
+            resource = path.substring(1) + "index.html";
+        } else if (path.lastIndexOf('.') > path.lastIndexOf('/')) {
+            resource = path.substring(1);
+        } else {
+            resource = path.substring(1) + ".html";
+        }
+
+        byte[] body;
+        try (InputStream in = FixtureServer.class.getClassLoader().getResourceAsStream(ROOT + "/" + resource)) {
+            if (in == null || resource.contains("..")) {
+                send(exchange, 404, "text/plain", ("No fixture for " + path).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            body = in.readAllBytes();
+        }
+
+        if (resource.endsWith(".html")) {
+            String page = new String(body, StandardCharsets.UTF_8);
+            for (Map.Entry<String, String> variable : variables.entrySet()) {
+                page = page.replace("{{" + variable.getKey() + "}}", variable.getValue());
+            }
+            page = UNSET_VARIABLE.matcher(page).replaceAll("");
+            send(exchange, 200, "text/html; charset=utf-8", page.getBytes(StandardCharsets.UTF_8));
+        } else {
+            send(exchange, 200, contentType(resource), body);
+        }
+    }
+
+    private static Map<String, String> queryVariables(String rawQuery) {
+        Map<String, String> variables = new HashMap<>();
+        if (rawQuery == null) {
+            return variables;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String raw = eq < 0 ? "" : pair.substring(eq + 1);
+            variables.put(name, escape(URLDecoder.decode(raw, StandardCharsets.UTF_8)));
+            variables.put(name + ".raw", escape(raw));
+        }
+        return variables;
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String contentType(String resource) {
+        if (resource.endsWith(".css")) {
+            return "text/css";
+        } else if (resource.endsWith(".js")) {
+            return "application/javascript";
+        } else if (resource.endsWith(".svg")) {
+            return "image/svg+xml";
+        }
+        return "application/octet-stream";
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
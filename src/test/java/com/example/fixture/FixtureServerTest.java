@@ -0,0 +1,77 @@
+package com.example.fixture;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FixtureServerTest {
+
+    private static FixtureServer server;
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    public static void setupClass() {
+        server = FixtureServer.start();
+    }
+
+    @AfterAll
+    public static void teardownClass() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Host directories are served with index pages")
+    public void testExamplePage() throws Exception {
+        HttpResponse<String> response = get("/example.com/");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("<title>Example Domain</title>"));
+    }
+
+    @Test
+    @DisplayName("Extension-less paths resolve to .html snapshots")
+    public void testIanaPage() throws Exception {
+        HttpResponse<String> response = get("/www.iana.org/domains/reserved");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("IANA-managed Reserved Domains"));
+    }
+
+    @Test
+    @DisplayName("Search pages echo the query")
+    public void testSearchTemplate() throws Exception {
+        HttpResponse<String> response = get("/www.google.com/search?q=Selenium+automation");
+
+        assertTrue(response.body().contains("<title>Selenium+automation - Google Search</title>"));
+        assertTrue(response.body().contains(">Selenium automation</textarea>"));
+    }
+
+    @Test
+    @DisplayName("Product pages are templated by ASIN")
+    public void testProductTemplate() throws Exception {
+        HttpResponse<String> response = get("/www.amazon.in/dp/B0GIFTCRD2");
+
+        assertTrue(response.body().contains("Amazon Pay eGift Card (B0GIFTCRD2)"));
+        assertFalse(response.body().contains("{{"), "Unset variables should be stripped");
+    }
+
+    @Test
+    @DisplayName("Unknown paths return 404")
+    public void testMissingFixture() throws Exception {
+        assertEquals(404, get("/www.example.net/").statusCode());
+    }
+
+    private static HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.fixture;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Switches tests between the live sites and the local {@link FixtureServer}.
+ *
+ * Set {@code -Dselenium.target=local} (or {@code SELENIUM_TARGET=local}) to run
+ * offline; the default is {@code live}. In local mode one server is started for
+ * the whole run and stopped when it ends. Tests write live URLs and pass them
+ * through {@link #url(String)}.
+ */
+public class Sites implements BeforeAllCallback {
+
+    public static final String TARGET_PROPERTY = "selenium.target";
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(Sites.class);
+
+    private volatile String baseUrl;
+
+    public static boolean isLocal() {
+        String target = System.getProperty(TARGET_PROPERTY, System.getenv().getOrDefault("SELENIUM_TARGET", "live"));
+        return "local".equals(target.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!isLocal()) {
+            return;
+        }
+        FixtureResource resource = context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(FixtureResource.class, k -> new FixtureResource(), FixtureResource.class);
+        baseUrl = resource.server.baseUrl();
+    }
+
+    /**
+     * Maps a live URL onto the fixture server when running locally, e.g.
+     * {@code https://www.google.com/search?q=x} to {@code http://127.0.0.1:port/www.google.com/search?q=x}.
+     */
+    public String url(String liveUrl) {
+        String local = baseUrl;
+        if (local == null) {
+            return liveUrl;
+        }
+        URI uri = URI.create(liveUrl);
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        String query = uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery();
+        return local + "/" + uri.getHost() + path + query;
+    }
+
+    private static final class FixtureResource implements ExtensionContext.Store.CloseableResource {
+
+        private final FixtureServer server = FixtureServer.start();
+
+        @Override
+        public void close() {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.locate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FallbackLocatorTest {
+
+    private final List<List<String>> probes = new ArrayList<>();
+
+    @Test
+    @DisplayName("First matching candidate wins in a single probe")
+    public void testFirstMatchWins() {
+        FallbackLocator price = FallbackLocator.of("Price",
+                By.cssSelector(".a-price-whole"), By.cssSelector(".a-offscreen"), By.cssSelector("button"));
+
+        Optional<FallbackLocator.Match> match = price.find(page(".a-offscreen", "button"), "product");
+
+        assertTrue(match.isPresent());
+        assertEquals(1, match.get().candidate());
+        assertEquals("text of .a-offscreen", match.get().text());
+        assertEquals(1, probes.size(), "All candidates should be probed in one script call");
+    }
+
+    @Test
+    @DisplayName("Winner is tried first for the same page type only")
+    public void testWinnerCachedPerPageType() {
+        FallbackLocator link = FallbackLocator.of("Link", By.cssSelector("h2 a"), By.cssSelector("a.s-no-outline"));
+        WebDriver driver = page("a.s-no-outline");
+
+        link.find(driver, "search");
+        link.find(driver, "search");
+        link.find(driver, "other");
+
+        assertEquals(List.of("h2 a", "a.s-no-outline"), probes.get(0));
+        assertEquals(List.of("a.s-no-outline", "h2 a"), probes.get(1));
+        assertEquals(List.of("h2 a", "a.s-no-outline"), probes.get(2));
+        assertArrayEquals(new long[]{0, 2}, link.winCounts().get("search"));
+    }
+
+    @Test
+    @DisplayName("No match counts as a miss")
+    public void testMiss() {
+        FallbackLocator filter = FallbackLocator.of("Filter", By.xpath("//span"));
+
+        assertTrue(filter.find(page(), "search").isEmpty());
+        assertTrue(filter.stats().contains("misses=1"));
+    }
+
+    // Fake page: the probe script matches whichever candidate values are listed as present
+    private WebDriver page(String... present) {
+        Set<String> elements = Set.of(present);
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("executeScript")) {
+                        return null;
+                    }
+                    Object[] scriptArgs = (Object[]) args[1];
+                    @SuppressWarnings("unchecked")
+                    List<Map<String, Object>> candidates = (List<Map<String, Object>>) scriptArgs[1];
+                    probes.add(candidates.stream().map(c -> (String) c.get("value")).toList());
+                    for (Map<String, Object> candidate : candidates) {
+                        String value = (String) candidate.get("value");
+                        if (elements.contains(value)) {
+                            return List.of(candidate.get("index"), element(), "text of " + value);
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    private WebElement element() {
+        return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebElement.class}, (proxy, method, args) -> null);
+    }
+}
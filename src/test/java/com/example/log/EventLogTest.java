@@ -0,0 +1,117 @@
+package com.example.log;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Events carry the test, step and thread they were logged from")
+    public void testContext() {
+        try (EventLog log = new EventLog(16, 100, Level.INFO, List.of())) {
+            LogContext.test("AmazonTest.testAmazonSite");
+            LogContext.step("STEP 3: Search");
+            log.log(Level.INFO, "Entered search term: {}", new Object[]{"gift card voucher"}, null);
+            LogContext.clear();
+            log.log(Level.WARN, "outside any test", null, null);
+            log.log(Level.DEBUG, "below the threshold", null, null);
+
+            List<Event> events = log.events();
+
+            assertEquals(2, events.size());
+            Event event = events.get(0);
+            assertEquals("AmazonTest.testAmazonSite", event.test());
+            assertEquals("STEP 3: Search", event.step());
+            assertEquals(Thread.currentThread().threadId(), event.threadId());
+            assertEquals("Entered search term: gift card voucher", event.message());
+            assertEquals("", events.get(1).test());
+            assertEquals(List.of(events.get(1)), log.query(e -> e.level() == Level.WARN));
+        } finally {
+            LogContext.clear();
+        }
+    }
+
+    @Test
+    @DisplayName("A small ring loses nothing under concurrent producers and writes in batches")
+    public void testBackpressure() {
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        List<Event> written = Collections.synchronizedList(new ArrayList<>());
+        EventSink slowSink = batch -> {
+            batchSizes.add(batch.size());
+            written.addAll(batch);
+        };
+
+        try (EventLog log = new EventLog(8, 10_000, Level.INFO, List.of(slowSink))) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int producer = 0; producer < 8; producer++) {
+                    int id = producer;
+                    executor.submit(() -> {
+                        for (int i = 0; i < 500; i++) {
+                            log.log(Level.INFO, "producer {} event {}", new Object[]{id, i}, null);
+                        }
+                    });
+                }
+            }
+            log.flush();
+
+            assertEquals(4000, written.size());
+            assertTrue(batchSizes.stream().allMatch(size -> size <= 256));
+            for (int i = 0; i < written.size(); i++) {
+                assertEquals(i, written.get(i).sequence(), "Events reach the sink in sequence order");
+            }
+            assertEquals(4000, log.events().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Console lines and JSONL records are written per event")
+    public void testSinks() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        Path file = dir.resolve("logs/events.jsonl");
+        ConsoleSink console = new ConsoleSink(new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+
+        try (EventLog log = new EventLog(16, 10, Level.INFO, List.of(console, new JsonLinesSink(file)))) {
+            log.section("STEP 1: Navigate");
+            log.log(Level.INFO, "loaded", null, null);
+            log.log(Level.ERROR, "failed", null, new IllegalStateException("boom"));
+        }
+
+        String console1 = out.toString(StandardCharsets.UTF_8);
+        assertTrue(console1.contains("=".repeat(70) + "\nSTEP 1: Navigate\n"));
+        assertTrue(console1.contains("INFO  [main] - loaded"), console1);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("java.lang.IllegalStateException: boom"));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).contains("\"level\": \"ERROR\"") || lines.get(2).contains("\"level\":\"ERROR\""),
+                lines.get(2));
+    }
+
+    @Test
+    @DisplayName("Placeholders are filled in order and extra ones are left alone")
+    public void testFormat() {
+        assertEquals("a=1 b=2", EventLog.format("a={} b={}", new Object[]{1, 2}));
+        assertEquals("a=1 b={}", EventLog.format("a={} b={}", new Object[]{1}));
+        assertEquals("no args {}", EventLog.format("no args {}", null));
+    }
+}
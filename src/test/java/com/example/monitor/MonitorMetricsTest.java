@@ -0,0 +1,104 @@
+package com.example.monitor;
+
+import com.example.report.CommandCategory;
+import com.example.report.StepRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonitorMetricsTest {
+
+    @Test
+    @DisplayName("Percentiles and success ratio cover the window, counters everything since start")
+    public void testRollingWindow() {
+        MonitorMetrics metrics = new MonitorMetrics(4);
+        metrics.record("login", false, Duration.ofSeconds(9), List.of());
+        for (int i = 1; i <= 4; i++) {
+            metrics.record("login", true, Duration.ofMillis(100 * i), List.of());
+        }
+
+        assertEquals(1.0, metrics.successRatio("login"), "The failure has left the window");
+        assertEquals(Duration.ofMillis(400), metrics.latency("login").max());
+        assertTrue(Double.isNaN(metrics.successRatio("checkout")));
+
+        String text = metrics.prometheus();
+        assertTrue(text.contains("synthetic_journey_runs_total{journey=\"login\",result=\"failure\"} 1\n"), text);
+        assertTrue(text.contains("synthetic_journey_runs_total{journey=\"login\",result=\"success\"} 4\n"), text);
+        assertTrue(text.contains("synthetic_journey_duration_seconds{journey=\"login\",quantile=\"0.5\"} 0.2\n"), text);
+        assertTrue(text.contains("synthetic_journey_duration_seconds_count{journey=\"login\"} 5\n"), text);
+        assertTrue(text.contains("synthetic_journey_duration_seconds_sum{journey=\"login\"} 10\n"), text);
+        assertTrue(text.contains("synthetic_journey_success_ratio{journey=\"login\"} 1\n"), text);
+    }
+
+    @Test
+    @DisplayName("Step counts and sums keep growing after the step's first runs leave the window")
+    public void testStepCounters() {
+        MonitorMetrics metrics = new MonitorMetrics(2);
+        for (int i = 0; i < 3; i++) {
+            metrics.record("search", true, Duration.ofSeconds(1), List.of(step("read")));
+        }
+
+        String text = metrics.prometheus();
+        String label = "{journey=\"search\",step=\"read\"}";
+        assertTrue(text.contains("synthetic_step_duration_seconds_count" + label + " 3\n"), text);
+        assertTrue(text.contains("synthetic_step_duration_seconds_sum" + label + " 0.75\n"), text);
+    }
+
+    @Test
+    @DisplayName("Steps, recycles and browser memory are exposed with escaped labels")
+    public void testExposition() {
+        MonitorMetrics metrics = new MonitorMetrics(10);
+        metrics.record("search", true, Duration.ofMillis(750), List.of(step("type \"selenium\""), step("read")));
+        metrics.recycled(SyntheticMonitor.RECYCLE_MEMORY);
+        metrics.recycled(SyntheticMonitor.RECYCLE_MEMORY);
+        metrics.browserRss(300L << 20);
+
+        String text = metrics.prometheus();
+        assertTrue(text.contains("# TYPE synthetic_step_duration_seconds summary\n"), text);
+        assertTrue(text.contains("synthetic_step_duration_seconds{journey=\"search\",step=\"type \\\"selenium\\\"\","
+                + "quantile=\"0.95\"} 0.25\n"), text);
+        assertTrue(text.contains("synthetic_browser_recycles_total{reason=\"memory\"} 2\n"), text);
+        assertTrue(text.contains("synthetic_browser_rss_bytes 314572800\n"), text);
+        assertEquals("step=\"a\\\\b\\nc\"", MonitorMetrics.label("step", "a\\b\nc"));
+    }
+
+    @Test
+    @DisplayName("The metrics server answers scrapes on /metrics only")
+    public void testServer() throws IOException, InterruptedException {
+        MonitorMetrics metrics = new MonitorMetrics(10);
+        metrics.record("home", true, Duration.ofMillis(500), List.of());
+        try (MetricsServer server = MetricsServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                metrics::prometheus)) {
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://127.0.0.1:" + server.port();
+
+            HttpResponse<String> scrape = client.send(HttpRequest.newBuilder(URI.create(base + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> other = client.send(HttpRequest.newBuilder(URI.create(base + "/")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, scrape.statusCode());
+            assertEquals(MetricsServer.CONTENT_TYPE, scrape.headers().firstValue("Content-Type").orElse(null));
+            assertEquals(metrics.prometheus(), scrape.body());
+            assertEquals(404, other.statusCode());
+        }
+    }
+
+    private static StepRecord step(String name) {
+        return new StepRecord("search", name, true, Instant.now(), Duration.ofMillis(250), 3,
+                Map.of(CommandCategory.values()[0], Duration.ofMillis(100)), Duration.ZERO);
+    }
+}
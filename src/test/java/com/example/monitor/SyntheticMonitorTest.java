@@ -0,0 +1,148 @@
+package com.example.monitor;
+
+import com.example.scenario.Scenario;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyntheticMonitorTest {
+
+    private final List<WebDriver> launched = new ArrayList<>();
+    private final AtomicInteger quits = new AtomicInteger();
+    private final MonitorMetrics metrics = new MonitorMetrics(100);
+
+    @Test
+    @DisplayName("The browser stays warm across iterations and is replaced after N of them")
+    public void testRecycleAfterIterations() {
+        List<Integer> browsers = new ArrayList<>();
+        Scenario journey = (driver, steps) -> {
+            steps.start("visit");
+            browsers.add(launched.size());
+        };
+
+        try (SyntheticMonitor monitor = monitor(Map.of("visit", journey), settings(3, 7), driver -> 100)) {
+            assertEquals(7, monitor.run());
+        }
+
+        assertEquals(List.of(1, 1, 1, 2, 2, 2, 3), browsers);
+        assertEquals(2, metrics.recycles(SyntheticMonitor.RECYCLE_ITERATIONS));
+        assertEquals(1.0, metrics.successRatio("visit"));
+        assertEquals(7, metrics.latency("visit").count());
+        assertEquals(3, quits.get(), "Two recycled browsers and the last one on close");
+    }
+
+    @Test
+    @DisplayName("A browser that grows past the allowed factor of its first iteration is replaced")
+    public void testRecycleOnMemoryGrowth() {
+        AtomicLong rss = new AtomicLong(100L << 20);
+        Scenario journey = (driver, steps) -> rss.addAndGet(30L << 20);
+
+        try (SyntheticMonitor monitor = monitor(Map.of("grow", journey), settings(50, 4), driver -> rss.get())) {
+            monitor.run();
+        }
+
+        // 130 MB after the first iteration, so the third at 190 MB is past 1.4 times that
+        assertEquals(1, metrics.recycles(SyntheticMonitor.RECYCLE_MEMORY));
+        assertEquals(2, launched.size());
+        assertTrue(metrics.prometheus().contains("synthetic_browser_rss_bytes " + (220L << 20) + "\n"));
+    }
+
+    @Test
+    @DisplayName("Page failures keep the browser, browser failures replace it; neither stops the monitor")
+    public void testFailures() {
+        AtomicInteger runs = new AtomicInteger();
+        Map<String, Scenario> journeys = new LinkedHashMap<>();
+        journeys.put("missing", (driver, steps) -> {
+            throw new NoSuchElementException("no #login");
+        });
+        journeys.put("crashing", (driver, steps) -> {
+            if (runs.incrementAndGet() == 1) {
+                throw new WebDriverException("chrome not reachable");
+            }
+        });
+
+        try (SyntheticMonitor monitor = monitor(journeys, settings(50, 2), driver -> 0)) {
+            assertEquals(2, monitor.run());
+        }
+
+        assertEquals(0.0, metrics.successRatio("missing"));
+        assertEquals(0.5, metrics.successRatio("crashing"));
+        assertEquals(1, metrics.recycles(SyntheticMonitor.RECYCLE_FAILURE));
+        assertEquals(2, launched.size());
+    }
+
+    @Test
+    @DisplayName("Iterations start an interval apart, jittered within bounds, and stop() ends the wait")
+    public void testSchedule() throws InterruptedException {
+        SyntheticMonitor.Settings settings = new SyntheticMonitor.Settings(Duration.ofSeconds(10), 0.2, 50, 1.5, 0);
+        try (SyntheticMonitor monitor = monitor(Map.of("noop", (driver, steps) -> { }), settings, driver -> 0)) {
+            for (int i = 0; i < 100; i++) {
+                Duration delay = monitor.nextDelay(Duration.ofSeconds(3));
+                assertTrue(delay.compareTo(Duration.ofSeconds(5)) >= 0 && delay.compareTo(Duration.ofSeconds(9)) <= 0,
+                        "Delay was " + delay);
+            }
+            assertEquals(Duration.ZERO, monitor.nextDelay(Duration.ofSeconds(30)), "Overran, so start at once");
+
+            AtomicInteger iterations = new AtomicInteger(-1);
+            Thread running = Thread.ofPlatform().start(() -> iterations.set(monitor.run()));
+            Thread.sleep(200);
+            monitor.stop();
+            running.join(2_000);
+
+            assertFalse(running.isAlive());
+            assertEquals(1, iterations.get());
+        }
+    }
+
+    private SyntheticMonitor monitor(Map<String, Scenario> journeys, SyntheticMonitor.Settings settings,
+                                     ToLongFunction<WebDriver> memory) {
+        return new SyntheticMonitor(this::launch, journeys, settings, metrics, memory);
+    }
+
+    private static SyntheticMonitor.Settings settings(int recycleAfter, int iterations) {
+        return new SyntheticMonitor.Settings(Duration.ZERO, 0, recycleAfter, 1.4, iterations);
+    }
+
+    private WebDriver launch() {
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getWindowHandles" -> Set.of("main");
+                    case "quit" -> {
+                        quits.incrementAndGet();
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "fake browser";
+                    default -> stub(method.getReturnType());
+                });
+        launched.add(driver);
+        return driver;
+    }
+
+    // Any nested WebDriver interface (manage(), timeouts(), switchTo()) is answered by another stub
+    private static Object stub(Class<?> type) {
+        if (!type.isInterface()) {
+            return null;
+        }
+        return Proxy.newProxyInstance(SyntheticMonitorTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> stub(method.getReturnType()));
+    }
+}
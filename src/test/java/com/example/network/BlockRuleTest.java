@@ -0,0 +1,44 @@
+package com.example.network;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockRuleTest {
+
+    @Test
+    @DisplayName("URL wildcards follow the DevTools syntax")
+    public void testWildcards() {
+        BlockRule tracker = BlockRule.url("*doubleclick.net/*");
+
+        assertTrue(tracker.matches("https://ad.doubleclick.net/pixel?id=1", ResourceType.IMAGE));
+        assertFalse(tracker.matches("https://www.amazon.in/s?k=doubleclick", ResourceType.DOCUMENT));
+        assertTrue(BlockRule.url("https://example.com/?.png").matches("https://example.com/a.png", ResourceType.IMAGE));
+        assertTrue(BlockRule.url("*\\?raw").matches("https://example.com/file?raw", ResourceType.OTHER));
+        assertFalse(BlockRule.url("*\\?raw").matches("https://example.com/fileXraw", ResourceType.OTHER));
+    }
+
+    @Test
+    @DisplayName("Typed rules only match their resource type")
+    public void testResourceType() {
+        BlockRule images = BlockRule.type(ResourceType.IMAGE);
+
+        assertTrue(images.matches("https://m.media-amazon.com/images/I/x.jpg", ResourceType.IMAGE));
+        assertFalse(images.matches("https://m.media-amazon.com/images/I/x.js", ResourceType.SCRIPT));
+        assertEquals(ResourceType.OTHER, ResourceType.of("SomethingNew"));
+    }
+
+    @Test
+    @DisplayName("Rules become Fetch request patterns")
+    public void testRequestPattern() {
+        Map<String, Object> pattern = new BlockRule("*.woff2", ResourceType.FONT).toRequestPattern();
+
+        assertEquals("*.woff2", pattern.get("urlPattern"));
+        assertEquals("Font", pattern.get("resourceType"));
+        assertEquals("Request", pattern.get("requestStage"));
+        assertFalse(BlockRule.url("*").toRequestPattern().containsKey("resourceType"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.network;
+
+import com.example.network.TrafficArchive.RecordedResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrafficArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Recorded responses are found again by method, URL and body")
+    public void testRoundTrip() throws IOException {
+        try (TrafficArchive.Writer writer = TrafficArchive.create(directory, "flow")) {
+            writer.append(TrafficArchive.key("GET", "https://www.amazon.in/s?k=gift", null),
+                    response(200, "results"));
+            writer.append(TrafficArchive.key("POST", "https://www.amazon.in/api", "{\"page\":1}"),
+                    response(200, "page one"));
+            writer.append(TrafficArchive.key("POST", "https://www.amazon.in/api", "{\"page\":2}"),
+                    response(200, "page two"));
+        }
+
+        try (TrafficArchive archive = TrafficArchive.open(directory, "flow")) {
+            assertEquals(3, archive.size());
+            RecordedResponse results = archive.lookup(TrafficArchive.key("get", "https://www.amazon.in/s?k=gift", ""))
+                    .orElseThrow();
+            assertEquals(200, results.status());
+            assertEquals(List.of(Map.entry("content-type", "text/html")), results.headers());
+            assertEquals("results", new String(results.body(), StandardCharsets.UTF_8));
+            assertEquals("page two", body(archive.lookup(
+                    TrafficArchive.key("POST", "https://www.amazon.in/api", "{\"page\":2}"))));
+            assertTrue(archive.lookup(TrafficArchive.key("GET", "https://www.amazon.in/", null)).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Lookups stay correct across thousands of entries")
+    public void testManyEntries() throws IOException {
+        int count = 5_000;
+        try (TrafficArchive.Writer writer = TrafficArchive.create(directory, "large")) {
+            for (int i = 0; i < count; i++) {
+                writer.append(TrafficArchive.key("GET", "https://example.com/item/" + i, null),
+                        response(200, "item " + i));
+            }
+            assertFalse(writer.append(TrafficArchive.key("GET", "https://example.com/item/0", null),
+                    response(500, "second recording")), "First recording of a key wins");
+        }
+
+        try (TrafficArchive archive = TrafficArchive.open(directory, "large")) {
+            assertEquals(count, archive.size());
+            for (int i = 0; i < count; i += 97) {
+                String key = TrafficArchive.key("GET", "https://example.com/item/" + i, null);
+                assertEquals("item " + i, body(archive.lookup(key)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Redirects and empty bodies survive the round trip")
+    public void testEmptyBody() throws IOException {
+        String key = TrafficArchive.key("GET", "https://example.com/old", null);
+        try (TrafficArchive.Writer writer = TrafficArchive.create(directory, "redirect")) {
+            writer.append(key, new RecordedResponse(301, List.of(Map.entry("location", "https://example.com/new")),
+                    new byte[0]));
+        }
+
+        try (TrafficArchive archive = TrafficArchive.open(directory, "redirect")) {
+            RecordedResponse redirect = archive.lookup(key).orElseThrow();
+            assertEquals(301, redirect.status());
+            assertEquals(0, redirect.body().length);
+        }
+    }
+
+    @Test
+    @DisplayName("A recording that never closes leaves the previous archive readable")
+    public void testUnfinishedRecording() throws IOException {
+        String key = TrafficArchive.key("GET", "https://example.com/", null);
+        try (TrafficArchive.Writer writer = TrafficArchive.create(directory, "flow")) {
+            writer.append(key, response(200, "first recording"));
+        }
+
+        // Killed mid-run: appended to, never closed
+        TrafficArchive.Writer killed = TrafficArchive.create(directory, "flow");
+        killed.append(key, response(200, "second recording, longer than the first one"));
+
+        try (TrafficArchive archive = TrafficArchive.open(directory, "flow")) {
+            assertEquals("first recording", body(archive.lookup(key)));
+        }
+    }
+
+    private static RecordedResponse response(int status, String body) {
+        return new RecordedResponse(status, List.of(Map.entry("content-type", "text/html")),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(Optional<RecordedResponse> response) {
+        return new String(response.orElseThrow().body(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.network;
+
+import com.example.network.TrafficArchive.RecordedResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrafficReplayTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<Command<?>> sent = new ArrayList<>();
+    private final Map<String, Object> responseBody = new HashMap<>();
+
+    // Answers Fetch.getResponseBody with responseBody and remembers every command
+    private final TrafficReplay.Commands devTools = new TrafficReplay.Commands() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <X> X send(Command<X> command) {
+            sent.add(command);
+            return command.getMethod().equals("Fetch.getResponseBody") ? (X) responseBody : null;
+        }
+    };
+
+    @Test
+    @DisplayName("Recording keeps status, headers and the decoded body, minus headers that describe the encoding")
+    public void testRecord() throws Exception {
+        responseBody.put("body", Base64.getEncoder().encodeToString("<h1>Gift cards</h1>".getBytes()));
+        responseBody.put("base64Encoded", true);
+        try (TrafficArchive.Writer writer = TrafficArchive.create(directory, "flow")) {
+            TrafficReplay replay = TrafficReplay.record(driver(), writer);
+
+            assertFalse(replay.onResponse(devTools, paused("GET", "https://www.amazon.in/s?k=gift", null,
+                    200, List.of(header("Content-Type", "text/html"), header("Content-Encoding", "br"),
+                            header("content-length", "42")))), "The response goes on to the page");
+            assertFalse(replay.onResponse(devTools, paused("GET", "https://www.amazon.in/old", null,
+                    301, List.of(header("Location", "https://www.amazon.in/new")))));
+            assertFalse(replay.onResponse(devTools, paused("GET", "https://www.amazon.in/x", null, null, null)),
+                    "Request-stage pauses are not recorded");
+
+            assertEquals("recorded=2", replay.toString());
+            assertEquals(List.of("Fetch.getResponseBody"), sent.stream().map(Command::getMethod).toList(),
+                    "A redirect has no body to fetch");
+        }
+
+        try (TrafficArchive archive = TrafficArchive.open(directory, "flow")) {
+            RecordedResponse page = archive.lookup(TrafficArchive.key("GET", "https://www.amazon.in/s?k=gift", null))
+                    .orElseThrow();
+            assertEquals(200, page.status());
+            assertEquals(List.of(Map.entry("Content-Type", "text/html")), page.headers());
+            assertEquals("<h1>Gift cards</h1>", new String(page.body(), StandardCharsets.UTF_8));
+            assertEquals(0, archive.lookup(TrafficArchive.key("GET", "https://www.amazon.in/old", null))
+                    .orElseThrow().body().length);
+        }
+    }
+
+    @Test
+    @DisplayName("Replaying fulfils recorded requests by method, URL and body, and fails the rest in strict mode")
+    public void testReplay() throws Exception {
+        try (TrafficArchive.Writer writer = TrafficArchive.create(directory, "flow")) {
+            writer.append(TrafficArchive.key("POST", "https://www.amazon.in/api", "{\"page\":2}"),
+                    new RecordedResponse(200, List.of(Map.entry("Content-Type", "application/json")),
+                            "{\"items\":[]}".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        try (TrafficArchive archive = TrafficArchive.open(directory, "flow")) {
+            TrafficReplay strict = TrafficReplay.replay(driver(), archive, true);
+
+            assertTrue(strict.onRequest(devTools, paused("POST", "https://www.amazon.in/api", "{\"page\":2}",
+                    null, null)));
+            assertTrue(strict.onRequest(devTools, paused("POST", "https://www.amazon.in/api", "{\"page\":3}",
+                    null, null)));
+            assertFalse(strict.onRequest(devTools, paused("GET", "https://www.amazon.in/", null, 200, List.of())),
+                    "Response-stage pauses belong to other handlers");
+
+            Map<String, Object> fulfilled = sent.get(0).getParams();
+            assertEquals("Fetch.fulfillRequest", sent.get(0).getMethod());
+            assertEquals("request-1", fulfilled.get("requestId"));
+            assertEquals(200, fulfilled.get("responseCode"));
+            assertEquals(List.of(Map.of("name", "Content-Type", "value", "application/json")),
+                    fulfilled.get("responseHeaders"));
+            assertEquals("{\"items\":[]}",
+                    new String(Base64.getDecoder().decode((String) fulfilled.get("body")), StandardCharsets.UTF_8));
+            assertEquals("Fetch.failRequest", sent.get(1).getMethod());
+            assertEquals("InternetDisconnected", sent.get(1).getParams().get("errorReason"));
+            assertEquals("replayed=1 missed=1", strict.toString());
+
+            sent.clear();
+            TrafficReplay lenient = TrafficReplay.replay(driver(), archive, false);
+            assertFalse(lenient.onRequest(devTools, paused("GET", "https://www.amazon.in/", null, null, null)),
+                    "Outside strict mode a miss goes to the network");
+            assertTrue(sent.isEmpty());
+        }
+    }
+
+    private static Map<String, Object> paused(String method, String url, String postData, Integer status,
+                                              List<Map<String, Object>> headers) {
+        Map<String, Object> request = new HashMap<>(Map.of("method", method, "url", url));
+        if (postData != null) {
+            request.put("postData", postData);
+        }
+        Map<String, Object> paused = new HashMap<>(Map.of("requestId", "request-1", "request", request));
+        if (status != null) {
+            paused.put("responseStatusCode", status);
+            paused.put("responseHeaders", headers);
+        }
+        return paused;
+    }
+
+    private static Map<String, Object> header(String name, String value) {
+        return Map.of("name", name, "value", value);
+    }
+
+    // No DevTools connection, so the replay registers nothing and the handlers are driven directly
+    private WebDriver driver() {
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> null);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.pages;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyElementTest {
+
+    // Bumped on every simulated navigation; elements found before it go stale
+    private final AtomicInteger generation = new AtomicInteger();
+    private final AtomicInteger finds = new AtomicInteger();
+    private boolean present = true;
+
+    @Test
+    @DisplayName("An element is looked up once and reused")
+    public void testCached() {
+        LazyElement heading = new LazyElement(driver(), "heading", By.tagName("h1"));
+
+        assertEquals(0, finds.get(), "Nothing is looked up before first use");
+        assertEquals("h1 #0", heading.get().getText());
+        assertEquals("h1 #0", heading.get().getText());
+        assertTrue(heading.get().isDisplayed());
+
+        assertEquals(1, finds.get());
+        assertEquals(1, heading.lookups());
+    }
+
+    @Test
+    @DisplayName("A stale element is re-resolved transparently")
+    public void testStaleRetried() {
+        LazyElement heading = new LazyElement(driver(), "heading", By.tagName("h1"));
+        WebElement handle = heading.get();
+        handle.getText();
+
+        generation.incrementAndGet();
+
+        assertEquals("h1 #1", handle.getText(), "The same handle reaches the new page's element");
+        assertEquals(2, finds.get());
+        assertInstanceOf(WrapsElement.class, handle);
+        assertEquals("h1 #1", ((WrapsElement) handle).getWrappedElement().getText());
+    }
+
+    @Test
+    @DisplayName("Pages drop cached elements when they navigate")
+    public void testPageInvalidates() {
+        ExamplePage page = new ExamplePage(driver());
+        page.open("https://example.com");
+        page.heading().getText();
+        page.bodyText();
+        assertEquals(2, page.lookups());
+
+        page.open("https://example.com");
+        page.bodyText();
+
+        assertEquals(3, page.lookups(), "The body is looked up again after navigating, once");
+    }
+
+    @Test
+    @DisplayName("find() reports absence without throwing")
+    public void testAbsent() {
+        present = false;
+        LazyElement title = new LazyElement(driver(), "title", By.id("productTitle"));
+
+        assertNull(title.find());
+        assertFalse(title.isPresent());
+        assertThrows(NoSuchElementException.class, () -> title.get().getText());
+    }
+
+    private WebDriver driver() {
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findElement" -> {
+                        if (!present) {
+                            throw new NoSuchElementException("no " + args[0]);
+                        }
+                        yield element((By) args[0]);
+                    }
+                    case "findElements" -> present ? List.of(element((By) args[0])) : List.of();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    private WebElement element(By by) {
+        finds.incrementAndGet();
+        int foundIn = generation.get();
+        String tag = by.toString().replaceAll(".*: ", "");
+        return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebElement.class},
+                (proxy, method, args) -> {
+                    if (generation.get() != foundIn) {
+                        throw new StaleElementReferenceException(tag + " is stale");
+                    }
+                    return switch (method.getName()) {
+                        case "getText" -> tag + " #" + foundIn;
+                        case "isDisplayed" -> true;
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> null;
+                    };
+                });
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.report;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Nearest-rank percentiles")
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.add(Duration.ofMillis(i));
+        }
+
+        assertEquals(Duration.ofMillis(50), histogram.p50());
+        assertEquals(Duration.ofMillis(95), histogram.p95());
+        assertEquals(Duration.ofMillis(99), histogram.p99());
+        assertEquals(Duration.ofMillis(100), histogram.max());
+    }
+
+    @Test
+    @DisplayName("Rolling window keeps only the latest samples")
+    public void testWindow() {
+        LatencyHistogram histogram = new LatencyHistogram(3);
+        histogram.add(Duration.ofMillis(1000));
+        histogram.add(Duration.ofMillis(1));
+        histogram.add(Duration.ofMillis(2));
+        histogram.add(Duration.ofMillis(3));
+
+        assertEquals(3, histogram.count());
+        assertEquals(Duration.ofMillis(3), histogram.max());
+    }
+
+    @Test
+    @DisplayName("Power-of-two buckets")
+    public void testBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.add(Duration.ofMillis(1));
+        histogram.add(Duration.ofMillis(3));
+        histogram.add(Duration.ofMillis(4));
+        histogram.add(Duration.ofMillis(900));
+
+        assertEquals(Map.of(1L, 1L, 4L, 2L, 1024L, 1L), histogram.buckets());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.report;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerformanceBudgetsTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger scripts = new AtomicInteger();
+
+    @Test
+    @DisplayName("URLs fall under the longest budgeted page, live or served by the fixture server")
+    public void testPageOf() {
+        PerformanceBudgets budgets = budgets(PerformanceBudgets.Mode.WARN);
+
+        assertEquals(Optional.of("example.com"), budgets.pageOf("https://example.com/"));
+        assertEquals(Optional.of("www.iana.org/domains"), budgets.pageOf("https://www.iana.org/domains/reserved"));
+        assertEquals(Optional.of("www.iana.org"), budgets.pageOf("https://www.iana.org/about"));
+        assertEquals(Optional.of("www.iana.org/domains"),
+                budgets.pageOf("http://127.0.0.1:45123/www.iana.org/domains/reserved"));
+        assertEquals(Optional.empty(), budgets.pageOf("https://example.community/"));
+        assertEquals(Optional.empty(), budgets.pageOf("data:,"));
+    }
+
+    @Test
+    @DisplayName("Each metric over its limit is a violation, and a load that never finished is over any load budget")
+    public void testEvaluate() {
+        PerformanceBudgets budgets = budgets(PerformanceBudgets.Mode.WARN);
+
+        PerformanceBudgets.Result fast = budgets.evaluate("t", "example.com", timing(200, 900, 1200L, 40_000));
+        PerformanceBudgets.Result slow = budgets.evaluate("t", "example.com", timing(2000, 2500, 5200L, 40_000));
+        PerformanceBudgets.Result pending = budgets.evaluate("t", "example.com", timing(200, 900, null, 40_000));
+
+        assertTrue(fast.passed(), fast.toString());
+        assertEquals(List.of("ttfb 2000ms > 1500ms", "load 5200ms > 4000ms"), slow.violations());
+        assertEquals(List.of("load not reached (budget 4000ms)"), pending.violations());
+    }
+
+    @Test
+    @DisplayName("Checks are recorded in the history; fail mode turns a breach into an assertion error")
+    public void testCheck() throws IOException {
+        WebDriver page = driver("https://example.com/", Map.of("url", "https://example.com/", "ttfb", 1800.5,
+                "domContentLoaded", 1900, "load", 2100, "largest", "https://example.com/logo.png",
+                "largestBytes", 51_200, "resources", 3));
+
+        Optional<PerformanceBudgets.Result> warned = budgets(PerformanceBudgets.Mode.WARN).check(page);
+        AssertionError failed = assertThrows(AssertionError.class,
+                () -> budgets(PerformanceBudgets.Mode.FAIL).check(page));
+
+        assertEquals(List.of("ttfb 1800ms > 1500ms"), warned.orElseThrow().violations());
+        assertEquals(Duration.ofMillis(2100), warned.get().timing().load());
+        assertTrue(failed.getMessage().contains("ttfb 1800ms > 1500ms"), failed.getMessage());
+        List<String> history = Files.readAllLines(directory.resolve("history.csv"));
+        assertEquals(3, history.size(), "A header and one row per check");
+        assertTrue(history.get(1).contains(",example.com,https://example.com/,1800,1900,2100,"), history.get(1));
+        assertEquals(Optional.empty(), budgets(PerformanceBudgets.Mode.OFF).check(page));
+        assertEquals(Optional.empty(), budgets(PerformanceBudgets.Mode.FAIL)
+                .check(driver("https://www.google.com/", Map.of())), "Pages without a budget are not measured");
+    }
+
+    @Test
+    @DisplayName("Pages without a load budget are measured at once, without waiting for the load event")
+    public void testNoLoadBudget() {
+        WebDriver page = driver("https://www.iana.org/domains/reserved", Map.of("url",
+                "https://www.iana.org/domains/reserved", "ttfb", 300, "domContentLoaded", 700, "load", -1,
+                "largestBytes", 2_000_000, "resources", 12));
+
+        long start = System.nanoTime();
+        PerformanceBudgets.Result result = budgets(PerformanceBudgets.Mode.WARN).check(page).orElseThrow();
+
+        assertTrue(System.nanoTime() - start < 1_000_000_000L, "The load event never comes and was not awaited");
+        assertEquals(1, scripts.get());
+        assertFalse(result.timing().loaded());
+        assertEquals(List.of("largestResource 2000000 bytes > 1000000 bytes"), result.violations());
+    }
+
+    @Test
+    @DisplayName("Unknown metrics in the budget file are rejected")
+    public void testUnknownMetric() {
+        Properties properties = new Properties();
+        properties.setProperty("example.com.firstPaint", "100");
+
+        assertThrows(IllegalArgumentException.class, () -> PerformanceBudgets.parse(properties));
+    }
+
+    private PerformanceBudgets budgets(PerformanceBudgets.Mode mode) {
+        Properties properties = new Properties();
+        properties.setProperty("example.com.ttfb", "1500");
+        properties.setProperty("example.com.load", "4000");
+        properties.setProperty("www.iana.org.load", "8000");
+        properties.setProperty("www.iana.org/domains.largestResource", "1000000");
+        return new PerformanceBudgets(PerformanceBudgets.parse(properties), mode, directory.resolve("history.csv"));
+    }
+
+    private static NavigationTiming timing(long ttfb, long domContentLoaded, Long load, long largestBytes) {
+        return new NavigationTiming("https://example.com/", Duration.ofMillis(ttfb),
+                Duration.ofMillis(domContentLoaded), load == null ? null : Duration.ofMillis(load), null, largestBytes, 2);
+    }
+
+    private WebDriver driver(String url, Map<String, Object> entry) {
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getCurrentUrl" -> url;
+                    case "executeScript" -> {
+                        scripts.incrementAndGet();
+                        yield entry;
+                    }
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.report;
+
+import com.example.driver.ResourceSample;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceReportTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Samples are written as JSON lines and summed up per test step")
+    public void testUsagePerStep() throws IOException {
+        ResourceReport report = new ResourceReport(directory);
+        report.add(List.of(
+                sample(0, "search", 300, 10, 2_000),
+                sample(2, "search", 500, 14, 3_000),
+                sample(3, "results", 400, 20, 3_500)));
+
+        Map<String, ResourceReport.StepUsage> usage = report.write();
+
+        ResourceReport.StepUsage search = usage.get("GoogleTest.testSearch / search");
+        assertEquals(2, search.samples());
+        assertEquals(500L << 20, search.peakRssBytes());
+        assertEquals(14L << 20, search.peakJsHeapBytes());
+        assertEquals(0.5, search.cpuCores(), 1e-9, "One CPU second over two seconds");
+        assertEquals(0, usage.get("GoogleTest.testSearch / results").cpuCores(), "One sample has no rate");
+
+        List<String> lines = Files.readAllLines(directory.resolve("resources-" + report.runId() + ".jsonl"));
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("{") && lines.get(0).contains("\"search\""), lines.get(0));
+    }
+
+    @Test
+    @DisplayName("The peak session RSS decides how many sessions fit")
+    public void testSessionsFitting() {
+        ResourceReport report = new ResourceReport(directory);
+        assertEquals(0, report.sessionsFitting(8L << 30));
+
+        report.add(List.of(sample(0, "search", 300, 10, 0), sample(1, "search", 500, 10, 0)));
+
+        assertEquals(500L << 20, report.peakSessionRssBytes());
+        assertEquals(16, report.sessionsFitting(8000L << 20));
+    }
+
+    private static ResourceSample sample(int second, String step, long rssMb, long heapMb, long cpuMillis) {
+        return new ResourceSample(Instant.EPOCH.plusSeconds(second), "GoogleTest.testSearch", step,
+                heapMb << 20, 1_000, 5, Duration.ZERO, 4, rssMb << 20, Duration.ofMillis(cpuMillis),
+                0, Duration.ZERO);
+    }
+}
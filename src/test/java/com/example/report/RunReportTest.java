@@ -0,0 +1,57 @@
+package com.example.report;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RunReportTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Runs accumulate into per-step histograms")
+    public void testHistoryAcrossRuns() throws Exception {
+        write(120);
+        Map<String, LatencyHistogram> histograms = write(80);
+
+        LatencyHistogram histogram = histograms.get("AmazonTest.testAmazonSite / STEP 1: Navigate, then wait");
+        assertNotNull(histogram, "Step names with commas should survive the CSV round-trip");
+        assertEquals(2, histogram.count());
+        assertEquals(Duration.ofMillis(80), histogram.p50());
+
+        assertTrue(Files.exists(directory.resolve("latency-histogram.json")));
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.filter(file -> file.getFileName().toString().endsWith(".json")
+                    && file.getFileName().toString().startsWith("run-")).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Quoted CSV cells")
+    public void testParseCsvRow() {
+        assertEquals(List.of("a", "b, \"c\"", ""), RunReport.parseCsvRow("a,\"b, \"\"c\"\"\","));
+    }
+
+    private Map<String, LatencyHistogram> write(long millis) throws Exception {
+        Map<CommandCategory, Duration> commandTime = new EnumMap<>(CommandCategory.class);
+        for (CommandCategory category : CommandCategory.values()) {
+            commandTime.put(category, Duration.ZERO);
+        }
+        RunReport report = new RunReport(directory);
+        report.add(List.of(new StepRecord("AmazonTest.testAmazonSite", "STEP 1: Navigate, then wait", true,
+                Instant.now(), Duration.ofMillis(millis), 3, commandTime, Duration.ZERO)));
+        Thread.sleep(2); // run ids are millisecond timestamps
+        return report.write();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.scenario;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataSourceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("CSV rows are keyed by the header and honour quoting")
+    public void testCsv() throws IOException {
+        Path file = dir.resolve("searches.csv");
+        Files.writeString(file, "\uFEFFquery, product_index\n"
+                + "gift card voucher,1\n"
+                + "\n"
+                + "\"voucher, \"\"birthday\"\"\",2\n"
+                + "\"two\nlines\",3\n");
+
+        try (DataSource source = DataSource.open(file)) {
+            List<DataRow> rows = source.rows().toList();
+
+            assertEquals(3, rows.size());
+            assertEquals("gift card voucher", rows.get(0).get("query"));
+            assertEquals(1, rows.get(0).getInt("product_index"));
+            assertEquals("voucher, \"birthday\"", rows.get(1).get("query"));
+            assertEquals("two\nlines", rows.get(2).get("query"));
+            assertEquals(3, rows.get(2).number(), "Blank lines are not counted");
+            assertThrows(IllegalArgumentException.class, () -> rows.get(0).get("category"));
+        }
+    }
+
+    @Test
+    @DisplayName("JSONL rows are read one object per line")
+    public void testJsonl() throws IOException {
+        Path file = dir.resolve("searches.jsonl");
+        Files.writeString(file, "{\"term\": \"Java\", \"page\": 2}\n{\"term\": \"Python\"}\n");
+
+        try (Stream<DataRow> rows = DataSource.open(file).rows()) {
+            List<DataRow> all = rows.toList();
+
+            assertEquals(List.of("Java", "Python"), all.stream().map(row -> row.get("term")).toList());
+            assertEquals(2, all.get(0).getInt("page"));
+            assertEquals("none", all.get(1).get("page", "none"));
+        }
+    }
+
+    @Test
+    @DisplayName("Rows are parsed only as far as the stream is consumed")
+    public void testLazy() throws IOException {
+        Path file = dir.resolve("large.csv");
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("term\n");
+            for (int i = 1; i <= 100_000; i++) {
+                out.write("term " + i + "\n");
+            }
+            // A broken record at the very end is never reached by a short read
+            out.write("\"unterminated\n");
+        }
+
+        try (DataSource source = DataSource.open(file)) {
+            List<DataRow> firstRows = source.rows().limit(3).toList();
+
+            assertEquals("term 3", firstRows.get(2).get("term"));
+            assertThrows(IllegalStateException.class, source::rows, "A source streams once");
+        }
+        try (DataSource source = DataSource.open(file)) {
+            assertThrows(IllegalStateException.class, () -> source.rows().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Checkpoint keeps a low watermark over out-of-order completions")
+    public void testCheckpoint() throws IOException {
+        Path file = dir.resolve("run.checkpoint");
+        try (Checkpoint checkpoint = Checkpoint.load(file, 1)) {
+            checkpoint.complete(2);
+            checkpoint.complete(1);
+            checkpoint.complete(5);
+
+            assertEquals(2, checkpoint.watermark());
+            assertTrue(checkpoint.isDone(5));
+            assertFalse(checkpoint.isDone(3));
+        }
+
+        try (Checkpoint resumed = Checkpoint.load(file)) {
+            assertEquals(2, resumed.watermark());
+            assertTrue(resumed.isDone(5), "Rows done past the watermark survive a restart");
+            resumed.complete(3);
+            resumed.complete(4);
+            assertEquals(5, resumed.watermark());
+
+            resumed.clear();
+            assertFalse(Files.exists(file));
+            assertFalse(resumed.isDone(1));
+        }
+    }
+}
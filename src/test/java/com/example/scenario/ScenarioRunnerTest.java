@@ -0,0 +1,139 @@
+package com.example.scenario;
+
+import com.example.driver.DriverPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScenarioRunnerTest {
+
+    private final AtomicInteger launches = new AtomicInteger();
+
+    @Test
+    @DisplayName("Scenarios never hold more browsers than the pool has")
+    public void testBoundedConcurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            scenarios.put("scenario-" + i, (driver, steps) -> {
+                steps.start("work");
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(10);
+                running.decrementAndGet();
+            });
+        }
+
+        try (DriverPool pool = new DriverPool(this::launch, 3)) {
+            ScenarioReport report = new ScenarioRunner(pool).run(scenarios);
+
+            assertEquals(20, report.passed());
+            assertTrue(peak.get() <= 3, "At most three scenarios run at once, saw " + peak.get());
+            assertTrue(launches.get() <= 3, "Browsers are reused between scenarios");
+            assertEquals("scenario-0", report.results().get(0).name(), "Results keep submission order");
+            assertEquals(20, report.steps().size());
+            assertEquals(20, report.latency().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Failures are reported and only broken browsers are evicted")
+    public void testFailures() {
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("assertion", (driver, steps) -> fail("wrong heading"));
+        scenarios.put("crash", (driver, steps) -> {
+            throw new WebDriverException("chrome not reachable");
+        });
+        scenarios.put("ok", (driver, steps) -> driver.getTitle());
+
+        try (DriverPool pool = new DriverPool(this::launch, 1)) {
+            ScenarioReport report = new ScenarioRunner(pool).run(scenarios);
+
+            assertEquals(1, report.passed());
+            assertEquals(2, report.failed());
+            assertInstanceOf(AssertionError.class, report.failures().get(0).failure());
+            assertEquals(1, pool.stats().evictions(), "Only the crashed browser is thrown away");
+        }
+    }
+
+    @Test
+    @DisplayName("Row runs skip checkpointed rows and mark the passed ones done")
+    public void testRowsResume() {
+        Checkpoint checkpoint = Checkpoint.none();
+        checkpoint.complete(1);
+        checkpoint.complete(2);
+        Set<Long> ran = ConcurrentHashMap.newKeySet();
+        Stream<DataRow> rows = LongStream.rangeClosed(1, 50)
+                .mapToObj(number -> new DataRow(number, Map.of("term", "term " + number)));
+
+        try (DriverPool pool = new DriverPool(this::launch, 4)) {
+            ScenarioReport report = new ScenarioRunner(pool).run("search", rows, (driver, steps, row) -> {
+                ran.add(row.number());
+                if (row.number() == 7) {
+                    throw new IllegalStateException("no results for " + row.get("term"));
+                }
+            }, checkpoint);
+
+            assertEquals(48, ran.size());
+            assertFalse(ran.contains(1L));
+            assertEquals(47, report.passed());
+            assertEquals("search#7", report.failures().get(0).name());
+            assertEquals(6, checkpoint.watermark(), "A failed row is not done");
+            assertTrue(checkpoint.isDone(50));
+
+            ran.clear();
+            ScenarioReport resumed = new ScenarioRunner(pool).run("search",
+                    LongStream.rangeClosed(1, 50).mapToObj(number -> new DataRow(number, Map.of())),
+                    (driver, steps, row) -> ran.add(row.number()), checkpoint);
+
+            assertEquals(Set.of(7L), ran, "Only the failed row runs again");
+            assertEquals(1, resumed.passed());
+            assertEquals(50, checkpoint.watermark());
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrency is capped at the pool size")
+    public void testConcurrencyCap() {
+        try (DriverPool pool = new DriverPool(this::launch, 2)) {
+            assertEquals(2, new ScenarioRunner(pool, 8).concurrency());
+            assertEquals(1, new ScenarioRunner(pool, 1).concurrency());
+            assertThrows(IllegalArgumentException.class, () -> new ScenarioRunner(pool, 0));
+        }
+    }
+
+    private WebDriver launch() {
+        launches.incrementAndGet();
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getWindowHandles" -> Set.of("main");
+                    case "getTitle" -> "Example Domain";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "fake-driver";
+                    default -> stub(method.getReturnType());
+                });
+    }
+
+    private static Object stub(Class<?> type) {
+        if (!type.isInterface()) {
+            return null;
+        }
+        return Proxy.newProxyInstance(ScenarioRunnerTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> stub(method.getReturnType()));
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.support;
+
+import com.example.driver.FailureClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-test outcome history kept on disk across runs, and the quarantine decision made from it.
+ *
+ * Each test keeps its last {@link Policy#window()} outcomes, oldest first, as
+ * one character per run ({@code P} passed, {@code R} passed on a retry,
+ * {@code F} failed), plus a running count of each {@link FailureClass} seen.
+ * The history lives in {@code flake-stats.properties} under
+ * {@code target/flake-stats} (override with {@code -Dflake.stats.dir}); cache
+ * that directory between CI runs to keep it. Outcomes of this run are merged
+ * under a file lock by {@link #save()}, so parallel JVMs don't lose each other's runs.
+ */
+public class FlakeStats {
+
+    private static final String FILE = "flake-stats.properties";
+
+    public enum Outcome {
+        PASSED('P'), FLAKY('R'), FAILED('F');
+
+        private final char code;
+
+        Outcome(char code) {
+            this.code = code;
+        }
+
+        static Outcome of(char code) {
+            for (Outcome outcome : values()) {
+                if (outcome.code == code) {
+                    return outcome;
+                }
+            }
+            throw new IllegalArgumentException("Unknown outcome code: " + code);
+        }
+    }
+
+    /**
+     * When a test is quarantined: at least {@code minRuns} of its last {@code window} runs are
+     * recorded and at least {@code threshold} of them were not a clean pass.
+     */
+    public record Policy(int window, int minRuns, double threshold) {
+
+        public Policy {
+            if (minRuns < 1 || minRuns > window) {
+                throw new IllegalArgumentException("Need 1 <= minRuns <= window, was: " + minRuns + "/" + window);
+            }
+        }
+
+        public static Policy fromSystemProperties() {
+            return new Policy(Integer.getInteger("quarantine.window", 10),
+                    Integer.getInteger("quarantine.min.runs", 5),
+                    Double.parseDouble(System.getProperty("quarantine.threshold", "0.3")));
+        }
+
+        public boolean quarantines(History history) {
+            return history.runs() >= minRuns && history.unstableRate() >= threshold;
+        }
+    }
+
+    public record History(List<Outcome> outcomes, Map<FailureClass, Integer> failures) {
+
+        static final History EMPTY = new History(List.of(), Map.of());
+
+        public History {
+            outcomes = List.copyOf(outcomes);
+            failures = Map.copyOf(failures);
+        }
+
+        public int runs() {
+            return outcomes.size();
+        }
+
+        public double unstableRate() {
+            return outcomes.isEmpty() ? 0
+                    : outcomes.stream().filter(outcome -> outcome != Outcome.PASSED).count() / (double) runs();
+        }
+
+        History append(List<Outcome> more, Map<FailureClass, Integer> moreFailures, int window) {
+            List<Outcome> merged = new ArrayList<>(outcomes);
+            merged.addAll(more);
+            Map<FailureClass, Integer> counts = new EnumMap<>(FailureClass.class);
+            counts.putAll(failures);
+            moreFailures.forEach((type, count) -> counts.merge(type, count, Integer::sum));
+            return new History(merged.subList(Math.max(0, merged.size() - window), merged.size()), counts);
+        }
+
+        @Override
+        public String toString() {
+            String failed = failures.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .map(entry -> entry.getKey() + " x" + entry.getValue())
+                    .collect(Collectors.joining(", "));
+            return String.format(Locale.ROOT, "%.0f%% unstable over the last %d runs%s", unstableRate() * 100, runs(),
+                    failed.isEmpty() ? "" : " (" + failed + ")");
+        }
+    }
+
+    private final Path dir;
+    private final Policy policy;
+    private final Map<String, History> stored;
+    private final Map<String, History> pending = new ConcurrentHashMap<>();
+
+    private FlakeStats(Path dir, Policy policy, Map<String, History> stored) {
+        this.dir = dir;
+        this.policy = policy;
+        this.stored = stored;
+    }
+
+    public static FlakeStats load(Path dir, Policy policy) throws IOException {
+        return new FlakeStats(dir, policy, read(dir.resolve(FILE)));
+    }
+
+    public static FlakeStats fromSystemProperties() throws IOException {
+        return load(Paths.get(System.getProperty("flake.stats.dir", "target/flake-stats")),
+                Policy.fromSystemProperties());
+    }
+
+    public Policy policy() {
+        return policy;
+    }
+
+    /**
+     * The test's stored history with this run's outcomes appended.
+     */
+    public History history(String test) {
+        History history = stored.getOrDefault(test, History.EMPTY);
+        History current = pending.get(test);
+        return current == null ? history
+                : history.append(current.outcomes(), current.failures(), policy.window());
+    }
+
+    /**
+     * Decided on the stored history only, so a test is never quarantined halfway through a run.
+     */
+    public boolean isQuarantined(String test) {
+        return policy.quarantines(stored.getOrDefault(test, History.EMPTY));
+    }
+
+    /**
+     * Records one run of {@code test}, with the classes of every failed attempt it took.
+     */
+    public void record(String test, Outcome outcome, List<FailureClass> failures) {
+        Map<FailureClass, Integer> counts = new EnumMap<>(FailureClass.class);
+        failures.forEach(type -> counts.merge(type, 1, Integer::sum));
+        History run = new History(List.of(outcome), counts);
+        pending.merge(test, run, (previous, next) ->
+                previous.append(next.outcomes(), next.failures(), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Merges this run's outcomes into the file, re-reading it under the lock first.
+     */
+    public synchronized void save() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(dir);
+        try (FileChannel channel = FileChannel.open(dir.resolve(FILE + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Released when the channel closes
+            channel.lock();
+            Map<String, History> merged = read(dir.resolve(FILE));
+            pending.forEach((test, run) -> merged.put(test, merged.getOrDefault(test, History.EMPTY)
+                    .append(run.outcomes(), run.failures(), policy.window())));
+            write(merged);
+            stored.putAll(merged);
+            pending.clear();
+        }
+    }
+
+    private static Map<String, History> read(Path file) throws IOException {
+        Map<String, History> histories = new ConcurrentHashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return histories;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.endsWith(".outcomes")) {
+                continue;
+            }
+            String test = key.substring(0, key.length() - ".outcomes".length());
+            List<Outcome> outcomes = properties.getProperty(key).chars()
+                    .mapToObj(code -> Outcome.of((char) code))
+                    .toList();
+            Map<FailureClass, Integer> failures = new EnumMap<>(FailureClass.class);
+            String counts = properties.getProperty(test + ".failures", "");
+            for (String count : counts.split(",")) {
+                int colon = count.indexOf(':');
+                if (colon > 0) {
+                    failures.put(FailureClass.valueOf(count.substring(0, colon)),
+                            Integer.parseInt(count.substring(colon + 1)));
+                }
+            }
+            histories.put(test, new History(outcomes, failures));
+        }
+        return histories;
+    }
+
+    private void write(Map<String, History> histories) throws IOException {
+        Properties properties = new Properties();
+        histories.forEach((test, history) -> {
+            properties.setProperty(test + ".outcomes", history.outcomes().stream()
+                    .map(outcome -> String.valueOf(outcome.code))
+                    .collect(Collectors.joining()));
+            properties.setProperty(test + ".failures", history.failures().entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .map(entry -> entry.getKey() + ":" + entry.getValue())
+                    .collect(Collectors.joining(",")));
+        });
+        Path temp = Files.createTempFile(dir, FILE, ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "per-test outcomes, oldest first: P passed, R passed on retry, F failed");
+        }
+        Files.move(temp, dir.resolve(FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
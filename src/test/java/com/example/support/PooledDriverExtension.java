@@ -0,0 +1,356 @@
+package com.example.support;
+
+import com.example.artifact.ArtifactCapture;
+import com.example.artifact.ArtifactStore;
+import com.example.driver.DriverFactory;
+import com.example.driver.DriverPool;
+import com.example.driver.DriverResolver;
+import com.example.driver.ResourceSampler;
+import com.example.log.Log;
+import com.example.log.LogContext;
+import com.example.network.RequestBlocker;
+import com.example.network.TrafficArchive;
+import com.example.network.TrafficReplay;
+import com.example.report.LatencyHistogram;
+import com.example.report.ResourceReport;
+import com.example.report.RunReport;
+import com.example.report.StepTimer;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.opentest4j.TestAbortedException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Hands each test a warm browser from a shared {@link DriverPool} and returns it afterwards.
+ *
+ * Register it with {@code @RegisterExtension} and take the driver as a
+ * {@code WebDriver} parameter of a {@code @BeforeEach} or {@code @Test} method.
+ * Test classes with identical options share one pool for the whole run; the
+ * pools are closed and their statistics printed when the run finishes. The
+ * chromedriver binary is resolved once through {@link DriverResolver} before the
+ * first pool starts, so test classes need no {@code @BeforeAll} driver setup.
+ * Sessions come from {@link DriverFactory#configured()}: with
+ * {@code -Dselenium.grid=local} (or a grid URL) the pooled sessions live on a
+ * Selenium Grid instead, and are still reused across test classes.
+ *
+ * The driver handed out is instrumented by a per-test {@link StepTimer}, which
+ * tests can also take as a parameter to mark their steps. All step timings of
+ * the run are written by a {@link RunReport} when the run finishes.
+ *
+ * A {@link RequestBlocker} parameter gives the test request blocking on its
+ * browser; the blocker is closed before the browser goes back to the pool, so
+ * rules never leak into the next test. With {@code -Dtraffic.mode=record|replay}
+ * each test's traffic is recorded to, or replayed from, its class's
+ * {@link TrafficArchive}.
+ *
+ * With {@code -Dtelemetry.interval} set, a {@link ResourceSampler} polls each
+ * test's browser for memory, DOM and CPU figures, booked to the timer's steps;
+ * the run's samples are written by a {@link ResourceReport} when it finishes.
+ *
+ * A failed test's browser is captured (screenshot and page source) before it
+ * goes back to the pool; with {@code -Dartifacts.capture=steps} every step
+ * boundary is captured as well, and {@code off} captures nothing. Captures
+ * are written by one {@link ArtifactStore} per run, off the test's thread.
+ */
+public class PooledDriverExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(PooledDriverExtension.class);
+    private static final String RAW_DRIVER = "rawDriver";
+
+    private final Supplier<ChromeOptions> options;
+
+    public PooledDriverExtension(Supplier<ChromeOptions> options) {
+        this.options = options;
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        DriverPool pool = pool(context);
+        WebDriver driver = pool.acquire();
+        StepTimer timer = new StepTimer(context.getRequiredTestClass().getSimpleName()
+                + "." + context.getRequiredTestMethod().getName());
+
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        store.put(RAW_DRIVER, driver);
+        TrafficReplay traffic = traffic(context, driver);
+        if (traffic != null) {
+            store.put(TrafficReplay.class, traffic);
+        }
+        store.put(StepTimer.class, timer);
+        store.put(WebDriver.class, timer.instrument(driver));
+        Optional<Duration> interval = ResourceSampler.configuredInterval();
+        if (interval.isPresent() && ResourceSampler.isSupported(driver)) {
+            ResourceSampler sampler = new ResourceSampler(driver, timer.test(), StepTimer.IMPLICIT_STEP,
+                    interval.get());
+            timer.onStep(sampler::step);
+            store.put(ResourceSampler.class, sampler);
+        }
+        if (ArtifactCapture.Mode.configured() == ArtifactCapture.Mode.STEPS) {
+            ArtifactCapture capture = artifacts(context);
+            timer.onStep(step -> capture.capture(driver, timer.test(), step, "step"));
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        store.remove(WebDriver.class);
+        WebDriver raw = store.get(RAW_DRIVER, WebDriver.class);
+        StepTimer running = store.get(StepTimer.class, StepTimer.class);
+        if (raw != null && running != null && context.getExecutionException().isPresent()
+                && ArtifactCapture.Mode.configured() != ArtifactCapture.Mode.OFF) {
+            // First thing, while the page is still as the test left it
+            String step = LogContext.step().isEmpty() ? StepTimer.IMPLICIT_STEP : LogContext.step();
+            artifacts(context).capture(raw, running.test(), step, "failure");
+        }
+        RequestBlocker blocker = store.remove(RequestBlocker.class, RequestBlocker.class);
+        if (blocker != null) {
+            blocker.close();
+            if (blocker.stats().blocked() > 0) {
+                Log.info("Requests blocked: {}", blocker.stats());
+            }
+        }
+        TrafficReplay traffic = store.remove(TrafficReplay.class, TrafficReplay.class);
+        if (traffic != null) {
+            try {
+                traffic.close();
+            } catch (Exception e) {
+                Log.warn("Could not stop traffic {}: {}", traffic.mode(), e.getMessage());
+            }
+            Log.info("Traffic {}: {}", traffic.mode().name().toLowerCase(Locale.ROOT), traffic);
+        }
+        StepTimer timer = store.remove(StepTimer.class, StepTimer.class);
+        if (timer != null) {
+            if (context.getExecutionException().isPresent()) {
+                timer.fail();
+            } else {
+                timer.finish();
+            }
+            report(context).add(timer.records());
+        }
+        ResourceSampler sampler = store.remove(ResourceSampler.class, ResourceSampler.class);
+        if (sampler != null) {
+            sampler.close();
+            resources(context).add(sampler.samples());
+        }
+        LogContext.clear();
+
+        WebDriver driver = store.remove(RAW_DRIVER, WebDriver.class);
+        if (driver == null) {
+            return;
+        }
+        DriverPool pool = pool(context);
+        if (context.getExecutionException().map(PooledDriverExtension::attemptFailure)
+                .filter(DriverPool::isBrowserFailure).isPresent()) {
+            pool.evict(driver);
+        } else {
+            pool.release(driver);
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        return type == WebDriver.class || type == StepTimer.class || type == RequestBlocker.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        ExtensionContext.Store store = extensionContext.getStore(NAMESPACE);
+        if (type == RequestBlocker.class) {
+            // Intercepts on the raw driver so the DevTools traffic is not timed as test commands
+            return store.getOrComputeIfAbsent(RequestBlocker.class,
+                    k -> new RequestBlocker(store.get(RAW_DRIVER, WebDriver.class)), RequestBlocker.class);
+        }
+        return store.get(type, type);
+    }
+
+    // A retried attempt surfaces as an abort wrapping what actually went wrong
+    private static Throwable attemptFailure(Throwable failure) {
+        return failure instanceof TestAbortedException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private static RunReport report(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(ReportResource.class, k -> new ReportResource(), ReportResource.class)
+                .report;
+    }
+
+    private static ArtifactCapture artifacts(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(ArtifactResource.class, k -> new ArtifactResource(), ArtifactResource.class)
+                .capture;
+    }
+
+    private static ResourceReport resources(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(ResourcesResource.class, k -> new ResourcesResource(), ResourcesResource.class)
+                .report;
+    }
+
+    // One archive per test class, shared by its tests and closed (index written) after the class
+    private static TrafficReplay traffic(ExtensionContext context, WebDriver driver) {
+        TrafficReplay.Mode mode = TrafficReplay.Mode.configured();
+        if (mode == TrafficReplay.Mode.OFF) {
+            return null;
+        }
+        String name = context.getRequiredTestClass().getSimpleName();
+        ArchiveResource archive = context.getParent().orElse(context).getStore(NAMESPACE)
+                .getOrComputeIfAbsent(ArchiveResource.class, k -> new ArchiveResource(mode, name),
+                        ArchiveResource.class);
+        if (archive.writer != null) {
+            return TrafficReplay.record(driver, archive.writer);
+        }
+        return archive.archive == null ? null : TrafficReplay.replay(driver, archive.archive, TrafficReplay.isStrict());
+    }
+
+    private DriverPool pool(ExtensionContext context) {
+        ChromeOptions chromeOptions = options.get();
+        Map<String, Object> key = chromeOptions.asMap();
+        int defaultSize = defaultPoolSize(context);
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(key, k -> new PoolResource(chromeOptions, defaultSize), PoolResource.class)
+                .pool;
+    }
+
+    // One session per concurrent test: a single one for serial runs, cores x factor in parallel mode
+    private static int defaultPoolSize(ExtensionContext context) {
+        boolean parallel = context.getConfigurationParameter("junit.jupiter.execution.parallel.enabled",
+                Boolean::parseBoolean).orElse(false);
+        if (!parallel) {
+            return 1;
+        }
+        double factor = context.getConfigurationParameter("junit.jupiter.execution.parallel.config.dynamic.factor",
+                Double::parseDouble).orElse(1.0);
+        return Math.max(1, (int) (Runtime.getRuntime().availableProcessors() * factor));
+    }
+
+    private static final class PoolResource implements ExtensionContext.Store.CloseableResource {
+
+        private final DriverPool pool;
+
+        PoolResource(ChromeOptions options, int defaultSize) {
+            DriverFactory browsers = DriverFactory.configured();
+            Log.info("Browsers: {}", browsers);
+            int size = Integer.getInteger("selenium.pool.size", defaultSize);
+            this.pool = new DriverPool(() -> browsers.chrome(options), size);
+        }
+
+        @Override
+        public void close() {
+            pool.close();
+            Log.info("Driver pool closed: {}", pool.stats());
+            Log.info("Driver resolution times (cold = resolved, warm = cache): {}", DriverResolver.chrome().timings());
+        }
+    }
+
+    private static final class ArchiveResource implements ExtensionContext.Store.CloseableResource {
+
+        private final TrafficArchive.Writer writer;
+        private final TrafficArchive archive;
+
+        ArchiveResource(TrafficReplay.Mode mode, String name) {
+            Path directory = TrafficReplay.defaultDirectory();
+            try {
+                if (mode == TrafficReplay.Mode.RECORD) {
+                    this.writer = TrafficArchive.create(directory, name);
+                    this.archive = null;
+                } else if (TrafficArchive.exists(directory, name)) {
+                    this.writer = null;
+                    this.archive = TrafficArchive.open(directory, name);
+                } else {
+                    Log.warn("No traffic archive for {} in {}, running live", name, directory);
+                    this.writer = null;
+                    this.archive = null;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open traffic archive " + name, e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+                Log.info("Traffic archive written: {} responses", writer.size());
+            }
+            if (archive != null) {
+                archive.close();
+            }
+        }
+    }
+
+    private static final class ReportResource implements ExtensionContext.Store.CloseableResource {
+
+        private final RunReport report = new RunReport();
+
+        @Override
+        public void close() {
+            try {
+                Map<String, LatencyHistogram> histograms = report.write();
+                Log.info("Step report {} written to {}", report.runId(), RunReport.defaultDirectory());
+                histograms.forEach((step, histogram) -> Log.info("  {}: {}", step, histogram));
+            } catch (IOException e) {
+                Log.warn("Could not write step report: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static final class ResourcesResource implements ExtensionContext.Store.CloseableResource {
+
+        private final ResourceReport report = new ResourceReport();
+
+        @Override
+        public void close() {
+            if (report.isEmpty()) {
+                return;
+            }
+            try {
+                Map<String, ResourceReport.StepUsage> usage = report.write();
+                Log.info("Resource samples {} written to {}", report.runId(), ResourceReport.defaultDirectory());
+                usage.forEach((step, stepUsage) -> Log.info("  {}: {}", step, stepUsage));
+                long memory = ResourceReport.physicalMemoryBytes();
+                Log.info("Peak session RSS {} MB; {} sessions fit in {} MB of memory",
+                        report.peakSessionRssBytes() >> 20, report.sessionsFitting(memory), memory >> 20);
+            } catch (IOException e) {
+                Log.warn("Could not write resource samples: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static final class ArtifactResource implements ExtensionContext.Store.CloseableResource {
+
+        private final ArtifactStore store;
+        private final ArtifactCapture capture;
+
+        ArtifactResource() {
+            try {
+                this.store = ArtifactStore.fromSystemProperties();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open the artifact store", e);
+            }
+            this.capture = new ArtifactCapture(store);
+        }
+
+        @Override
+        public void close() {
+            store.close();
+            Log.info("Artifacts in {}: {}", store.directory(), store.stats());
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.support;
+
+import com.example.driver.FailureClass;
+import com.example.log.Log;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.commons.support.ReflectionSupport;
+import org.opentest4j.TestAbortedException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs {@link RetryingTest} methods: retries transient failures and skips quarantined tests.
+ *
+ * Every failed attempt is classified with {@link FailureClass#of(Throwable)}.
+ * A transient failure with attempts left is reported as aborted and the test is
+ * attempted again after a back-off that starts at {@code -Dretry.backoff}
+ * (default {@code PT1S}) and doubles up to {@code -Dretry.backoff.max} (default
+ * {@code PT10S}). Each attempt is a full invocation, so {@code @BeforeEach}
+ * runs again and {@link PooledDriverExtension} hands out a reset browser, or a
+ * fresh one when the last attempt crashed it. Anything else fails right away.
+ *
+ * Outcomes go to {@link FlakeStats}, saved when the run ends. A test whose
+ * history meets the quarantine {@link FlakeStats.Policy} is skipped with the
+ * reason in the report; {@code -Dquarantine.run=true} runs it anyway, which is
+ * how it earns its way back out.
+ */
+public class RetryExtension implements TestTemplateInvocationContextProvider, ExecutionCondition {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(RetryExtension.class);
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (!AnnotationSupport.isAnnotated(context.getTestMethod(), RetryingTest.class)) {
+            return ConditionEvaluationResult.enabled("Not a retrying test");
+        }
+        String test = testId(context);
+        FlakeStats stats = stats(context);
+        if (!stats.isQuarantined(test)) {
+            return ConditionEvaluationResult.enabled("Not quarantined");
+        }
+        if (Boolean.getBoolean("quarantine.run")) {
+            return ConditionEvaluationResult.enabled("Quarantined but -Dquarantine.run is set");
+        }
+        return ConditionEvaluationResult.disabled("Quarantined, " + stats.history(test)
+                + "; pass -Dquarantine.run=true to run it");
+    }
+
+    @Override
+    public boolean supportsTestTemplate(ExtensionContext context) {
+        return AnnotationSupport.isAnnotated(context.getTestMethod(), RetryingTest.class);
+    }
+
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext context) {
+        RetryingTest retrying = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), RetryingTest.class)
+                .orElseThrow();
+        if (retrying.maxAttempts() < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1, was: " + retrying.maxAttempts());
+        }
+        String test = testId(context);
+        FlakeStats stats = stats(context);
+        String name = retrying.name().isEmpty() ? context.getDisplayName() : retrying.name();
+        Stream<Object[]> rows = retrying.arguments().isEmpty()
+                ? Stream.<Object[]>of(new Object[0])
+                : rows(context, retrying.arguments());
+        // Attempts are generated one at a time, after the previous one ran, so only failures produce more
+        return rows.flatMap(row -> new Attempts(test, row.length == 0 ? name : MessageFormat.format(name, row), row,
+                retrying.maxAttempts(), stats).stream());
+    }
+
+    private static Stream<Object[]> rows(ExtensionContext context, String factoryName) {
+        Class<?> testClass = context.getRequiredTestClass();
+        Method factory = ReflectionSupport.findMethod(testClass, factoryName)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No arguments method " + factoryName + "() in " + testClass.getName()));
+        if (!(ReflectionSupport.invokeMethod(factory, null) instanceof Stream<?> rows)) {
+            throw new IllegalArgumentException(factoryName + "() must return a Stream of Arguments");
+        }
+        return rows.map(row -> row instanceof Arguments arguments ? arguments.get() : new Object[] {row});
+    }
+
+    static String testId(ExtensionContext context) {
+        return context.getRequiredTestClass().getName() + "." + context.getRequiredTestMethod().getName();
+    }
+
+    static Duration backoff(int retry) {
+        Duration initial = Duration.parse(System.getProperty("retry.backoff", "PT1S"));
+        Duration max = Duration.parse(System.getProperty("retry.backoff.max", "PT10S"));
+        Duration delay = initial.multipliedBy(1L << Math.min(retry - 1, 20));
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+
+    private static FlakeStats stats(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(StatsResource.class, k -> new StatsResource(), StatsResource.class)
+                .stats;
+    }
+
+    // The attempts at one run (or row) of a test; it is also the extension that sees how each attempt ended
+    private static final class Attempts implements TestExecutionExceptionHandler, AfterTestExecutionCallback,
+            ParameterResolver {
+
+        private final String test;
+        private final String name;
+        private final Object[] row;
+        private final int maxAttempts;
+        private final FlakeStats stats;
+        private final List<FailureClass> failures = new ArrayList<>();
+        private int attempt;
+        private boolean retry;
+
+        Attempts(String test, String name, Object[] row, int maxAttempts, FlakeStats stats) {
+            this.test = test;
+            this.name = name;
+            this.row = row;
+            this.maxAttempts = maxAttempts;
+            this.stats = stats;
+        }
+
+        Stream<TestTemplateInvocationContext> stream() {
+            return StreamSupport.stream(new Spliterators.AbstractSpliterator<TestTemplateInvocationContext>(
+                    maxAttempts, Spliterator.ORDERED) {
+                @Override
+                public boolean tryAdvance(Consumer<? super TestTemplateInvocationContext> action) {
+                    if (attempt > 0 && !retry) {
+                        return false;
+                    }
+                    if (attempt > 0 && !sleep(backoff(attempt))) {
+                        return false;
+                    }
+                    attempt++;
+                    retry = false;
+                    action.accept(invocation(attempt));
+                    return true;
+                }
+            }, false);
+        }
+
+        private TestTemplateInvocationContext invocation(int number) {
+            String displayName = number == 1 ? name : name + " (attempt " + number + " of " + maxAttempts + ")";
+            Extension attempts = this;
+            return new TestTemplateInvocationContext() {
+                @Override
+                public String getDisplayName(int invocationIndex) {
+                    return displayName;
+                }
+
+                @Override
+                public List<Extension> getAdditionalExtensions() {
+                    return List.of(attempts);
+                }
+            };
+        }
+
+        private static boolean sleep(Duration delay) {
+            try {
+                Thread.sleep(delay);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public void handleTestExecutionException(ExtensionContext context, Throwable failure) throws Throwable {
+            // A failed assumption skips the test, which says nothing about how stable it is
+            if (failure instanceof TestAbortedException) {
+                throw failure;
+            }
+            FailureClass type = FailureClass.of(failure);
+            failures.add(type);
+            if (type.isTransient() && attempt < maxAttempts) {
+                retry = true;
+                Log.warn("{} failed with {} on attempt {} of {}, retrying: {}", name, type, attempt, maxAttempts,
+                        failure.getMessage());
+                throw new TestAbortedException("Attempt " + attempt + " of " + maxAttempts + " failed with " + type
+                        + ", retrying", failure);
+            }
+            stats.record(test, FlakeStats.Outcome.FAILED, failures);
+            Log.warn("{} failed with {} on attempt {} of {}{}", name, type, attempt, maxAttempts,
+                    type.isTransient() ? "" : ", not retried");
+            throw failure;
+        }
+
+        @Override
+        public void afterTestExecution(ExtensionContext context) {
+            if (context.getExecutionException().isPresent()) {
+                return;
+            }
+            if (failures.isEmpty()) {
+                stats.record(test, FlakeStats.Outcome.PASSED, failures);
+            } else {
+                stats.record(test, FlakeStats.Outcome.FLAKY, failures);
+                Log.warn("{} passed on attempt {} of {} after {}", name, attempt, maxAttempts, failures);
+            }
+        }
+
+        @Override
+        public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+            return parameterContext.getIndex() < row.length
+                    && parameterContext.getDeclaringExecutable().equals(extensionContext.getRequiredTestMethod());
+        }
+
+        @Override
+        public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+            return row[parameterContext.getIndex()];
+        }
+    }
+
+    private static final class StatsResource implements ExtensionContext.Store.CloseableResource {
+
+        private final FlakeStats stats;
+
+        StatsResource() {
+            try {
+                this.stats = FlakeStats.fromSystemProperties();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read flake statistics", e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            stats.save();
+        }
+    }
+}
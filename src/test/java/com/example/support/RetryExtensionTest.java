@@ -0,0 +1,204 @@
+package com.example.support;
+
+import com.example.driver.FailureClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+public class RetryExtensionTest {
+
+    // Set only while run() executes a fixture, so a -Dtest run that includes nested classes skips them
+    private static final String FIXTURES = "retry.fixtures";
+
+    @TempDir
+    Path statsDir;
+
+    @BeforeEach
+    public void configure() {
+        System.setProperty("flake.stats.dir", statsDir.toString());
+        System.setProperty("retry.backoff", "PT0S");
+        Flaky.timeouts.set(0);
+        Flaky.missing.set(0);
+        Rows.seen.clear();
+        Skipped.runs.set(0);
+    }
+
+    @AfterEach
+    public void restore() {
+        System.clearProperty("flake.stats.dir");
+        System.clearProperty("retry.backoff");
+        System.clearProperty("quarantine.run");
+    }
+
+    @Test
+    @DisplayName("Transient failures are retried until they pass, others fail on the first attempt")
+    public void testRetriesTransientFailures() throws IOException {
+        Map<String, TestExecutionResult.Status> results = run(Flaky.class);
+
+        assertEquals(Map.of(
+                "timesOutTwice()", TestExecutionResult.Status.ABORTED,
+                "timesOutTwice() (attempt 2 of 3)", TestExecutionResult.Status.ABORTED,
+                "timesOutTwice() (attempt 3 of 3)", TestExecutionResult.Status.SUCCESSFUL,
+                "elementMissing()", TestExecutionResult.Status.FAILED), results);
+        assertEquals(3, Flaky.timeouts.get());
+        assertEquals(1, Flaky.missing.get());
+
+        FlakeStats stats = FlakeStats.fromSystemProperties();
+        FlakeStats.History flaky = stats.history(Flaky.class.getName() + ".timesOutTwice");
+        assertEquals(List.of(FlakeStats.Outcome.FLAKY), flaky.outcomes());
+        assertEquals(Map.of(FailureClass.TIMEOUT, 2), flaky.failures());
+        FlakeStats.History failed = stats.history(Flaky.class.getName() + ".elementMissing");
+        assertEquals(List.of(FlakeStats.Outcome.FAILED), failed.outcomes());
+        assertEquals(Map.of(FailureClass.NO_SUCH_ELEMENT, 1), failed.failures());
+    }
+
+    @Test
+    @DisplayName("Each row of a data-driven test is retried on its own")
+    public void testRetriesRows() throws IOException {
+        Map<String, TestExecutionResult.Status> results = run(Rows.class);
+
+        assertEquals(List.of("a1", "b2", "b2"), Rows.seen);
+        assertEquals(TestExecutionResult.Status.SUCCESSFUL, results.get("a-1"));
+        assertEquals(TestExecutionResult.Status.ABORTED, results.get("b-2"));
+        assertEquals(TestExecutionResult.Status.SUCCESSFUL, results.get("b-2 (attempt 2 of 3)"));
+        assertEquals(List.of(FlakeStats.Outcome.PASSED, FlakeStats.Outcome.FLAKY),
+                FlakeStats.fromSystemProperties().history(Rows.class.getName() + ".row").outcomes());
+    }
+
+    @Test
+    @DisplayName("A test that keeps failing is quarantined until it is run explicitly")
+    public void testQuarantine() throws IOException {
+        String test = Flaky.class.getName() + ".elementMissing";
+        FlakeStats seeded = FlakeStats.fromSystemProperties();
+        for (int i = 0; i < 4; i++) {
+            seeded.record(test, i % 2 == 0 ? FlakeStats.Outcome.FAILED : FlakeStats.Outcome.PASSED, List.of());
+        }
+        seeded.save();
+        assertFalse(FlakeStats.fromSystemProperties().isQuarantined(test), "4 runs are below the minimum of 5");
+
+        run(Flaky.class);
+        assertTrue(FlakeStats.fromSystemProperties().isQuarantined(test));
+
+        Flaky.missing.set(0);
+        assertNull(run(Flaky.class).get("elementMissing()"), "A quarantined test should not run");
+        assertEquals(0, Flaky.missing.get());
+
+        System.setProperty("quarantine.run", "true");
+        assertEquals(TestExecutionResult.Status.FAILED, run(Flaky.class).get("elementMissing()"));
+        assertEquals(1, Flaky.missing.get());
+        assertEquals(6, FlakeStats.fromSystemProperties().history(test).runs());
+    }
+
+    @Test
+    @DisplayName("A test skipped by an assumption is neither retried nor counted as a run")
+    public void testAssumptionSkips() throws IOException {
+        Map<String, TestExecutionResult.Status> results = run(Skipped.class);
+
+        assertEquals(Map.of("withoutSuggestions()", TestExecutionResult.Status.ABORTED), results);
+        assertEquals(1, Skipped.runs.get());
+        assertEquals(0, FlakeStats.fromSystemProperties().history(Skipped.class.getName() + ".withoutSuggestions")
+                .runs());
+    }
+
+    // Display names of the finished test invocations and how each ended
+    private static Map<String, TestExecutionResult.Status> run(Class<?> testClass) {
+        Map<String, TestExecutionResult.Status> results = new LinkedHashMap<>();
+        // Without the service-registered listeners and shard filter of the outer run
+        LauncherConfig config = LauncherConfig.builder()
+                .enableTestExecutionListenerAutoRegistration(false)
+                .enablePostDiscoveryFilterAutoRegistration(false)
+                .build();
+        System.setProperty(FIXTURES, "true");
+        try {
+            LauncherFactory.create(config)
+                    .execute(LauncherDiscoveryRequestBuilder.request().selectors(selectClass(testClass)).build(),
+                            new TestExecutionListener() {
+                                @Override
+                                public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+                                    if (identifier.isTest()) {
+                                        results.put(identifier.getDisplayName(), result.getStatus());
+                                    }
+                                }
+                            });
+        } finally {
+            System.clearProperty(FIXTURES);
+        }
+        return results;
+    }
+
+    @EnabledIfSystemProperty(named = FIXTURES, matches = "true")
+    static class Flaky {
+
+        static final AtomicInteger timeouts = new AtomicInteger();
+        static final AtomicInteger missing = new AtomicInteger();
+
+        @RetryingTest
+        void timesOutTwice() {
+            if (timeouts.incrementAndGet() < 3) {
+                throw new TimeoutException("page still loading");
+            }
+        }
+
+        @RetryingTest
+        void elementMissing() {
+            missing.incrementAndGet();
+            throw new NoSuchElementException("#renamed");
+        }
+    }
+
+    @EnabledIfSystemProperty(named = FIXTURES, matches = "true")
+    static class Skipped {
+
+        static final AtomicInteger runs = new AtomicInteger();
+
+        @RetryingTest
+        void withoutSuggestions() {
+            runs.incrementAndGet();
+            assumeTrue(false, "No suggestions offered");
+        }
+    }
+
+    @EnabledIfSystemProperty(named = FIXTURES, matches = "true")
+    static class Rows {
+
+        static final List<String> seen = new ArrayList<>();
+
+        static Stream<Arguments> rows() {
+            return Stream.of(Arguments.of("a", 1), Arguments.of("b", 2));
+        }
+
+        @RetryingTest(arguments = "rows", name = "{0}-{1}")
+        void row(String name, int number) {
+            seen.add(name + number);
+            if (seen.size() == 2) {
+                throw new StaleElementReferenceException("re-rendered");
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.support;
+
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A test that is attempted again when it fails for a transient reason, and skipped while quarantined.
+ *
+ * See {@link RetryExtension} for what is retried and when a test is quarantined.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@TestTemplate
+@ExtendWith(RetryExtension.class)
+public @interface RetryingTest {
+
+    /**
+     * Attempts per run (or per row with {@link #arguments()}), including the first.
+     */
+    int maxAttempts() default 3;
+
+    /**
+     * Name of a static factory method in the test class returning a {@code Stream} of
+     * {@code Arguments}; the test then runs, and retries, once per row.
+     */
+    String arguments() default "";
+
+    /**
+     * Display name of each run; {@code {0}}, {@code {1}}, ... are the row's arguments. Defaults to the
+     * method's display name.
+     */
+    String name() default "";
+}
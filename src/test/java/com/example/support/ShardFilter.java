@@ -0,0 +1,105 @@
+package com.example.support;
+
+import com.example.log.Log;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps only the test methods of one shard: {@code -Dshard.index} (from 0) of {@code -Dshard.count}.
+ *
+ * The split is a {@link ShardPlan} over every method discovered plus every
+ * method in {@link TestDurations}, weighted by those durations. Surefire may
+ * discover one class at a time; planning over the recorded methods as well
+ * keeps the split the same in every shard either way, as long as all shards
+ * select the same tests and read the same durations file. Methods are the
+ * unit: all invocations of a parameterized or retried method stay together.
+ * Without {@code -Dshard.count} everything runs. Registered through
+ * {@code META-INF/services}.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+
+    private final int index;
+    private final int count;
+    private final Supplier<Map<String, Long>> durations;
+    private Map<String, Long> recorded;
+    private ShardPlan plan;
+    private String logged;
+
+    public ShardFilter() {
+        this(Integer.getInteger("shard.index", 0), Integer.getInteger("shard.count", 1),
+                ShardFilter::recordedDurations);
+    }
+
+    ShardFilter(int index, int count, Supplier<Map<String, Long>> durations) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Need 0 <= shard.index < shard.count, was: " + index + "/" + count);
+        }
+        this.index = index;
+        this.count = count;
+        this.durations = durations;
+    }
+
+    @Override
+    public synchronized FilterResult apply(TestDescriptor descriptor) {
+        if (count == 1) {
+            return FilterResult.included("Sharding is off");
+        }
+        // The launcher visits each discovery's root before anything below it
+        if (descriptor.isRoot() || plan == null) {
+            plan = plan(root(descriptor));
+        }
+        String unit = descriptor.getSource().map(ShardPlan::unitOf).orElse(null);
+        if (unit == null) {
+            // Containers without methods left are pruned by the launcher
+            return FilterResult.included("Not a test method");
+        }
+        int shard = plan.shardOf(unit);
+        return shard == index
+                ? FilterResult.included("In shard " + index)
+                : FilterResult.excluded("In shard " + shard + " of " + count);
+    }
+
+    private ShardPlan plan(TestDescriptor root) {
+        if (recorded == null) {
+            recorded = durations.get();
+        }
+        Set<String> units = root.getDescendants().stream()
+                .map(descriptor -> descriptor.getSource().map(ShardPlan::unitOf).orElse(null))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        units.addAll(recorded.keySet());
+        ShardPlan plan = ShardPlan.plan(units, recorded, count);
+        String summary = plan.toString();
+        if (!summary.equals(logged)) {
+            Log.info("Running shard {} of {}: {}", index, count, summary);
+            logged = summary;
+        }
+        return plan;
+    }
+
+    private static TestDescriptor root(TestDescriptor descriptor) {
+        TestDescriptor root = descriptor;
+        while (root.getParent().isPresent()) {
+            root = root.getParent().get();
+        }
+        return root;
+    }
+
+    private static Map<String, Long> recordedDurations() {
+        try {
+            return TestDurations.load(TestDurations.defaultFile()).recorded();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read test durations", e);
+        }
+    }
+}
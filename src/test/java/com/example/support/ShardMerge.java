@@ -0,0 +1,185 @@
+package com.example.support;
+
+import com.example.log.Log;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Merges the results of a sharded run into one report and folds its durations into the history.
+ *
+ * Reads every {@code shard-*} directory under the given directory (default
+ * {@code target/shards}), as written by the {@code shard} profile or downloaded
+ * from CI. Surefire reports of the same class from different shards become one
+ * {@code TEST-*.xml} in {@code merged}, with the testcases of all shards and
+ * summed counts. Each shard's measured durations are folded into
+ * {@link TestDurations#defaultFile()} for the next split.
+ *
+ * Run with {@code mvn -Pshard-merge test-compile exec:exec}.
+ */
+public final class ShardMerge {
+
+    private static final String[] COUNTS = {"tests", "failures", "errors", "skipped"};
+
+    private ShardMerge() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path root = Paths.get(args.length > 0 ? args[0] : "target/shards");
+        Summary summary = merge(root, root.resolve("merged"), TestDurations.defaultFile());
+        Log.info("Merged {} into {}", summary, root.resolve("merged"));
+        summary.shardSeconds().forEach((shard, seconds) ->
+                Log.info("  {}: {}s", shard, String.format(Locale.ROOT, "%.1f", seconds)));
+    }
+
+    /**
+     * Totals of the merged report, and the test time each shard took.
+     */
+    public record Summary(Map<String, Double> shardSeconds, int suites, int tests, int failures, int errors,
+                          int skipped) {
+
+        /**
+         * How much longer the slowest shard took than the average one, e.g. 1.0 for a perfect split.
+         */
+        public double imbalance() {
+            double mean = shardSeconds.values().stream().mapToDouble(Double::doubleValue).average().orElse(0);
+            double max = shardSeconds.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+            return mean == 0 ? 1 : max / mean;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d shards, %d classes: %d tests, %d failures, %d errors, %d skipped, "
+                    + "slowest shard %.2fx the mean", shardSeconds.size(), suites, tests, failures, errors, skipped,
+                    imbalance());
+        }
+    }
+
+    public static Summary merge(Path root, Path target, Path durationsFile) throws IOException {
+        List<Path> shards;
+        try (Stream<Path> children = Files.list(root)) {
+            shards = children.filter(Files::isDirectory)
+                    .filter(dir -> dir.getFileName().toString().startsWith("shard-"))
+                    .sorted()
+                    .toList();
+        }
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("No shard-* directories in " + root);
+        }
+
+        DocumentBuilder builder = documentBuilder();
+        Map<String, Document> suites = new TreeMap<>();
+        Map<String, Double> shardSeconds = new LinkedHashMap<>();
+        TestDurations durations = TestDurations.load(durationsFile);
+        for (Path shard : shards) {
+            double seconds = 0;
+            for (Path report : reports(shard)) {
+                Document document;
+                try {
+                    document = builder.parse(report.toFile());
+                } catch (SAXException e) {
+                    throw new IOException("Unreadable report " + report, e);
+                }
+                Element suite = document.getDocumentElement();
+                seconds += number(suite, "time");
+                Document merged = suites.putIfAbsent(suite.getAttribute("name"), document);
+                if (merged != null) {
+                    append(merged, suite);
+                }
+            }
+            shardSeconds.put(shard.getFileName().toString(), seconds);
+            TestDurations.read(shard.resolve(TestDurations.FILE))
+                    .forEach((unit, millis) -> durations.record(unit, Duration.ofMillis(millis)));
+        }
+        durations.save();
+
+        Files.createDirectories(target);
+        int[] totals = new int[COUNTS.length];
+        for (Map.Entry<String, Document> suite : suites.entrySet()) {
+            Element element = suite.getValue().getDocumentElement();
+            for (int i = 0; i < COUNTS.length; i++) {
+                totals[i] += (int) number(element, COUNTS[i]);
+            }
+            write(suite.getValue(), target.resolve("TEST-" + suite.getKey() + ".xml"));
+        }
+        return new Summary(shardSeconds, suites.size(), totals[0], totals[1], totals[2], totals[3]);
+    }
+
+    private static List<Path> reports(Path shard) throws IOException {
+        try (Stream<Path> files = Files.walk(shard)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith("TEST-") && name.endsWith(".xml");
+            }).sorted().toList();
+        }
+    }
+
+    // Moves the testcases of another shard's report of the same class into the merged one
+    private static void append(Document merged, Element suite) {
+        Element into = merged.getDocumentElement();
+        List<Node> cases = new ArrayList<>();
+        NodeList children = suite.getElementsByTagName("testcase");
+        for (int i = 0; i < children.getLength(); i++) {
+            cases.add(children.item(i));
+        }
+        for (Node testcase : cases) {
+            into.appendChild(merged.importNode(testcase, true));
+        }
+        for (String count : COUNTS) {
+            into.setAttribute(count, String.valueOf((int) (number(into, count) + number(suite, count))));
+        }
+        into.setAttribute("time", String.format(Locale.ROOT, "%.3f", number(into, "time") + number(suite, "time")));
+    }
+
+    // Surefire writes times with grouping separators, e.g. "1,234.5"
+    private static double number(Element element, String attribute) {
+        String value = element.getAttribute(attribute).replace(",", "");
+        return value.isEmpty() ? 0 : Double.parseDouble(value);
+    }
+
+    private static DocumentBuilder documentBuilder() throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            return factory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IOException("No XML parser available", e);
+        }
+    }
+
+    private static void write(Document document, Path file) throws IOException {
+        try {
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.transform(new DOMSource(document), new StreamResult(file.toFile()));
+        } catch (TransformerException e) {
+            throw new IOException("Could not write " + file, e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardMergeTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("Reports of one class from several shards merge into one with summed counts")
+    public void testMergeReports() throws IOException {
+        report("shard-0", "com.example.GoogleTest", "1,204.5", 2, 1, "<testcase name=\"a\" time=\"1.0\"/>"
+                + "<testcase name=\"b\" time=\"2.0\"><failure message=\"x\"/></testcase>");
+        report("shard-1", "com.example.GoogleTest", "3.5", 1, 0, "<testcase name=\"c\" time=\"3.5\"/>");
+        report("shard-1", "com.example.AmazonTest", "90", 1, 0, "<testcase name=\"d\" time=\"90\"/>");
+
+        ShardMerge.Summary summary = ShardMerge.merge(root, root.resolve("merged"),
+                root.resolve("durations.properties"));
+
+        assertEquals(2, summary.suites());
+        assertEquals(4, summary.tests());
+        assertEquals(1, summary.failures());
+        assertEquals(Map.of("shard-0", 1204.5, "shard-1", 93.5), summary.shardSeconds());
+        String google = Files.readString(root.resolve("merged/TEST-com.example.GoogleTest.xml"));
+        assertTrue(google.contains("tests=\"3\""), google);
+        assertTrue(google.contains("time=\"1208.000\""), google);
+        for (String testcase : new String[] {"\"a\"", "\"b\"", "\"c\""}) {
+            assertTrue(google.contains("name=" + testcase), google);
+        }
+    }
+
+    @Test
+    @DisplayName("Each shard's measured durations are averaged into the history")
+    public void testFoldDurations() throws IOException {
+        Path history = root.resolve("durations.properties");
+        TestDurations recorded = TestDurations.load(history);
+        recorded.record("GoogleTest#a()", Duration.ofMillis(1_000));
+        recorded.record("GoogleTest#b()", Duration.ofMillis(500));
+        recorded.save();
+
+        TestDurations shard = TestDurations.load(root.resolve("unused"));
+        shard.record("GoogleTest#a()", Duration.ofMillis(3_000));
+        shard.record("AmazonTest#d()", Duration.ofMillis(90_000));
+        Files.createDirectories(root.resolve("shard-0"));
+        shard.writeMeasured(root.resolve("shard-0").resolve(TestDurations.FILE));
+
+        ShardMerge.merge(root, root.resolve("merged"), history);
+
+        assertEquals(Map.of("GoogleTest#a()", 2_000L, "GoogleTest#b()", 500L, "AmazonTest#d()", 90_000L),
+                TestDurations.load(history).recorded());
+    }
+
+    private void report(String shard, String suite, String time, int tests, int failures, String testcases)
+            throws IOException {
+        Path dir = Files.createDirectories(root.resolve(shard));
+        Files.writeString(dir.resolve("TEST-" + suite + ".xml"), String.format(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>%n<testsuite name=\"%s\" time=\"%s\" tests=\"%d\" "
+                        + "errors=\"0\" skipped=\"0\" failures=\"%d\">%s</testsuite>",
+                suite, time, tests, failures, testcases));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.support;
+
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.StringJoiner;
+
+/**
+ * Splits test methods over shards so each shard gets about the same total duration.
+ *
+ * Longest processing time first: methods are taken longest first and each goes
+ * to the shard with the least work so far. Methods without a recorded duration
+ * are estimated at the mean of the known ones. The plan depends only on its
+ * inputs, so every shard that discovers the same tests with the same durations
+ * computes the same split and each method runs exactly once.
+ */
+public final class ShardPlan {
+
+    private final int shards;
+    private final Map<String, Integer> assignment;
+    private final long[] loads;
+    private final int[] counts;
+
+    private ShardPlan(int shards, Map<String, Integer> assignment, long[] loads, int[] counts) {
+        this.shards = shards;
+        this.assignment = assignment;
+        this.loads = loads;
+        this.counts = counts;
+    }
+
+    public static ShardPlan plan(Collection<String> units, Map<String, Long> durations, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1, was: " + shards);
+        }
+        long fallback = Math.max(1, Math.round(units.stream()
+                .map(durations::get)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .average()
+                .orElse(1)));
+        List<String> ordered = new ArrayList<>(units.stream().distinct().toList());
+        ordered.sort(Comparator.<String>comparingLong(unit -> durations.getOrDefault(unit, fallback)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        long[] loads = new long[shards];
+        int[] counts = new int[shards];
+        PriorityQueue<Integer> lightest = new PriorityQueue<>(
+                Comparator.<Integer>comparingLong(shard -> loads[shard]).thenComparingInt(shard -> shard));
+        for (int shard = 0; shard < shards; shard++) {
+            lightest.add(shard);
+        }
+        Map<String, Integer> assignment = new HashMap<>();
+        for (String unit : ordered) {
+            int shard = lightest.poll();
+            assignment.put(unit, shard);
+            loads[shard] += durations.getOrDefault(unit, fallback);
+            counts[shard]++;
+            lightest.add(shard);
+        }
+        return new ShardPlan(shards, assignment, loads, counts);
+    }
+
+    /**
+     * The key a test method is planned and timed under, or null for sources that are not methods.
+     */
+    public static String unitOf(TestSource source) {
+        if (source instanceof MethodSource method) {
+            return method.getClassName() + "#" + method.getMethodName() + "(" + method.getMethodParameterTypes() + ")";
+        }
+        return null;
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    /**
+     * The shard {@code unit} belongs to; units the plan has not seen are spread by hash.
+     */
+    public int shardOf(String unit) {
+        Integer shard = assignment.get(unit);
+        return shard != null ? shard : Math.floorMod(unit.hashCode(), shards);
+    }
+
+    public List<String> units(int shard) {
+        return assignment.entrySet().stream()
+                .filter(entry -> entry.getValue() == shard)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Estimated milliseconds of work in {@code shard}.
+     */
+    public long load(int shard) {
+        return loads[shard];
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (int shard = 0; shard < shards; shard++) {
+            joiner.add(String.format("shard %d: %d tests ~%dms", shard, counts[shard], loads[shard]));
+        }
+        return joiner.toString();
+    }
+}
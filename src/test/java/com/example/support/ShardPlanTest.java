@@ -0,0 +1,124 @@
+package com.example.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+public class ShardPlanTest {
+
+    @Test
+    @DisplayName("One long test gets a shard of its own and the short ones share the other")
+    public void testLongestFirst() {
+        Map<String, Long> durations = new HashMap<>();
+        durations.put("AmazonTest#testAmazonSite()", 90_000L);
+        List<String> units = new ArrayList<>(List.of("AmazonTest#testAmazonSite()"));
+        for (int i = 0; i < 10; i++) {
+            units.add("GoogleTest#test" + i + "()");
+            durations.put("GoogleTest#test" + i + "()", 4_000L + i * 1_000L);
+        }
+
+        ShardPlan plan = ShardPlan.plan(units, durations, 2);
+
+        int amazon = plan.shardOf("AmazonTest#testAmazonSite()");
+        assertEquals(List.of("AmazonTest#testAmazonSite()"), plan.units(amazon));
+        assertEquals(10, plan.units(1 - amazon).size());
+        assertEquals(90_000, plan.load(amazon));
+        assertEquals(85_000, plan.load(1 - amazon));
+    }
+
+    @Test
+    @DisplayName("Loads stay balanced across shards, and unknown tests count as the mean")
+    public void testBalanced() {
+        Map<String, Long> durations = new HashMap<>();
+        List<String> units = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            units.add("Test#m" + i + "()");
+            if (i % 4 != 0) {
+                durations.put("Test#m" + i + "()", 1_000L + (i * 7919L) % 5_000);
+            }
+        }
+
+        ShardPlan plan = ShardPlan.plan(units, durations, 4);
+
+        long max = IntStream.range(0, 4).mapToLong(plan::load).max().orElseThrow();
+        long min = IntStream.range(0, 4).mapToLong(plan::load).min().orElseThrow();
+        assertTrue(max - min <= 6_000, "Shard loads should differ by at most one test: " + plan);
+        assertEquals(40, IntStream.range(0, 4).map(shard -> plan.units(shard).size()).sum());
+    }
+
+    @Test
+    @DisplayName("The plan depends only on its inputs, not their order")
+    public void testDeterministic() {
+        List<String> units = List.of("A#a()", "B#b()", "C#c()", "D#d()", "E#e()");
+        Map<String, Long> durations = Map.of("A#a()", 10L, "B#b()", 10L, "C#c()", 30L);
+
+        ShardPlan first = ShardPlan.plan(units, durations, 3);
+        ShardPlan second = ShardPlan.plan(units.reversed(), durations, 3);
+
+        for (String unit : units) {
+            assertEquals(first.shardOf(unit), second.shardOf(unit), unit);
+        }
+    }
+
+    @Test
+    @DisplayName("Every method of a class is discovered by exactly one shard")
+    public void testFilterCoversEveryMethodOnce() {
+        LauncherConfig config = LauncherConfig.builder().enablePostDiscoveryFilterAutoRegistration(false).build();
+        Set<String> seen = new HashSet<>();
+        int total = 0;
+        for (int shard = 0; shard < 3; shard++) {
+            ShardFilter filter = new ShardFilter(shard, 3, () -> Map.of(Methods.class.getName() + "#slow()", 5_000L));
+            TestPlan plan = LauncherFactory.create(config)
+                    .discover(LauncherDiscoveryRequestBuilder.request()
+                            .selectors(selectClass(Methods.class))
+                            .filters(filter)
+                            .build());
+            List<String> methods = plan.getRoots().stream()
+                    .flatMap(root -> plan.getDescendants(root).stream())
+                    .filter(TestIdentifier::isTest)
+                    .map(TestIdentifier::getDisplayName)
+                    .toList();
+            total += methods.size();
+            seen.addAll(methods);
+        }
+        assertEquals(Set.of("fast()", "medium()", "slow()", "parameters(String)"), seen);
+        assertEquals(4, total, "No method may run in two shards");
+    }
+
+    // Only discovered by the test above; never enabled, so a -Dtest run that includes nested classes skips it
+    @EnabledIfSystemProperty(named = "shard.fixture", matches = "true")
+    static class Methods {
+
+        @Test
+        void fast() {
+        }
+
+        @Test
+        void medium() {
+        }
+
+        @Test
+        void slow() {
+        }
+
+        @Test
+        void parameters(String unused) {
+        }
+    }
+}
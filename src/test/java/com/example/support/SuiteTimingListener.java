@@ -0,0 +1,146 @@
+package com.example.support;
+
+import com.example.log.Log;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the wall-clock time of each run, keyed by execution mode and the tests it selected.
+ *
+ * Each run writes {@code serial-<selection>.properties} or
+ * {@code parallel-<selection>.properties} to {@code target/suite-timing}
+ * (override with {@code -Dsuite.timing.dir}), where the selection is a hash of
+ * the ids of the tests in the plan. A parallel run prints its wall-clock
+ * speedup over the last serial run of the same tests only, so a partial run
+ * ({@code -Dtest=...}, one shard) is never compared with the full suite.
+ * Registered through {@code META-INF/services}.
+ */
+public class SuiteTimingListener implements TestExecutionListener {
+
+    private static final String PARALLEL_ENABLED = "junit.jupiter.execution.parallel.enabled";
+
+    private final Map<String, Long> started = new ConcurrentHashMap<>();
+    private final LongAdder testNanos = new LongAdder();
+    private final AtomicInteger tests = new AtomicInteger();
+    private long planStart;
+    private boolean parallel;
+    private String selection;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        parallel = testPlan.getConfigurationParameters().getBoolean(PARALLEL_ENABLED).orElse(false);
+        selection = selection(testPlan);
+        planStart = System.nanoTime();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (testIdentifier.isTest()) {
+            started.put(testIdentifier.getUniqueId(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        Long start = started.remove(testIdentifier.getUniqueId());
+        if (start != null) {
+            testNanos.add(System.nanoTime() - start);
+            tests.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (tests.get() == 0) {
+            return;
+        }
+        long wallMillis = (System.nanoTime() - planStart) / 1_000_000;
+        long testMillis = testNanos.sum() / 1_000_000;
+
+        Properties run = new Properties();
+        run.setProperty("tests", String.valueOf(tests.get()));
+        run.setProperty("wallClockMillis", String.valueOf(wallMillis));
+        run.setProperty("testTimeMillis", String.valueOf(testMillis));
+        run.setProperty("selection", selection);
+
+        Path dir = Paths.get(System.getProperty("suite.timing.dir", "target/suite-timing"));
+        String mode = parallel ? "parallel" : "serial";
+        try {
+            Files.createDirectories(dir);
+            try (Writer out = Files.newBufferedWriter(dir.resolve(mode + "-" + selection + ".properties"))) {
+                run.store(out, "Suite timing, " + mode + " mode");
+            }
+        } catch (IOException e) {
+            Log.warn("Could not write suite timing: {}", e.getMessage());
+        }
+
+        Log.info("Suite wall-clock ({}): {}ms for {} tests, {}ms of test time", mode, wallMillis, tests.get(),
+                testMillis);
+        if (parallel) {
+            Long serialMillis = readWallClock(dir.resolve("serial-" + selection + ".properties"));
+            if (serialMillis == null) {
+                Log.info("No serial run of the same {} tests to compare with", tests.get());
+            } else if (wallMillis > 0) {
+                Log.info("Parallel speedup vs last serial run of the same tests: {}x ({}ms -> {}ms)",
+                        String.format("%.2f", (double) serialMillis / wallMillis), serialMillis, wallMillis);
+            }
+        }
+    }
+
+    // Sorted so the hash depends only on which tests were selected, not on discovery order
+    static String selection(TestPlan testPlan) {
+        List<String> ids = new ArrayList<>();
+        for (TestIdentifier root : testPlan.getRoots()) {
+            for (TestIdentifier descendant : testPlan.getDescendants(root)) {
+                if (descendant.isTest()) {
+                    ids.add(descendant.getUniqueId());
+                }
+            }
+        }
+        Collections.sort(ids);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String id : ids) {
+                digest.update(id.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is part of every JDK", e);
+        }
+    }
+
+    private static Long readWallClock(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file)) {
+            properties.load(in);
+            return Long.valueOf(properties.getProperty("wallClockMillis"));
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.support;
+
+import com.example.scenario.DataSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Opens the data file a data-driven test reads its rows from.
+ *
+ * Tests ship a small file under {@code src/test/resources/data}; a system
+ * property can point them at a production-sized CSV or JSONL file instead,
+ * e.g. {@code -Dsearch.data=/data/queries.jsonl}.
+ */
+public final class TestData {
+
+    private TestData() {
+    }
+
+    public static DataSource open(String property, String resource) {
+        try {
+            String override = System.getProperty(property);
+            return DataSource.open(override != null ? Path.of(override) : resource(resource));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path resource(String name) {
+        URL url = TestData.class.getResource("/data/" + name);
+        if (url == null) {
+            throw new IllegalArgumentException("No test data file data/" + name + " on the classpath");
+        }
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Bad test data location: " + url, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.support;
+
+import com.example.log.Log;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every test method of the run for the next {@link ShardPlan}.
+ *
+ * A method is timed from start to finish of its outermost descriptor, so a
+ * parameterized or retried method counts with all its invocations. Unsharded
+ * runs fold the times into {@link TestDurations#defaultFile()}; a shard writes
+ * them to {@code durations.properties} in {@code -Dshard.dir} (default
+ * {@code target/shards/shard-<index>}) for {@link ShardMerge} to fold in.
+ * Registered through {@code META-INF/services}.
+ */
+public class TestDurationListener implements TestExecutionListener {
+
+    private final Map<String, Long> started = new ConcurrentHashMap<>();
+    private TestPlan testPlan;
+    private TestDurations durations;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        this.testPlan = testPlan;
+        try {
+            durations = TestDurations.load(TestDurations.defaultFile());
+        } catch (IOException e) {
+            Log.warn("Could not read test durations: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (isMethod(testIdentifier)) {
+            started.put(testIdentifier.getUniqueId(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        Long start = started.remove(testIdentifier.getUniqueId());
+        if (start != null && durations != null) {
+            durations.record(ShardPlan.unitOf(testIdentifier.getSource().orElseThrow()),
+                    Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (durations == null || durations.measured().isEmpty()) {
+            return;
+        }
+        int count = Integer.getInteger("shard.count", 1);
+        try {
+            if (count > 1) {
+                Path dir = Paths.get(System.getProperty("shard.dir",
+                        "target/shards/shard-" + Integer.getInteger("shard.index", 0)));
+                durations.writeMeasured(dir.resolve(TestDurations.FILE));
+            } else {
+                durations.save();
+            }
+        } catch (IOException e) {
+            Log.warn("Could not write test durations: {}", e.getMessage());
+        }
+    }
+
+    // The outermost descriptor of a method; invocations of templates and parameterized tests sit below it
+    private boolean isMethod(TestIdentifier identifier) {
+        if (ShardPlan.unitOf(identifier.getSource().orElse(null)) == null) {
+            return false;
+        }
+        return testPlan.getParent(identifier)
+                .flatMap(TestIdentifier::getSource)
+                .map(source -> ShardPlan.unitOf(source) == null)
+                .orElse(true);
+    }
+}
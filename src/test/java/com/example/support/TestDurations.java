@@ -0,0 +1,123 @@
+package com.example.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recorded duration of each test method, in milliseconds, as used by {@link ShardPlan}.
+ *
+ * The history lives in {@code target/test-durations/durations.properties}
+ * (override with {@code -Dshard.durations.dir}); cache that directory between
+ * CI runs. A new measurement is averaged with the recorded one, so a single
+ * slow run does not reshuffle every shard. Measurements of one shard are
+ * written on their own by {@link #writeMeasured(Path)} and folded into the
+ * history by {@link ShardMerge}, so the file shards plan from never changes
+ * while they run.
+ */
+public class TestDurations {
+
+    public static final String FILE = "durations.properties";
+
+    private final Path file;
+    private final Map<String, Long> recorded;
+    private final Map<String, Long> measured = new ConcurrentHashMap<>();
+
+    private TestDurations(Path file, Map<String, Long> recorded) {
+        this.file = file;
+        this.recorded = recorded;
+    }
+
+    public static TestDurations load(Path file) throws IOException {
+        return new TestDurations(file, read(file));
+    }
+
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("shard.durations.dir", "target/test-durations")).resolve(FILE);
+    }
+
+    /**
+     * Recorded durations, without this run's measurements.
+     */
+    public Map<String, Long> recorded() {
+        return Map.copyOf(recorded);
+    }
+
+    public Map<String, Long> measured() {
+        return Map.copyOf(measured);
+    }
+
+    public void record(String unit, Duration elapsed) {
+        measured.put(unit, elapsed.toMillis());
+    }
+
+    /**
+     * Folds this run's measurements into the history file, re-reading it under a lock first.
+     */
+    public void save() throws IOException {
+        if (measured.isEmpty()) {
+            return;
+        }
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        try (FileChannel channel = FileChannel.open(dir.resolve(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Released when the channel closes
+            channel.lock();
+            Map<String, Long> merged = read(file);
+            measured.forEach((unit, millis) -> merged.merge(unit, millis, (previous, next) -> (previous + next) / 2));
+            write(merged, file, "test method durations in ms, averaged over runs");
+            recorded.putAll(merged);
+            measured.clear();
+        }
+    }
+
+    /**
+     * Writes only this run's measurements to {@code target}, replacing it.
+     */
+    public void writeMeasured(Path target) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        write(new HashMap<>(measured), target, "test method durations in ms, measured by one shard");
+    }
+
+    static Map<String, Long> read(Path file) throws IOException {
+        Map<String, Long> durations = new HashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return durations;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        for (String unit : properties.stringPropertyNames()) {
+            try {
+                durations.put(unit, Long.parseLong(properties.getProperty(unit)));
+            } catch (NumberFormatException e) {
+                // A hand-edited entry; the test is planned as unknown instead
+            }
+        }
+        return durations;
+    }
+
+    private static void write(Map<String, Long> durations, Path target, String comment) throws IOException {
+        Properties properties = new Properties();
+        durations.forEach((unit, millis) -> properties.setProperty(unit, String.valueOf(millis)));
+        Path dir = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, comment);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
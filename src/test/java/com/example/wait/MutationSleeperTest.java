@@ -0,0 +1,168 @@
+package com.example.wait;
+
+import com.example.driver.BrowserContexts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriver.TargetLocator;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MutationSleeperTest {
+
+    // Arguments of each executeAsyncScript call: seen, gap in ms, quiet in ms
+    private final List<List<Object>> calls = new ArrayList<>();
+    private final AtomicInteger changes = new AtomicInteger();
+    private boolean navigating;
+
+    @AfterEach
+    public void restore() {
+        System.clearProperty("wait.mode");
+    }
+
+    @Test
+    @DisplayName("Each sleep hands the page the change count it last saw and a growing gap")
+    public void testSleeps() throws InterruptedException {
+        MutationSleeper sleeper = new MutationSleeper(js(), Duration.ofMillis(50), Duration.ofMillis(100), 1.5,
+                Duration.ofSeconds(1));
+
+        sleeper.sleep(Duration.ZERO);
+        sleeper.sleep(Duration.ZERO);
+        sleeper.sleep(Duration.ZERO);
+
+        assertEquals(3, sleeper.sleeps());
+        assertEquals(List.of(-1L, 50L, 1000L), calls.get(0), "Nothing seen yet on the first sleep");
+        assertEquals(List.of(1L, 75L, 1000L), calls.get(1));
+        assertEquals(List.of(2L, 100L, 1000L), calls.get(2), "The gap stops at the maximum");
+    }
+
+    @Test
+    @DisplayName("A navigation under the script wakes the wait after the gap and starts counting afresh")
+    public void testNavigation() throws InterruptedException {
+        MutationSleeper sleeper = new MutationSleeper(js(), Duration.ofMillis(40), Duration.ofMillis(40), 1.0,
+                Duration.ofSeconds(1));
+        sleeper.sleep(Duration.ZERO);
+        navigating = true;
+
+        long start = System.nanoTime();
+        sleeper.sleep(Duration.ZERO);
+        navigating = false;
+        sleeper.sleep(Duration.ZERO);
+
+        assertTrue(System.nanoTime() - start >= 40_000_000, "A failing script must not turn into a busy loop");
+        assertEquals(-1L, calls.get(2).get(0));
+    }
+
+    @Test
+    @DisplayName("Push waits re-check on page changes and record each check")
+    public void testPushWait() {
+        AdaptiveWait waits = new AdaptiveWait(driver(), Duration.ofSeconds(5)).withMode(AdaptiveWait.Mode.PUSH);
+
+        String found = waits.until("third change", driver -> changes.get() >= 3 ? "ready" : null);
+
+        assertEquals("ready", found);
+        assertEquals(3, calls.size(), "One script per change, no polling in between");
+        assertEquals(4, waits.records().get(0).polls());
+    }
+
+    @Test
+    @DisplayName("Poll mode and drivers without JavaScript don't touch the page")
+    public void testPolling() {
+        System.setProperty("wait.mode", "poll");
+        AdaptiveWait polling = new AdaptiveWait(driver(), Duration.ofSeconds(5));
+        AtomicInteger checks = new AtomicInteger();
+
+        polling.until("second check", driver -> checks.incrementAndGet() >= 2 ? true : null);
+
+        assertEquals(AdaptiveWait.Mode.POLL, AdaptiveWait.Mode.configured());
+        assertTrue(calls.isEmpty());
+        WebDriver plain = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class}, (proxy, method, args) -> null);
+        new AdaptiveWait(plain, Duration.ofSeconds(5)).withMode(AdaptiveWait.Mode.PUSH)
+                .until("second check", driver -> checks.incrementAndGet() >= 4 ? true : null);
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Waits in one browser context are polled, so they never hold up the other contexts")
+    public void testContextsArePolled() throws InterruptedException {
+        try (BrowserContexts contexts = new BrowserContexts(sharedBrowser())) {
+            WebDriver waiting = contexts.openContext("waiting");
+            WebDriver other = contexts.openContext("other");
+            AtomicInteger checks = new AtomicInteger();
+            Thread wait = Thread.ofPlatform().start(() -> new AdaptiveWait(waiting, Duration.ofSeconds(5))
+                    .withMode(AdaptiveWait.Mode.PUSH)
+                    .until("fifth check", driver -> checks.incrementAndGet() >= 5 ? true : null));
+
+            long slowest = 0;
+            while (wait.isAlive()) {
+                long start = System.nanoTime();
+                other.getTitle();
+                slowest = Math.max(slowest, System.nanoTime() - start);
+                Thread.sleep(10);
+            }
+
+            assertEquals(5, checks.get());
+            assertTrue(calls.isEmpty(), "A push check would hold the browser for up to a second");
+            assertTrue(slowest < 250_000_000, "The other context waited " + slowest / 1_000_000 + "ms");
+            assertTrue(BrowserContexts.isContextDriver(other));
+            assertFalse(BrowserContexts.isContextDriver(driver()));
+        }
+    }
+
+    private JavascriptExecutor js() {
+        return (JavascriptExecutor) driver();
+    }
+
+    // Every script call stands for one change in the page
+    private WebDriver driver() {
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("executeAsyncScript")) {
+                        return null;
+                    }
+                    Object[] scriptArgs = (Object[]) args[1];
+                    calls.add(List.of(scriptArgs[0], scriptArgs[1], scriptArgs[2]));
+                    if (navigating) {
+                        throw new JavascriptException("javascript error: document unloaded while waiting for result");
+                    }
+                    return (long) changes.incrementAndGet();
+                });
+    }
+
+    // One Chromium session for all contexts; a page script answers only after the one-second quiet time
+    private WebDriver sharedBrowser() {
+        AtomicLong targets = new AtomicLong();
+        TargetLocator switchTo = (TargetLocator) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{TargetLocator.class}, (proxy, method, args) -> null);
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class, HasCdp.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getWindowHandle" -> "original";
+                    case "switchTo" -> switchTo;
+                    case "executeAsyncScript" -> {
+                        calls.add(List.of(((Object[]) args[1])[0]));
+                        Thread.sleep(1_000);
+                        yield 0L;
+                    }
+                    case "executeCdpCommand" -> Map.of("browserContextId", "context-" + targets.incrementAndGet(),
+                            "targetId", "tab-" + targets.incrementAndGet());
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+}